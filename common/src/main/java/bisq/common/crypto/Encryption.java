@@ -19,8 +19,6 @@ package bisq.common.crypto;
 
 import bisq.common.util.Utilities;
 
-import org.bouncycastle.util.encoders.Hex;
-
 import javax.crypto.Cipher;
 import javax.crypto.KeyGenerator;
 import javax.crypto.Mac;
@@ -41,11 +39,11 @@ import java.security.spec.InvalidKeySpecException;
 import java.security.spec.MGF1ParameterSpec;
 import java.security.spec.X509EncodedKeySpec;
 
+import java.nio.ByteBuffer;
+
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 
-import java.util.Arrays;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -60,6 +58,24 @@ public class Encryption {
     private static final String SYM_CIPHER = "AES";
 
     private static final String HMAC = "HmacSHA256";
+    private static final int HMAC_LENGTH = 32;
+
+    // Cipher and Mac instances are expensive to create but not thread safe, so we keep one per thread and
+    // initialize it with the key at each use.
+    private static final ThreadLocal<Cipher> SYM_CIPHER_INSTANCE = ThreadLocal.withInitial(() -> {
+        try {
+            return Cipher.getInstance(SYM_CIPHER);
+        } catch (Throwable e) {
+            throw new RuntimeException("Could not create cipher", e);
+        }
+    });
+    private static final ThreadLocal<Mac> HMAC_INSTANCE = ThreadLocal.withInitial(() -> {
+        try {
+            return Mac.getInstance(HMAC);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("Could not create mac", e);
+        }
+    });
 
     public static KeyPair generateKeyPair() {
         long ts = System.currentTimeMillis();
@@ -83,7 +99,7 @@ public class Encryption {
 
     public static byte[] encrypt(byte[] payload, SecretKey secretKey) throws CryptoException {
         try {
-            Cipher cipher = Cipher.getInstance(SYM_CIPHER);
+            Cipher cipher = SYM_CIPHER_INSTANCE.get();
             cipher.init(Cipher.ENCRYPT_MODE, secretKey);
             return cipher.doFinal(payload);
         } catch (Throwable e) {
@@ -94,7 +110,7 @@ public class Encryption {
 
     public static byte[] decrypt(byte[] encryptedPayload, SecretKey secretKey) throws CryptoException {
         try {
-            Cipher cipher = Cipher.getInstance(SYM_CIPHER);
+            Cipher cipher = SYM_CIPHER_INSTANCE.get();
             cipher.init(Cipher.DECRYPT_MODE, secretKey);
             return cipher.doFinal(encryptedPayload);
         } catch (Throwable e) {
@@ -148,23 +164,35 @@ public class Encryption {
     }
 
 
-    private static boolean verifyHmac(byte[] message, byte[] hmac, SecretKey secretKey) {
+    private static byte[] getHmac(byte[] payload, SecretKey secretKey) throws NoSuchAlgorithmException, InvalidKeyException, NoSuchProviderException {
+        Mac mac = HMAC_INSTANCE.get();
+        mac.init(secretKey);
+        return mac.doFinal(payload);
+    }
+
+    // Verifies the hmac stored after the payload in the same buffer without copying payload or hmac.
+    private static boolean verifyHmac(byte[] payloadWithHmac, int payloadLength, SecretKey secretKey) {
         try {
-            byte[] hmacTest = getHmac(message, secretKey);
-            return Arrays.equals(hmacTest, hmac);
+            Mac mac = HMAC_INSTANCE.get();
+            mac.init(secretKey);
+            mac.update(payloadWithHmac, 0, payloadLength);
+            byte[] hmacTest = mac.doFinal();
+            if (hmacTest.length != payloadWithHmac.length - payloadLength)
+                return false;
+
+            // Constant time comparison
+            int result = 0;
+            for (int i = 0; i < hmacTest.length; i++) {
+                result |= hmacTest[i] ^ payloadWithHmac[payloadLength + i];
+            }
+            return result == 0;
         } catch (Throwable e) {
             log.error(e.toString());
             e.printStackTrace();
-            throw new RuntimeException("Could not create cipher");
+            throw new RuntimeException("Could not create hmac");
         }
     }
 
-    private static byte[] getHmac(byte[] payload, SecretKey secretKey) throws NoSuchAlgorithmException, InvalidKeyException, NoSuchProviderException {
-        Mac mac = Mac.getInstance(HMAC);
-        mac.init(secretKey);
-        return mac.doFinal(payload);
-    }
-
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Symmetric with Hmac
@@ -175,17 +203,24 @@ public class Encryption {
         return encrypt(getPayloadWithHmac(payload, secretKey), secretKey);
     }
 
-    public static byte[] decryptPayloadWithHmac(byte[] encryptedPayloadWithHmac, SecretKey secretKey) throws CryptoException {
+    /**
+     * Decrypts the payload and verifies its hmac. Returns a read only view on the payload within the decrypted
+     * buffer, so neither payload nor hmac get copied.
+     *
+     * @param encryptedPayloadWithHmac  Encrypted payload with the hmac appended
+     * @param secretKey                 Secret key used for encryption and hmac
+     * @return Read only buffer of the payload
+     * @throws CryptoException If decryption fails or the hmac does not match
+     */
+    public static ByteBuffer decryptPayloadWithHmacAsBuffer(byte[] encryptedPayloadWithHmac, SecretKey secretKey) throws CryptoException {
         byte[] payloadWithHmac = decrypt(encryptedPayloadWithHmac, secretKey);
-        String payloadWithHmacAsHex = Hex.toHexString(payloadWithHmac);
-        // first part is raw message
-        int length = payloadWithHmacAsHex.length();
-        int sep = length - 64;
-        String payloadAsHex = payloadWithHmacAsHex.substring(0, sep);
-        // last 64 bytes is hmac
-        String hmacAsHex = payloadWithHmacAsHex.substring(sep, length);
-        if (verifyHmac(Hex.decode(payloadAsHex), Hex.decode(hmacAsHex), secretKey)) {
-            return Hex.decode(payloadAsHex);
+        // first part is raw message, last 32 bytes is hmac
+        int payloadLength = payloadWithHmac.length - HMAC_LENGTH;
+        if (payloadLength < 0)
+            throw new CryptoException("Decrypted payload is shorter than the hmac.");
+
+        if (verifyHmac(payloadWithHmac, payloadLength, secretKey)) {
+            return ByteBuffer.wrap(payloadWithHmac, 0, payloadLength).slice().asReadOnlyBuffer();
         } else {
             throw new CryptoException("Hmac does not match.");
         }
@@ -0,0 +1,105 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.proto;
+
+import bisq.common.util.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Maps the message cases of a proto message with a oneof field to the decoders of the domain objects. The decoders are
+ * registered once at construction of the resolver, so resolving a message is a single lookup.
+ * <p></p>
+ * The number of decoded messages and the decode time in microseconds are recorded per message case.
+ *
+ * @param <C> Enum of the message cases
+ * @param <P> Proto message
+ * @param <R> Domain object
+ */
+public class ProtoDispatchTable<C extends Enum<C>, P, R> {
+    private final String name;
+    private final Map<C, Function<P, ? extends R>> decoders;
+    private final Map<C, LatencyHistogram> decodeTimes;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public ProtoDispatchTable(String name, Class<C> messageCaseClass) {
+        this.name = name;
+        decoders = new EnumMap<>(messageCaseClass);
+        decodeTimes = new EnumMap<>(messageCaseClass);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Not thread safe. All decoders need to be registered before the first message gets decoded.
+    public ProtoDispatchTable<C, P, R> register(C messageCase, Function<P, ? extends R> decoder) {
+        checkArgument(!decoders.containsKey(messageCase), "Decoder for " + messageCase + " is already registered");
+        decoders.put(messageCase, decoder);
+        decodeTimes.put(messageCase, new LatencyHistogram());
+        return this;
+    }
+
+    public boolean canDecode(C messageCase) {
+        return decoders.containsKey(messageCase);
+    }
+
+    public R decode(C messageCase, P proto) {
+        Function<P, ? extends R> decoder = decoders.get(messageCase);
+        checkArgument(decoder != null, "No decoder registered for " + messageCase);
+        long ts = System.nanoTime();
+        R result = decoder.apply(proto);
+        decodeTimes.get(messageCase).record((System.nanoTime() - ts) / 1000);
+        return result;
+    }
+
+    public long getDecodeCount(C messageCase) {
+        LatencyHistogram decodeTime = decodeTimes.get(messageCase);
+        return decodeTime != null ? decodeTime.getCount() : 0;
+    }
+
+    /**
+     * @return The decode counts and times of all message cases which got decoded, the most frequent first
+     */
+    public String getReport() {
+        List<Map.Entry<C, LatencyHistogram>> entries = new ArrayList<>(decodeTimes.entrySet());
+        entries.removeIf(entry -> entry.getValue().getCount() == 0);
+        entries.sort(Comparator.comparingLong((Map.Entry<C, LatencyHistogram> entry) -> entry.getValue().getCount()).reversed());
+
+        StringBuilder sb = new StringBuilder("Decoded ").append(name).append(" messages (count, decode time in µs: mean, p50, p99, max)");
+        entries.forEach(entry -> {
+            LatencyHistogram decodeTime = entry.getValue();
+            sb.append("\n").append(String.format("%8d %8.0f %8d %8d %8d  %s", decodeTime.getCount(), decodeTime.getMean(),
+                    decodeTime.getValueAtPercentile(50), decodeTime.getValueAtPercentile(99), decodeTime.getMax(),
+                    entry.getKey()));
+        });
+        return sb.toString();
+    }
+}
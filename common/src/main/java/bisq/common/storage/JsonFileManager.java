@@ -23,22 +23,59 @@ import bisq.common.util.Utilities;
 import org.json.simple.parser.JSONParser;
 import org.json.simple.parser.ParseException;
 
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Paths;
 
+import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.IOException;
-import java.io.PrintWriter;
-
-import java.util.concurrent.ThreadPoolExecutor;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
+/**
+ * Writes json files in the background. Only the latest version of a file gets written: if a file is written or deleted
+ * again before a pending operation got executed, the pending operation gets replaced. The operations on one file are
+ * executed in the order they got submitted, so the file always ends up with the content of the last call.
+ * <p></p>
+ * A file is written to a temp file first which then replaces the file, so readers never see a partially written file.
+ */
 @Slf4j
 public class JsonFileManager {
-    private final ThreadPoolExecutor executor = Utilities.getThreadPoolExecutor("saveToDiscExecutor", 5, 50, 60);
+    public interface ContentWriter {
+        void write(Writer writer) throws IOException;
+    }
+
+    private final ExecutorService executor = Utilities.getListeningFixedThreadPoolExecutor("saveToDiscExecutor", 5, 60);
     private final File dir;
+    // The latest pending operation by file name. There is at most one per file, so the memory held by pending writes
+    // is bounded by the number of files and not by the number of calls.
+    private final Map<String, PendingOperation> pendingOperations = new HashMap<>();
+    // Files which have a task queued or running in the executor
+    private final Set<String> scheduledFileNames = new HashSet<>();
+
+    private static class PendingOperation {
+        // Null for a delete
+        @Nullable
+        private final ContentWriter contentWriter;
+
+        PendingOperation(@Nullable ContentWriter contentWriter) {
+            this.contentWriter = contentWriter;
+        }
+    }
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -66,51 +103,139 @@ public class JsonFileManager {
         }
     }
 
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
     public void writeToDisc(String json, String fileName) {
-        executor.execute(() -> {
-            File jsonFile = new File(Paths.get(dir.getAbsolutePath(), fileName + ".json").toString());
-            File tempFile = null;
-            PrintWriter printWriter = null;
-            try {
-                tempFile = File.createTempFile("temp", null, dir);
-                if (!executor.isShutdown() && !executor.isTerminated() && !executor.isTerminating())
-                    tempFile.deleteOnExit();
-
-                printWriter = new PrintWriter(tempFile);
-                printWriter.println(json);
-
-                // This close call and comment is borrowed from FileManager. Not 100% sure it that is really needed but
-                // seems that had fixed in the past and we got reported issues on Windows so that fix might be still
-                // required.
-                // Close resources before replacing file with temp file because otherwise it causes problems on windows
-                // when rename temp file
-                printWriter.close();
-
-                FileUtil.renameFile(tempFile, jsonFile);
-            } catch (Throwable t) {
-                log.error("storageFile " + jsonFile.toString());
-                t.printStackTrace();
-            } finally {
-                if (tempFile != null && tempFile.exists()) {
-                    log.warn("Temp file still exists after failed save. We will delete it now. storageFile=" + fileName);
-                    if (!tempFile.delete())
-                        log.error("Cannot delete temp file.");
-                }
+        writeToDisc(writer -> {
+            writer.write(json);
+            writer.write(System.lineSeparator());
+        }, fileName);
+    }
 
-                if (printWriter != null)
-                    printWriter.close();
-            }
-        });
+    /**
+     * Serializes the object to json directly into the file. The serialization happens on a background thread, so the
+     * object must not be changed after it got passed.
+     */
+    public void writeToDiscAsJson(Object object, String fileName) {
+        writeToDisc(writer -> {
+            Utilities.objectToJson(object, writer);
+            writer.write(System.lineSeparator());
+        }, fileName);
+    }
+
+    /**
+     * The contentWriter gets called on a background thread, so it must only access data which does not change
+     * anymore.
+     */
+    public void writeToDisc(ContentWriter contentWriter, String fileName) {
+        submit(fileName, new PendingOperation(contentWriter));
+    }
+
+    public void deleteFile(String fileName) {
+        submit(fileName, new PendingOperation(null));
     }
 
     public Object readJsonFromDisc(String fileName) {
-        final File jsonFile = new File(Paths.get(dir.getAbsolutePath(), fileName + ".json").toString());
+        final File jsonFile = getJsonFile(fileName);
         JSONParser parser = new JSONParser();
-        try {
-            return parser.parse(new FileReader(jsonFile));
+        try (FileReader fileReader = new FileReader(jsonFile)) {
+            return parser.parse(fileReader);
         } catch (ParseException | IOException e) {
             e.printStackTrace();
             throw new RuntimeException(e);
         }
     }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void submit(String fileName, PendingOperation operation) {
+        synchronized (pendingOperations) {
+            pendingOperations.put(fileName, operation);
+            if (!scheduledFileNames.add(fileName))
+                return;  // The scheduled task will execute the latest operation
+        }
+        try {
+            executor.execute(() -> executePendingOperations(fileName));
+        } catch (RejectedExecutionException e) {
+            log.warn("We have shut down already. We ignore the operation on file {}", fileName);
+            synchronized (pendingOperations) {
+                pendingOperations.remove(fileName);
+                scheduledFileNames.remove(fileName);
+            }
+        }
+    }
+
+    // Only one task per file name is scheduled at a time, so the operations on a file don't overtake each other
+    private void executePendingOperations(String fileName) {
+        while (true) {
+            PendingOperation operation;
+            synchronized (pendingOperations) {
+                operation = pendingOperations.remove(fileName);
+                if (operation == null) {
+                    scheduledFileNames.remove(fileName);
+                    return;
+                }
+            }
+
+            if (operation.contentWriter != null)
+                write(operation.contentWriter, fileName);
+            else
+                delete(fileName);
+        }
+    }
+
+    private void write(ContentWriter contentWriter, String fileName) {
+        File jsonFile = getJsonFile(fileName);
+        File tempFile = null;
+        Writer writer = null;
+        try {
+            tempFile = File.createTempFile("temp", null, dir);
+            if (!executor.isShutdown())
+                tempFile.deleteOnExit();
+
+            writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(tempFile), StandardCharsets.UTF_8));
+            contentWriter.write(writer);
+
+            // This close call and comment is borrowed from FileManager. Not 100% sure it that is really needed but
+            // seems that had fixed in the past and we got reported issues on Windows so that fix might be still
+            // required.
+            // Close resources before replacing file with temp file because otherwise it causes problems on windows
+            // when rename temp file
+            writer.close();
+
+            FileUtil.renameFile(tempFile, jsonFile);
+        } catch (Throwable t) {
+            log.error("storageFile " + jsonFile.toString());
+            t.printStackTrace();
+        } finally {
+            if (tempFile != null && tempFile.exists()) {
+                log.warn("Temp file still exists after failed save. We will delete it now. storageFile=" + fileName);
+                if (!tempFile.delete())
+                    log.error("Cannot delete temp file.");
+            }
+
+            if (writer != null) {
+                try {
+                    writer.close();
+                } catch (IOException ignore) {
+                }
+            }
+        }
+    }
+
+    private void delete(String fileName) {
+        File jsonFile = getJsonFile(fileName);
+        if (jsonFile.exists() && !jsonFile.delete())
+            log.error("Cannot delete file " + jsonFile);
+    }
+
+    private File getJsonFile(String fileName) {
+        return new File(Paths.get(dir.getAbsolutePath(), fileName + ".json").toString());
+    }
 }
@@ -0,0 +1,244 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.storage;
+
+import bisq.common.proto.persistable.PersistableEnvelope;
+import bisq.common.proto.persistable.PersistenceProtoResolver;
+import bisq.common.util.Utilities;
+
+import com.google.inject.Inject;
+
+import javax.inject.Named;
+
+import java.nio.file.Paths;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Persists a collection of items in a dedicated directory with one file per item, so a change of an item only
+ * rewrites the file of that item and not the whole collection. The key of an item is used as file name and the
+ * directory listing is the manifest of the stored items.
+ * <p></p>
+ * Writes are delayed and coalesced per key, so repeated changes of an item within the delay result in one write of
+ * the latest state. Files are written on a single background thread to a temp file which replaces the old file by a
+ * rename, as in FileManager. Pending writes are flushed at shutdown.
+ * Corrupted files are moved to the backup_of_corrupted_data directory.
+ */
+@Slf4j
+public class ShardedStorage<T extends PersistableEnvelope> {
+    private static final Pattern VALID_KEY = Pattern.compile("[A-Za-z0-9_.\\-]+");
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+    private final File storageDir;
+    private final PersistenceProtoResolver persistenceProtoResolver;
+    private final CorruptedDatabaseFilesHandler corruptedDatabaseFilesHandler;
+
+    private File dir;
+    private long delay;
+    private ScheduledThreadPoolExecutor executor;
+    // A null value marks a pending removal. Guarded by this.
+    private final Map<String, T> pendingByKey = new HashMap<>();
+    private boolean flushScheduled;
+    private final Object writeLock = new Object();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Inject
+    public ShardedStorage(@Named(Storage.STORAGE_DIR) File storageDir,
+                          PersistenceProtoResolver persistenceProtoResolver,
+                          CorruptedDatabaseFilesHandler corruptedDatabaseFilesHandler) {
+        this.storageDir = storageDir;
+        this.persistenceProtoResolver = persistenceProtoResolver;
+        this.corruptedDatabaseFilesHandler = corruptedDatabaseFilesHandler;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * @param dirName   Name of the directory inside the storage directory
+     * @param delay     Delay in ms for coalescing writes
+     * @return All persisted items by key, sorted by key
+     */
+    public Map<String, T> initAndGetPersisted(String dirName, long delay) {
+        this.dir = new File(storageDir, dirName);
+        this.delay = delay;
+        executor = Utilities.getScheduledThreadPoolExecutor("ShardedStorage-" + dirName, 1, 1, 5);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "ShardedStorage.ShutDownHook"));
+
+        Map<String, T> result = new TreeMap<>();
+        File[] files = dir.listFiles();
+        if (files != null) {
+            long ts = System.currentTimeMillis();
+            Arrays.stream(files)
+                    .filter(File::isFile)
+                    .filter(file -> !file.getName().endsWith(TEMP_FILE_SUFFIX))
+                    .forEach(file -> {
+                        T persisted = read(file);
+                        if (persisted != null)
+                            result.put(file.getName(), persisted);
+                    });
+            log.info("Reading {} files from {} took {} ms", result.size(), dir, System.currentTimeMillis() - ts);
+        }
+        return result;
+    }
+
+    public void queueUpForSave(String key, T persistable) {
+        checkNotNull(persistable, "persistable must not be null");
+        queueUp(key, persistable);
+    }
+
+    public void remove(String key) {
+        queueUp(key, null);
+    }
+
+    // Writes the item synchronously on the calling thread.
+    public void saveNow(String key, T persistable) {
+        checkKey(key);
+        synchronized (writeLock) {
+            synchronized (this) {
+                pendingByKey.remove(key);
+            }
+            write(key, persistable);
+        }
+    }
+
+    // Writes all pending changes synchronously on the calling thread.
+    public void flush() {
+        synchronized (writeLock) {
+            Map<String, T> pending;
+            synchronized (this) {
+                pending = new HashMap<>(pendingByKey);
+                pendingByKey.clear();
+                flushScheduled = false;
+            }
+            pending.forEach((key, persistable) -> {
+                if (persistable != null)
+                    write(key, persistable);
+                else
+                    delete(key);
+            });
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void queueUp(String key, @Nullable T persistable) {
+        checkKey(key);
+        synchronized (this) {
+            pendingByKey.put(key, persistable);
+            if (flushScheduled)
+                return;
+
+            flushScheduled = true;
+        }
+        executor.schedule(() -> {
+            try {
+                flush();
+            } catch (Throwable t) {
+                log.error("Error at flush", t);
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void checkKey(String key) {
+        checkNotNull(dir, "dir = null. Call initAndGetPersisted before using read/write.");
+        checkArgument(VALID_KEY.matcher(key).matches() && !key.endsWith(TEMP_FILE_SUFFIX),
+                "Key must be usable as file name. key=" + key);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Nullable
+    private T read(File file) {
+        try (FileInputStream fileInputStream = new FileInputStream(file)) {
+            protobuf.PersistableEnvelope proto = protobuf.PersistableEnvelope.parseDelimitedFrom(fileInputStream);
+            return (T) persistenceProtoResolver.fromProto(proto);
+        } catch (Throwable t) {
+            log.error("We cannot read the persisted data. We make a backup and remove the inconsistent file. file={}",
+                    file, t);
+            try {
+                FileManager.removeAndBackupFile(dir, file, file.getName(), "backup_of_corrupted_data");
+            } catch (IOException e) {
+                log.error("Backup of corrupted file failed", e);
+            }
+            if (corruptedDatabaseFilesHandler != null)
+                corruptedDatabaseFilesHandler.onFileCorrupted(Paths.get(dir.getName(), file.getName()).toString());
+            return null;
+        }
+    }
+
+    private void write(String key, T persistable) {
+        File storageFile = new File(dir, key);
+        File tempFile = null;
+        try {
+            protobuf.PersistableEnvelope proto = (protobuf.PersistableEnvelope) persistable.toProtoMessage();
+
+            if (!dir.exists() && !dir.mkdirs())
+                log.warn("make dir failed");
+
+            tempFile = File.createTempFile("temp", TEMP_FILE_SUFFIX, dir);
+            try (FileOutputStream fileOutputStream = new FileOutputStream(tempFile)) {
+                proto.writeDelimitedTo(fileOutputStream);
+                fileOutputStream.flush();
+                fileOutputStream.getFD().sync();
+            }
+            // Stream needs to be closed before the rename, otherwise it fails on windows
+            FileUtil.renameFile(tempFile, storageFile);
+        } catch (Throwable t) {
+            log.error("Error at write, storageFile=" + storageFile, t);
+        } finally {
+            if (tempFile != null && tempFile.exists()) {
+                log.warn("Temp file still exists after failed save. We will delete it now. storageFile=" + storageFile);
+                if (!tempFile.delete())
+                    log.error("Cannot delete temp file.");
+            }
+        }
+    }
+
+    private void delete(String key) {
+        File storageFile = new File(dir, key);
+        if (storageFile.exists() && !storageFile.delete())
+            log.warn("Could not delete file: " + storageFile);
+    }
+}
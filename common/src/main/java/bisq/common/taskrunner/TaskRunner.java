@@ -37,6 +37,7 @@ public class TaskRunner<T extends Model> {
     private boolean isCanceled;
 
     private Class<? extends Task> currentTask;
+    private long currentTaskStartTime;
 
 
     public TaskRunner(T sharedModel, ResultHandler resultHandler, ErrorMessageHandler errorMessageHandler) {
@@ -57,6 +58,7 @@ public class TaskRunner<T extends Model> {
     }
 
     public void run() {
+        TaskRunnerMetrics.onTaskRunnerStarted(sharedModel, System.nanoTime());
         next();
     }
 
@@ -66,12 +68,14 @@ public class TaskRunner<T extends Model> {
                 try {
                     currentTask = tasks.poll();
                     log.info("Run task: " + currentTask.getSimpleName());
+                    currentTaskStartTime = System.nanoTime();
                     currentTask.getDeclaredConstructor(TaskRunner.class, sharedModelClass).newInstance(this, sharedModel).run();
                 } catch (Throwable throwable) {
                     throwable.printStackTrace();
                     handleErrorMessage("Error at taskRunner: " + throwable.getMessage());
                 }
             } else {
+                TaskRunnerMetrics.onTaskRunnerCompleted(sharedModel, System.nanoTime());
                 resultHandler.handleResult();
             }
         }
@@ -82,7 +86,10 @@ public class TaskRunner<T extends Model> {
     }
 
     void handleComplete() {
+        long ts = System.nanoTime();
+        TaskRunnerMetrics.record(sharedModel, TaskRunnerMetrics.TASK, currentTask.getSimpleName(), ts - currentTaskStartTime);
         sharedModel.persist();
+        TaskRunnerMetrics.record(sharedModel, TaskRunnerMetrics.PERSIST, currentTask.getSimpleName(), System.nanoTime() - ts);
         next();
     }
 
@@ -0,0 +1,130 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.taskrunner;
+
+import bisq.common.util.LatencyHistogram;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Collects the durations of the task runners in histograms per model type, e.g. BuyerAsMakerTrade for the trade
+ * protocol of the buyer as maker. Durations are recorded in microseconds for:
+ * <ul>
+ * <li>{@link #TASK}: The wall time of a task from start to completion, including asynchronous work like waiting for a
+ * network or wallet callback.</li>
+ * <li>{@link #PERSIST}: The time for persisting the model after a completed task.</li>
+ * <li>{@link #WAIT}: The time between the completion of a task runner and the start of the next task runner for the
+ * same model, e.g. the time we wait for the trade message of the peer.</li>
+ * </ul>
+ */
+@Slf4j
+public class TaskRunnerMetrics {
+    public static final String TASK = "task";
+    public static final String PERSIST = "persist";
+    public static final String WAIT = "wait";
+
+    private static final Map<String, LatencyHistogram> histogramByKey = new ConcurrentHashMap<>();
+    // Weak keys so we do not keep the models in memory
+    private static final Map<Model, Long> lastCompletionTimeByModel = Collections.synchronizedMap(new WeakHashMap<>());
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public static Optional<LatencyHistogram> getHistogram(String modelName, String type, String name) {
+        return Optional.ofNullable(histogramByKey.get(getKey(modelName, type, name)));
+    }
+
+    public static String getReport() {
+        StringBuilder sb = new StringBuilder("Task runner timings in ms (model / type / name: count, min, mean, p50, p90, p99, max)");
+        new TreeMap<>(histogramByKey).forEach((key, histogram) -> sb.append("\n")
+                .append(key).append(": ")
+                .append(histogram.getCount()).append(", ")
+                .append(toMs(histogram.getMin())).append(", ")
+                .append(toMs(histogram.getMean())).append(", ")
+                .append(toMs(histogram.getValueAtPercentile(50))).append(", ")
+                .append(toMs(histogram.getValueAtPercentile(90))).append(", ")
+                .append(toMs(histogram.getValueAtPercentile(99))).append(", ")
+                .append(toMs(histogram.getMax())));
+        return sb.toString();
+    }
+
+    public static boolean isEmpty() {
+        return histogramByKey.isEmpty();
+    }
+
+    public static void writeReport(File file) {
+        try {
+            Files.write(file.toPath(), getReport().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            log.error("Writing the task runner timings to {} failed", file, e);
+        }
+    }
+
+    public static void clear() {
+        histogramByKey.clear();
+        lastCompletionTimeByModel.clear();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Package scope
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    static void onTaskRunnerStarted(Model model, long now) {
+        Long lastCompletionTime = lastCompletionTimeByModel.remove(model);
+        if (lastCompletionTime != null)
+            record(model, WAIT, WAIT, now - lastCompletionTime);
+    }
+
+    static void onTaskRunnerCompleted(Model model, long now) {
+        lastCompletionTimeByModel.put(model, now);
+    }
+
+    static void record(Model model, String type, String name, long durationInNanos) {
+        histogramByKey.computeIfAbsent(getKey(model.getClass().getSimpleName(), type, name), key -> new LatencyHistogram())
+                .record(Math.max(0, durationInNanos / 1000));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static String getKey(String modelName, String type, String name) {
+        return modelName + " / " + type + " / " + name;
+    }
+
+    private static String toMs(double micros) {
+        return String.format("%.3f", micros / 1000);
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.util;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Histogram with a fixed memory footprint for non-negative values like durations, similar to a HdrHistogram with a
+ * precision of one significant binary digit plus 3 bits. Each power of two range is split into 8 buckets, so values
+ * are stored with a relative error of at most 12.5%. Values below 16 are stored exactly.
+ * Count, min, max and the sum are exact.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    private final long[] counts = new long[64 * SUB_BUCKET_COUNT];
+    private long count;
+    private long min = Long.MAX_VALUE;
+    private long max;
+    private long sum;
+
+    public synchronized void record(long value) {
+        checkArgument(value >= 0, "value must not be negative. value=" + value);
+        counts[getBucketIndex(value)]++;
+        count++;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized long getMin() {
+        return count > 0 ? min : 0;
+    }
+
+    public synchronized long getMax() {
+        return max;
+    }
+
+    public synchronized double getMean() {
+        return count > 0 ? (double) sum / count : 0;
+    }
+
+    /**
+     * @param percentile Percentile in the range of 0 to 100
+     * @return The highest value of the bucket which contains the value at the given percentile, but not more than the
+     * max recorded value
+     */
+    public synchronized long getValueAtPercentile(double percentile) {
+        checkArgument(percentile >= 0 && percentile <= 100, "percentile must be in the range of 0 to 100");
+        if (count == 0)
+            return 0;
+
+        long countAtPercentile = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long cumulativeCount = 0;
+        for (int i = 0; i < counts.length; i++) {
+            cumulativeCount += counts[i];
+            if (cumulativeCount >= countAtPercentile)
+                return Math.min(getHighestValueOfBucket(i), max);
+        }
+        return max;
+    }
+
+    private static int getBucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT)
+            return (int) value;
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    private static long getHighestValueOfBucket(int index) {
+        if (index < SUB_BUCKET_COUNT)
+            return index;
+
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        long lowestValue = (long) (SUB_BUCKET_COUNT + index % SUB_BUCKET_COUNT) << shift;
+        return lowestValue + (1L << shift) - 1;
+    }
+}
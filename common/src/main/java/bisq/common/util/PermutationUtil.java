@@ -21,6 +21,9 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.OptionalLong;
+import java.util.function.LongPredicate;
+import java.util.stream.LongStream;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -106,4 +109,53 @@ public class PermutationUtil {
                 (System.currentTimeMillis() - ts), list.size(), counter, Profiler.getUsedMemoryInMB());
         return result;
     }
+
+    /**
+     * Searches the permutations of a list with numItems items in the same order as findAllPermutations creates them
+     * and returns the first one matching the predicate, without materializing the permutations.
+     * A permutation is represented as a bit mask of the indices of the items it contains. The order of
+     * findAllPermutations is the ascending order of those bit masks, e.g. [A], [B], [A,B], [C] are the masks 1, 2, 3, 4.
+     * The search space is split over the common fork join pool. As we use findFirst on an ordered stream the result is
+     * the same as with a sequential search and the search stops once the first match is found.
+     * The maxIterations limit is applied the same way as in findAllPermutations: an item is only considered if all
+     * permutations including it fit into maxIterations.
+     *
+     * @param numItems          Number of items in the list from which we create permutations
+     * @param predicate         Predicate for a permutation bit mask. Gets called concurrently.
+     * @param maxIterations     Max. number of iterations including inner iterations
+     * @return Bit mask of the first matching permutation or empty if none matches
+     */
+    public static OptionalLong findFirstMatchingPermutation(int numItems, LongPredicate predicate, int maxIterations) {
+        long ts = System.currentTimeMillis();
+        // With k items findAllPermutations needs 2^k - 1 iterations
+        int maxItems = 63 - Long.numberOfLeadingZeros((long) maxIterations + 1);
+        int consideredItems = Math.min(numItems, maxItems);
+        if (consideredItems < numItems) {
+            log.warn("We reached maxIterations of our allowed iterations and consider only the first {} of {} items.",
+                    consideredItems, numItems);
+        }
+        long numPermutations = (1L << consideredItems) - 1;
+        OptionalLong result = LongStream.rangeClosed(1, numPermutations)
+                .parallel()
+                .filter(predicate)
+                .findFirst();
+        log.info("findFirstMatchingPermutation took {} ms for {} items and {} possible permutations.",
+                (System.currentTimeMillis() - ts), numItems, numPermutations);
+        return result;
+    }
+
+    /**
+     * @param list          Original list
+     * @param permutation   Bit mask of the indices of the items in the permutation
+     * @param <T>           Type of list items
+     * @return The items of the permutation in the order of the original list
+     */
+    public static <T> List<T> getPermutation(List<T> list, long permutation) {
+        List<T> result = new ArrayList<>(Long.bitCount(permutation));
+        for (int i = 0; i < list.size() && i < 64; i++) {
+            if ((permutation & (1L << i)) != 0)
+                result.add(list.get(i));
+        }
+        return result;
+    }
 }
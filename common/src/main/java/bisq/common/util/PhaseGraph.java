@@ -0,0 +1,132 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+
+import lombok.extern.slf4j.Slf4j;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Runs a set of phases which depend on each other. A phase starts as soon as all the phases it depends on are
+ * completed, so independent phases run in parallel. The duration of each phase is recorded in the StartupProfiler.
+ * <p></p>
+ * If a phase fails, the phases which depend on it are not run. The other phases are still completed before the
+ * failure of the first failed phase (in the order the phases got added) is rethrown.
+ */
+@Slf4j
+public class PhaseGraph {
+    private final String name;
+    private final Map<String, Runnable> runnableByPhase = new LinkedHashMap<>();
+    private final Map<String, List<String>> dependenciesByPhase = new HashMap<>();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public PhaseGraph(String name) {
+        this.name = name;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Dependencies need to be added before the phases which depend on them, so the graph cannot contain cycles.
+    public PhaseGraph add(String phaseName, Runnable runnable, String... dependencies) {
+        checkArgument(!runnableByPhase.containsKey(phaseName), "Phase was already added. phaseName=" + phaseName);
+        Arrays.stream(dependencies).forEach(dependency -> checkArgument(runnableByPhase.containsKey(dependency),
+                "Dependency " + dependency + " of phase " + phaseName + " was not added yet"));
+        runnableByPhase.put(phaseName, runnable);
+        dependenciesByPhase.put(phaseName, Arrays.asList(dependencies));
+        return this;
+    }
+
+    /**
+     * Runs all phases and blocks until they are completed.
+     *
+     * @param numThreads Max. number of phases running in parallel
+     */
+    public void run(int numThreads) {
+        checkArgument(numThreads > 0, "numThreads must be positive");
+        long ts = System.currentTimeMillis();
+        ExecutorService executor = Utilities.getListeningFixedThreadPoolExecutor(name,
+                Math.min(numThreads, Math.max(1, runnableByPhase.size())), 5);
+        try {
+            Map<String, CompletableFuture<Void>> futureByPhase = new LinkedHashMap<>();
+            runnableByPhase.forEach((phaseName, runnable) -> {
+                CompletableFuture<?>[] dependencies = dependenciesByPhase.get(phaseName).stream()
+                        .map(futureByPhase::get)
+                        .toArray(CompletableFuture[]::new);
+                futureByPhase.put(phaseName, CompletableFuture.allOf(dependencies)
+                        .thenRunAsync(() -> runPhase(phaseName, runnable), executor));
+            });
+
+            List<Throwable> failures = new ArrayList<>();
+            futureByPhase.forEach((phaseName, future) -> {
+                try {
+                    future.join();
+                } catch (CompletionException e) {
+                    // Phases which were not run because a dependency failed have the same cause
+                    if (!failures.contains(e.getCause())) {
+                        log.error("Phase {} of {} failed", phaseName, name, e.getCause());
+                        failures.add(e.getCause());
+                    }
+                }
+            });
+            StartupProfiler.record(name, ts, System.currentTimeMillis(), Thread.currentThread().getName());
+
+            if (!failures.isEmpty()) {
+                Throwable failure = failures.get(0);
+                if (failure instanceof RuntimeException)
+                    throw (RuntimeException) failure;
+                if (failure instanceof Error)
+                    throw (Error) failure;
+                throw new RuntimeException(failure);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void runPhase(String phaseName, Runnable runnable) {
+        long ts = System.currentTimeMillis();
+        try {
+            runnable.run();
+        } finally {
+            StartupProfiler.record(name + "/" + phaseName, ts, System.currentTimeMillis(),
+                    Thread.currentThread().getName());
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.util;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.lang.management.ManagementFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Records the start time and duration of the phases of the application startup. Phases can be recorded from any
+ * thread and can overlap. The report lists the phases in the order of their start time with the start time relative to
+ * the start of the JVM.
+ */
+@Slf4j
+public class StartupProfiler {
+    private static final long jvmStartTime = getJvmStartTime();
+    private static final Map<String, Long> startTimeByPendingPhase = new ConcurrentHashMap<>();
+    private static final List<Phase> phases = new ArrayList<>();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public static void start(String phaseName) {
+        startTimeByPendingPhase.put(phaseName, System.currentTimeMillis());
+    }
+
+    // Calls without a previous start call for the phase are ignored
+    public static void stop(String phaseName) {
+        Long startTime = startTimeByPendingPhase.remove(phaseName);
+        if (startTime != null)
+            record(phaseName, startTime, System.currentTimeMillis(), Thread.currentThread().getName());
+    }
+
+    public static void record(String phaseName, long startTime, long endTime, String threadName) {
+        Phase phase = new Phase(phaseName, startTime - jvmStartTime, endTime - startTime, threadName);
+        log.info("Startup phase {} took {} ms", phaseName, phase.getDuration());
+        synchronized (phases) {
+            phases.add(phase);
+        }
+    }
+
+    public static List<Phase> getPhases() {
+        synchronized (phases) {
+            return new ArrayList<>(phases);
+        }
+    }
+
+    public static String getReport() {
+        StringBuilder sb = new StringBuilder("Startup phases (start after JVM start in ms, duration in ms, thread, phase)");
+        List<Phase> sortedPhases = getPhases();
+        sortedPhases.sort(Comparator.comparing(Phase::getStart));
+        sortedPhases.forEach(phase -> sb.append("\n")
+                .append(String.format("%8d %8d  %-30s %s", phase.getStart(), phase.getDuration(),
+                        phase.getThreadName(), phase.getName())));
+        return sb.toString();
+    }
+
+    public static void writeReport(File file) {
+        try {
+            Files.write(file.toPath(), getReport().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            log.error("Writing the startup report to {} failed", file, e);
+        }
+    }
+
+    public static void clear() {
+        startTimeByPendingPhase.clear();
+        synchronized (phases) {
+            phases.clear();
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static long getJvmStartTime() {
+        try {
+            return ManagementFactory.getRuntimeMXBean().getStartTime();
+        } catch (Throwable t) {
+            return System.currentTimeMillis();
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Static class
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Value
+    public static class Phase {
+        private final String name;
+        // Relative to JVM start
+        private final long start;
+        private final long duration;
+        private final String threadName;
+    }
+}
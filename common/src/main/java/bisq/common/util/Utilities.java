@@ -70,6 +70,7 @@ import java.util.Set;
 import java.util.TimeZone;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -92,13 +93,21 @@ public class Utilities {
 
     // TODO check out Jackson lib
     public static String objectToJson(Object object) {
-        Gson gson = new GsonBuilder()
+        return getJsonGson().toJson(object);
+    }
+
+    // Streams the json to the writer without building the string in memory
+    public static void objectToJson(Object object, Appendable writer) {
+        getJsonGson().toJson(object, writer);
+    }
+
+    private static Gson getJsonGson() {
+        return new GsonBuilder()
                 .setExclusionStrategies(new AnnotationExclusionStrategy())
                 /*.excludeFieldsWithModifiers(Modifier.TRANSIENT)*/
                 /*  .setFieldNamingPolicy(FieldNamingPolicy.UPPER_CAMEL_CASE)*/
                 .setPrettyPrinting()
                 .create();
-        return gson.toJson(object);
     }
 
     public static ListeningExecutorService getListeningSingleThreadExecutor(String name) {
@@ -120,6 +129,21 @@ public class Utilities {
         return MoreExecutors.listeningDecorator(getThreadPoolExecutor(name, corePoolSize, maximumPoolSize, keepAliveTimeInSec));
     }
 
+    // Unlike getListeningExecutorService the queue is not bounded, so no task gets rejected. Idle threads terminate
+    // after keepAliveTimeInSec.
+    public static ListeningExecutorService getListeningFixedThreadPoolExecutor(String name,
+                                                                               int numThreads,
+                                                                               long keepAliveTimeInSec) {
+        final ThreadFactory threadFactory = new ThreadFactoryBuilder()
+                .setNameFormat(name + "-%d")
+                .setDaemon(true)
+                .build();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(numThreads, numThreads, keepAliveTimeInSec,
+                TimeUnit.SECONDS, new LinkedBlockingQueue<>(), threadFactory);
+        executor.allowCoreThreadTimeOut(true);
+        return MoreExecutors.listeningDecorator(executor);
+    }
+
     public static ThreadPoolExecutor getThreadPoolExecutor(String name,
                                                            int corePoolSize,
                                                            int maximumPoolSize,
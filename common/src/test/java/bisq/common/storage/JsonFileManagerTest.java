@@ -0,0 +1,208 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.storage;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class JsonFileManagerTest {
+    private File dir;
+    private JsonFileManager jsonFileManager;
+
+    @Before
+    public void setup() throws IOException {
+        dir = Files.createTempDirectory("json_file_manager_test").toFile();
+        jsonFileManager = new JsonFileManager(dir);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        jsonFileManager.shutDown();
+        FileUtil.deleteDirectory(dir);
+    }
+
+    @Test
+    public void testWriteObjectAsJson() throws IOException {
+        jsonFileManager.writeToDiscAsJson(Arrays.asList(1, 2, 3), "list");
+        jsonFileManager.shutDown();
+
+        assertEquals(Arrays.asList(1L, 2L, 3L), jsonFileManager.readJsonFromDisc("list"));
+        assertTrue(noTempFilesLeft());
+    }
+
+    @Test
+    public void testLastWriteWins() throws Exception {
+        AtomicInteger numWrites = new AtomicInteger();
+        CountDownLatch firstWriteStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstWrite = new CountDownLatch(1);
+        jsonFileManager.writeToDisc(writer -> {
+            numWrites.incrementAndGet();
+            firstWriteStarted.countDown();
+            try {
+                releaseFirstWrite.await();
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            writer.write("0");
+        }, "file");
+        assertTrue(firstWriteStarted.await(5, TimeUnit.SECONDS));
+
+        for (int i = 1; i < 1000; i++) {
+            String json = String.valueOf(i);
+            jsonFileManager.writeToDisc(writer -> {
+                numWrites.incrementAndGet();
+                writer.write(json);
+            }, "file");
+        }
+        releaseFirstWrite.countDown();
+        jsonFileManager.shutDown();
+
+        assertEquals("999", read("file"));
+        // The writes submitted while the first one was running got replaced by the last one
+        assertEquals(2, numWrites.get());
+    }
+
+    @Test
+    public void testLastWriteWinsWithConcurrentSubmission() throws Exception {
+        int numThreads = 8;
+        ExecutorService submitters = Executors.newFixedThreadPool(numThreads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < numThreads; t++) {
+            int thread = t;
+            submitters.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                for (int i = 0; i < 200; i++) {
+                    jsonFileManager.writeToDiscAsJson(Arrays.asList(thread, i), "shared");
+                    jsonFileManager.writeToDiscAsJson(Arrays.asList(thread, i), "file" + thread);
+                }
+            });
+        }
+        start.countDown();
+        submitters.shutdown();
+        assertTrue(submitters.awaitTermination(30, TimeUnit.SECONDS));
+
+        // Submitted after all others, so no earlier write must overtake it
+        jsonFileManager.writeToDiscAsJson(Arrays.asList(-1, -1), "shared");
+        jsonFileManager.shutDown();
+
+        assertEquals(Arrays.asList(-1L, -1L), jsonFileManager.readJsonFromDisc("shared"));
+        for (int t = 0; t < numThreads; t++)
+            assertEquals(Arrays.asList((long) t, 199L), jsonFileManager.readJsonFromDisc("file" + t));
+        assertTrue(noTempFilesLeft());
+    }
+
+    // A reader must always see a complete version of the file
+    @Test
+    public void testAtomicReplacement() throws Exception {
+        jsonFileManager.writeToDiscAsJson(getList(0), "file");
+        waitForFile("file");
+
+        AtomicBoolean done = new AtomicBoolean();
+        List<Throwable> errors = new ArrayList<>();
+        Thread reader = new Thread(() -> {
+            while (!done.get()) {
+                try {
+                    List<?> list = (List<?>) jsonFileManager.readJsonFromDisc("file");
+                    assertEquals(10_000, list.size());
+                    // All elements of a version are equal
+                    assertEquals(1, list.stream().distinct().count());
+                } catch (Throwable t) {
+                    errors.add(t);
+                    return;
+                }
+            }
+        });
+        reader.start();
+        for (int i = 1; i <= 50; i++) {
+            jsonFileManager.writeToDiscAsJson(getList(i), "file");
+            Thread.sleep(5);
+        }
+        jsonFileManager.shutDown();
+        done.set(true);
+        reader.join();
+
+        assertTrue(errors.toString(), errors.isEmpty());
+        assertEquals(50L, ((List<?>) jsonFileManager.readJsonFromDisc("file")).get(0));
+    }
+
+    @Test
+    public void testDelete() throws IOException {
+        jsonFileManager.writeToDisc("{}", "written");
+        jsonFileManager.writeToDisc("{}", "deleted");
+        jsonFileManager.deleteFile("deleted");
+        jsonFileManager.deleteFile("writtenAgain");
+        jsonFileManager.writeToDisc("{}", "writtenAgain");
+        jsonFileManager.shutDown();
+
+        assertTrue(getFile("written").exists());
+        assertFalse(getFile("deleted").exists());
+        assertTrue(getFile("writtenAgain").exists());
+    }
+
+    private static List<Integer> getList(int value) {
+        List<Integer> list = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++)
+            list.add(value);
+        return list;
+    }
+
+    private void waitForFile(String fileName) throws InterruptedException {
+        long ts = System.currentTimeMillis();
+        while (!getFile(fileName).exists() && System.currentTimeMillis() - ts < 5000)
+            Thread.sleep(10);
+        assertTrue(getFile(fileName).exists());
+    }
+
+    private File getFile(String fileName) {
+        return new File(dir, fileName + ".json");
+    }
+
+    private String read(String fileName) throws IOException {
+        return new String(Files.readAllBytes(getFile(fileName).toPath()), StandardCharsets.UTF_8);
+    }
+
+    private boolean noTempFilesLeft() {
+        String[] fileNames = dir.list();
+        return fileNames != null && Arrays.stream(fileNames).noneMatch(fileName -> fileName.startsWith("temp"));
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.storage;
+
+import bisq.common.Payload;
+import bisq.common.proto.persistable.PersistableEnvelope;
+import bisq.common.proto.persistable.PersistenceProtoResolver;
+
+import com.google.protobuf.Message;
+
+import java.nio.file.Files;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ShardedStorageTest {
+    private File dir;
+    private PersistenceProtoResolver resolver;
+    private CorruptedDatabaseFilesHandler corruptedDatabaseFilesHandler;
+
+    @Before
+    public void setup() throws IOException {
+        dir = Files.createTempDirectory("sharded_storage_test").toFile();
+        resolver = new PersistenceProtoResolver() {
+            @Override
+            public PersistableEnvelope fromProto(protobuf.PersistableEnvelope persistable) {
+                return Path.fromProto(persistable);
+            }
+
+            @Override
+            public Payload fromProto(protobuf.PaymentAccountPayload proto) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public PersistableEnvelope fromProto(protobuf.PersistableNetworkPayload proto) {
+                throw new UnsupportedOperationException();
+            }
+        };
+        corruptedDatabaseFilesHandler = new CorruptedDatabaseFilesHandler();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtil.deleteDirectory(dir);
+    }
+
+    @Test
+    public void testSaveAndRead() {
+        ShardedStorage<Path> storage = newStorage();
+        assertTrue(storage.initAndGetPersisted("Items", 10).isEmpty());
+        storage.saveNow("a", new Path("1"));
+        storage.queueUpForSave("b", new Path("2"));
+        storage.flush();
+
+        Map<String, Path> persisted = newStorage().initAndGetPersisted("Items", 10);
+        assertEquals(2, persisted.size());
+        assertEquals("1", persisted.get("a").value);
+        assertEquals("2", persisted.get("b").value);
+    }
+
+    @Test
+    public void testLastWriteWinsAndRemove() {
+        ShardedStorage<Path> storage = newStorage();
+        storage.initAndGetPersisted("Items", 10);
+        storage.queueUpForSave("a", new Path("1"));
+        storage.queueUpForSave("a", new Path("2"));
+        storage.queueUpForSave("b", new Path("3"));
+        storage.flush();
+        storage.remove("b");
+        storage.flush();
+
+        Map<String, Path> persisted = newStorage().initAndGetPersisted("Items", 10);
+        assertEquals(1, persisted.size());
+        assertEquals("2", persisted.get("a").value);
+        assertFalse(new File(new File(dir, "Items"), "b").exists());
+    }
+
+    @Test
+    public void testDelayedWrite() throws InterruptedException {
+        ShardedStorage<Path> storage = newStorage();
+        storage.initAndGetPersisted("Items", 10);
+        storage.queueUpForSave("a", new Path("1"));
+
+        File file = new File(new File(dir, "Items"), "a");
+        for (int i = 0; i < 100 && !file.exists(); i++) {
+            Thread.sleep(50);
+        }
+        assertTrue(file.exists());
+    }
+
+    @Test
+    public void testCorruptedFile() throws IOException {
+        File itemsDir = new File(dir, "Items");
+        assertTrue(itemsDir.mkdir());
+        Files.write(new File(itemsDir, "a").toPath(), new byte[]{1, 2, 3});
+
+        assertTrue(newStorage().initAndGetPersisted("Items", 10).isEmpty());
+        assertFalse(new File(itemsDir, "a").exists());
+        assertTrue(corruptedDatabaseFilesHandler.getCorruptedDatabaseFiles().isPresent());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidKey() {
+        ShardedStorage<Path> storage = newStorage();
+        storage.initAndGetPersisted("Items", 10);
+        storage.queueUpForSave("../a", new Path("1"));
+    }
+
+    private ShardedStorage<Path> newStorage() {
+        return new ShardedStorage<>(dir, resolver, corruptedDatabaseFilesHandler);
+    }
+
+    private static class Path implements PersistableEnvelope {
+        private final String value;
+
+        Path(String value) {
+            this.value = value;
+        }
+
+        @Override
+        public Message toProtoMessage() {
+            return protobuf.PersistableEnvelope.newBuilder()
+                    .setNavigationPath(protobuf.NavigationPath.newBuilder().addPath(value))
+                    .build();
+        }
+
+        static Path fromProto(protobuf.PersistableEnvelope proto) {
+            return new Path(proto.getNavigationPath().getPath(0));
+        }
+    }
+}
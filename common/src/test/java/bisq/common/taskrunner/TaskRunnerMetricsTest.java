@@ -0,0 +1,159 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.taskrunner;
+
+import bisq.common.util.LatencyHistogram;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TaskRunnerMetricsTest {
+    private static final String MODEL_NAME = TestModel.class.getSimpleName();
+
+    @Before
+    public void setUp() {
+        TaskRunnerMetrics.clear();
+    }
+
+    @After
+    public void tearDown() {
+        TaskRunnerMetrics.clear();
+    }
+
+    // Simulates a protocol with two steps, the second one is triggered by a message of the peer
+    @Test
+    public void testTimingsForAllSteps() throws InterruptedException {
+        TestModel model = new TestModel();
+        runTaskRunner(model, FirstTask.class, SecondTask.class);
+        Thread.sleep(5);
+        runTaskRunner(model, ThirdTask.class);
+
+        assertEquals(3, model.persistCounter.get());
+        for (String taskName : new String[]{"FirstTask", "SecondTask", "ThirdTask"}) {
+            assertEquals(1, getHistogram(TaskRunnerMetrics.TASK, taskName).getCount());
+            assertEquals(1, getHistogram(TaskRunnerMetrics.PERSIST, taskName).getCount());
+        }
+        LatencyHistogram waitHistogram = getHistogram(TaskRunnerMetrics.WAIT, TaskRunnerMetrics.WAIT);
+        assertEquals(1, waitHistogram.getCount());
+        assertTrue(waitHistogram.getMin() >= 5000);
+
+        String report = TaskRunnerMetrics.getReport();
+        assertTrue(report.contains(MODEL_NAME + " / task / FirstTask"));
+        assertTrue(report.contains(MODEL_NAME + " / wait / wait"));
+    }
+
+    @Test
+    public void testFailedTaskIsNotRecorded() {
+        TestModel model = new TestModel();
+        TaskRunner<TestModel> taskRunner = new TaskRunner<>(model,
+                () -> fail("Result handler must not be called"),
+                errorMessage -> {
+                });
+        taskRunner.addTasks(FirstTask.class, FailingTask.class);
+        taskRunner.run();
+
+        assertEquals(1, getHistogram(TaskRunnerMetrics.TASK, "FirstTask").getCount());
+        assertFalse(TaskRunnerMetrics.getHistogram(MODEL_NAME, TaskRunnerMetrics.TASK, "FailingTask").isPresent());
+    }
+
+    @SafeVarargs
+    private static void runTaskRunner(TestModel model, Class<? extends Task<TestModel>>... tasks) {
+        AtomicInteger completed = new AtomicInteger();
+        TaskRunner<TestModel> taskRunner = new TaskRunner<>(model,
+                completed::incrementAndGet,
+                errorMessage -> fail(errorMessage));
+        taskRunner.addTasks(tasks);
+        taskRunner.run();
+        assertEquals(1, completed.get());
+    }
+
+    private static LatencyHistogram getHistogram(String type, String name) {
+        return TaskRunnerMetrics.getHistogram(MODEL_NAME, type, name)
+                .orElseThrow(() -> new AssertionError("No histogram for " + type + " / " + name));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Static classes
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public static class TestModel implements Model {
+        private final AtomicInteger persistCounter = new AtomicInteger();
+
+        @Override
+        public void persist() {
+            persistCounter.incrementAndGet();
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+
+    public static class FirstTask extends Task<TestModel> {
+        public FirstTask(TaskRunner taskHandler, TestModel model) {
+            super(taskHandler, model);
+        }
+
+        @Override
+        protected void run() {
+            complete();
+        }
+    }
+
+    public static class SecondTask extends Task<TestModel> {
+        public SecondTask(TaskRunner taskHandler, TestModel model) {
+            super(taskHandler, model);
+        }
+
+        @Override
+        protected void run() {
+            complete();
+        }
+    }
+
+    public static class ThirdTask extends Task<TestModel> {
+        public ThirdTask(TaskRunner taskHandler, TestModel model) {
+            super(taskHandler, model);
+        }
+
+        @Override
+        protected void run() {
+            complete();
+        }
+    }
+
+    public static class FailingTask extends Task<TestModel> {
+        public FailingTask(TaskRunner taskHandler, TestModel model) {
+            super(taskHandler, model);
+        }
+
+        @Override
+        protected void run() {
+            failed("Test failure");
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testEmpty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMin());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getValueAtPercentile(50));
+    }
+
+    @Test
+    public void testSmallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 0; value < 16; value++)
+            histogram.record(value);
+
+        assertEquals(16, histogram.getCount());
+        assertEquals(0, histogram.getMin());
+        assertEquals(15, histogram.getMax());
+        assertEquals(7.5, histogram.getMean(), 0);
+        assertEquals(7, histogram.getValueAtPercentile(50));
+        assertEquals(15, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void testPercentilesWithinPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100_000; value++)
+            histogram.record(value);
+
+        assertEquals(1, histogram.getMin());
+        assertEquals(100_000, histogram.getMax());
+        assertEquals(50_000.5, histogram.getMean(), 0);
+        assertWithinPrecision(50_000, histogram.getValueAtPercentile(50));
+        assertWithinPrecision(90_000, histogram.getValueAtPercentile(90));
+        assertWithinPrecision(99_000, histogram.getValueAtPercentile(99));
+        assertEquals(100_000, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void testLargeValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, histogram.getValueAtPercentile(50));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeValue() {
+        new LatencyHistogram().record(-1);
+    }
+
+    private static void assertWithinPrecision(long expected, long actual) {
+        assertTrue("expected=" + expected + ", actual=" + actual,
+                actual >= expected && actual <= expected * 1.125);
+    }
+}
@@ -21,9 +21,12 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
 
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 public class PermutationTest {
@@ -428,5 +431,39 @@ public class PermutationTest {
 
     }
 
+    @Test
+    public void testFindFirstMatchingPermutation() {
+        List<String> list = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            list.add("blindVote" + i);
+        }
 
+        // Compare with the first match of the materialized permutations, also with limits which cut off items
+        for (int limit : Arrays.asList(0, 1, 2, 6, 7, 100, 1023, 1024, 1000000)) {
+            List<List<String>> allPermutations = PermutationUtil.findAllPermutations(list, limit);
+            for (List<String> target : Arrays.asList(
+                    Arrays.asList("blindVote0"),
+                    Arrays.asList("blindVote1", "blindVote2"),
+                    Arrays.asList("blindVote3", "blindVote5", "blindVote6"),
+                    Arrays.asList("blindVote9"),
+                    list)) {
+                Optional<List<String>> expected = allPermutations.stream()
+                        .filter(target::equals)
+                        .findFirst();
+                OptionalLong result = PermutationUtil.findFirstMatchingPermutation(list.size(),
+                        permutation -> PermutationUtil.getPermutation(list, permutation).equals(target),
+                        limit);
+                assertEquals(expected.isPresent(), result.isPresent());
+                expected.ifPresent(e -> assertEquals(e, PermutationUtil.getPermutation(list, result.getAsLong())));
+            }
+
+            // The first permutation matching a predicate with many matches is the first one in the list
+            OptionalLong result = PermutationUtil.findFirstMatchingPermutation(list.size(),
+                    permutation -> PermutationUtil.getPermutation(list, permutation).size() == 2,
+                    limit);
+            Optional<List<String>> expected = allPermutations.stream().filter(e -> e.size() == 2).findFirst();
+            assertEquals(expected.isPresent(), result.isPresent());
+            expected.ifPresent(e -> assertEquals(e, PermutationUtil.getPermutation(list, result.getAsLong())));
+        }
+    }
 }
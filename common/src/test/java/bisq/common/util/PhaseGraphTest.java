@@ -0,0 +1,124 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class PhaseGraphTest {
+
+    @Before
+    public void setUp() {
+        StartupProfiler.clear();
+    }
+
+    @After
+    public void tearDown() {
+        StartupProfiler.clear();
+    }
+
+    @Test
+    public void testDependenciesRunFirst() {
+        List<String> completed = Collections.synchronizedList(new ArrayList<>());
+        new PhaseGraph("test")
+                .add("a", () -> completed.add("a"))
+                .add("b", () -> completed.add("b"), "a")
+                .add("c", () -> completed.add("c"), "a")
+                .add("d", () -> {
+                    assertTrue(completed.contains("b"));
+                    assertTrue(completed.contains("c"));
+                    completed.add("d");
+                }, "b", "c")
+                .run(4);
+
+        assertEquals(4, completed.size());
+        assertEquals("a", completed.get(0));
+        assertEquals("d", completed.get(3));
+
+        // One record for each phase and one for the whole graph
+        assertEquals(5, StartupProfiler.getPhases().size());
+        assertTrue(StartupProfiler.getReport().contains("test/d"));
+    }
+
+    // Both phases can only complete if they run at the same time
+    @Test
+    public void testIndependentPhasesRunInParallel() {
+        CountDownLatch latch = new CountDownLatch(2);
+        Runnable runnable = () -> {
+            latch.countDown();
+            try {
+                assertTrue(latch.await(5, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        };
+        new PhaseGraph("test")
+                .add("a", runnable)
+                .add("b", runnable)
+                .run(2);
+    }
+
+    @Test
+    public void testFailure() {
+        RuntimeException exception = new RuntimeException("test");
+        AtomicBoolean dependentPhaseRun = new AtomicBoolean();
+        AtomicBoolean independentPhaseRun = new AtomicBoolean();
+        PhaseGraph phaseGraph = new PhaseGraph("test")
+                .add("a", () -> {
+                    throw exception;
+                })
+                .add("b", () -> dependentPhaseRun.set(true), "a")
+                .add("c", () -> independentPhaseRun.set(true));
+        try {
+            phaseGraph.run(1);
+            fail("Expected exception");
+        } catch (RuntimeException e) {
+            assertEquals(exception, e);
+        }
+        assertFalse(dependentPhaseRun.get());
+        assertTrue(independentPhaseRun.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownDependency() {
+        new PhaseGraph("test").add("a", () -> {
+        }, "b");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicatePhase() {
+        new PhaseGraph("test")
+                .add("a", () -> {
+                })
+                .add("a", () -> {
+                });
+    }
+}
@@ -111,16 +111,10 @@ public class SignedWitnessService {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public void onAllServicesInitialized() {
-        p2PService.getP2PDataStorage().addAppendOnlyDataStoreListener(payload -> {
-            if (payload instanceof SignedWitness)
-                addToMap((SignedWitness) payload);
-        });
-
-        // At startup the P2PDataStorage initializes earlier, otherwise we ge the listener called.
-        p2PService.getP2PDataStorage().getAppendOnlyDataStoreMap().values().forEach(e -> {
-            if (e instanceof SignedWitness)
-                addToMap((SignedWitness) e);
-        });
+        // At startup the P2PDataStorage initializes earlier, so we add the already existing payloads as well.
+        p2PService.getP2PDataStorage().addAppendOnlyDataStoreListener(SignedWitness.class,
+                payload -> addToMap((SignedWitness) payload))
+                .forEach(this::addToMap);
     }
 
 
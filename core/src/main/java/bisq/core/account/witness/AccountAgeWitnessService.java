@@ -102,16 +102,10 @@ public class AccountAgeWitnessService {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public void onAllServicesInitialized() {
-        p2PService.getP2PDataStorage().addAppendOnlyDataStoreListener(payload -> {
-            if (payload instanceof AccountAgeWitness)
-                addToMap((AccountAgeWitness) payload);
-        });
-
-        // At startup the P2PDataStorage initializes earlier, otherwise we ge the listener called.
-        p2PService.getP2PDataStorage().getAppendOnlyDataStoreMap().values().forEach(e -> {
-            if (e instanceof AccountAgeWitness)
-                addToMap((AccountAgeWitness) e);
-        });
+        // At startup the P2PDataStorage initializes earlier, so we add the already existing payloads as well.
+        p2PService.getP2PDataStorage().addAppendOnlyDataStoreListener(AccountAgeWitness.class,
+                payload -> addToMap((AccountAgeWitness) payload))
+                .forEach(this::addToMap);
 
         if (p2PService.isBootstrapped()) {
             republishAllFiatAccounts();
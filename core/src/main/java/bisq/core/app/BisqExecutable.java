@@ -32,6 +32,7 @@ import bisq.core.setup.CoreSetup;
 import bisq.core.trade.TradeManager;
 
 import bisq.network.NetworkOptionKeys;
+import bisq.network.http.HttpClient;
 import bisq.network.p2p.P2PService;
 import bisq.network.p2p.network.ConnectionConfig;
 
@@ -40,7 +41,6 @@ import bisq.common.UserThread;
 import bisq.common.app.AppModule;
 import bisq.common.app.DevEnv;
 import bisq.common.handlers.ResultHandler;
-import bisq.common.proto.persistable.PersistedDataHost;
 import bisq.common.setup.GracefulShutDownHandler;
 
 import org.springframework.core.env.JOptCommandLinePropertySource;
@@ -240,7 +240,7 @@ public abstract class BisqExecutable implements GracefulShutDownHandler, BisqSet
 
     protected void setupPersistedDataHosts(Injector injector) {
         try {
-            PersistedDataHost.apply(CorePersistedDataHost.getPersistedDataHosts(injector));
+            CorePersistedDataHost.apply(injector);
         } catch (Throwable t) {
             // If we are in dev mode we want to get the exception if some db files are corrupted
             // We need to delay it as the stage is not created yet and so popups would not be shown.
@@ -280,6 +280,7 @@ public abstract class BisqExecutable implements GracefulShutDownHandler, BisqSet
                 injector.getInstance(ArbitratorManager.class).shutDown();
                 injector.getInstance(TradeManager.class).shutDown();
                 injector.getInstance(DaoSetup.class).shutDown();
+                HttpClient.shutDown();
                 injector.getInstance(OpenOfferManager.class).shutDown(() -> {
                     log.info("OpenOfferManager shutdown completed");
                     injector.getInstance(P2PService.class).shutDown(() -> {
@@ -45,6 +45,8 @@ import bisq.core.notifications.alerts.price.PriceAlert;
 import bisq.core.offer.OpenOfferManager;
 import bisq.core.payment.PaymentAccount;
 import bisq.core.payment.TradeLimits;
+import bisq.core.proto.network.CoreNetworkProtoResolver;
+import bisq.core.proto.persistable.CorePersistenceProtoResolver;
 import bisq.core.provider.fee.FeeService;
 import bisq.core.provider.price.PriceFeedService;
 import bisq.core.trade.TradeManager;
@@ -68,11 +70,14 @@ import bisq.common.crypto.CryptoException;
 import bisq.common.crypto.KeyRing;
 import bisq.common.crypto.SealedAndSigned;
 import bisq.common.proto.ProtobufferException;
+import bisq.common.storage.Storage;
+import bisq.common.util.StartupProfiler;
 import bisq.common.util.Utilities;
 
 import org.bitcoinj.core.Coin;
 
 import javax.inject.Inject;
+import javax.inject.Named;
 import javax.inject.Singleton;
 
 import com.google.common.net.InetAddresses;
@@ -94,6 +99,7 @@ import org.spongycastle.crypto.params.KeyParameter;
 import java.net.InetSocketAddress;
 import java.net.Socket;
 
+import java.io.File;
 import java.io.IOException;
 
 import java.util.ArrayList;
@@ -118,6 +124,8 @@ public class BisqSetup {
     }
 
     private static final long STARTUP_TIMEOUT_MINUTES = 4;
+    private static final String STARTUP_REPORT_FILE_NAME = "StartupReport.txt";
+    private static final long LOG_DECODE_REPORT_PERIOD_MIN = 10;
 
     private final P2PNetworkSetup p2PNetworkSetup;
     private final WalletAppSetup walletAppSetup;
@@ -157,6 +165,9 @@ public class BisqSetup {
     private final TorSetup torSetup;
     private final TradeLimits tradeLimits;
     private final BSFormatter formatter;
+    private final File storageDir;
+    private final CoreNetworkProtoResolver networkProtoResolver;
+    private final CorePersistenceProtoResolver persistenceProtoResolver;
     @Setter
     @Nullable
     private Consumer<Runnable> displayTacHandler;
@@ -235,7 +246,10 @@ public class BisqSetup {
                      AssetService assetService,
                      TorSetup torSetup,
                      TradeLimits tradeLimits,
-                     BSFormatter formatter) {
+                     BSFormatter formatter,
+                     @Named(Storage.STORAGE_DIR) File storageDir,
+                     CoreNetworkProtoResolver networkProtoResolver,
+                     CorePersistenceProtoResolver persistenceProtoResolver) {
 
 
         this.p2PNetworkSetup = p2PNetworkSetup;
@@ -277,6 +291,9 @@ public class BisqSetup {
         this.torSetup = torSetup;
         this.tradeLimits = tradeLimits;
         this.formatter = formatter;
+        this.storageDir = storageDir;
+        this.networkProtoResolver = networkProtoResolver;
+        this.persistenceProtoResolver = persistenceProtoResolver;
     }
 
 
@@ -293,16 +310,23 @@ public class BisqSetup {
             UserThread.runPeriodically(() -> {
                 log.debug("1 second heartbeat");
             }, 1);
+            UserThread.runPeriodically(() -> {
+                log.debug("Decoded network messages:\n{}", networkProtoResolver.getDecodeReport());
+                log.debug("Decoded persisted data:\n{}", persistenceProtoResolver.getDecodeReport());
+            }, LOG_DECODE_REPORT_PERIOD_MIN, TimeUnit.MINUTES);
         }
+        StartupProfiler.start("BisqSetup");
         maybeReSyncSPVChain();
         maybeShowTac();
     }
 
     private void step2() {
+        StartupProfiler.start("checkIfLocalHostNodeIsRunning");
         checkIfLocalHostNodeIsRunning();
     }
 
     private void step3() {
+        StartupProfiler.stop("checkIfLocalHostNodeIsRunning");
         torSetup.cleanupTorFiles();
         readMapsFromResources();
         checkCryptoSetup();
@@ -310,11 +334,15 @@ public class BisqSetup {
     }
 
     private void step4() {
+        StartupProfiler.start("startP2pNetworkAndWallet");
         startP2pNetworkAndWallet();
     }
 
     private void step5() {
+        StartupProfiler.stop("startP2pNetworkAndWallet");
+        StartupProfiler.start("initDomainServices");
         initDomainServices();
+        StartupProfiler.stop("initDomainServices");
 
         bisqSetupCompleteListeners.forEach(BisqSetupCompleteListener::onSetupComplete);
 
@@ -322,6 +350,9 @@ public class BisqSetup {
         // in MainViewModel
         maybeShowSecurityRecommendation();
         maybeShowLocalhostRunningInfo();
+
+        StartupProfiler.stop("BisqSetup");
+        writeStartupReport();
     }
 
 
@@ -462,7 +493,9 @@ public class BisqSetup {
     }
 
     private void readMapsFromResources() {
+        StartupProfiler.start("readMapsFromResources");
         SetupUtils.readFromResources(p2PService.getP2PDataStorage()).addListener((observable, oldValue, newValue) -> {
+            StartupProfiler.stop("readMapsFromResources");
             if (newValue)
                 step4();
         });
@@ -707,6 +740,11 @@ public class BisqSetup {
         allBasicServicesInitialized = true;
     }
 
+    private void writeStartupReport() {
+        log.info(StartupProfiler.getReport());
+        StartupProfiler.writeReport(new File(storageDir, STARTUP_REPORT_FILE_NAME));
+    }
+
     private void maybeShowSecurityRecommendation() {
         String key = "remindPasswordAndBackup";
         user.getPaymentAccountsAsObservable().addListener((SetChangeListener<PaymentAccount>) change -> {
@@ -26,6 +26,7 @@ import bisq.core.btc.wallet.BsqWalletService;
 import bisq.core.btc.wallet.BtcWalletService;
 import bisq.core.offer.OpenOfferManager;
 
+import bisq.network.http.HttpClient;
 import bisq.network.p2p.P2PService;
 
 import bisq.common.UserThread;
@@ -76,6 +77,7 @@ public abstract class ExecutableForAppWithP2p extends BisqExecutable implements
         try {
             if (injector != null) {
                 injector.getInstance(ArbitratorManager.class).shutDown();
+                HttpClient.shutDown();
                 injector.getInstance(OpenOfferManager.class).shutDown(() -> injector.getInstance(P2PService.class).shutDown(() -> {
                     injector.getInstance(WalletsSetup.class).shutDownComplete.addListener((ov, o, n) -> {
                         module.close(injector);
@@ -64,8 +64,9 @@ public class ArbitratorService {
         this.filterManager = filterManager;
     }
 
+    // The listener only gets notified about arbitrator entries
     public void addHashSetChangedListener(HashMapChangedListener hashMapChangedListener) {
-        p2PService.addHashSetChangedListener(hashMapChangedListener);
+        p2PService.addHashSetChangedListener(Arbitrator.class, hashMapChangedListener);
     }
 
     public void addArbitrator(Arbitrator arbitrator, final ResultHandler resultHandler, ErrorMessageHandler errorMessageHandler) {
@@ -103,8 +104,7 @@ public class ArbitratorService {
         final List<String> bannedArbitrators = filterManager.getFilter() != null ? filterManager.getFilter().getArbitrators() : null;
         if (bannedArbitrators != null)
             log.warn("bannedArbitrators=" + bannedArbitrators);
-        Set<Arbitrator> arbitratorSet = p2PService.getDataMap().values().stream()
-                .filter(data -> data.getProtectedStoragePayload() instanceof Arbitrator)
+        Set<Arbitrator> arbitratorSet = p2PService.getDataMap(Arbitrator.class).stream()
                 .map(data -> (Arbitrator) data.getProtectedStoragePayload())
                 .filter(a -> bannedArbitrators == null ||
                         !bannedArbitrators.contains(a.getNodeAddress().getFullAddress()))
@@ -24,7 +24,6 @@ import bisq.core.trade.Contract;
 import bisq.common.crypto.PubKeyRing;
 import bisq.common.proto.ProtoUtil;
 import bisq.common.proto.network.NetworkPayload;
-import bisq.common.storage.Storage;
 import bisq.common.util.Utilities;
 
 import com.google.protobuf.ByteString;
@@ -88,14 +87,15 @@ public final class Dispute implements NetworkPayload {
 
     private long openingDate;
 
-    transient private Storage<DisputeList> storage;
+    @Nullable
+    transient private DisputeList disputeList;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Constructor
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    public Dispute(Storage<DisputeList> storage,
+    public Dispute(DisputeList disputeList,
                    String tradeId,
                    int traderId,
                    boolean disputeOpenerIsBuyer,
@@ -130,7 +130,7 @@ public final class Dispute implements NetworkPayload {
                 takerContractSignature,
                 arbitratorPubKeyRing,
                 isSupportTicket);
-        this.storage = storage;
+        this.disputeList = disputeList;
         openingDate = new Date().getTime();
     }
 
@@ -248,7 +248,7 @@ public final class Dispute implements NetworkPayload {
     public void addDisputeCommunicationMessage(DisputeCommunicationMessage disputeCommunicationMessage) {
         if (!disputeCommunicationMessages.contains(disputeCommunicationMessage)) {
             disputeCommunicationMessages.add(disputeCommunicationMessage);
-            storage.queueUpForSave();
+            persist();
         } else {
             log.error("disputeDirectMessage already exists");
         }
@@ -259,23 +259,23 @@ public final class Dispute implements NetworkPayload {
     // Setters
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    // In case we get the object via the network storage is not set as its transient, so we need to set it.
-    public void setStorage(Storage<DisputeList> storage) {
-        this.storage = storage;
+    // In case we get the object via the network disputeList is not set as its transient, so we need to set it.
+    public void setDisputeList(DisputeList disputeList) {
+        this.disputeList = disputeList;
     }
 
     public void setIsClosed(boolean isClosed) {
         boolean changed = this.isClosedProperty.get() != isClosed;
         this.isClosedProperty.set(isClosed);
         if (changed)
-            storage.queueUpForSave();
+            persist();
     }
 
     public void setDisputeResult(DisputeResult disputeResult) {
         boolean changed = disputeResultProperty.get() == null || !disputeResultProperty.get().equals(disputeResult);
         disputeResultProperty.set(disputeResult);
         if (changed)
-            storage.queueUpForSave();
+            persist();
     }
 
     @SuppressWarnings("NullableProblems")
@@ -283,7 +283,13 @@ public final class Dispute implements NetworkPayload {
         boolean changed = this.disputePayoutTxId == null || !this.disputePayoutTxId.equals(disputePayoutTxId);
         this.disputePayoutTxId = disputePayoutTxId;
         if (changed)
-            storage.queueUpForSave();
+            persist();
+    }
+
+
+    private void persist() {
+        if (disputeList != null)
+            disputeList.persist(this);
     }
 
 
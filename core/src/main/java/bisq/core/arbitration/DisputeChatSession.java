@@ -83,7 +83,8 @@ public class DisputeChatSession extends ChatSession {
 
     @Override
     public void persist() {
-        disputeManager.getDisputes().persist();
+        if (dispute != null)
+            disputeManager.getDisputes().persist(dispute);
     }
 
     @Override
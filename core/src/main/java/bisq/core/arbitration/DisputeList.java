@@ -22,6 +22,7 @@ import bisq.core.proto.CoreProtoResolver;
 import bisq.common.proto.ProtoUtil;
 import bisq.common.proto.persistable.PersistableEnvelope;
 import bisq.common.proto.persistable.PersistedDataHost;
+import bisq.common.storage.ShardedStorage;
 import bisq.common.storage.Storage;
 
 import com.google.protobuf.Message;
@@ -29,7 +30,12 @@ import com.google.protobuf.Message;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -37,6 +43,10 @@ import lombok.Getter;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
 @Slf4j
 @ToString
 /**
@@ -44,21 +54,52 @@ import lombok.extern.slf4j.Slf4j;
  *
  * Calls to the List are delegated because this class intercepts the add/remove calls so changes
  * can be saved to disc.
+ *
+ * Each dispute is persisted in its own file (a DisputeList with only that dispute) in the Disputes directory, so a
+ * change of a dispute, e.g. a new chat message, does not cause a rewrite of all disputes. The former single
+ * DisputeList file gets migrated at the first start.
  */
 public final class DisputeList implements PersistableEnvelope, PersistedDataHost {
+    private static final String SHARDS_DIR_NAME = "Disputes";
+
     transient private final Storage<DisputeList> storage;
+    @ToString.Exclude
+    @Nullable
+    transient private final ShardedStorage<DisputeList> shardedStorage;
     @Getter
     private final ObservableList<Dispute> list = FXCollections.observableArrayList();
+    @ToString.Exclude
+    transient private final Map<String, Dispute> disputeById = new HashMap<>();
+    @ToString.Exclude
+    transient private final Map<String, List<Dispute>> disputesByTradeId = new HashMap<>();
 
-    public DisputeList(Storage<DisputeList> storage) {
+    public DisputeList(Storage<DisputeList> storage, ShardedStorage<DisputeList> shardedStorage) {
         this.storage = storage;
+        this.shardedStorage = shardedStorage;
     }
 
     @Override
     public void readPersisted() {
+        checkNotNull(shardedStorage, "shardedStorage must not be null");
+        shardedStorage.initAndGetPersisted(SHARDS_DIR_NAME, 50).values()
+                .forEach(persisted -> persisted.getList().forEach(this::addToList));
+
+        // Migration from the single DisputeList file used by earlier versions. Storage keeps a backup of it in the
+        // backup directory at read.
         DisputeList persisted = storage.initAndGetPersisted(this, 50);
-        if (persisted != null)
-            list.addAll(persisted.getList());
+        if (persisted != null) {
+            persisted.getList().forEach(dispute -> {
+                if (disputeById.containsKey(dispute.getId())) {
+                    log.warn("Dispute {} is already persisted in its own file.", dispute.getId());
+                    return;
+                }
+                addToList(dispute);
+                shardedStorage.saveNow(dispute.getId(), new DisputeList(dispute));
+            });
+            storage.remove(DisputeList.class.getSimpleName());
+            log.info("Migrated {} disputes to the {} directory", persisted.getList().size(), SHARDS_DIR_NAME);
+        }
+        list.forEach(dispute -> dispute.setDisputeList(this));
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -67,7 +108,15 @@ public final class DisputeList implements PersistableEnvelope, PersistedDataHost
 
     private DisputeList(Storage<DisputeList> storage, List<Dispute> list) {
         this.storage = storage;
-        this.list.addAll(list);
+        this.shardedStorage = null;
+        list.forEach(this::addToList);
+    }
+
+    // Container for persisting a single dispute
+    private DisputeList(Dispute dispute) {
+        this.storage = null;
+        this.shardedStorage = null;
+        this.list.add(dispute);
     }
 
     @Override
@@ -82,7 +131,6 @@ public final class DisputeList implements PersistableEnvelope, PersistedDataHost
         List<Dispute> list = proto.getDisputeList().stream()
                 .map(disputeProto -> Dispute.fromProto(disputeProto, coreProtoResolver))
                 .collect(Collectors.toList());
-        list.forEach(e -> e.setStorage(storage));
         return new DisputeList(storage, list);
     }
 
@@ -92,10 +140,12 @@ public final class DisputeList implements PersistableEnvelope, PersistedDataHost
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public boolean add(Dispute dispute) {
-        if (!list.contains(dispute)) {
-            boolean changed = list.add(dispute);
-            if (changed)
-                persist();
+        if (!contains(dispute)) {
+            boolean changed = addToList(dispute);
+            if (changed) {
+                dispute.setDisputeList(this);
+                persist(dispute);
+            }
             return changed;
         } else {
             return false;
@@ -105,13 +155,23 @@ public final class DisputeList implements PersistableEnvelope, PersistedDataHost
     public boolean remove(Object dispute) {
         //noinspection SuspiciousMethodCalls
         boolean changed = list.remove(dispute);
-        if (changed)
-            persist();
+        if (changed) {
+            Dispute removed = (Dispute) dispute;
+            removeFromIndex(removed);
+            if (shardedStorage != null)
+                shardedStorage.remove(removed.getId());
+        }
         return changed;
     }
 
+    // Persists all disputes. Use persist(dispute) if only one dispute has changed.
     public void persist() {
-        storage.queueUpForSave();
+        list.forEach(this::persist);
+    }
+
+    public void persist(Dispute dispute) {
+        if (shardedStorage != null)
+            shardedStorage.queueUpForSave(dispute.getId(), new DisputeList(dispute));
     }
 
     public int size() {
@@ -122,12 +182,51 @@ public final class DisputeList implements PersistableEnvelope, PersistedDataHost
         return list.isEmpty();
     }
 
-    @SuppressWarnings({"BooleanMethodIsAlwaysInverted", "SuspiciousMethodCalls"})
+    // We look up the dispute by its id first to avoid the expensive equals check with all disputes
+    @SuppressWarnings({"BooleanMethodIsAlwaysInverted"})
     public boolean contains(Object o) {
-        return list.contains(o);
+        if (!(o instanceof Dispute))
+            return false;
+
+        Dispute dispute = disputeById.get(((Dispute) o).getId());
+        return dispute != null && (dispute == o || dispute.equals(o));
     }
 
     public Stream<Dispute> stream() {
         return list.stream();
     }
+
+    public Optional<Dispute> findDispute(String tradeId, int traderId) {
+        return getDisputesByTradeId(tradeId).stream()
+                .filter(e -> e.getTraderId() == traderId)
+                .findAny();
+    }
+
+    public List<Dispute> getDisputesByTradeId(String tradeId) {
+        return disputesByTradeId.getOrDefault(tradeId, Collections.emptyList());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private boolean addToList(Dispute dispute) {
+        boolean changed = list.add(dispute);
+        if (changed) {
+            disputeById.putIfAbsent(dispute.getId(), dispute);
+            disputesByTradeId.computeIfAbsent(dispute.getTradeId(), k -> new ArrayList<>(2)).add(dispute);
+        }
+        return changed;
+    }
+
+    private void removeFromIndex(Dispute dispute) {
+        disputeById.remove(dispute.getId(), dispute);
+        List<Dispute> disputes = disputesByTradeId.get(dispute.getTradeId());
+        if (disputes != null) {
+            disputes.remove(dispute);
+            if (disputes.isEmpty())
+                disputesByTradeId.remove(dispute.getTradeId());
+        }
+    }
 }
@@ -52,6 +52,7 @@ import bisq.common.crypto.PubKeyRing;
 import bisq.common.handlers.FaultHandler;
 import bisq.common.handlers.ResultHandler;
 import bisq.common.proto.persistable.PersistedDataHost;
+import bisq.common.storage.ShardedStorage;
 import bisq.common.storage.Storage;
 import bisq.common.util.Tuple2;
 
@@ -98,6 +99,7 @@ public class DisputeManager implements PersistedDataHost {
     private final P2PService p2PService;
     private final KeyRing keyRing;
     private final Storage<DisputeList> disputeStorage;
+    private final ShardedStorage<DisputeList> disputeShardedStorage;
     @Getter
     private DisputeList disputes;
     private final String disputeInfo;
@@ -124,7 +126,8 @@ public class DisputeManager implements PersistedDataHost {
                           ClosedTradableManager closedTradableManager,
                           OpenOfferManager openOfferManager,
                           KeyRing keyRing,
-                          Storage<DisputeList> storage) {
+                          Storage<DisputeList> storage,
+                          ShardedStorage<DisputeList> shardedStorage) {
         this.p2PService = p2PService;
         this.tradeWalletService = tradeWalletService;
         this.walletService = walletService;
@@ -138,6 +141,7 @@ public class DisputeManager implements PersistedDataHost {
         chatManager.setChatSession(new DisputeChatSession(null, this));
 
         disputeStorage = storage;
+        disputeShardedStorage = shardedStorage;
 
         openDisputes = new HashMap<>();
         closedDisputes = new HashMap<>();
@@ -152,9 +156,8 @@ public class DisputeManager implements PersistedDataHost {
 
     @Override
     public void readPersisted() {
-        disputes = new DisputeList(disputeStorage);
+        disputes = new DisputeList(disputeStorage, disputeShardedStorage);
         disputes.readPersisted();
-        disputes.stream().forEach(dispute -> dispute.setStorage(disputeStorage));
     }
 
     public void onAllServicesInitialized() {
@@ -216,7 +219,6 @@ public class DisputeManager implements PersistedDataHost {
 
     public void cleanupDisputes() {
         disputes.stream().forEach(dispute -> {
-            dispute.setStorage(disputeStorage);
             if (dispute.isClosed())
                 closedDisputes.put(dispute.getTradeId(), dispute);
             else
@@ -282,7 +284,7 @@ public class DisputeManager implements PersistedDataHost {
                                 // We use the disputeCommunicationMessage wrapped inside the openNewDisputeMessage for
                                 // the state, as that is displayed to the user and we only persist that msg
                                 disputeCommunicationMessage.setArrived(true);
-                                disputes.persist();
+                                disputes.persist(dispute);
                                 resultHandler.handleResult();
                             }
 
@@ -297,7 +299,7 @@ public class DisputeManager implements PersistedDataHost {
                                 // We use the disputeCommunicationMessage wrapped inside the openNewDisputeMessage for
                                 // the state, as that is displayed to the user and we only persist that msg
                                 disputeCommunicationMessage.setStoredInMailbox(true);
-                                disputes.persist();
+                                disputes.persist(dispute);
                                 resultHandler.handleResult();
                             }
 
@@ -312,7 +314,7 @@ public class DisputeManager implements PersistedDataHost {
                                 // We use the disputeCommunicationMessage wrapped inside the openNewDisputeMessage for
                                 // the state, as that is displayed to the user and we only persist that msg
                                 disputeCommunicationMessage.setSendMessageError(errorMessage);
-                                disputes.persist();
+                                disputes.persist(dispute);
                                 faultHandler.handleFault("Sending dispute message failed: " +
                                         errorMessage, new MessageDeliveryFailedException());
                             }
@@ -336,7 +338,7 @@ public class DisputeManager implements PersistedDataHost {
                                                 Contract contractFromOpener,
                                                 PubKeyRing pubKeyRing) {
         Dispute dispute = new Dispute(
-                disputeStorage,
+                disputes,
                 disputeFromOpener.getTradeId(),
                 pubKeyRing.hashCode(),
                 !disputeFromOpener.isDisputeOpenerIsBuyer(),
@@ -399,7 +401,7 @@ public class DisputeManager implements PersistedDataHost {
                             // We use the disputeCommunicationMessage wrapped inside the peerOpenedDisputeMessage for
                             // the state, as that is displayed to the user and we only persist that msg
                             disputeCommunicationMessage.setArrived(true);
-                            disputes.persist();
+                            disputes.persist(dispute);
                         }
 
                         @Override
@@ -413,7 +415,7 @@ public class DisputeManager implements PersistedDataHost {
                             // We use the disputeCommunicationMessage wrapped inside the peerOpenedDisputeMessage for
                             // the state, as that is displayed to the user and we only persist that msg
                             disputeCommunicationMessage.setStoredInMailbox(true);
-                            disputes.persist();
+                            disputes.persist(dispute);
                         }
 
                         @Override
@@ -427,7 +429,7 @@ public class DisputeManager implements PersistedDataHost {
                             // We use the disputeCommunicationMessage wrapped inside the peerOpenedDisputeMessage for
                             // the state, as that is displayed to the user and we only persist that msg
                             disputeCommunicationMessage.setSendMessageError(errorMessage);
-                            disputes.persist();
+                            disputes.persist(dispute);
                         }
                     }
             );
@@ -480,7 +482,7 @@ public class DisputeManager implements PersistedDataHost {
                         // We use the disputeCommunicationMessage wrapped inside the disputeResultMessage for
                         // the state, as that is displayed to the user and we only persist that msg
                         disputeCommunicationMessage.setArrived(true);
-                        disputes.persist();
+                        disputes.persist(dispute);
                     }
 
                     @Override
@@ -494,7 +496,7 @@ public class DisputeManager implements PersistedDataHost {
                         // We use the disputeCommunicationMessage wrapped inside the disputeResultMessage for
                         // the state, as that is displayed to the user and we only persist that msg
                         disputeCommunicationMessage.setStoredInMailbox(true);
-                        disputes.persist();
+                        disputes.persist(dispute);
                     }
 
                     @Override
@@ -508,7 +510,7 @@ public class DisputeManager implements PersistedDataHost {
                         // We use the disputeCommunicationMessage wrapped inside the disputeResultMessage for
                         // the state, as that is displayed to the user and we only persist that msg
                         disputeCommunicationMessage.setSendMessageError(errorMessage);
-                        disputes.persist();
+                        disputes.persist(dispute);
                     }
                 }
         );
@@ -564,7 +566,7 @@ public class DisputeManager implements PersistedDataHost {
             if (!disputes.contains(dispute)) {
                 final Optional<Dispute> storedDisputeOptional = findDispute(dispute.getTradeId(), dispute.getTraderId());
                 if (!storedDisputeOptional.isPresent()) {
-                    dispute.setStorage(disputeStorage);
+                    dispute.setDisputeList(disputes);
                     disputes.add(dispute);
                     errorMessage = sendPeerOpenedDisputeMessage(dispute, contractFromOpener, peersPubKeyRing);
                 } else {
@@ -598,7 +600,7 @@ public class DisputeManager implements PersistedDataHost {
             if (!disputes.contains(dispute)) {
                 final Optional<Dispute> storedDisputeOptional = findDispute(dispute.getTradeId(), dispute.getTraderId());
                 if (!storedDisputeOptional.isPresent()) {
-                    dispute.setStorage(disputeStorage);
+                    dispute.setDisputeList(disputes);
                     disputes.add(dispute);
                     Optional<Trade> tradeOptional = tradeManager.getTradeById(dispute.getTradeId());
                     tradeOptional.ifPresent(trade -> trade.setDisputeState(Trade.DisputeState.DISPUTE_STARTED_BY_PEER));
@@ -843,10 +845,6 @@ public class DisputeManager implements PersistedDataHost {
     // Getters
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    public Storage<DisputeList> getDisputeStorage() {
-        return disputeStorage;
-    }
-
     public ObservableList<Dispute> getDisputesAsObservableList() {
         return disputes.getList();
     }
@@ -907,7 +905,7 @@ public class DisputeManager implements PersistedDataHost {
     }
 
     public Optional<Dispute> findDispute(String tradeId, int traderId) {
-        return disputes.stream().filter(e -> e.getTradeId().equals(tradeId) && e.getTraderId() == traderId).findAny();
+        return disputes.findDispute(tradeId, traderId);
     }
 
     public Optional<Dispute> findOwnDispute(String tradeId) {
@@ -915,7 +913,7 @@ public class DisputeManager implements PersistedDataHost {
     }
 
     private Stream<Dispute> getDisputeStream(String tradeId) {
-        return disputes.stream().filter(e -> e.getTradeId().equals(tradeId));
+        return disputes.getDisputesByTradeId(tradeId).stream();
     }
 
     private void cleanupRetryMap(String uid) {
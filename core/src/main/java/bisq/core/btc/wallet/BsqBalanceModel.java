@@ -0,0 +1,226 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.btc.wallet;
+
+import bisq.core.dao.governance.bond.BondConsensus;
+import bisq.core.dao.state.DaoStateService;
+import bisq.core.dao.state.model.blockchain.Block;
+import bisq.core.dao.state.model.blockchain.Tx;
+import bisq.core.dao.state.model.blockchain.TxOutput;
+import bisq.core.dao.state.model.blockchain.TxOutputKey;
+import bisq.core.dao.state.model.blockchain.TxOutputType;
+
+import org.bitcoinj.core.Transaction;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the DAO data of our confirmed BSQ wallet transactions which is needed for the balance calculation.
+ * A confirmed transaction is looked up in the DAO state only once and we only scan the blocks from the height where it
+ * got confirmed, so the costs of a balance update do not grow with the size of the DAO state.
+ * Type and value of the txOutputs of a confirmed DAO tx never change. The spent state, the confiscation state and
+ * the lock time depend on the current DAO state and are evaluated at each balance update with cheap lookups.
+ */
+@Slf4j
+class BsqBalanceModel {
+    private final DaoStateService daoStateService;
+
+    // Confirmed wallet txs which contain a blind vote stake, lockup or unlock output
+    private final Map<String, Tx> relevantTxByTxId = new HashMap<>();
+    // Confirmed wallet txs which are in the DAO state but do not contain any output relevant for the balances
+    private final Set<String> otherTxIds = new HashSet<>();
+    // Confirmed wallet txs which we have not found in the DAO state (not parsed yet or not a BSQ tx) with the height
+    // of the last block we have scanned
+    private final Map<String, Integer> scannedHeightByUnknownTxId = new HashMap<>();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    BsqBalanceModel(DaoStateService daoStateService) {
+        this.daoStateService = daoStateService;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Applies the current set of confirmed wallet transactions. Only txs we have not seen before are looked up in
+    // the DAO state, txs which are not confirmed anymore get removed.
+    void applyConfirmedTransactions(Collection<Transaction> confirmedTransactions) {
+        int heightOfLastBlock = daoStateService.getBlockHeightOfLastBlock();
+        Set<String> confirmedTxIds = new HashSet<>();
+        Map<String, Integer> fromHeightByTxId = new HashMap<>();
+        confirmedTransactions.forEach(transaction -> {
+            String txId = transaction.getHashAsString();
+            confirmedTxIds.add(txId);
+            if (relevantTxByTxId.containsKey(txId) || otherTxIds.contains(txId))
+                return;
+
+            int fromHeight = transaction.getConfidence().getAppearedAtChainHeight();
+            Integer scannedHeight = scannedHeightByUnknownTxId.get(txId);
+            if (scannedHeight != null) {
+                if (scannedHeight >= heightOfLastBlock)
+                    return;
+
+                fromHeight = Math.max(fromHeight, scannedHeight + 1);
+            }
+            fromHeightByTxId.put(txId, fromHeight);
+        });
+
+        // Txs might have become unconfirmed or dead in case of a reorg
+        relevantTxByTxId.keySet().retainAll(confirmedTxIds);
+        otherTxIds.retainAll(confirmedTxIds);
+        scannedHeightByUnknownTxId.keySet().retainAll(confirmedTxIds);
+
+        if (!fromHeightByTxId.isEmpty())
+            lookupTxs(fromHeightByTxId, heightOfLastBlock);
+    }
+
+    void reset() {
+        relevantTxByTxId.clear();
+        otherTxIds.clear();
+        scannedHeightByUnknownTxId.clear();
+    }
+
+    long getLockedForVotingBalance() {
+        long balance = 0;
+        for (Tx tx : relevantTxByTxId.values()) {
+            for (TxOutput txOutput : tx.getTxOutputs()) {
+                if (txOutput.getTxOutputType() == TxOutputType.BLIND_VOTE_LOCK_STAKE_OUTPUT &&
+                        daoStateService.isUnspent(txOutput.getKey())) {
+                    balance += txOutput.getValue();
+                }
+            }
+        }
+        return balance;
+    }
+
+    long getLockupBondsBalance() {
+        long balance = 0;
+        for (Tx tx : relevantTxByTxId.values()) {
+            for (TxOutput txOutput : tx.getTxOutputs()) {
+                if (txOutput.getTxOutputType() == TxOutputType.LOCKUP_OUTPUT &&
+                        daoStateService.isUnspent(txOutput.getKey()) &&
+                        !daoStateService.isConfiscatedLockupTxOutput(tx.getId())) {
+                    balance += txOutput.getValue();
+                }
+            }
+        }
+        return balance;
+    }
+
+    long getUnlockingBondsBalance() {
+        long balance = 0;
+        for (Tx tx : relevantTxByTxId.values()) {
+            for (TxOutput txOutput : tx.getTxOutputs()) {
+                if (txOutput.getTxOutputType() == TxOutputType.UNLOCK_OUTPUT &&
+                        daoStateService.isUnspent(txOutput.getKey()) &&
+                        !isLockTimeOver(tx) &&
+                        !isConfiscatedUnlockTx(tx)) {
+                    balance += txOutput.getValue();
+                }
+            }
+        }
+        return balance;
+    }
+
+    // Same result as daoStateService.isLockupOutput(key) || daoStateService.isUnlockingAndUnspent(key) but without
+    // iterating all txs of the DAO state for unlock outputs.
+    boolean isUnspentLockupOrUnlockingOutput(TxOutputKey key) {
+        if (!daoStateService.isUnspent(key))
+            return false;
+
+        Tx tx = relevantTxByTxId.get(key.getTxId());
+        if (tx == null) {
+            // Not one of our known txs, we fall back to the DAO state
+            return daoStateService.isLockupOutput(key) || daoStateService.isUnlockingAndUnspent(key);
+        }
+
+        if (key.getIndex() >= tx.getTxOutputs().size())
+            return false;
+
+        TxOutputType txOutputType = tx.getTxOutputs().get(key.getIndex()).getTxOutputType();
+        return txOutputType == TxOutputType.LOCKUP_OUTPUT ||
+                (txOutputType == TxOutputType.UNLOCK_OUTPUT && !isLockTimeOver(tx));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // We iterate the blocks from the chain tip backwards and stop at the lowest height where one of the requested txs
+    // got confirmed. At startup that is a full scan, afterwards it is usually only the last block.
+    private void lookupTxs(Map<String, Integer> fromHeightByTxId, int heightOfLastBlock) {
+        int minHeight = Collections.min(fromHeightByTxId.values());
+        Set<String> pendingTxIds = new HashSet<>(fromHeightByTxId.keySet());
+        Iterator<Block> iterator = daoStateService.getBlocks().descendingIterator();
+        while (iterator.hasNext() && !pendingTxIds.isEmpty()) {
+            Block block = iterator.next();
+            if (block.getHeight() < minHeight)
+                break;
+
+            block.getTxs().stream()
+                    .filter(tx -> pendingTxIds.remove(tx.getId()))
+                    .forEach(this::addTx);
+        }
+
+        pendingTxIds.forEach(txId -> scannedHeightByUnknownTxId.put(txId, heightOfLastBlock));
+    }
+
+    private void addTx(Tx tx) {
+        scannedHeightByUnknownTxId.remove(tx.getId());
+        if (tx.getTxOutputs().stream().anyMatch(BsqBalanceModel::isRelevantTxOutput))
+            relevantTxByTxId.put(tx.getId(), tx);
+        else
+            otherTxIds.add(tx.getId());
+    }
+
+    // The unlockBlockHeight is stored in the first output of the UNLOCK tx.
+    private boolean isLockTimeOver(Tx unlockTx) {
+        return BondConsensus.isLockTimeOver(unlockTx.getUnlockBlockHeight(), daoStateService.getChainHeight());
+    }
+
+    // The first input of the UNLOCK tx spends the LOCKUP output.
+    private boolean isConfiscatedUnlockTx(Tx unlockTx) {
+        return !unlockTx.getTxInputs().isEmpty() &&
+                daoStateService.isConfiscatedLockupTxOutput(unlockTx.getTxInputs().get(0).getConnectedTxOutputTxId());
+    }
+
+    private static boolean isRelevantTxOutput(TxOutput txOutput) {
+        switch (txOutput.getTxOutputType()) {
+            case BLIND_VOTE_LOCK_STAKE_OUTPUT:
+            case LOCKUP_OUTPUT:
+            case UNLOCK_OUTPUT:
+                return true;
+            default:
+                return false;
+        }
+    }
+}
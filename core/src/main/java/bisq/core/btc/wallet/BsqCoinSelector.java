@@ -53,12 +53,18 @@ public class BsqCoinSelector extends BisqDefaultCoinSelector {
             return false;
 
         // If it is a normal confirmed BSQ output we use the default lookup at the daoState
-        if (daoStateService.isTxOutputSpendable(new TxOutputKey(parentTransaction.getHashAsString(), output.getIndex())))
+        TxOutputKey key = new TxOutputKey(parentTransaction.getHashAsString(), output.getIndex());
+        if (daoStateService.isTxOutputSpendable(key))
             return true;
 
+        // Unspent but not spendable outputs (e.g. lockup bonds) are in the unspent map, so we can avoid the
+        // expensive lookup over all txOutputs of the dao state.
+        if (daoStateService.isUnspent(key))
+            return false;
+
         // It might be that it is an unconfirmed change output which we allow to be used for spending without requiring a confirmation.
         // We check if we have the output in the dao state, if so we have a confirmed but unspendable output (e.g. confiscated).
-        if (daoStateService.getTxOutput(new TxOutputKey(parentTransaction.getHashAsString(), output.getIndex())).isPresent())
+        if (daoStateService.getTxOutput(key).isPresent())
             return false;
 
         // Only if its not existing yet in the dao state (unconfirmed) we use our unconfirmedBsqChangeOutputList to
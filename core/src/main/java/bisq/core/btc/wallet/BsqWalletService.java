@@ -91,6 +91,7 @@ public class BsqWalletService extends WalletService implements DaoStateListener
     private final NonBsqCoinSelector nonBsqCoinSelector;
     private final DaoStateService daoStateService;
     private final UnconfirmedBsqChangeOutputListService unconfirmedBsqChangeOutputListService;
+    private final BsqBalanceModel bsqBalanceModel;
     private final List<Transaction> walletTransactions = new ArrayList<>();
     private final CopyOnWriteArraySet<BsqBalanceListener> bsqBalanceListeners = new CopyOnWriteArraySet<>();
     private final List<WalletTransactionsChangeListener> walletTransactionsChangeListeners = new ArrayList<>();
@@ -133,6 +134,7 @@ public class BsqWalletService extends WalletService implements DaoStateListener
         this.nonBsqCoinSelector = nonBsqCoinSelector;
         this.daoStateService = daoStateService;
         this.unconfirmedBsqChangeOutputListService = unconfirmedBsqChangeOutputListService;
+        this.bsqBalanceModel = new BsqBalanceModel(daoStateService);
 
         walletsSetup.addSetupCompletedHandler(() -> {
             wallet = walletsSetup.getBsqWallet();
@@ -155,6 +157,7 @@ public class BsqWalletService extends WalletService implements DaoStateListener
                     @Override
                     public void onReorganize(Wallet wallet) {
                         log.warn("onReorganize ");
+                        bsqBalanceModel.reset();
                         updateBsqWalletTransactions();
                         unconfirmedBsqChangeOutputListService.onReorganize();
                     }
@@ -212,6 +215,12 @@ public class BsqWalletService extends WalletService implements DaoStateListener
         }
     }
 
+    @Override
+    public void onSnapshotApplied() {
+        // The txs of the previous daoState might not be valid anymore
+        bsqBalanceModel.reset();
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Overridden Methods
@@ -231,9 +240,22 @@ public class BsqWalletService extends WalletService implements DaoStateListener
 
     private void updateBsqBalance() {
         long ts = System.currentTimeMillis();
+        // walletTransactions got just updated, so we do not need to request the wallet transactions again
+        List<Transaction> pendingTransactions = new ArrayList<>();
+        List<Transaction> confirmedTransactions = new ArrayList<>();
+        walletTransactions.forEach(tx -> {
+            TransactionConfidence.ConfidenceType confidenceType = tx.getConfidence().getConfidenceType();
+            if (confidenceType == PENDING)
+                pendingTransactions.add(tx);
+            else if (confidenceType == BUILDING)
+                confirmedTransactions.add(tx);
+        });
+
+        // Only txs which got confirmed since the last update are looked up in the daoState
+        bsqBalanceModel.applyConfirmedTransactions(confirmedTransactions);
+
         unverifiedBalance = Coin.valueOf(
-                getTransactions(false).stream()
-                        .filter(tx -> tx.getConfidence().getConfidenceType() == PENDING)
+                pendingTransactions.stream()
                         .mapToLong(tx -> {
                             // Sum up outputs into BSQ wallet and subtract the inputs using lockup or unlocking
                             // outputs since those inputs will be accounted for in lockupBondsBalance and
@@ -256,8 +278,7 @@ public class BsqWalletService extends WalletService implements DaoStateListener
                                                         connectedOutput.getIndex());
 
                                                 return (connectedOutput.isMine(wallet)
-                                                        && (daoStateService.isLockupOutput(key)
-                                                        || daoStateService.isUnlockingAndUnspent(key)));
+                                                        && bsqBalanceModel.isUnspentLockupOrUnlockingOutput(key));
                                             }
                                         }
                                         return false;
@@ -269,31 +290,13 @@ public class BsqWalletService extends WalletService implements DaoStateListener
                         .sum()
         );
 
-        Set<String> confirmedTxIdSet = getTransactions(false).stream()
-                .filter(tx -> tx.getConfidence().getConfidenceType() == BUILDING)
-                .map(Transaction::getHashAsString)
-                .collect(Collectors.toSet());
-
-        lockedForVotingBalance = Coin.valueOf(daoStateService.getUnspentBlindVoteStakeTxOutputs().stream()
-                .filter(txOutput -> confirmedTxIdSet.contains(txOutput.getTxId()))
-                .mapToLong(TxOutput::getValue)
-                .sum());
-
-        lockupBondsBalance = Coin.valueOf(daoStateService.getLockupTxOutputs().stream()
-                .filter(txOutput -> daoStateService.isUnspent(txOutput.getKey()))
-                .filter(txOutput -> !daoStateService.isConfiscatedLockupTxOutput(txOutput.getTxId()))
-                .filter(txOutput -> confirmedTxIdSet.contains(txOutput.getTxId()))
-                .mapToLong(TxOutput::getValue)
-                .sum());
-
-        unlockingBondsBalance = Coin.valueOf(daoStateService.getUnspentUnlockingTxOutputsStream()
-                .filter(txOutput -> confirmedTxIdSet.contains(txOutput.getTxId()))
-                .filter(txOutput -> !daoStateService.isConfiscatedUnlockTxOutput(txOutput.getTxId()))
-                .mapToLong(TxOutput::getValue)
-                .sum());
+        lockedForVotingBalance = Coin.valueOf(bsqBalanceModel.getLockedForVotingBalance());
+        lockupBondsBalance = Coin.valueOf(bsqBalanceModel.getLockupBondsBalance());
+        unlockingBondsBalance = Coin.valueOf(bsqBalanceModel.getUnlockingBondsBalance());
 
+        List<TransactionOutput> spendCandidates = wallet.calculateAllSpendCandidates();
         availableConfirmedBalance = bsqCoinSelector.select(NetworkParameters.MAX_MONEY,
-                wallet.calculateAllSpendCandidates()).valueGathered;
+                spendCandidates).valueGathered;
 
         if (availableConfirmedBalance.isNegative())
             availableConfirmedBalance = Coin.ZERO;
@@ -301,7 +304,7 @@ public class BsqWalletService extends WalletService implements DaoStateListener
         unconfirmedChangeBalance = unconfirmedBsqChangeOutputListService.getBalance();
 
         availableNonBsqBalance = nonBsqCoinSelector.select(NetworkParameters.MAX_MONEY,
-                wallet.calculateAllSpendCandidates()).valueGathered;
+                spendCandidates).valueGathered;
 
         bsqBalanceListeners.forEach(e -> e.onUpdateBalances(availableConfirmedBalance, availableNonBsqBalance, unverifiedBalance,
                 unconfirmedChangeBalance, lockedForVotingBalance, lockupBondsBalance, unlockingBondsBalance));
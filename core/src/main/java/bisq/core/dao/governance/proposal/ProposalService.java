@@ -116,9 +116,9 @@ public class ProposalService implements HashMapChangedListener, AppendOnlyDataSt
     public void addListeners() {
         daoStateService.addDaoStateListener(this);
         // Listen for tempProposals
-        p2PService.addHashSetChangedListener(this);
+        p2PService.addHashSetChangedListener(TempProposalPayload.class, this);
         // Listen for proposalPayloads
-        p2PService.getP2PDataStorage().addAppendOnlyDataStoreListener(this);
+        p2PService.getP2PDataStorage().addAppendOnlyDataStoreListener(ProposalPayload.class, this);
     }
 
     @Override
@@ -208,11 +208,12 @@ public class ProposalService implements HashMapChangedListener, AppendOnlyDataSt
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     private void fillListFromProtectedStore() {
-        p2PService.getDataMap().values().forEach(e -> onProtectedDataAdded(e, false));
+        p2PService.getDataMap(TempProposalPayload.class).forEach(e -> onProtectedDataAdded(e, false));
     }
 
     private void fillListFromAppendOnlyDataStore() {
-        p2PService.getP2PDataStorage().getAppendOnlyDataStoreMap().values().forEach(e -> onAppendOnlyDataAdded(e, false));
+        p2PService.getP2PDataStorage().getPersistableNetworkPayloads(ProposalPayload.class)
+                .forEach(e -> onAppendOnlyDataAdded(e, false));
     }
 
     private void maybePublishToAppendOnlyDataStore() {
@@ -76,6 +76,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -486,15 +487,19 @@ public class VoteResultService implements DaoStateListener, DaoSetupService {
     private Optional<List<BlindVote>> findPermutatedListMatchingMajority(byte[] majorityVoteListHash) {
         List<BlindVote> list = BlindVoteConsensus.getSortedBlindVoteListOfCycle(blindVoteListService);
         long ts = System.currentTimeMillis();
-        List<List<BlindVote>> result = PermutationUtil.findAllPermutations(list, 1000000);
-        for (List<BlindVote> variation : result) {
-            if (isListMatchingMajority(majorityVoteListHash, variation, false)) {
-                log.info("We found a variation of the blind vote list which matches the majority hash. variation={}",
-                        variation);
-                log.info("findPermutatedListMatchingMajority for {} items took {} ms.",
-                        list.size(), (System.currentTimeMillis() - ts));
-                return Optional.of(variation);
-            }
+        // We serialize the blind votes only once and hash the permutations without creating the candidate lists.
+        List<byte[]> serializedBlindVotes = VoteRevealConsensus.getSerializedBlindVotes(list);
+        OptionalLong permutation = PermutationUtil.findFirstMatchingPermutation(list.size(),
+                candidate -> Arrays.equals(majorityVoteListHash,
+                        VoteRevealConsensus.getHashOfBlindVoteList(serializedBlindVotes, candidate)),
+                1000000);
+        if (permutation.isPresent()) {
+            List<BlindVote> variation = PermutationUtil.getPermutation(list, permutation.getAsLong());
+            log.info("We found a variation of the blind vote list which matches the majority hash. variation={}",
+                    variation);
+            log.info("findPermutatedListMatchingMajority for {} items took {} ms.",
+                    list.size(), (System.currentTimeMillis() - ts));
+            return Optional.of(variation);
         }
         log.info("We did not find a variation of the blind vote list which matches the majority hash.");
         log.info("findPermutatedListMatchingMajority for {} items took {} ms.",
@@ -25,10 +25,14 @@ import bisq.common.crypto.Hash;
 
 import javax.crypto.SecretKey;
 
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -37,6 +41,14 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public class VoteRevealConsensus {
+    // MessageDigest is not thread safe and the permutation search runs in parallel
+    private static final ThreadLocal<MessageDigest> SHA_256_DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    });
 
     public static byte[] getHashOfBlindVoteList(List<BlindVote> blindVotes) {
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
@@ -51,6 +63,29 @@ public class VoteRevealConsensus {
         return Hash.getSha256Ripemd160hash(outputStream.toByteArray());
     }
 
+    public static List<byte[]> getSerializedBlindVotes(List<BlindVote> blindVotes) {
+        return blindVotes.stream()
+                .map(blindVote -> blindVote.toProtoMessage().toByteArray())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the same hash as getHashOfBlindVoteList for the blind votes contained in the permutation, but uses the
+     * already serialized blind votes and does not concatenate them into a new array.
+     *
+     * @param serializedBlindVotes  Serialized blind votes as created by getSerializedBlindVotes
+     * @param permutation           Bit mask of the indices of the blind votes to use (see PermutationUtil)
+     * @return Hash of the blind vote list
+     */
+    public static byte[] getHashOfBlindVoteList(List<byte[]> serializedBlindVotes, long permutation) {
+        MessageDigest digest = SHA_256_DIGEST.get();
+        for (int i = 0; i < serializedBlindVotes.size() && i < 64; i++) {
+            if ((permutation & (1L << i)) != 0)
+                digest.update(serializedBlindVotes.get(i));
+        }
+        return Hash.getRipemd160hash(digest.digest());
+    }
+
     public static byte[] getOpReturnData(byte[] hashOfBlindVoteList, SecretKey secretKey) throws IOException {
         try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
             outputStream.write(OpReturnType.VOTE_REVEAL.getType());
@@ -20,12 +20,13 @@ package bisq.core.dao.node.explorer;
 import bisq.core.dao.DaoOptionKeys;
 import bisq.core.dao.DaoSetupService;
 import bisq.core.dao.state.DaoStateService;
-import bisq.core.dao.state.model.DaoState;
 import bisq.core.dao.state.model.blockchain.Block;
 import bisq.core.dao.state.model.blockchain.PubKeyScript;
 import bisq.core.dao.state.model.blockchain.Tx;
+import bisq.core.dao.state.model.blockchain.TxInput;
 import bisq.core.dao.state.model.blockchain.TxOutput;
 import bisq.core.dao.state.model.blockchain.TxType;
+import bisq.core.dao.state.model.governance.IssuanceType;
 
 import bisq.common.storage.FileUtil;
 import bisq.common.storage.JsonFileManager;
@@ -49,24 +50,56 @@ import java.io.File;
 import java.io.IOException;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
 
 import org.jetbrains.annotations.NotNull;
 
+import javax.annotation.Nullable;
+
+/**
+ * Exports the BSQ blocks, txs and tx outputs as json files for the block explorer.
+ * <p></p>
+ * The export is incremental. At each new block we only write the files of the txs of the new block and of the txs
+ * whose state got changed by the new block (spent outputs and issuance), and the files of the blocks containing them.
+ * Each block has its own file in the block directory. The blocks are listed in the append-only index file
+ * all/blocks.index (see JsonBlockIndex) and all/summary.json holds running totals, so the costs of a new block do not
+ * grow with the length of the chain.
+ * If the DAO state does not contain the last exported blocks anymore (reorg) we roll back the exported blocks until
+ * the fork point: the index gets truncated, the totals get reduced, the files of the removed blocks and txs get
+ * deleted and the txs which were affected by them get exported again.
+ */
 @Slf4j
 public class ExportJsonFilesService implements DaoSetupService {
     private final DaoStateService daoStateService;
     private final File storageDir;
     private final boolean dumpBlockchainData;
 
-    private final ListeningExecutorService executor = Utilities.getListeningExecutorService("JsonExporter",
-            1, 1, 1200);
-    private JsonFileManager txFileManager, txOutputFileManager, bsqStateFileManager;
+    private final ListeningExecutorService executor = Utilities.getListeningSingleThreadExecutor("JsonExporter");
+    private JsonFileManager txFileManager, txOutputFileManager, blockFileManager, bsqStateFileManager;
+
+    // Only accessed from the user thread
+    private final TreeMap<Integer, ExportedBlock> exportedBlockByHeight = new TreeMap<>();
+    private final Map<String, Tx> exportedTxById = new HashMap<>();
+    private int numTxs, numTxOutputs;
+    private long burntFee, invalidatedBsq;
+    // Only accessed from the executor thread
+    private JsonBlockIndex blockIndex;
 
     @Inject
     public ExportJsonFilesService(DaoStateService daoStateService,
@@ -92,12 +125,15 @@ public class ExportJsonFilesService implements DaoSetupService {
             File jsonDir = new File(Paths.get(storageDir.getAbsolutePath(), "json").toString());
             File txDir = new File(Paths.get(storageDir.getAbsolutePath(), "json", "tx").toString());
             File txOutputDir = new File(Paths.get(storageDir.getAbsolutePath(), "json", "txo").toString());
+            File blockDir = new File(Paths.get(storageDir.getAbsolutePath(), "json", "block").toString());
             File bsqStateDir = new File(Paths.get(storageDir.getAbsolutePath(), "json", "all").toString());
             try {
                 if (txDir.exists())
                     FileUtil.deleteDirectory(txDir);
                 if (txOutputDir.exists())
                     FileUtil.deleteDirectory(txOutputDir);
+                if (blockDir.exists())
+                    FileUtil.deleteDirectory(blockDir);
                 if (bsqStateDir.exists())
                     FileUtil.deleteDirectory(bsqStateDir);
                 if (jsonDir.exists())
@@ -116,19 +152,33 @@ public class ExportJsonFilesService implements DaoSetupService {
             if (!txOutputDir.mkdir())
                 log.warn("make txOutputDir failed.\ntxOutputDir=" + txOutputDir.getAbsolutePath());
 
+            if (!blockDir.mkdir())
+                log.warn("make blockDir failed.\nblockDir=" + blockDir.getAbsolutePath());
+
             if (!bsqStateDir.mkdir())
                 log.warn("make bsqStateDir failed.\nbsqStateDir=" + bsqStateDir.getAbsolutePath());
 
             txFileManager = new JsonFileManager(txDir);
             txOutputFileManager = new JsonFileManager(txOutputDir);
+            blockFileManager = new JsonFileManager(blockDir);
             bsqStateFileManager = new JsonFileManager(bsqStateDir);
+            File blockIndexFile = new File(bsqStateDir, "blocks.index");
+            executor.execute(() -> blockIndex = new JsonBlockIndex(blockIndexFile));
         }
     }
 
     public void shutDown() {
         if (dumpBlockchainData && txFileManager != null) {
+            // The pending exports submit their file operations to the file managers, so we let them complete first
+            executor.shutdown();
+            try {
+                executor.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
             txFileManager.shutDown();
             txOutputFileManager.shutDown();
+            blockFileManager.shutDown();
             bsqStateFileManager.shutDown();
         }
     }
@@ -138,25 +188,89 @@ public class ExportJsonFilesService implements DaoSetupService {
                 daoStateService.isParseBlockChainComplete()) {
             // We store the data we need once we write the data to disk (in the thread) locally.
             // Access to daoStateService is single threaded, we must not access daoStateService from the thread.
-            List<JsonTxOutput> allJsonTxOutputs = new ArrayList<>();
-
-            List<JsonTx> jsonTxs = daoStateService.getTxStream()
-                    .map(tx -> {
-                        JsonTx jsonTx = getJsonTx(tx);
-                        allJsonTxOutputs.addAll(jsonTx.getOutputs());
-                        return jsonTx;
-                    }).collect(Collectors.toList());
+            long ts = System.currentTimeMillis();
+            LinkedList<Block> blocks = daoStateService.getBlocks();
+            Set<String> changedTxIds = new HashSet<>();
+            Map<String, Tx> removedTxById = new HashMap<>();
+            Set<Integer> removedHeights = new HashSet<>();
+            rollBackToForkPoint(blocks, changedTxIds, removedTxById, removedHeights);
+            // The index lines of all removed blocks get truncated, also if a block at the same height gets added again
+            int forkHeight = removedHeights.isEmpty() ? Integer.MAX_VALUE : Collections.min(removedHeights);
+
+            List<Block> newBlocks = getNewBlocks(blocks);
+            newBlocks.forEach(block -> {
+                ExportedBlock exportedBlock = new ExportedBlock(block);
+                exportedBlockByHeight.put(block.getHeight(), exportedBlock);
+                block.getTxs().forEach(tx -> {
+                    exportedTxById.put(tx.getId(), tx);
+                    changedTxIds.add(tx.getId());
+                    // The outputs spent by the tx are changed as well
+                    tx.getTxInputs().forEach(txInput -> exportedBlock.affectedTxIds.add(txInput.getConnectedTxOutputTxId()));
+                });
+                addToTotals(exportedBlock.txs, 1);
+            });
+            // Height, hash and time of a block do not change, the txs are counted here
+            Map<Integer, Integer> numTxsByNewHeight = newBlocks.stream()
+                    .collect(Collectors.toMap(Block::getHeight, block -> block.getTxs().size()));
+
+            // Issuance changes the BSQ state of the issuance candidate output of a compensation or reimbursement request
+            if (!newBlocks.isEmpty()) {
+                int firstNewHeight = newBlocks.get(0).getHeight();
+                Arrays.stream(IssuanceType.values())
+                        .flatMap(issuanceType -> daoStateService.getIssuanceSet(issuanceType).stream())
+                        .filter(issuance -> issuance.getChainHeight() >= firstNewHeight)
+                        .forEach(issuance -> {
+                            ExportedBlock exportedBlock = exportedBlockByHeight.get(issuance.getChainHeight());
+                            if (exportedBlock != null)
+                                exportedBlock.affectedTxIds.add(issuance.getTxId());
+                        });
+                newBlocks.forEach(block -> changedTxIds.addAll(exportedBlockByHeight.get(block.getHeight()).affectedTxIds));
+            }
 
-            DaoState daoState = daoStateService.getClone();
-            List<JsonBlock> jsonBlockList = daoState.getBlocks().stream()
-                    .map(this::getJsonBlock)
-                    .collect(Collectors.toList());
-            JsonBlocks jsonBlocks = new JsonBlocks(daoState.getChainHeight(), jsonBlockList);
+            changedTxIds.retainAll(exportedTxById.keySet());
+            // A tx of a removed block might be included again in a new block
+            removedTxById.keySet().removeAll(exportedTxById.keySet());
+            removedHeights.removeAll(exportedBlockByHeight.keySet());
+            if (changedTxIds.isEmpty() && removedTxById.isEmpty() && removedHeights.isEmpty() && newBlocks.isEmpty())
+                return;
+
+            // We serialize the new blocks and all blocks containing a changed tx again
+            Set<Integer> changedHeights = new TreeSet<>(numTxsByNewHeight.keySet());
+            changedTxIds.forEach(txId -> changedHeights.add(exportedTxById.get(txId).getBlockHeight()));
+            Map<Integer, JsonBlock> changedJsonBlocks = new TreeMap<>();
+            List<JsonTx> changedJsonTxs = new ArrayList<>();
+            changedHeights.forEach(height -> {
+                JsonBlock jsonBlock = getJsonBlock(getBlock(blocks, height));
+                changedJsonBlocks.put(height, jsonBlock);
+                jsonBlock.getTxs().stream()
+                        .filter(jsonTx -> changedTxIds.contains(jsonTx.getId()))
+                        .forEach(changedJsonTxs::add);
+            });
+            List<Tx> removedTxs = new ArrayList<>(removedTxById.values());
+            JsonBsqStateSummary summary = new JsonBsqStateSummary(daoStateService.getChainHeight(),
+                    exportedBlockByHeight.size(), numTxs, numTxOutputs, burntFee, invalidatedBsq);
+            log.info("Exporting {} changed txs and {} changed blocks to json took {} ms on the user thread",
+                    changedJsonTxs.size(), changedJsonBlocks.size(), System.currentTimeMillis() - ts);
 
             ListenableFuture<Void> future = executor.submit(() -> {
-                bsqStateFileManager.writeToDisc(Utilities.objectToJson(jsonBlocks), "blocks");
-                allJsonTxOutputs.forEach(jsonTxOutput -> txOutputFileManager.writeToDisc(Utilities.objectToJson(jsonTxOutput), jsonTxOutput.getId()));
-                jsonTxs.forEach(jsonTx -> txFileManager.writeToDisc(Utilities.objectToJson(jsonTx), jsonTx.getId()));
+                if (forkHeight != Integer.MAX_VALUE)
+                    blockIndex.truncate(forkHeight);
+                removedHeights.forEach(height -> blockFileManager.deleteFile(String.valueOf(height)));
+                changedJsonBlocks.forEach((height, jsonBlock) -> blockFileManager.writeToDiscAsJson(jsonBlock, String.valueOf(height)));
+                for (Block block : newBlocks) {
+                    blockIndex.append(block.getHeight(), block.getHash(), block.getTime(),
+                            numTxsByNewHeight.get(block.getHeight()));
+                }
+                bsqStateFileManager.writeToDiscAsJson(summary, "summary");
+
+                removedTxs.forEach(tx -> {
+                    tx.getTxOutputs().forEach(txOutput -> txOutputFileManager.deleteFile(tx.getId() + ":" + txOutput.getIndex()));
+                    txFileManager.deleteFile(tx.getId());
+                });
+                changedJsonTxs.forEach(jsonTx -> {
+                    jsonTx.getOutputs().forEach(jsonTxOutput -> txOutputFileManager.writeToDiscAsJson(jsonTxOutput, jsonTxOutput.getId()));
+                    txFileManager.writeToDiscAsJson(jsonTx, jsonTx.getId());
+                });
                 return null;
             });
 
@@ -172,6 +286,69 @@ public class ExportJsonFilesService implements DaoSetupService {
         }
     }
 
+    // We remove the exported blocks which are not in the DAO state anymore. The txs of the removed blocks and the txs
+    // which have been affected by them need to be exported again or deleted.
+    private void rollBackToForkPoint(LinkedList<Block> blocks,
+                                     Set<String> changedTxIds,
+                                     Map<String, Tx> removedTxById,
+                                     Set<Integer> removedHeights) {
+        while (!exportedBlockByHeight.isEmpty()) {
+            Map.Entry<Integer, ExportedBlock> lastEntry = exportedBlockByHeight.lastEntry();
+            Block block = getBlock(blocks, lastEntry.getKey());
+            ExportedBlock exportedBlock = lastEntry.getValue();
+            if (block != null && block.getHash().equals(exportedBlock.hash))
+                break;
+
+            log.info("Exported block at height {} is not in the DAO state anymore. We roll back the exported data.",
+                    lastEntry.getKey());
+            exportedBlockByHeight.pollLastEntry();
+            removedHeights.add(lastEntry.getKey());
+            exportedBlock.txs.forEach(tx -> {
+                exportedTxById.remove(tx.getId());
+                removedTxById.put(tx.getId(), tx);
+            });
+            changedTxIds.addAll(exportedBlock.affectedTxIds);
+            addToTotals(exportedBlock.txs, -1);
+        }
+    }
+
+    private void addToTotals(List<Tx> txs, int sign) {
+        numTxs += sign * txs.size();
+        txs.forEach(tx -> {
+            numTxOutputs += sign * tx.getTxOutputs().size();
+            burntFee += sign * tx.getBurntFee();
+            invalidatedBsq += sign * tx.getInvalidatedBsq();
+        });
+    }
+
+    private List<Block> getNewBlocks(LinkedList<Block> blocks) {
+        int lastExportedHeight = exportedBlockByHeight.isEmpty() ? Integer.MIN_VALUE : exportedBlockByHeight.lastKey();
+        LinkedList<Block> newBlocks = new LinkedList<>();
+        Iterator<Block> iterator = blocks.descendingIterator();
+        while (iterator.hasNext()) {
+            Block block = iterator.next();
+            if (block.getHeight() <= lastExportedHeight)
+                break;
+            newBlocks.addFirst(block);
+        }
+        return newBlocks;
+    }
+
+    // Blocks in the DAO state have consecutive heights. LinkedList.get iterates from the closer end of the list, so
+    // lookups of recent blocks are cheap.
+    @Nullable
+    private Block getBlock(LinkedList<Block> blocks, int height) {
+        if (blocks.isEmpty())
+            return null;
+
+        int index = height - blocks.getFirst().getHeight();
+        if (index < 0 || index >= blocks.size())
+            return null;
+
+        Block block = blocks.get(index);
+        return block.getHeight() == height ? block : daoStateService.getBlockAtHeight(height).orElse(null);
+    }
+
     private JsonBlock getJsonBlock(Block block) {
         List<JsonTx> jsonTxs = block.getTxs().stream()
                 .map(this::getJsonTx)
@@ -202,7 +379,7 @@ public class ExportJsonFilesService implements DaoSetupService {
     private List<JsonTxInput> getJsonTxInputs(Tx tx) {
         return tx.getTxInputs().stream()
                 .map(txInput -> {
-                    Optional<TxOutput> optionalTxOutput = daoStateService.getConnectedTxOutput(txInput);
+                    Optional<TxOutput> optionalTxOutput = getConnectedTxOutput(txInput);
                     if (optionalTxOutput.isPresent()) {
                         TxOutput connectedTxOutput = optionalTxOutput.get();
                         boolean isBsqTxOutputType = daoStateService.isBsqTxOutputType(connectedTxOutput);
@@ -259,6 +436,15 @@ public class ExportJsonFilesService implements DaoSetupService {
                 .collect(Collectors.toList());
     }
 
+    // DaoStateService.getConnectedTxOutput iterates over all txs, so we look up the txs we have exported first.
+    private Optional<TxOutput> getConnectedTxOutput(TxInput txInput) {
+        Tx connectedTx = exportedTxById.get(txInput.getConnectedTxOutputTxId());
+        if (connectedTx == null)
+            return daoStateService.getConnectedTxOutput(txInput);
+
+        return Optional.of(connectedTx.getTxOutputs().get(txInput.getConnectedTxOutputIndex()));
+    }
+
     private String getJsonTxTypeDisplayString(JsonTxType jsonTxType) {
         return jsonTxType != null ? jsonTxType.getDisplayString() : "";
     }
@@ -267,4 +453,21 @@ public class ExportJsonFilesService implements DaoSetupService {
         TxType txType = tx.getTxType();
         return txType != null ? JsonTxType.valueOf(txType.name()) : null;
     }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Static class
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static class ExportedBlock {
+        private final String hash;
+        private final List<Tx> txs;
+        // Txs of earlier blocks whose json data got changed by this block
+        private final Set<String> affectedTxIds = new HashSet<>();
+
+        ExportedBlock(Block block) {
+            this.hash = block.getHash();
+            this.txs = new ArrayList<>(block.getTxs());
+        }
+    }
 }
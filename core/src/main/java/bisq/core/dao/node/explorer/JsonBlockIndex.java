@@ -0,0 +1,83 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.node.explorer;
+
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Append-only index of the exported blocks. Each block has one line with height, hash, time and number of txs,
+ * separated by a space, in the order of the heights. A new block only appends its line. At a reorg the file gets
+ * truncated at the line of the fork point, so the lines of the blocks before it are never rewritten.
+ * <p></p>
+ * Not thread safe. Only used from the executor thread of the ExportJsonFilesService.
+ */
+@Slf4j
+class JsonBlockIndex {
+    private final File file;
+    // Offset of the line of each block, by the height minus the height of the first block
+    private final List<Long> offsets = new ArrayList<>();
+    private int firstHeight;
+    private long length;
+
+    JsonBlockIndex(File file) {
+        this.file = file;
+        if (file.exists() && !file.delete())
+            log.warn("Could not delete file: " + file);
+    }
+
+    void append(int height, String hash, long time, int numTxs) throws IOException {
+        if (offsets.isEmpty())
+            firstHeight = height;
+        else if (height != firstHeight + offsets.size())
+            throw new IllegalArgumentException("Blocks must be appended with consecutive heights. height=" + height +
+                    ", expected height=" + (firstHeight + offsets.size()));
+
+        byte[] line = (height + " " + hash + " " + time + " " + numTxs + "\n").getBytes(StandardCharsets.UTF_8);
+        try (FileOutputStream fileOutputStream = new FileOutputStream(file, true)) {
+            fileOutputStream.write(line);
+        }
+        offsets.add(length);
+        length += line.length;
+    }
+
+    // Removes the lines of all blocks from the given height on
+    void truncate(int fromHeight) throws IOException {
+        int index = Math.max(0, fromHeight - firstHeight);
+        if (index >= offsets.size())
+            return;
+
+        long newLength = offsets.get(index);
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+             FileChannel channel = randomAccessFile.getChannel()) {
+            channel.truncate(newLength);
+        }
+        offsets.subList(index, offsets.size()).clear();
+        length = newLength;
+    }
+}
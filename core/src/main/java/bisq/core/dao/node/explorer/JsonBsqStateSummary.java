@@ -17,12 +17,15 @@
 
 package bisq.core.dao.node.explorer;
 
-import java.util.List;
-
 import lombok.Value;
 
+// Running totals of the exported blocks
 @Value
-class JsonBlocks {
-    private int chainHeight;
-    private final List<JsonBlock> blocks;
+class JsonBsqStateSummary {
+    private final int chainHeight;
+    private final int numBlocks;
+    private final int numTxs;
+    private final int numTxOutputs;
+    private final long burntFee;
+    private final long invalidatedBsq;
 }
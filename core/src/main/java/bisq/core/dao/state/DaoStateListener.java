@@ -37,4 +37,9 @@ public interface DaoStateListener {
     // block arrives.
     default void onDaoStateChanged(Block block) {
     }
+
+    // Called after a snapshot got applied at startup, at a reorg or at a resync. The daoState might have been rolled
+    // back, so data derived from it needs to be rebuilt.
+    default void onSnapshotApplied() {
+    }
 }
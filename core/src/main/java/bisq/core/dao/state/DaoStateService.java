@@ -41,11 +41,12 @@ import org.bitcoinj.core.Coin;
 
 import javax.inject.Inject;
 
-import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeMap;
@@ -69,6 +70,10 @@ public class DaoStateService implements DaoSetupService {
     private final GenesisTxInfo genesisTxInfo;
     private final BsqFormatter bsqFormatter;
     private final List<DaoStateListener> daoStateListeners = new CopyOnWriteArrayList<>();
+    // Param values by activation height. Derived from the paramChangeList for fast lookup by height.
+    private final Map<Param, TreeMap<Integer, String>> paramValueByHeightMap = new EnumMap<>(Param.class);
+    // Cycles by the height of their first block. Derived from the cycle list for fast lookup by height.
+    private final TreeMap<Integer, Cycle> cycleByFirstBlockHeightMap = new TreeMap<>();
     @Getter
     private boolean parseBlockChainComplete;
     private boolean allowDaoStateChange;
@@ -83,6 +88,9 @@ public class DaoStateService implements DaoSetupService {
         this.daoState = daoState;
         this.genesisTxInfo = genesisTxInfo;
         this.bsqFormatter = bsqFormatter;
+
+        buildParamValueByHeightMap();
+        buildCycleByFirstBlockHeightMap();
     }
 
 
@@ -119,6 +127,7 @@ public class DaoStateService implements DaoSetupService {
 
         daoState.getCycles().clear();
         daoState.getCycles().addAll(snapshot.getCycles());
+        buildCycleByFirstBlockHeightMap();
 
         daoState.getUnspentTxOutputMap().clear();
         daoState.getUnspentTxOutputMap().putAll(snapshot.getUnspentTxOutputMap());
@@ -134,12 +143,15 @@ public class DaoStateService implements DaoSetupService {
 
         daoState.getParamChangeList().clear();
         daoState.getParamChangeList().addAll(snapshot.getParamChangeList());
+        buildParamValueByHeightMap();
 
         daoState.getEvaluatedProposalList().clear();
         daoState.getEvaluatedProposalList().addAll(snapshot.getEvaluatedProposalList());
 
         daoState.getDecryptedBallotsWithMeritsList().clear();
         daoState.getDecryptedBallotsWithMeritsList().addAll(snapshot.getDecryptedBallotsWithMeritsList());
+
+        daoStateListeners.forEach(DaoStateListener::onSnapshotApplied);
     }
 
     public DaoState getClone() {
@@ -175,6 +187,7 @@ public class DaoStateService implements DaoSetupService {
     public void addCycle(Cycle cycle) {
         assertDaoStateChange();
         getCycles().add(cycle);
+        addToCycleByFirstBlockHeightMap(cycle);
     }
 
     @Nullable
@@ -183,10 +196,11 @@ public class DaoStateService implements DaoSetupService {
     }
 
     public Optional<Cycle> getCycle(int height) {
-        return getCycles().stream()
-                .filter(cycle -> cycle.getHeightOfFirstBlock() <= height)
-                .filter(cycle -> cycle.getHeightOfLastBlock() >= height)
-                .findAny();
+        // Cycles do not overlap, so only the cycle with the closest first block can contain the height
+        Map.Entry<Integer, Cycle> entry = cycleByFirstBlockHeightMap.floorEntry(height);
+        return entry != null && entry.getValue().getHeightOfLastBlock() >= height ?
+                Optional.of(entry.getValue()) :
+                Optional.empty();
     }
 
     public Optional<Integer> getStartHeightOfNextCycle(int blockHeight) {
@@ -898,20 +912,17 @@ public class DaoStateService implements DaoSetupService {
                     paramChangeList.add(paramChange);
                     // Addition with older height should not be possible but to ensure correct sorting lets run a sort.
                     paramChangeList.sort(Comparator.comparingInt(ParamChange::getActivationHeight));
+                    addToParamValueByHeightMap(paramChange);
                 });
     }
 
     public String getParamValue(Param param, int blockHeight) {
-        List<ParamChange> paramChangeList = new ArrayList<>(daoState.getParamChangeList());
-        if (!paramChangeList.isEmpty()) {
-            // List is sorted by height, we start from latest entries to find most recent entry.
-            for (int i = paramChangeList.size() - 1; i >= 0; i--) {
-                ParamChange paramChange = paramChangeList.get(i);
-                if (paramChange.getParamName().equals(param.name()) &&
-                        blockHeight >= paramChange.getActivationHeight()) {
-                    return paramChange.getValue();
-                }
-            }
+        TreeMap<Integer, String> valueByHeight = paramValueByHeightMap.get(param);
+        if (valueByHeight != null) {
+            // Most recent entry with an activation height not above blockHeight
+            Map.Entry<Integer, String> entry = valueByHeight.floorEntry(blockHeight);
+            if (entry != null)
+                return entry.getValue();
         }
 
         // If no value found we use default values
@@ -1035,6 +1046,34 @@ public class DaoStateService implements DaoSetupService {
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    private void buildCycleByFirstBlockHeightMap() {
+        cycleByFirstBlockHeightMap.clear();
+        getCycles().forEach(this::addToCycleByFirstBlockHeightMap);
+    }
+
+    private void addToCycleByFirstBlockHeightMap(Cycle cycle) {
+        // In case of multiple cycles with the same first block the first one wins as before.
+        cycleByFirstBlockHeightMap.putIfAbsent(cycle.getHeightOfFirstBlock(), cycle);
+    }
+
+    private void buildParamValueByHeightMap() {
+        paramValueByHeightMap.clear();
+        // List is sorted by height, so in case of multiple changes at the same height the last one wins as before.
+        daoState.getParamChangeList().forEach(this::addToParamValueByHeightMap);
+    }
+
+    private void addToParamValueByHeightMap(ParamChange paramChange) {
+        Param param;
+        try {
+            param = Param.valueOf(paramChange.getParamName());
+        } catch (IllegalArgumentException e) {
+            log.warn("Unknown param name {} in paramChange. We ignore that entry.", paramChange.getParamName());
+            return;
+        }
+        paramValueByHeightMap.computeIfAbsent(param, k -> new TreeMap<>())
+                .put(paramChange.getActivationHeight(), paramChange.getValue());
+    }
+
     private void assertDaoStateChange() {
         if (!allowDaoStateChange)
             throw new RuntimeException("We got a call which would change the daoState outside of the allowed event phase");
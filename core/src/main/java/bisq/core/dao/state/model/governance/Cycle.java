@@ -26,6 +26,9 @@ import com.google.common.collect.ImmutableList;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.ToString;
 import lombok.Value;
 
 import javax.annotation.concurrent.Immutable;
@@ -41,6 +44,21 @@ public class Cycle implements PersistablePayload, ImmutableDaoStateModel {
     private final ImmutableList<DaoPhase> daoPhaseList;
     private final int heightOfFirstBlock;
 
+    // Phase boundaries are derived from the daoPhaseList once as they are looked up for each tx.
+    // Arrays are indexed by the ordinal of the phase.
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    private final transient int[] firstBlockOfPhase;
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    private final transient int[] durationOfFirstPhaseItem;
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    private final transient int[] durationOfPhase;
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    private final transient int duration;
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Constructor
@@ -49,6 +67,28 @@ public class Cycle implements PersistablePayload, ImmutableDaoStateModel {
     public Cycle(int heightOfFirstBlock, ImmutableList<DaoPhase> daoPhaseList) {
         this.heightOfFirstBlock = heightOfFirstBlock;
         this.daoPhaseList = daoPhaseList;
+
+        int numPhases = DaoPhase.Phase.values().length;
+        firstBlockOfPhase = new int[numPhases];
+        durationOfFirstPhaseItem = new int[numPhases];
+        durationOfPhase = new int[numPhases];
+        boolean[] hasPhaseItem = new boolean[numPhases];
+        int totalDuration = 0;
+        for (DaoPhase item : daoPhaseList) {
+            int ordinal = item.getPhase().ordinal();
+            // Phases after the item start later by its duration
+            for (int i = ordinal + 1; i < numPhases; i++)
+                firstBlockOfPhase[i] += item.getDuration();
+            if (!hasPhaseItem[ordinal]) {
+                hasPhaseItem[ordinal] = true;
+                durationOfFirstPhaseItem[ordinal] = item.getDuration();
+            }
+            durationOfPhase[ordinal] += item.getDuration();
+            totalDuration += item.getDuration();
+        }
+        for (int i = 0; i < numPhases; i++)
+            firstBlockOfPhase[i] += heightOfFirstBlock;
+        duration = totalDuration;
     }
 
 
@@ -91,9 +131,7 @@ public class Cycle implements PersistablePayload, ImmutableDaoStateModel {
     }
 
     public int getFirstBlockOfPhase(DaoPhase.Phase phase) {
-        return heightOfFirstBlock + daoPhaseList.stream()
-                .filter(item -> item.getPhase().ordinal() < phase.ordinal())
-                .mapToInt(DaoPhase::getDuration).sum();
+        return firstBlockOfPhase[phase.ordinal()];
     }
 
     public int getLastBlockOfPhase(DaoPhase.Phase phase) {
@@ -101,29 +139,23 @@ public class Cycle implements PersistablePayload, ImmutableDaoStateModel {
     }
 
     public int getDurationOfPhase(DaoPhase.Phase phase) {
-        return daoPhaseList.stream()
-                .filter(item -> item.getPhase() == phase)
-                .mapToInt(DaoPhase::getDuration)
-                .sum();
+        return durationOfPhase[phase.ordinal()];
     }
 
     public Optional<DaoPhase.Phase> getPhaseForHeight(int height) {
-        return daoPhaseList.stream()
-                .filter(item -> isInPhase(height, item.getPhase()))
-                .map(DaoPhase::getPhase)
-                .findAny();
-    }
-
-    private Optional<DaoPhase> getPhaseWrapper(DaoPhase.Phase phase) {
-        return daoPhaseList.stream().filter(item -> item.getPhase() == phase).findAny();
+        for (DaoPhase item : daoPhaseList) {
+            if (isInPhase(height, item.getPhase()))
+                return Optional.of(item.getPhase());
+        }
+        return Optional.empty();
     }
 
     private int getDuration(DaoPhase.Phase phase) {
-        return getPhaseWrapper(phase).map(DaoPhase::getDuration).orElse(0);
+        return durationOfFirstPhaseItem[phase.ordinal()];
     }
 
     public int getDuration() {
-        return daoPhaseList.stream().mapToInt(DaoPhase::getDuration).sum();
+        return duration;
     }
 
     @Override
@@ -0,0 +1,184 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.filter;
+
+import bisq.core.payment.payload.PaymentAccountPayload;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import java.lang.reflect.Method;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * The rules of a filter prepared for constant time lookups. It is immutable, so a new filter only requires to swap the
+ * instance.
+ */
+@Slf4j
+final class CompiledFilter {
+    static final CompiledFilter EMPTY = new CompiledFilter(null);
+
+    // Methods of the payment account payloads by class and name. Optional.empty() if the payload has no such method.
+    private static final Map<Class<?>, Map<String, Optional<Method>>> methodsByClass = new ConcurrentHashMap<>();
+
+    // The filter we got compiled from
+    @Getter
+    @Nullable
+    private final Filter filter;
+    private final Set<String> bannedOfferIds;
+    private final Set<String> bannedNodeAddresses;
+    private final Set<String> bannedCurrencies;
+    private final Set<String> bannedPaymentMethodIds;
+    // Index of the first PaymentAccountFilter in the list of the filter by its lower case value, by the name of the get
+    // method and by the payment method ID.
+    private final Map<String, Map<String, Map<String, Integer>>> bannedPaymentAccountsByPaymentMethodId;
+    private final List<PaymentAccountFilter> bannedPaymentAccounts;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    CompiledFilter(@Nullable Filter filter) {
+        this.filter = filter;
+        if (filter == null) {
+            bannedOfferIds = Collections.emptySet();
+            bannedNodeAddresses = Collections.emptySet();
+            bannedCurrencies = Collections.emptySet();
+            bannedPaymentMethodIds = Collections.emptySet();
+            bannedPaymentAccountsByPaymentMethodId = Collections.emptyMap();
+            bannedPaymentAccounts = Collections.emptyList();
+            return;
+        }
+
+        bannedOfferIds = toSet(filter.getBannedOfferIds());
+        bannedNodeAddresses = toSet(filter.getBannedNodeAddress());
+        bannedCurrencies = toSet(filter.getBannedCurrencies());
+        bannedPaymentMethodIds = toSet(filter.getBannedPaymentMethods());
+
+        bannedPaymentAccounts = filter.getBannedPaymentAccounts() != null ?
+                filter.getBannedPaymentAccounts() :
+                Collections.emptyList();
+        Map<String, Map<String, Map<String, Integer>>> map = new HashMap<>();
+        for (int i = 0; i < bannedPaymentAccounts.size(); i++) {
+            PaymentAccountFilter paymentAccountFilter = bannedPaymentAccounts.get(i);
+            if (paymentAccountFilter.getPaymentMethodId() == null ||
+                    paymentAccountFilter.getGetMethodName() == null ||
+                    paymentAccountFilter.getValue() == null)
+                continue;
+
+            map.computeIfAbsent(paymentAccountFilter.getPaymentMethodId(), k -> new LinkedHashMap<>())
+                    .computeIfAbsent(paymentAccountFilter.getGetMethodName(), k -> new HashMap<>())
+                    .putIfAbsent(paymentAccountFilter.getValue().toLowerCase(), i);
+        }
+        ImmutableMap.Builder<String, Map<String, Map<String, Integer>>> builder = ImmutableMap.builder();
+        map.forEach((paymentMethodId, valuesByMethodName) -> {
+            ImmutableMap.Builder<String, Map<String, Integer>> valuesBuilder = ImmutableMap.builder();
+            valuesByMethodName.forEach((methodName, values) -> valuesBuilder.put(methodName, ImmutableMap.copyOf(values)));
+            builder.put(paymentMethodId, valuesBuilder.build());
+        });
+        bannedPaymentAccountsByPaymentMethodId = builder.build();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    boolean isOfferIdBanned(String offerId) {
+        return bannedOfferIds.contains(offerId);
+    }
+
+    boolean isNodeAddressBanned(String fullAddress) {
+        return bannedNodeAddresses.contains(fullAddress);
+    }
+
+    boolean isCurrencyBanned(String currencyCode) {
+        return bannedCurrencies.contains(currencyCode);
+    }
+
+    boolean isPaymentMethodBanned(String paymentMethodId) {
+        return bannedPaymentMethodIds.contains(paymentMethodId);
+    }
+
+    /**
+     * @return The first PaymentAccountFilter of the filter which matches the data of the paymentAccountPayload
+     */
+    Optional<PaymentAccountFilter> getBannedPaymentAccountFilter(PaymentAccountPayload paymentAccountPayload) {
+        Map<String, Map<String, Integer>> valuesByMethodName =
+                bannedPaymentAccountsByPaymentMethodId.get(paymentAccountPayload.getPaymentMethodId());
+        if (valuesByMethodName == null)
+            return Optional.empty();
+
+        int index = Integer.MAX_VALUE;
+        for (Map.Entry<String, Map<String, Integer>> entry : valuesByMethodName.entrySet()) {
+            String value = getValue(paymentAccountPayload, entry.getKey());
+            if (value != null) {
+                Integer candidate = entry.getValue().get(value.toLowerCase());
+                if (candidate != null)
+                    index = Math.min(index, candidate);
+            }
+        }
+        return index != Integer.MAX_VALUE ? Optional.of(bannedPaymentAccounts.get(index)) : Optional.empty();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static Set<String> toSet(@Nullable Collection<String> collection) {
+        return collection != null ? ImmutableSet.copyOf(collection) : Collections.emptySet();
+    }
+
+    @Nullable
+    private static String getValue(PaymentAccountPayload paymentAccountPayload, String methodName) {
+        Optional<Method> method = methodsByClass.computeIfAbsent(paymentAccountPayload.getClass(), k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(methodName, k -> {
+                    try {
+                        return Optional.of(paymentAccountPayload.getClass().getMethod(methodName));
+                    } catch (NoSuchMethodException e) {
+                        log.error(e.getMessage());
+                        return Optional.empty();
+                    }
+                });
+        if (!method.isPresent())
+            return null;
+
+        try {
+            return (String) method.get().invoke(paymentAccountPayload);
+        } catch (Throwable e) {
+            log.error(e.getMessage());
+            return null;
+        }
+    }
+}
@@ -57,8 +57,6 @@ import java.util.Optional;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 
-import java.lang.reflect.Method;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -91,6 +89,8 @@ public class FilterManager {
     private boolean ignoreDevMsg;
     private final ObjectProperty<Filter> filterProperty = new SimpleObjectProperty<>();
     private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    // Compiled from the filter of the filterProperty at the first lookup after the filter has changed
+    private volatile CompiledFilter compiledFilter = CompiledFilter.EMPTY;
 
     private final String pubKeyAsHex;
     private ECKey filterSigningKey;
@@ -323,29 +323,19 @@ public class FilterManager {
     }
 
     public boolean isCurrencyBanned(String currencyCode) {
-        return getFilter() != null &&
-                getFilter().getBannedCurrencies() != null &&
-                getFilter().getBannedCurrencies().stream()
-                        .anyMatch(e -> e.equals(currencyCode));
+        return getCompiledFilter().isCurrencyBanned(currencyCode);
     }
 
     public boolean isPaymentMethodBanned(PaymentMethod paymentMethod) {
-        return getFilter() != null &&
-                getFilter().getBannedPaymentMethods() != null &&
-                getFilter().getBannedPaymentMethods().stream()
-                        .anyMatch(e -> e.equals(paymentMethod.getId()));
+        return getCompiledFilter().isPaymentMethodBanned(paymentMethod.getId());
     }
 
     public boolean isOfferIdBanned(String offerId) {
-        return getFilter() != null &&
-                getFilter().getBannedOfferIds().stream()
-                        .anyMatch(e -> e.equals(offerId));
+        return getCompiledFilter().isOfferIdBanned(offerId);
     }
 
     public boolean isNodeAddressBanned(NodeAddress nodeAddress) {
-        return getFilter() != null &&
-                getFilter().getBannedNodeAddress().stream()
-                        .anyMatch(e -> e.equals(nodeAddress.getFullAddress()));
+        return getCompiledFilter().isNodeAddressBanned(nodeAddress.getFullAddress());
     }
 
     public boolean requireUpdateToNewVersionForTrading() {
@@ -378,24 +368,18 @@ public class FilterManager {
 
     public boolean isPeersPaymentAccountDataAreBanned(PaymentAccountPayload paymentAccountPayload,
                                                       PaymentAccountFilter[] appliedPaymentAccountFilter) {
-        return getFilter() != null &&
-                getFilter().getBannedPaymentAccounts().stream()
-                        .anyMatch(paymentAccountFilter -> {
-                            final boolean samePaymentMethodId = paymentAccountFilter.getPaymentMethodId().equals(
-                                    paymentAccountPayload.getPaymentMethodId());
-                            if (samePaymentMethodId) {
-                                try {
-                                    Method method = paymentAccountPayload.getClass().getMethod(paymentAccountFilter.getGetMethodName());
-                                    String result = (String) method.invoke(paymentAccountPayload);
-                                    appliedPaymentAccountFilter[0] = paymentAccountFilter;
-                                    return result.toLowerCase().equals(paymentAccountFilter.getValue().toLowerCase());
-                                } catch (Throwable e) {
-                                    log.error(e.getMessage());
-                                    return false;
-                                }
-                            } else {
-                                return false;
-                            }
-                        });
+        Optional<PaymentAccountFilter> paymentAccountFilter = getCompiledFilter().getBannedPaymentAccountFilter(paymentAccountPayload);
+        paymentAccountFilter.ifPresent(e -> appliedPaymentAccountFilter[0] = e);
+        return paymentAccountFilter.isPresent();
+    }
+
+    private CompiledFilter getCompiledFilter() {
+        Filter filter = getFilter();
+        CompiledFilter compiledFilter = this.compiledFilter;
+        if (compiledFilter.getFilter() != filter) {
+            compiledFilter = new CompiledFilter(filter);
+            this.compiledFilter = compiledFilter;
+        }
+        return compiledFilter;
     }
 }
@@ -32,7 +32,6 @@ import bisq.common.handlers.ErrorMessageHandler;
 import bisq.common.handlers.ResultHandler;
 import bisq.common.storage.JsonFileManager;
 import bisq.common.storage.Storage;
-import bisq.common.util.Utilities;
 
 import com.google.inject.name.Named;
 
@@ -84,28 +83,24 @@ public class OfferBookService {
         this.filterManager = filterManager;
         jsonFileManager = new JsonFileManager(storageDir);
 
-        p2PService.addHashSetChangedListener(new HashMapChangedListener() {
+        p2PService.addHashSetChangedListener(OfferPayload.class, new HashMapChangedListener() {
             @Override
             public void onAdded(ProtectedStorageEntry data) {
                 offerBookChangedListeners.stream().forEach(listener -> {
-                    if (data.getProtectedStoragePayload() instanceof OfferPayload) {
-                        OfferPayload offerPayload = (OfferPayload) data.getProtectedStoragePayload();
-                        Offer offer = new Offer(offerPayload);
-                        offer.setPriceFeedService(priceFeedService);
-                        listener.onAdded(offer);
-                    }
+                    OfferPayload offerPayload = (OfferPayload) data.getProtectedStoragePayload();
+                    Offer offer = new Offer(offerPayload);
+                    offer.setPriceFeedService(priceFeedService);
+                    listener.onAdded(offer);
                 });
             }
 
             @Override
             public void onRemoved(ProtectedStorageEntry data) {
                 offerBookChangedListeners.stream().forEach(listener -> {
-                    if (data.getProtectedStoragePayload() instanceof OfferPayload) {
-                        OfferPayload offerPayload = (OfferPayload) data.getProtectedStoragePayload();
-                        Offer offer = new Offer(offerPayload);
-                        offer.setPriceFeedService(priceFeedService);
-                        listener.onRemoved(offer);
-                    }
+                    OfferPayload offerPayload = (OfferPayload) data.getProtectedStoragePayload();
+                    Offer offer = new Offer(offerPayload);
+                    offer.setPriceFeedService(priceFeedService);
+                    listener.onRemoved(offer);
                 });
             }
         });
@@ -183,8 +178,7 @@ public class OfferBookService {
     }
 
     public List<Offer> getOffers() {
-        return p2PService.getDataMap().values().stream()
-                .filter(data -> data.getProtectedStoragePayload() instanceof OfferPayload)
+        return p2PService.getDataMap(OfferPayload.class).stream()
                 .map(data -> {
                     OfferPayload offerPayload = (OfferPayload) data.getProtectedStoragePayload();
                     Offer offer = new Offer(offerPayload);
@@ -238,6 +232,6 @@ public class OfferBookService {
                 })
                 .filter(e -> e != null)
                 .collect(Collectors.toList());
-        jsonFileManager.writeToDisc(Utilities.objectToJson(offerForJsonList), "offers_statistics");
+        jsonFileManager.writeToDiscAsJson(offerForJsonList, "offers_statistics");
     }
 }
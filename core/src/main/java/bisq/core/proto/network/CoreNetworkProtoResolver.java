@@ -72,12 +72,15 @@ import bisq.network.p2p.storage.payload.MailboxStoragePayload;
 import bisq.network.p2p.storage.payload.ProtectedMailboxStorageEntry;
 import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
 
+import bisq.common.proto.ProtoDispatchTable;
 import bisq.common.proto.ProtobufferException;
 import bisq.common.proto.ProtobufferRuntimeException;
 import bisq.common.proto.network.NetworkEnvelope;
 import bisq.common.proto.network.NetworkPayload;
 import bisq.common.proto.network.NetworkProtoResolver;
 
+import com.google.common.annotations.VisibleForTesting;
+
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
@@ -88,116 +91,28 @@ import lombok.extern.slf4j.Slf4j;
 @Singleton
 public class CoreNetworkProtoResolver extends CoreProtoResolver implements NetworkProtoResolver {
 
+    private final ProtoDispatchTable<protobuf.NetworkEnvelope.MessageCase, protobuf.NetworkEnvelope, NetworkEnvelope> networkEnvelopeDispatchTable =
+            new ProtoDispatchTable<>("NetworkEnvelope", protobuf.NetworkEnvelope.MessageCase.class);
+    private final ProtoDispatchTable<protobuf.StorageEntryWrapper.MessageCase, protobuf.StorageEntryWrapper, NetworkPayload> storageEntryWrapperDispatchTable =
+            new ProtoDispatchTable<>("StorageEntryWrapper", protobuf.StorageEntryWrapper.MessageCase.class);
+    private final ProtoDispatchTable<protobuf.StoragePayload.MessageCase, protobuf.StoragePayload, NetworkPayload> storagePayloadDispatchTable =
+            new ProtoDispatchTable<>("StoragePayload", protobuf.StoragePayload.MessageCase.class);
+
     @Inject
     public CoreNetworkProtoResolver() {
+        registerNetworkEnvelopeDecoders();
+        registerStorageEntryWrapperDecoders();
+        registerStoragePayloadDecoders();
     }
 
     @Override
     public NetworkEnvelope fromProto(protobuf.NetworkEnvelope proto) throws ProtobufferException {
         if (proto != null) {
-            final int messageVersion = proto.getMessageVersion();
-            switch (proto.getMessageCase()) {
-                case PRELIMINARY_GET_DATA_REQUEST:
-                    return PreliminaryGetDataRequest.fromProto(proto.getPreliminaryGetDataRequest(), messageVersion);
-                case GET_DATA_RESPONSE:
-                    return GetDataResponse.fromProto(proto.getGetDataResponse(), this, messageVersion);
-                case GET_UPDATED_DATA_REQUEST:
-                    return GetUpdatedDataRequest.fromProto(proto.getGetUpdatedDataRequest(), messageVersion);
-
-                case GET_PEERS_REQUEST:
-                    return GetPeersRequest.fromProto(proto.getGetPeersRequest(), messageVersion);
-                case GET_PEERS_RESPONSE:
-                    return GetPeersResponse.fromProto(proto.getGetPeersResponse(), messageVersion);
-                case PING:
-                    return Ping.fromProto(proto.getPing(), messageVersion);
-                case PONG:
-                    return Pong.fromProto(proto.getPong(), messageVersion);
-
-                case OFFER_AVAILABILITY_REQUEST:
-                    return OfferAvailabilityRequest.fromProto(proto.getOfferAvailabilityRequest(), messageVersion);
-                case OFFER_AVAILABILITY_RESPONSE:
-                    return OfferAvailabilityResponse.fromProto(proto.getOfferAvailabilityResponse(), messageVersion);
-                case REFRESH_OFFER_MESSAGE:
-                    return RefreshOfferMessage.fromProto(proto.getRefreshOfferMessage(), messageVersion);
-
-                case ADD_DATA_MESSAGE:
-                    return AddDataMessage.fromProto(proto.getAddDataMessage(), this, messageVersion);
-                case REMOVE_DATA_MESSAGE:
-                    return RemoveDataMessage.fromProto(proto.getRemoveDataMessage(), this, messageVersion);
-                case REMOVE_MAILBOX_DATA_MESSAGE:
-                    return RemoveMailboxDataMessage.fromProto(proto.getRemoveMailboxDataMessage(), this, messageVersion);
-
-                case CLOSE_CONNECTION_MESSAGE:
-                    return CloseConnectionMessage.fromProto(proto.getCloseConnectionMessage(), messageVersion);
-                case PREFIXED_SEALED_AND_SIGNED_MESSAGE:
-                    return PrefixedSealedAndSignedMessage.fromProto(proto.getPrefixedSealedAndSignedMessage(), messageVersion);
-
-                case PAY_DEPOSIT_REQUEST:
-                    return PayDepositRequest.fromProto(proto.getPayDepositRequest(), this, messageVersion);
-                case DEPOSIT_TX_PUBLISHED_MESSAGE:
-                    return DepositTxPublishedMessage.fromProto(proto.getDepositTxPublishedMessage(), messageVersion);
-                case PUBLISH_DEPOSIT_TX_REQUEST:
-                    return PublishDepositTxRequest.fromProto(proto.getPublishDepositTxRequest(), this, messageVersion);
-                case COUNTER_CURRENCY_TRANSFER_STARTED_MESSAGE:
-                    return CounterCurrencyTransferStartedMessage.fromProto(proto.getCounterCurrencyTransferStartedMessage(), messageVersion);
-                case PAYOUT_TX_PUBLISHED_MESSAGE:
-                    return PayoutTxPublishedMessage.fromProto(proto.getPayoutTxPublishedMessage(), messageVersion);
-
-                case OPEN_NEW_DISPUTE_MESSAGE:
-                    return OpenNewDisputeMessage.fromProto(proto.getOpenNewDisputeMessage(), this, messageVersion);
-                case PEER_OPENED_DISPUTE_MESSAGE:
-                    return PeerOpenedDisputeMessage.fromProto(proto.getPeerOpenedDisputeMessage(), this, messageVersion);
-                case DISPUTE_COMMUNICATION_MESSAGE:
-                    return DisputeCommunicationMessage.fromProto(proto.getDisputeCommunicationMessage(), messageVersion);
-                case DISPUTE_RESULT_MESSAGE:
-                    return DisputeResultMessage.fromProto(proto.getDisputeResultMessage(), messageVersion);
-                case PEER_PUBLISHED_DISPUTE_PAYOUT_TX_MESSAGE:
-                    return PeerPublishedDisputePayoutTxMessage.fromProto(proto.getPeerPublishedDisputePayoutTxMessage(), messageVersion);
-
-                case PRIVATE_NOTIFICATION_MESSAGE:
-                    return PrivateNotificationMessage.fromProto(proto.getPrivateNotificationMessage(), messageVersion);
-
-                case GET_BLOCKS_REQUEST:
-                    return GetBlocksRequest.fromProto(proto.getGetBlocksRequest(), messageVersion);
-                case GET_BLOCKS_RESPONSE:
-                    return GetBlocksResponse.fromProto(proto.getGetBlocksResponse(), messageVersion);
-                case NEW_BLOCK_BROADCAST_MESSAGE:
-                    return NewBlockBroadcastMessage.fromProto(proto.getNewBlockBroadcastMessage(), messageVersion);
-                case ADD_PERSISTABLE_NETWORK_PAYLOAD_MESSAGE:
-                    return AddPersistableNetworkPayloadMessage.fromProto(proto.getAddPersistableNetworkPayloadMessage(), this, messageVersion);
-                case ACK_MESSAGE:
-                    return AckMessage.fromProto(proto.getAckMessage(), messageVersion);
-                case REPUBLISH_GOVERNANCE_DATA_REQUEST:
-                    return RepublishGovernanceDataRequest.fromProto(proto.getRepublishGovernanceDataRequest(), messageVersion);
-
-                case NEW_DAO_STATE_HASH_MESSAGE:
-                    return NewDaoStateHashMessage.fromProto(proto.getNewDaoStateHashMessage(), messageVersion);
-                case GET_DAO_STATE_HASHES_REQUEST:
-                    return GetDaoStateHashesRequest.fromProto(proto.getGetDaoStateHashesRequest(), messageVersion);
-                case GET_DAO_STATE_HASHES_RESPONSE:
-                    return GetDaoStateHashesResponse.fromProto(proto.getGetDaoStateHashesResponse(), messageVersion);
-
-                case NEW_PROPOSAL_STATE_HASH_MESSAGE:
-                    return NewProposalStateHashMessage.fromProto(proto.getNewProposalStateHashMessage(), messageVersion);
-                case GET_PROPOSAL_STATE_HASHES_REQUEST:
-                    return GetProposalStateHashesRequest.fromProto(proto.getGetProposalStateHashesRequest(), messageVersion);
-                case GET_PROPOSAL_STATE_HASHES_RESPONSE:
-                    return GetProposalStateHashesResponse.fromProto(proto.getGetProposalStateHashesResponse(), messageVersion);
-
-                case NEW_BLIND_VOTE_STATE_HASH_MESSAGE:
-                    return NewBlindVoteStateHashMessage.fromProto(proto.getNewBlindVoteStateHashMessage(), messageVersion);
-                case GET_BLIND_VOTE_STATE_HASHES_REQUEST:
-                    return GetBlindVoteStateHashesRequest.fromProto(proto.getGetBlindVoteStateHashesRequest(), messageVersion);
-                case GET_BLIND_VOTE_STATE_HASHES_RESPONSE:
-                    return GetBlindVoteStateHashesResponse.fromProto(proto.getGetBlindVoteStateHashesResponse(), messageVersion);
-
-                case BUNDLE_OF_ENVELOPES:
-                    return BundleOfEnvelopes.fromProto(proto.getBundleOfEnvelopes(), this, messageVersion);
-
-                default:
-                    throw new ProtobufferException("Unknown proto message case (PB.NetworkEnvelope). messageCase=" +
-                            proto.getMessageCase() + "; proto raw data=" + proto.toString());
-            }
+            if (!networkEnvelopeDispatchTable.canDecode(proto.getMessageCase()))
+                throw new ProtobufferException("Unknown proto message case (PB.NetworkEnvelope). messageCase=" +
+                        proto.getMessageCase() + "; proto raw data=" + proto.toString());
+
+            return networkEnvelopeDispatchTable.decode(proto.getMessageCase(), proto);
         } else {
             log.error("PersistableEnvelope.fromProto: PB.NetworkEnvelope is null");
             throw new ProtobufferException("PB.NetworkEnvelope is null");
@@ -206,15 +121,11 @@ public class CoreNetworkProtoResolver extends CoreProtoResolver implements Netwo
 
     public NetworkPayload fromProto(protobuf.StorageEntryWrapper proto) {
         if (proto != null) {
-            switch (proto.getMessageCase()) {
-                case PROTECTED_MAILBOX_STORAGE_ENTRY:
-                    return ProtectedMailboxStorageEntry.fromProto(proto.getProtectedMailboxStorageEntry(), this);
-                case PROTECTED_STORAGE_ENTRY:
-                    return ProtectedStorageEntry.fromProto(proto.getProtectedStorageEntry(), this);
-                default:
-                    throw new ProtobufferRuntimeException("Unknown proto message case(PB.StorageEntryWrapper). " +
-                            "messageCase=" + proto.getMessageCase() + "; proto raw data=" + proto.toString());
-            }
+            if (!storageEntryWrapperDispatchTable.canDecode(proto.getMessageCase()))
+                throw new ProtobufferRuntimeException("Unknown proto message case(PB.StorageEntryWrapper). " +
+                        "messageCase=" + proto.getMessageCase() + "; proto raw data=" + proto.toString());
+
+            return storageEntryWrapperDispatchTable.decode(proto.getMessageCase(), proto);
         } else {
             log.error("PersistableEnvelope.fromProto: PB.StorageEntryWrapper is null");
             throw new ProtobufferRuntimeException("PB.StorageEntryWrapper is null");
@@ -223,31 +134,150 @@ public class CoreNetworkProtoResolver extends CoreProtoResolver implements Netwo
 
     public NetworkPayload fromProto(protobuf.StoragePayload proto) {
         if (proto != null) {
-            switch (proto.getMessageCase()) {
-                case ALERT:
-                    return Alert.fromProto(proto.getAlert());
-                case ARBITRATOR:
-                    return Arbitrator.fromProto(proto.getArbitrator());
-                case MEDIATOR:
-                    return Mediator.fromProto(proto.getMediator());
-                case FILTER:
-                    return Filter.fromProto(proto.getFilter());
-                case TRADE_STATISTICS:
-                    // Still used to convert TradeStatistics data from pre v0.6 versions
-                    return TradeStatistics.fromProto(proto.getTradeStatistics());
-                case MAILBOX_STORAGE_PAYLOAD:
-                    return MailboxStoragePayload.fromProto(proto.getMailboxStoragePayload());
-                case OFFER_PAYLOAD:
-                    return OfferPayload.fromProto(proto.getOfferPayload());
-                case TEMP_PROPOSAL_PAYLOAD:
-                    return TempProposalPayload.fromProto(proto.getTempProposalPayload());
-                default:
-                    throw new ProtobufferRuntimeException("Unknown proto message case (PB.StoragePayload). messageCase="
-                            + proto.getMessageCase() + "; proto raw data=" + proto.toString());
-            }
+            if (!storagePayloadDispatchTable.canDecode(proto.getMessageCase()))
+                throw new ProtobufferRuntimeException("Unknown proto message case (PB.StoragePayload). messageCase="
+                        + proto.getMessageCase() + "; proto raw data=" + proto.toString());
+
+            return storagePayloadDispatchTable.decode(proto.getMessageCase(), proto);
         } else {
             log.error("PersistableEnvelope.fromProto: PB.StoragePayload is null");
             throw new ProtobufferRuntimeException("PB.StoragePayload is null");
         }
     }
+
+    /**
+     * @return The number of decoded messages and the decode times per message type
+     */
+    public String getDecodeReport() {
+        return networkEnvelopeDispatchTable.getReport() + "\n" +
+                storageEntryWrapperDispatchTable.getReport() + "\n" +
+                storagePayloadDispatchTable.getReport();
+    }
+
+    @VisibleForTesting
+    long getDecodeCount(protobuf.NetworkEnvelope.MessageCase messageCase) {
+        return networkEnvelopeDispatchTable.getDecodeCount(messageCase);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void registerNetworkEnvelopeDecoders() {
+        networkEnvelopeDispatchTable
+                .register(protobuf.NetworkEnvelope.MessageCase.PRELIMINARY_GET_DATA_REQUEST,
+                        proto -> PreliminaryGetDataRequest.fromProto(proto.getPreliminaryGetDataRequest(), proto.getMessageVersion()))
+                .register(protobuf.NetworkEnvelope.MessageCase.GET_DATA_RESPONSE,
+                        proto -> GetDataResponse.fromProto(proto.getGetDataResponse(), this, proto.getMessageVersion()))
+                .register(protobuf.NetworkEnvelope.MessageCase.GET_UPDATED_DATA_REQUEST,
+                        proto -> GetUpdatedDataRequest.fromProto(proto.getGetUpdatedDataRequest(), proto.getMessageVersion()))
+                .register(protobuf.NetworkEnvelope.MessageCase.GET_PEERS_REQUEST,
+                        proto -> GetPeersRequest.fromProto(proto.getGetPeersRequest(), proto.getMessageVersion()))
+                .register(protobuf.NetworkEnvelope.MessageCase.GET_PEERS_RESPONSE,
+                        proto -> GetPeersResponse.fromProto(proto.getGetPeersResponse(), proto.getMessageVersion()))
+                .register(protobuf.NetworkEnvelope.MessageCase.PING,
+                        proto -> Ping.fromProto(proto.getPing(), proto.getMessageVersion()))
+                .register(protobuf.NetworkEnvelope.MessageCase.PONG,
+                        proto -> Pong.fromProto(proto.getPong(), proto.getMessageVersion()))
+                .register(protobuf.NetworkEnvelope.MessageCase.OFFER_AVAILABILITY_REQUEST,
+                        proto -> OfferAvailabilityRequest.fromProto(proto.getOfferAvailabilityRequest(), proto.getMessageVersion()))
+                .register(protobuf.NetworkEnvelope.MessageCase.OFFER_AVAILABILITY_RESPONSE,
+                        proto -> OfferAvailabilityResponse.fromProto(proto.getOfferAvailabilityResponse(), proto.getMessageVersion()))
+                .register(protobuf.NetworkEnvelope.MessageCase.REFRESH_OFFER_MESSAGE,
+                        proto -> RefreshOfferMessage.fromProto(proto.getRefreshOfferMessage(), proto.getMessageVersion()))
+                .register(protobuf.NetworkEnvelope.MessageCase.ADD_DATA_MESSAGE,
+                        proto -> AddDataMessage.fromProto(proto.getAddDataMessage(), this, proto.getMessageVersion()))
+                .register(protobuf.NetworkEnvelope.MessageCase.REMOVE_DATA_MESSAGE,
+                        proto -> RemoveDataMessage.fromProto(proto.getRemoveDataMessage(), this, proto.getMessageVersion()))
+                .register(protobuf.NetworkEnvelope.MessageCase.REMOVE_MAILBOX_DATA_MESSAGE,
+                        proto -> RemoveMailboxDataMessage.fromProto(proto.getRemoveMailboxDataMessage(), this, proto.getMessageVersion()))
+                .register(protobuf.NetworkEnvelope.MessageCase.CLOSE_CONNECTION_MESSAGE,
+                        proto -> CloseConnectionMessage.fromProto(proto.getCloseConnectionMessage(), proto.getMessageVersion()))
+                .register(protobuf.NetworkEnvelope.MessageCase.PREFIXED_SEALED_AND_SIGNED_MESSAGE,
+                        proto -> PrefixedSealedAndSignedMessage.fromProto(proto.getPrefixedSealedAndSignedMessage(), proto.getMessageVersion()))
+                .register(protobuf.NetworkEnvelope.MessageCase.PAY_DEPOSIT_REQUEST,
+                        proto -> PayDepositRequest.fromProto(proto.getPayDepositRequest(), this, proto.getMessageVersion()))
+                .register(protobuf.NetworkEnvelope.MessageCase.DEPOSIT_TX_PUBLISHED_MESSAGE,
+                        proto -> DepositTxPublishedMessage.fromProto(proto.getDepositTxPublishedMessage(), proto.getMessageVersion()))
+                .register(protobuf.NetworkEnvelope.MessageCase.PUBLISH_DEPOSIT_TX_REQUEST,
+                        proto -> PublishDepositTxRequest.fromProto(proto.getPublishDepositTxRequest(), this, proto.getMessageVersion()))
+                .register(protobuf.NetworkEnvelope.MessageCase.COUNTER_CURRENCY_TRANSFER_STARTED_MESSAGE,
+                        proto -> CounterCurrencyTransferStartedMessage.fromProto(proto.getCounterCurrencyTransferStartedMessage(), proto.getMessageVersion()))
+                .register(protobuf.NetworkEnvelope.MessageCase.PAYOUT_TX_PUBLISHED_MESSAGE,
+                        proto -> PayoutTxPublishedMessage.fromProto(proto.getPayoutTxPublishedMessage(), proto.getMessageVersion()))
+                .register(protobuf.NetworkEnvelope.MessageCase.OPEN_NEW_DISPUTE_MESSAGE,
+                        proto -> OpenNewDisputeMessage.fromProto(proto.getOpenNewDisputeMessage(), this, proto.getMessageVersion()))
+                .register(protobuf.NetworkEnvelope.MessageCase.PEER_OPENED_DISPUTE_MESSAGE,
+                        proto -> PeerOpenedDisputeMessage.fromProto(proto.getPeerOpenedDisputeMessage(), this, proto.getMessageVersion()))
+                .register(protobuf.NetworkEnvelope.MessageCase.DISPUTE_COMMUNICATION_MESSAGE,
+                        proto -> DisputeCommunicationMessage.fromProto(proto.getDisputeCommunicationMessage(), proto.getMessageVersion()))
+                .register(protobuf.NetworkEnvelope.MessageCase.DISPUTE_RESULT_MESSAGE,
+                        proto -> DisputeResultMessage.fromProto(proto.getDisputeResultMessage(), proto.getMessageVersion()))
+                .register(protobuf.NetworkEnvelope.MessageCase.PEER_PUBLISHED_DISPUTE_PAYOUT_TX_MESSAGE,
+                        proto -> PeerPublishedDisputePayoutTxMessage.fromProto(proto.getPeerPublishedDisputePayoutTxMessage(), proto.getMessageVersion()))
+                .register(protobuf.NetworkEnvelope.MessageCase.PRIVATE_NOTIFICATION_MESSAGE,
+                        proto -> PrivateNotificationMessage.fromProto(proto.getPrivateNotificationMessage(), proto.getMessageVersion()))
+                .register(protobuf.NetworkEnvelope.MessageCase.GET_BLOCKS_REQUEST,
+                        proto -> GetBlocksRequest.fromProto(proto.getGetBlocksRequest(), proto.getMessageVersion()))
+                .register(protobuf.NetworkEnvelope.MessageCase.GET_BLOCKS_RESPONSE,
+                        proto -> GetBlocksResponse.fromProto(proto.getGetBlocksResponse(), proto.getMessageVersion()))
+                .register(protobuf.NetworkEnvelope.MessageCase.NEW_BLOCK_BROADCAST_MESSAGE,
+                        proto -> NewBlockBroadcastMessage.fromProto(proto.getNewBlockBroadcastMessage(), proto.getMessageVersion()))
+                .register(protobuf.NetworkEnvelope.MessageCase.ADD_PERSISTABLE_NETWORK_PAYLOAD_MESSAGE,
+                        proto -> AddPersistableNetworkPayloadMessage.fromProto(proto.getAddPersistableNetworkPayloadMessage(), this, proto.getMessageVersion()))
+                .register(protobuf.NetworkEnvelope.MessageCase.ACK_MESSAGE,
+                        proto -> AckMessage.fromProto(proto.getAckMessage(), proto.getMessageVersion()))
+                .register(protobuf.NetworkEnvelope.MessageCase.REPUBLISH_GOVERNANCE_DATA_REQUEST,
+                        proto -> RepublishGovernanceDataRequest.fromProto(proto.getRepublishGovernanceDataRequest(), proto.getMessageVersion()))
+                .register(protobuf.NetworkEnvelope.MessageCase.NEW_DAO_STATE_HASH_MESSAGE,
+                        proto -> NewDaoStateHashMessage.fromProto(proto.getNewDaoStateHashMessage(), proto.getMessageVersion()))
+                .register(protobuf.NetworkEnvelope.MessageCase.GET_DAO_STATE_HASHES_REQUEST,
+                        proto -> GetDaoStateHashesRequest.fromProto(proto.getGetDaoStateHashesRequest(), proto.getMessageVersion()))
+                .register(protobuf.NetworkEnvelope.MessageCase.GET_DAO_STATE_HASHES_RESPONSE,
+                        proto -> GetDaoStateHashesResponse.fromProto(proto.getGetDaoStateHashesResponse(), proto.getMessageVersion()))
+                .register(protobuf.NetworkEnvelope.MessageCase.NEW_PROPOSAL_STATE_HASH_MESSAGE,
+                        proto -> NewProposalStateHashMessage.fromProto(proto.getNewProposalStateHashMessage(), proto.getMessageVersion()))
+                .register(protobuf.NetworkEnvelope.MessageCase.GET_PROPOSAL_STATE_HASHES_REQUEST,
+                        proto -> GetProposalStateHashesRequest.fromProto(proto.getGetProposalStateHashesRequest(), proto.getMessageVersion()))
+                .register(protobuf.NetworkEnvelope.MessageCase.GET_PROPOSAL_STATE_HASHES_RESPONSE,
+                        proto -> GetProposalStateHashesResponse.fromProto(proto.getGetProposalStateHashesResponse(), proto.getMessageVersion()))
+                .register(protobuf.NetworkEnvelope.MessageCase.NEW_BLIND_VOTE_STATE_HASH_MESSAGE,
+                        proto -> NewBlindVoteStateHashMessage.fromProto(proto.getNewBlindVoteStateHashMessage(), proto.getMessageVersion()))
+                .register(protobuf.NetworkEnvelope.MessageCase.GET_BLIND_VOTE_STATE_HASHES_REQUEST,
+                        proto -> GetBlindVoteStateHashesRequest.fromProto(proto.getGetBlindVoteStateHashesRequest(), proto.getMessageVersion()))
+                .register(protobuf.NetworkEnvelope.MessageCase.GET_BLIND_VOTE_STATE_HASHES_RESPONSE,
+                        proto -> GetBlindVoteStateHashesResponse.fromProto(proto.getGetBlindVoteStateHashesResponse(), proto.getMessageVersion()))
+                .register(protobuf.NetworkEnvelope.MessageCase.BUNDLE_OF_ENVELOPES,
+                        proto -> BundleOfEnvelopes.fromProto(proto.getBundleOfEnvelopes(), this, proto.getMessageVersion()));
+    }
+
+    private void registerStorageEntryWrapperDecoders() {
+        storageEntryWrapperDispatchTable
+                .register(protobuf.StorageEntryWrapper.MessageCase.PROTECTED_MAILBOX_STORAGE_ENTRY,
+                        proto -> ProtectedMailboxStorageEntry.fromProto(proto.getProtectedMailboxStorageEntry(), this))
+                .register(protobuf.StorageEntryWrapper.MessageCase.PROTECTED_STORAGE_ENTRY,
+                        proto -> ProtectedStorageEntry.fromProto(proto.getProtectedStorageEntry(), this));
+    }
+
+    private void registerStoragePayloadDecoders() {
+        storagePayloadDispatchTable
+                .register(protobuf.StoragePayload.MessageCase.ALERT,
+                        proto -> Alert.fromProto(proto.getAlert()))
+                .register(protobuf.StoragePayload.MessageCase.ARBITRATOR,
+                        proto -> Arbitrator.fromProto(proto.getArbitrator()))
+                .register(protobuf.StoragePayload.MessageCase.MEDIATOR,
+                        proto -> Mediator.fromProto(proto.getMediator()))
+                .register(protobuf.StoragePayload.MessageCase.FILTER,
+                        proto -> Filter.fromProto(proto.getFilter()))
+                // Still used to convert TradeStatistics data from pre v0.6 versions
+                .register(protobuf.StoragePayload.MessageCase.TRADE_STATISTICS,
+                        proto -> TradeStatistics.fromProto(proto.getTradeStatistics()))
+                .register(protobuf.StoragePayload.MessageCase.MAILBOX_STORAGE_PAYLOAD,
+                        proto -> MailboxStoragePayload.fromProto(proto.getMailboxStoragePayload()))
+                .register(protobuf.StoragePayload.MessageCase.OFFER_PAYLOAD,
+                        proto -> OfferPayload.fromProto(proto.getOfferPayload()))
+                .register(protobuf.StoragePayload.MessageCase.TEMP_PROPOSAL_PAYLOAD,
+                        proto -> TempProposalPayload.fromProto(proto.getTempProposalPayload()));
+    }
 }
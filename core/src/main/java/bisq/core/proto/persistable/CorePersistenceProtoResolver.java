@@ -45,6 +45,7 @@ import bisq.network.p2p.peers.peerexchange.PeerList;
 import bisq.network.p2p.storage.persistence.PersistableNetworkPayloadList;
 import bisq.network.p2p.storage.persistence.SequenceNumberMap;
 
+import bisq.common.proto.ProtoDispatchTable;
 import bisq.common.proto.ProtobufferRuntimeException;
 import bisq.common.proto.network.NetworkProtoResolver;
 import bisq.common.proto.persistable.NavigationPath;
@@ -71,6 +72,8 @@ public class CorePersistenceProtoResolver extends CoreProtoResolver implements P
     private final NetworkProtoResolver networkProtoResolver;
     private final File storageDir;
     private final CorruptedDatabaseFilesHandler corruptedDatabaseFilesHandler;
+    private final ProtoDispatchTable<protobuf.PersistableEnvelope.MessageCase, protobuf.PersistableEnvelope, PersistableEnvelope> dispatchTable =
+            new ProtoDispatchTable<>("PersistableEnvelope", protobuf.PersistableEnvelope.MessageCase.class);
 
     @Inject
     public CorePersistenceProtoResolver(Provider<BtcWalletService> btcWalletService,
@@ -82,77 +85,94 @@ public class CorePersistenceProtoResolver extends CoreProtoResolver implements P
         this.storageDir = storageDir;
 
         this.corruptedDatabaseFilesHandler = corruptedDatabaseFilesHandler;
+        registerDecoders();
     }
 
     @Override
     public PersistableEnvelope fromProto(protobuf.PersistableEnvelope proto) {
         if (proto != null) {
-            switch (proto.getMessageCase()) {
-                case SEQUENCE_NUMBER_MAP:
-                    return SequenceNumberMap.fromProto(proto.getSequenceNumberMap());
-                case PEER_LIST:
-                    return PeerList.fromProto(proto.getPeerList());
-                case ADDRESS_ENTRY_LIST:
-                    return AddressEntryList.fromProto(proto.getAddressEntryList());
-                case TRADABLE_LIST:
-                    return TradableList.fromProto(proto.getTradableList(),
-                            this,
-                            new Storage<>(storageDir, this, corruptedDatabaseFilesHandler),
-                            btcWalletService.get());
-                case TRADE_STATISTICS_LIST:
-                    throw new ProtobufferRuntimeException("TRADE_STATISTICS_LIST is not used anymore");
-                case DISPUTE_LIST:
-                    return DisputeList.fromProto(proto.getDisputeList(),
-                            this,
-                            new Storage<>(storageDir, this, corruptedDatabaseFilesHandler));
-                case PREFERENCES_PAYLOAD:
-                    return PreferencesPayload.fromProto(proto.getPreferencesPayload(), this);
-                case USER_PAYLOAD:
-                    return UserPayload.fromProto(proto.getUserPayload(), this);
-                case NAVIGATION_PATH:
-                    return NavigationPath.fromProto(proto.getNavigationPath());
-                case PAYMENT_ACCOUNT_LIST:
-                    return PaymentAccountList.fromProto(proto.getPaymentAccountList(), this);
-                case PERSISTABLE_NETWORK_PAYLOAD_LIST:
-                    return PersistableNetworkPayloadList.fromProto(proto.getPersistableNetworkPayloadList(), this);
-                case ACCOUNT_AGE_WITNESS_STORE:
-                    return AccountAgeWitnessStore.fromProto(proto.getAccountAgeWitnessStore());
-                case TRADE_STATISTICS2_STORE:
-                    return TradeStatistics2Store.fromProto(proto.getTradeStatistics2Store());
-                case BLIND_VOTE_STORE:
-                    return BlindVoteStore.fromProto(proto.getBlindVoteStore());
-                case PROPOSAL_STORE:
-                    return ProposalStore.fromProto(proto.getProposalStore());
-                case TEMP_PROPOSAL_STORE:
-                    return TempProposalStore.fromProto(proto.getTempProposalStore(), networkProtoResolver);
-                case MY_PROPOSAL_LIST:
-                    return MyProposalList.fromProto(proto.getMyProposalList());
-                case BALLOT_LIST:
-                    return BallotList.fromProto(proto.getBallotList());
-                case MY_VOTE_LIST:
-                    return MyVoteList.fromProto(proto.getMyVoteList());
-                case MY_BLIND_VOTE_LIST:
-                    return MyBlindVoteList.fromProto(proto.getMyBlindVoteList());
-                case MERIT_LIST:
-                    return MeritList.fromProto(proto.getMeritList());
-                case DAO_STATE_STORE:
-                    return DaoStateStore.fromProto(proto.getDaoStateStore());
-                case MY_REPUTATION_LIST:
-                    return MyReputationList.fromProto(proto.getMyReputationList());
-                case MY_PROOF_OF_BURN_LIST:
-                    return MyProofOfBurnList.fromProto(proto.getMyProofOfBurnList());
-                case UNCONFIRMED_BSQ_CHANGE_OUTPUT_LIST:
-                    return UnconfirmedBsqChangeOutputList.fromProto(proto.getUnconfirmedBsqChangeOutputList());
-                case SIGNED_WITNESS_STORE:
-                    return SignedWitnessStore.fromProto(proto.getSignedWitnessStore());
-
-                default:
-                    throw new ProtobufferRuntimeException("Unknown proto message case(PB.PersistableEnvelope). " +
-                            "messageCase=" + proto.getMessageCase() + "; proto raw data=" + proto.toString());
-            }
+            if (!dispatchTable.canDecode(proto.getMessageCase()))
+                throw new ProtobufferRuntimeException("Unknown proto message case(PB.PersistableEnvelope). " +
+                        "messageCase=" + proto.getMessageCase() + "; proto raw data=" + proto.toString());
+
+            return dispatchTable.decode(proto.getMessageCase(), proto);
         } else {
             log.error("PersistableEnvelope.fromProto: PB.PersistableEnvelope is null");
             throw new ProtobufferRuntimeException("PB.PersistableEnvelope is null");
         }
     }
+
+    /**
+     * @return The number of decoded envelopes and the decode times per envelope type
+     */
+    public String getDecodeReport() {
+        return dispatchTable.getReport();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void registerDecoders() {
+        dispatchTable
+                .register(protobuf.PersistableEnvelope.MessageCase.SEQUENCE_NUMBER_MAP,
+                        proto -> SequenceNumberMap.fromProto(proto.getSequenceNumberMap()))
+                .register(protobuf.PersistableEnvelope.MessageCase.PEER_LIST,
+                        proto -> PeerList.fromProto(proto.getPeerList()))
+                .register(protobuf.PersistableEnvelope.MessageCase.ADDRESS_ENTRY_LIST,
+                        proto -> AddressEntryList.fromProto(proto.getAddressEntryList()))
+                .register(protobuf.PersistableEnvelope.MessageCase.TRADABLE_LIST,
+                        proto -> TradableList.fromProto(proto.getTradableList(),
+                                this,
+                                new Storage<>(storageDir, this, corruptedDatabaseFilesHandler),
+                                btcWalletService.get()))
+                .register(protobuf.PersistableEnvelope.MessageCase.TRADE_STATISTICS_LIST, proto -> {
+                    throw new ProtobufferRuntimeException("TRADE_STATISTICS_LIST is not used anymore");
+                })
+                .register(protobuf.PersistableEnvelope.MessageCase.DISPUTE_LIST,
+                        proto -> DisputeList.fromProto(proto.getDisputeList(),
+                                this,
+                                new Storage<>(storageDir, this, corruptedDatabaseFilesHandler)))
+                .register(protobuf.PersistableEnvelope.MessageCase.PREFERENCES_PAYLOAD,
+                        proto -> PreferencesPayload.fromProto(proto.getPreferencesPayload(), this))
+                .register(protobuf.PersistableEnvelope.MessageCase.USER_PAYLOAD,
+                        proto -> UserPayload.fromProto(proto.getUserPayload(), this))
+                .register(protobuf.PersistableEnvelope.MessageCase.NAVIGATION_PATH,
+                        proto -> NavigationPath.fromProto(proto.getNavigationPath()))
+                .register(protobuf.PersistableEnvelope.MessageCase.PAYMENT_ACCOUNT_LIST,
+                        proto -> PaymentAccountList.fromProto(proto.getPaymentAccountList(), this))
+                .register(protobuf.PersistableEnvelope.MessageCase.PERSISTABLE_NETWORK_PAYLOAD_LIST,
+                        proto -> PersistableNetworkPayloadList.fromProto(proto.getPersistableNetworkPayloadList(), this))
+                .register(protobuf.PersistableEnvelope.MessageCase.ACCOUNT_AGE_WITNESS_STORE,
+                        proto -> AccountAgeWitnessStore.fromProto(proto.getAccountAgeWitnessStore()))
+                .register(protobuf.PersistableEnvelope.MessageCase.TRADE_STATISTICS2_STORE,
+                        proto -> TradeStatistics2Store.fromProto(proto.getTradeStatistics2Store()))
+                .register(protobuf.PersistableEnvelope.MessageCase.BLIND_VOTE_STORE,
+                        proto -> BlindVoteStore.fromProto(proto.getBlindVoteStore()))
+                .register(protobuf.PersistableEnvelope.MessageCase.PROPOSAL_STORE,
+                        proto -> ProposalStore.fromProto(proto.getProposalStore()))
+                .register(protobuf.PersistableEnvelope.MessageCase.TEMP_PROPOSAL_STORE,
+                        proto -> TempProposalStore.fromProto(proto.getTempProposalStore(), networkProtoResolver))
+                .register(protobuf.PersistableEnvelope.MessageCase.MY_PROPOSAL_LIST,
+                        proto -> MyProposalList.fromProto(proto.getMyProposalList()))
+                .register(protobuf.PersistableEnvelope.MessageCase.BALLOT_LIST,
+                        proto -> BallotList.fromProto(proto.getBallotList()))
+                .register(protobuf.PersistableEnvelope.MessageCase.MY_VOTE_LIST,
+                        proto -> MyVoteList.fromProto(proto.getMyVoteList()))
+                .register(protobuf.PersistableEnvelope.MessageCase.MY_BLIND_VOTE_LIST,
+                        proto -> MyBlindVoteList.fromProto(proto.getMyBlindVoteList()))
+                .register(protobuf.PersistableEnvelope.MessageCase.MERIT_LIST,
+                        proto -> MeritList.fromProto(proto.getMeritList()))
+                .register(protobuf.PersistableEnvelope.MessageCase.DAO_STATE_STORE,
+                        proto -> DaoStateStore.fromProto(proto.getDaoStateStore()))
+                .register(protobuf.PersistableEnvelope.MessageCase.MY_REPUTATION_LIST,
+                        proto -> MyReputationList.fromProto(proto.getMyReputationList()))
+                .register(protobuf.PersistableEnvelope.MessageCase.MY_PROOF_OF_BURN_LIST,
+                        proto -> MyProofOfBurnList.fromProto(proto.getMyProofOfBurnList()))
+                .register(protobuf.PersistableEnvelope.MessageCase.UNCONFIRMED_BSQ_CHANGE_OUTPUT_LIST,
+                        proto -> UnconfirmedBsqChangeOutputList.fromProto(proto.getUnconfirmedBsqChangeOutputList()))
+                .register(protobuf.PersistableEnvelope.MessageCase.SIGNED_WITNESS_STORE,
+                        proto -> SignedWitnessStore.fromProto(proto.getSignedWitnessStore()));
+    }
 }
@@ -25,56 +25,171 @@ import bisq.common.app.Version;
 import bisq.common.util.MathUtils;
 import bisq.common.util.Tuple2;
 
-import com.google.gson.Gson;
-import com.google.gson.internal.LinkedTreeMap;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import java.nio.charset.StandardCharsets;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
 
+import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
 @Slf4j
 public class PriceProvider extends HttpClientProvider {
+    private static final String[] REQUIRED_TIMESTAMP_KEYS = {"btcAverageTs", "poloniexTs", "coinmarketcapTs"};
+    // The cursor is passed as query parameter, so we only accept what the pricenode issues
+    private static final Pattern CURSOR_PATTERN = Pattern.compile("[0-9a-f]+-[0-9]+");
+
+    // Last complete result and the ETag of the last response. We use the ETag for conditional requests and the
+    // cursor of the last response to request only the prices which changed since then.
+    @Nullable
+    private Tuple2<Map<String, Long>, Map<String, MarketPrice>> lastResult;
+    @Nullable
+    private String eTag;
+    @Nullable
+    private String cursor;
 
     // Do not use Guice here as we might create multiple instances
     public PriceProvider(HttpClient httpClient, String baseUrl) {
         super(httpClient, baseUrl, false);
     }
 
-    public Tuple2<Map<String, Long>, Map<String, MarketPrice>> getAll() throws IOException {
-        Map<String, MarketPrice> marketPriceMap = new HashMap<>();
-        String json = httpClient.requestWithGET("getAllMarketPrices", "User-Agent", "bisq/"
-                + Version.VERSION + ", uid:" + httpClient.getUid());
+    public synchronized Tuple2<Map<String, Long>, Map<String, MarketPrice>> getAll() throws IOException {
+        // Pricenodes which do not support the since parameter do not deliver a cursor, so we request all prices.
+        String param = lastResult != null && cursor != null ?
+                "getAllMarketPrices?since=" + cursor :
+                "getAllMarketPrices";
+        Optional<Tuple2<MarketPrices, String>> response =
+                httpClient.requestWithGETIfNoneMatch(param, "User-Agent", "bisq/"
+                                + Version.VERSION + ", uid:" + httpClient.getUid(),
+                        lastResult != null ? eTag : null,
+                        PriceProvider::parseMarketPrices);
 
-        LinkedTreeMap<String, Object> map = new Gson().<LinkedTreeMap<String, Object>>fromJson(json, LinkedTreeMap.class);
-        Map<String, Long> tsMap = new HashMap<>();
-        tsMap.put("btcAverageTs", ((Double) map.get("btcAverageTs")).longValue());
-        tsMap.put("poloniexTs", ((Double) map.get("poloniexTs")).longValue());
-        tsMap.put("coinmarketcapTs", ((Double) map.get("coinmarketcapTs")).longValue());
-
-        //noinspection unchecked
-        List<LinkedTreeMap<String, Object>> list = (ArrayList<LinkedTreeMap<String, Object>>) map.get("data");
-        list.forEach(treeMap -> {
-            try {
-                final String currencyCode = (String) treeMap.get("currencyCode");
-                final double price = (double) treeMap.get("price");
-                // json uses double for our timestampSec long value...
-                final long timestampSec = MathUtils.doubleToLong((double) treeMap.get("timestampSec"));
-                marketPriceMap.put(currencyCode, new MarketPrice(currencyCode, price, timestampSec, true));
-            } catch (Throwable t) {
-                log.error(t.toString());
-                t.printStackTrace();
-            }
+        if (!response.isPresent()) {
+            log.debug("Market prices not modified since last request");
+            checkNotNull(lastResult, "lastResult must not be null if we got a not modified response");
+            return lastResult;
+        }
 
-        });
-        return new Tuple2<>(tsMap, marketPriceMap);
+        MarketPrices result = response.get().first;
+        lastResult = merge(lastResult, result);
+        cursor = result.cursor != null && CURSOR_PATTERN.matcher(result.cursor).matches() ? result.cursor : null;
+        eTag = response.get().second;
+        return lastResult;
     }
 
     public String getBaseUrl() {
         return httpClient.getBaseUrl();
     }
+
+    // A delta response only contains the prices which changed, so we merge them into the last result. All other
+    // responses contain all prices and replace the last result, so prices of dropped markets get removed.
+    @VisibleForTesting
+    static Tuple2<Map<String, Long>, Map<String, MarketPrice>> merge(
+            @Nullable Tuple2<Map<String, Long>, Map<String, MarketPrice>> lastResult,
+            MarketPrices result) {
+        if (!result.delta || lastResult == null)
+            return new Tuple2<>(result.tsMap, result.marketPriceMap);
+
+        Map<String, MarketPrice> marketPriceMap = new HashMap<>(lastResult.second);
+        marketPriceMap.putAll(result.marketPriceMap);
+        return new Tuple2<>(result.tsMap, marketPriceMap);
+    }
+
+    // We read the json from the stream without building an intermediate tree of the whole response.
+    @VisibleForTesting
+    static MarketPrices parseMarketPrices(InputStream inputStream) throws IOException {
+        Map<String, Long> tsMap = new HashMap<>();
+        Map<String, MarketPrice> marketPriceMap = new HashMap<>();
+        String cursor = null;
+        boolean delta = false;
+        try (JsonReader reader = new JsonReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (name.equals("data")) {
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        try {
+                            MarketPrice marketPrice = parseMarketPrice(reader);
+                            marketPriceMap.put(marketPrice.getCurrencyCode(), marketPrice);
+                        } catch (Throwable t) {
+                            log.error(t.toString());
+                            t.printStackTrace();
+                        }
+                    }
+                    reader.endArray();
+                } else if (name.equals("cursor") && reader.peek() == JsonToken.STRING) {
+                    cursor = reader.nextString();
+                } else if (name.equals("delta") && reader.peek() == JsonToken.BOOLEAN) {
+                    delta = reader.nextBoolean();
+                } else if (name.endsWith("Ts") && reader.peek() == JsonToken.NUMBER) {
+                    // json uses double for our long values...
+                    tsMap.put(name, (long) reader.nextDouble());
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+
+        for (String key : REQUIRED_TIMESTAMP_KEYS) {
+            if (!tsMap.containsKey(key))
+                throw new IOException("Missing " + key + " in market price data");
+        }
+        return new MarketPrices(tsMap, marketPriceMap, cursor, delta);
+    }
+
+    private static MarketPrice parseMarketPrice(JsonReader reader) throws IOException {
+        String currencyCode = null;
+        Double price = null;
+        Long timestampSec = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "currencyCode":
+                    currencyCode = reader.nextString();
+                    break;
+                case "price":
+                    price = reader.nextDouble();
+                    break;
+                case "timestampSec":
+                    // json uses double for our timestampSec long value...
+                    timestampSec = MathUtils.doubleToLong(reader.nextDouble());
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        checkNotNull(currencyCode, "currencyCode must not be null");
+        checkNotNull(price, "price must not be null");
+        checkNotNull(timestampSec, "timestampSec must not be null");
+        return new MarketPrice(currencyCode, price, timestampSec, true);
+    }
+
+    @VisibleForTesting
+    @AllArgsConstructor
+    static class MarketPrices {
+        final Map<String, Long> tsMap;
+        final Map<String, MarketPrice> marketPriceMap;
+        @Nullable
+        final String cursor;
+        // True if the pricenode only delivered the prices which changed since the cursor we sent
+        final boolean delta;
+    }
 }
@@ -37,18 +37,49 @@ import bisq.core.user.User;
 import bisq.network.p2p.P2PService;
 
 import bisq.common.proto.persistable.PersistedDataHost;
+import bisq.common.util.PhaseGraph;
 
 import com.google.inject.Injector;
 import com.google.inject.Key;
 import com.google.inject.name.Names;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 public class CorePersistedDataHost {
+    private static final int MAX_THREADS = 4;
+    // Those hosts notify their listeners from readPersisted. The listeners update JavaFX collections and read data
+    // of the P2PService, so they are read on the calling thread once all other hosts are read.
+    private static final List<Class<? extends PersistedDataHost>> HOSTS_WITH_LISTENERS = Arrays.asList(
+            BallotListService.class,
+            MyProposalListService.class);
+
+    // Reads the persisted data of all hosts. The Preferences are read first as they set the locale and base settings,
+    // the other hosts without listeners do not depend on each other and are read in parallel.
+    public static void apply(Injector injector) {
+        Preferences preferences = injector.getInstance(Preferences.class);
+        String preferencesPhase = Preferences.class.getSimpleName();
+        PhaseGraph phaseGraph = new PhaseGraph("readPersisted");
+        phaseGraph.add(preferencesPhase, preferences::readPersisted);
+        List<PersistedDataHost> hostsWithListeners = new ArrayList<>();
+        getPersistedDataHosts(injector).stream()
+                .filter(persistedDataHost -> persistedDataHost != preferences)
+                .forEach(persistedDataHost -> {
+                    if (hasListeners(persistedDataHost))
+                        hostsWithListeners.add(persistedDataHost);
+                    else
+                        phaseGraph.add(persistedDataHost.getClass().getSimpleName(),
+                                persistedDataHost::readPersisted,
+                                preferencesPhase);
+                });
+        phaseGraph.run(Math.max(1, Math.min(MAX_THREADS, Runtime.getRuntime().availableProcessors())));
+
+        hostsWithListeners.forEach(PersistedDataHost::readPersisted);
+    }
 
     // All classes which are persisting objects need to be added here
     public static List<PersistedDataHost> getPersistedDataHosts(Injector injector) {
@@ -74,4 +105,8 @@ public class CorePersistedDataHost {
         }
         return persistedDataHosts;
     }
+
+    private static boolean hasListeners(PersistedDataHost persistedDataHost) {
+        return HOSTS_WITH_LISTENERS.stream().anyMatch(hostClass -> hostClass.isInstance(persistedDataHost));
+    }
 }
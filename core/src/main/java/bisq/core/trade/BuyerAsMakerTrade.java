@@ -27,7 +27,6 @@ import bisq.core.trade.protocol.MakerProtocol;
 import bisq.network.p2p.NodeAddress;
 
 import bisq.common.handlers.ErrorMessageHandler;
-import bisq.common.storage.Storage;
 
 import org.bitcoinj.core.Coin;
 
@@ -47,9 +46,9 @@ public final class BuyerAsMakerTrade extends BuyerTrade implements MakerTrade {
                              Coin takeOfferFee,
                              boolean isCurrencyForTakerFeeBtc,
                              @Nullable NodeAddress arbitratorNodeAddress,
-                             Storage<? extends TradableList> storage,
+                             @Nullable TradableList<? super Trade> tradableList,
                              BtcWalletService btcWalletService) {
-        super(offer, txFee, takeOfferFee, isCurrencyForTakerFeeBtc, arbitratorNodeAddress, storage, btcWalletService);
+        super(offer, txFee, takeOfferFee, isCurrencyForTakerFeeBtc, arbitratorNodeAddress, tradableList, btcWalletService);
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -65,7 +64,7 @@ public final class BuyerAsMakerTrade extends BuyerTrade implements MakerTrade {
     }
 
     public static Tradable fromProto(protobuf.BuyerAsMakerTrade buyerAsMakerTradeProto,
-                                     Storage<? extends TradableList> storage,
+                                     @Nullable TradableList<? super Trade> tradableList,
                                      BtcWalletService btcWalletService,
                                      CoreProtoResolver coreProtoResolver) {
         protobuf.Trade proto = buyerAsMakerTradeProto.getTrade();
@@ -75,7 +74,7 @@ public final class BuyerAsMakerTrade extends BuyerTrade implements MakerTrade {
                 Coin.valueOf(proto.getTakerFeeAsLong()),
                 proto.getIsCurrencyForTakerFeeBtc(),
                 proto.hasArbitratorNodeAddress() ? NodeAddress.fromProto(proto.getArbitratorNodeAddress()) : null,
-                storage,
+                tradableList,
                 btcWalletService);
 
         trade.setTradeAmountAsLong(proto.getTradeAmountAsLong());
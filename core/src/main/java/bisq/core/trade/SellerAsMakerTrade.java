@@ -27,7 +27,6 @@ import bisq.core.trade.protocol.SellerAsMakerProtocol;
 import bisq.network.p2p.NodeAddress;
 
 import bisq.common.handlers.ErrorMessageHandler;
-import bisq.common.storage.Storage;
 
 import org.bitcoinj.core.Coin;
 
@@ -47,9 +46,9 @@ public final class SellerAsMakerTrade extends SellerTrade implements MakerTrade
                               Coin takerFee,
                               boolean isCurrencyForTakerFeeBtc,
                               @Nullable NodeAddress arbitratorNodeAddress,
-                              Storage<? extends TradableList> storage,
+                              @Nullable TradableList<? super Trade> tradableList,
                               BtcWalletService btcWalletService) {
-        super(offer, txFee, takerFee, isCurrencyForTakerFeeBtc, arbitratorNodeAddress, storage, btcWalletService);
+        super(offer, txFee, takerFee, isCurrencyForTakerFeeBtc, arbitratorNodeAddress, tradableList, btcWalletService);
     }
 
 
@@ -66,7 +65,7 @@ public final class SellerAsMakerTrade extends SellerTrade implements MakerTrade
     }
 
     public static Tradable fromProto(protobuf.SellerAsMakerTrade sellerAsMakerTradeProto,
-                                     Storage<? extends TradableList> storage,
+                                     @Nullable TradableList<? super Trade> tradableList,
                                      BtcWalletService btcWalletService,
                                      CoreProtoResolver coreProtoResolver) {
         protobuf.Trade proto = sellerAsMakerTradeProto.getTrade();
@@ -76,7 +75,7 @@ public final class SellerAsMakerTrade extends SellerTrade implements MakerTrade
                 Coin.valueOf(proto.getTakerFeeAsLong()),
                 proto.getIsCurrencyForTakerFeeBtc(),
                 proto.hasArbitratorNodeAddress() ? NodeAddress.fromProto(proto.getArbitratorNodeAddress()) : null,
-                storage,
+                tradableList,
                 btcWalletService);
 
         trade.setTradeAmountAsLong(proto.getTradeAmountAsLong());
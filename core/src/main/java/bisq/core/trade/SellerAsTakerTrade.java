@@ -25,7 +25,6 @@ import bisq.core.trade.protocol.TakerProtocol;
 
 import bisq.network.p2p.NodeAddress;
 
-import bisq.common.storage.Storage;
 
 import org.bitcoinj.core.Coin;
 
@@ -50,10 +49,10 @@ public final class SellerAsTakerTrade extends SellerTrade implements TakerTrade
                               long tradePrice,
                               NodeAddress tradingPeerNodeAddress,
                               @Nullable NodeAddress arbitratorNodeAddress,
-                              Storage<? extends TradableList> storage,
+                              @Nullable TradableList<? super Trade> tradableList,
                               BtcWalletService btcWalletService) {
         super(offer, tradeAmount, txFee, takerFee, isCurrencyForTakerFeeBtc, tradePrice,
-                tradingPeerNodeAddress, arbitratorNodeAddress, storage, btcWalletService);
+                tradingPeerNodeAddress, arbitratorNodeAddress, tradableList, btcWalletService);
     }
 
 
@@ -70,7 +69,7 @@ public final class SellerAsTakerTrade extends SellerTrade implements TakerTrade
     }
 
     public static Tradable fromProto(protobuf.SellerAsTakerTrade sellerAsTakerTradeProto,
-                                     Storage<? extends TradableList> storage,
+                                     @Nullable TradableList<? super Trade> tradableList,
                                      BtcWalletService btcWalletService,
                                      CoreProtoResolver coreProtoResolver) {
         protobuf.Trade proto = sellerAsTakerTradeProto.getTrade();
@@ -83,7 +82,7 @@ public final class SellerAsTakerTrade extends SellerTrade implements TakerTrade
                         proto.getTradePrice(),
                         proto.hasTradingPeerNodeAddress() ? NodeAddress.fromProto(proto.getTradingPeerNodeAddress()) : null,
                         proto.hasArbitratorNodeAddress() ? NodeAddress.fromProto(proto.getArbitratorNodeAddress()) : null,
-                        storage,
+                        tradableList,
                         btcWalletService),
                 proto,
                 coreProtoResolver);
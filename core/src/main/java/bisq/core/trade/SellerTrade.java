@@ -25,7 +25,6 @@ import bisq.network.p2p.NodeAddress;
 
 import bisq.common.handlers.ErrorMessageHandler;
 import bisq.common.handlers.ResultHandler;
-import bisq.common.storage.Storage;
 
 import org.bitcoinj.core.Coin;
 
@@ -45,10 +44,10 @@ public abstract class SellerTrade extends Trade {
                 long tradePrice,
                 NodeAddress tradingPeerNodeAddress,
                 @Nullable NodeAddress arbitratorNodeAddress,
-                Storage<? extends TradableList> storage,
+                @Nullable TradableList<? super Trade> tradableList,
                 BtcWalletService btcWalletService) {
         super(offer, tradeAmount, txFee, takerFee, isCurrencyForTakerFeeBtc, tradePrice,
-                tradingPeerNodeAddress, arbitratorNodeAddress, storage, btcWalletService);
+                tradingPeerNodeAddress, arbitratorNodeAddress, tradableList, btcWalletService);
     }
 
     SellerTrade(Offer offer,
@@ -56,9 +55,9 @@ public abstract class SellerTrade extends Trade {
                 Coin takeOfferFee,
                 boolean isCurrencyForTakerFeeBtc,
                 @Nullable NodeAddress arbitratorNodeAddress,
-                Storage<? extends TradableList> storage,
+                @Nullable TradableList<? super Trade> tradableList,
                 BtcWalletService btcWalletService) {
-        super(offer, txFee, takeOfferFee, isCurrencyForTakerFeeBtc, arbitratorNodeAddress, storage, btcWalletService);
+        super(offer, txFee, takeOfferFee, isCurrencyForTakerFeeBtc, arbitratorNodeAddress, tradableList, btcWalletService);
     }
 
     public void onFiatPaymentReceived(ResultHandler resultHandler, ErrorMessageHandler errorMessageHandler) {
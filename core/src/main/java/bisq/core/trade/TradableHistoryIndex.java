@@ -0,0 +1,124 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.trade;
+
+import bisq.network.p2p.NodeAddress;
+
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+/**
+ * Indexes the trades of a list of tradables by the address of the trading peer. It listens to the changes of the list,
+ * so the index is updated when a tradable gets added or removed and the views do not need to scan all tradables to
+ * count the past trades with a peer.
+ * <p></p>
+ * The peer address is read when the tradable gets added. It does not change anymore once a trade is closed.
+ * Not thread safe. The list gets changed at the user thread only.
+ *
+ * @param <T> Type of the tradables
+ */
+public final class TradableHistoryIndex<T extends Tradable> {
+    // Only trades which have a trading peer address are indexed by the address
+    private final Map<String, List<T>> tradesByPeerAddress = new HashMap<>();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public TradableHistoryIndex(ObservableList<T> tradables) {
+        tradables.forEach(this::addToIndex);
+        tradables.addListener((ListChangeListener<T>) c -> {
+            while (c.next()) {
+                if (c.wasRemoved())
+                    c.getRemoved().forEach(this::removeFromIndex);
+                if (c.wasAdded())
+                    c.getAddedSubList().forEach(this::addToIndex);
+            }
+        });
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public List<T> getTradesWithPeer(@Nullable NodeAddress peerNodeAddress) {
+        if (peerNodeAddress == null)
+            return Collections.emptyList();
+
+        return unmodifiable(tradesByPeerAddress.get(peerNodeAddress.getFullAddress()));
+    }
+
+    public int getNumTradesWithPeer(@Nullable NodeAddress peerNodeAddress) {
+        return getTradesWithPeer(peerNodeAddress).size();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void addToIndex(T tradable) {
+        String peerAddress = getPeerAddress(tradable);
+        if (peerAddress != null)
+            tradesByPeerAddress.computeIfAbsent(peerAddress, k -> new ArrayList<>()).add(tradable);
+    }
+
+    private void removeFromIndex(T tradable) {
+        String peerAddress = getPeerAddress(tradable);
+        if (peerAddress == null)
+            return;
+
+        List<T> list = tradesByPeerAddress.get(peerAddress);
+        if (list == null)
+            return;
+
+        // We remove the same instance, not an equal one
+        for (Iterator<T> iterator = list.iterator(); iterator.hasNext(); ) {
+            if (iterator.next() == tradable) {
+                iterator.remove();
+                break;
+            }
+        }
+        if (list.isEmpty())
+            tradesByPeerAddress.remove(peerAddress);
+    }
+
+    @Nullable
+    private static String getPeerAddress(Tradable tradable) {
+        if (!(tradable instanceof Trade))
+            return null;
+
+        NodeAddress peerNodeAddress = ((Trade) tradable).getTradingPeerNodeAddress();
+        return peerNodeAddress != null ? peerNodeAddress.getFullAddress() : null;
+    }
+
+    private static <T> List<T> unmodifiable(@Nullable List<T> list) {
+        return list != null ? Collections.unmodifiableList(list) : Collections.emptyList();
+    }
+}
@@ -24,6 +24,7 @@ import bisq.core.proto.CoreProtoResolver;
 import bisq.common.proto.ProtoUtil;
 import bisq.common.proto.ProtobufferRuntimeException;
 import bisq.common.proto.persistable.PersistableEnvelope;
+import bisq.common.storage.ShardedStorage;
 import bisq.common.storage.Storage;
 
 import com.google.protobuf.Message;
@@ -32,7 +33,10 @@ import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -40,11 +44,23 @@ import java.util.stream.Stream;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
+/**
+ * Holds a list of tradables which is persisted either in a single file or, if a ShardedStorage is used, with one file
+ * per tradable in a dedicated directory. With the latter a change of a trade, e.g. after each task of the trade
+ * protocol, only rewrites the file of that trade and not the files of all trades.
+ */
 @Slf4j
 public final class TradableList<T extends Tradable> implements PersistableEnvelope {
+    @Nullable
     transient final private Storage<TradableList<T>> storage;
+    @Nullable
+    transient final private ShardedStorage<TradableList<T>> shardedStorage;
     @Getter
     private final ObservableList<T> list = FXCollections.observableArrayList();
+    transient final private Map<String, T> tradableByKey = new HashMap<>();
+    transient final private Map<String, T> tradableById = new HashMap<>();
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -53,10 +69,38 @@ public final class TradableList<T extends Tradable> implements PersistableEnvelo
 
     public TradableList(Storage<TradableList<T>> storage, String fileName) {
         this.storage = storage;
+        this.shardedStorage = null;
 
         TradableList<T> persisted = storage.initAndGetPersisted(this, fileName, 50);
         if (persisted != null)
-            list.addAll(persisted.getList());
+            persisted.getList().forEach(this::addToList);
+    }
+
+    // The former single file with the given fileName gets migrated to the directory with one file per tradable.
+    public TradableList(Storage<TradableList<T>> storage,
+                        String fileName,
+                        ShardedStorage<TradableList<T>> shardedStorage,
+                        String dirName) {
+        this.storage = storage;
+        this.shardedStorage = shardedStorage;
+
+        shardedStorage.initAndGetPersisted(dirName, 50).values()
+                .forEach(persisted -> persisted.getList().forEach(this::addToList));
+
+        TradableList<T> persisted = storage.initAndGetPersisted(this, fileName, 50);
+        if (persisted != null) {
+            persisted.getList().forEach(tradable -> {
+                String key = getKey(tradable);
+                if (tradableByKey.containsKey(key)) {
+                    log.warn("Tradable {} is already persisted in its own file.", key);
+                    return;
+                }
+                addToList(tradable);
+                shardedStorage.saveNow(key, new TradableList<>(tradable));
+            });
+            storage.remove(fileName);
+            log.info("Migrated {} tradables from {} to the {} directory", persisted.getList().size(), fileName, dirName);
+        }
     }
 
 
@@ -66,7 +110,15 @@ public final class TradableList<T extends Tradable> implements PersistableEnvelo
 
     private TradableList(Storage<TradableList<T>> storage, List<T> list) {
         this.storage = storage;
-        this.list.addAll(list);
+        this.shardedStorage = null;
+        list.forEach(this::addToList);
+    }
+
+    // Container for persisting a single tradable
+    private TradableList(T tradable) {
+        this.storage = null;
+        this.shardedStorage = null;
+        this.list.add(tradable);
     }
 
     @Override
@@ -82,19 +134,20 @@ public final class TradableList<T extends Tradable> implements PersistableEnvelo
                                          CoreProtoResolver coreProtoResolver,
                                          Storage<TradableList<Tradable>> storage,
                                          BtcWalletService btcWalletService) {
+        // The managers set the list which holds the trade when they load the trades
         List<Tradable> list = proto.getTradableList().stream()
                 .map(tradable -> {
                     switch (tradable.getMessageCase()) {
                         case OPEN_OFFER:
                             return OpenOffer.fromProto(tradable.getOpenOffer());
                         case BUYER_AS_MAKER_TRADE:
-                            return BuyerAsMakerTrade.fromProto(tradable.getBuyerAsMakerTrade(), storage, btcWalletService, coreProtoResolver);
+                            return BuyerAsMakerTrade.fromProto(tradable.getBuyerAsMakerTrade(), null, btcWalletService, coreProtoResolver);
                         case BUYER_AS_TAKER_TRADE:
-                            return BuyerAsTakerTrade.fromProto(tradable.getBuyerAsTakerTrade(), storage, btcWalletService, coreProtoResolver);
+                            return BuyerAsTakerTrade.fromProto(tradable.getBuyerAsTakerTrade(), null, btcWalletService, coreProtoResolver);
                         case SELLER_AS_MAKER_TRADE:
-                            return SellerAsMakerTrade.fromProto(tradable.getSellerAsMakerTrade(), storage, btcWalletService, coreProtoResolver);
+                            return SellerAsMakerTrade.fromProto(tradable.getSellerAsMakerTrade(), null, btcWalletService, coreProtoResolver);
                         case SELLER_AS_TAKER_TRADE:
-                            return SellerAsTakerTrade.fromProto(tradable.getSellerAsTakerTrade(), storage, btcWalletService, coreProtoResolver);
+                            return SellerAsTakerTrade.fromProto(tradable.getSellerAsTakerTrade(), null, btcWalletService, coreProtoResolver);
                         default:
                             log.error("Unknown messageCase. tradable.getMessageCase() = " + tradable.getMessageCase());
                             throw new ProtobufferRuntimeException("Unknown messageCase. tradable.getMessageCase() = " + tradable.getMessageCase());
@@ -111,21 +164,46 @@ public final class TradableList<T extends Tradable> implements PersistableEnvelo
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public boolean add(T tradable) {
-        boolean changed = list.add(tradable);
+        boolean changed = addToList(tradable);
         if (changed)
-            storage.queueUpForSave();
+            persist(tradable);
         return changed;
     }
 
     public boolean remove(T tradable) {
         boolean changed = list.remove(tradable);
-        if (changed)
-            storage.queueUpForSave();
+        if (changed) {
+            removeFromIndex(tradable);
+            if (shardedStorage != null)
+                shardedStorage.remove(getKey(tradable));
+            else
+                storage.queueUpForSave();
+        }
         return changed;
     }
 
+    // Persists all tradables. Use persist(tradable) if only one tradable has changed.
     public void persist() {
-        storage.queueUpForSave();
+        if (shardedStorage != null)
+            list.forEach(this::persist);
+        else
+            storage.queueUpForSave();
+    }
+
+    // A tradable which is not in the list (anymore) does not get persisted, so a trade which got moved to another
+    // list does not get resurrected.
+    public void persist(T tradable) {
+        if (shardedStorage != null) {
+            String key = getKey(tradable);
+            if (tradableByKey.get(key) == tradable)
+                shardedStorage.queueUpForSave(key, new TradableList<>(tradable));
+        } else {
+            storage.queueUpForSave();
+        }
+    }
+
+    public Optional<T> getTradableById(String id) {
+        return Optional.ofNullable(tradableById.get(id));
     }
 
     public Stream<T> stream() {
@@ -140,7 +218,39 @@ public final class TradableList<T extends Tradable> implements PersistableEnvelo
         return list.size();
     }
 
+    // We look up the tradable by its key first to avoid the equals check with all tradables
     public boolean contains(T thing) {
-        return list.contains(thing);
+        T tradable = tradableByKey.get(getKey(thing));
+        return tradable != null && (tradable == thing || tradable.equals(thing));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Trades and open offers with the same offer id can be in the same list, so we add the type to the key.
+    private static String getKey(Tradable tradable) {
+        return tradable.getClass().getSimpleName() + "_" + tradable.getId();
+    }
+
+    private boolean addToList(T tradable) {
+        boolean changed = list.add(tradable);
+        if (changed) {
+            tradableByKey.put(getKey(tradable), tradable);
+            tradableById.putIfAbsent(tradable.getId(), tradable);
+        }
+        return changed;
+    }
+
+    private void removeFromIndex(T tradable) {
+        tradableByKey.remove(getKey(tradable), tradable);
+        if (tradableById.remove(tradable.getId(), tradable)) {
+            // Another tradable with the same id (e.g. the open offer of a trade) takes its place
+            list.stream()
+                    .filter(e -> e.getId().equals(tradable.getId()))
+                    .findFirst()
+                    .ifPresent(e -> tradableById.put(e.getId(), e));
+        }
     }
 }
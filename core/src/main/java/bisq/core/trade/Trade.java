@@ -48,7 +48,6 @@ import bisq.common.UserThread;
 import bisq.common.crypto.KeyRing;
 import bisq.common.crypto.PubKeyRing;
 import bisq.common.proto.ProtoUtil;
-import bisq.common.storage.Storage;
 import bisq.common.taskrunner.Model;
 import bisq.common.util.Utilities;
 
@@ -345,8 +344,10 @@ public abstract class Trade implements Tradable, Model {
     transient final private Coin txFee;
     @Getter
     transient final private Coin takerFee;
+    // The list which holds the trade. It is used for persisting the trade.
     @Getter // to set in constructor so not final but set at init
-    transient private Storage<? extends TradableList> storage;
+    @Nullable
+    transient private TradableList<? super Trade> tradableList;
     @Getter // to set in constructor so not final but set at init
     transient private BtcWalletService btcWalletService;
 
@@ -381,13 +382,13 @@ public abstract class Trade implements Tradable, Model {
                     Coin takerFee,
                     boolean isCurrencyForTakerFeeBtc,
                     @Nullable NodeAddress arbitratorNodeAddress,
-                    Storage<? extends TradableList> storage,
+                    @Nullable TradableList<? super Trade> tradableList,
                     BtcWalletService btcWalletService) {
         this.offer = offer;
         this.txFee = txFee;
         this.takerFee = takerFee;
         this.isCurrencyForTakerFeeBtc = isCurrencyForTakerFeeBtc;
-        this.storage = storage;
+        this.tradableList = tradableList;
         this.btcWalletService = btcWalletService;
         this.arbitratorNodeAddress = arbitratorNodeAddress;
 
@@ -408,10 +409,10 @@ public abstract class Trade implements Tradable, Model {
                     long tradePrice,
                     NodeAddress tradingPeerNodeAddress,
                     @Nullable NodeAddress arbitratorNodeAddress,
-                    Storage<? extends TradableList> storage,
+                    @Nullable TradableList<? super Trade> tradableList,
                     BtcWalletService btcWalletService) {
 
-        this(offer, txFee, takerFee, isCurrencyForTakerFeeBtc, arbitratorNodeAddress, storage, btcWalletService);
+        this(offer, txFee, takerFee, isCurrencyForTakerFeeBtc, arbitratorNodeAddress, tradableList, btcWalletService);
         this.tradePrice = tradePrice;
         this.tradingPeerNodeAddress = tradingPeerNodeAddress;
 
@@ -496,8 +497,8 @@ public abstract class Trade implements Tradable, Model {
     // API
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    public void setTransientFields(Storage<? extends TradableList> storage, BtcWalletService btcWalletService) {
-        this.storage = storage;
+    public void setTransientFields(TradableList<? super Trade> tradableList, BtcWalletService btcWalletService) {
+        this.tradableList = tradableList;
         this.btcWalletService = btcWalletService;
     }
 
@@ -601,7 +602,7 @@ public abstract class Trade implements Tradable, Model {
     public void addCommunicationMessage(DisputeCommunicationMessage disputeCommunicationMessage) {
         if (!communicationMessages.contains(disputeCommunicationMessage)) {
             communicationMessages.add(disputeCommunicationMessage);
-            storage.queueUpForSave();
+            persist();
         } else {
             log.error("Trade DisputeCommunicationMessage already exists");
         }
@@ -614,8 +615,8 @@ public abstract class Trade implements Tradable, Model {
     // Get called from taskRunner after each completed task
     @Override
     public void persist() {
-        if (storage != null)
-            storage.queueUpForSave();
+        if (tradableList != null)
+            tradableList.persist(this);
     }
 
     @Override
@@ -996,7 +997,7 @@ public abstract class Trade implements Tradable, Model {
                 ",\n     errorMessage='" + errorMessage + '\'' +
                 ",\n     txFee=" + txFee +
                 ",\n     takerFee=" + takerFee +
-                ",\n     storage=" + storage +
+                ",\n     tradableList=" + tradableList +
                 ",\n     btcWalletService=" + btcWalletService +
                 ",\n     stateProperty=" + stateProperty +
                 ",\n     statePhaseProperty=" + statePhaseProperty +
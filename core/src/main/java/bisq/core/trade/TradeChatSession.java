@@ -107,7 +107,8 @@ public class TradeChatSession extends ChatSession {
 
     @Override
     public void persist() {
-        tradeManager.persistTrades();
+        if (trade != null)
+            trade.persist();
     }
 
     @Override
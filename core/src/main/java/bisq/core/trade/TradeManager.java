@@ -57,7 +57,9 @@ import bisq.common.handlers.FaultHandler;
 import bisq.common.handlers.ResultHandler;
 import bisq.common.proto.network.NetworkEnvelope;
 import bisq.common.proto.persistable.PersistedDataHost;
+import bisq.common.storage.ShardedStorage;
 import bisq.common.storage.Storage;
+import bisq.common.taskrunner.TaskRunnerMetrics;
 
 import org.bitcoinj.core.AddressFormatException;
 import org.bitcoinj.core.Coin;
@@ -65,6 +67,7 @@ import org.bitcoinj.core.InsufficientMoneyException;
 import org.bitcoinj.core.Transaction;
 
 import javax.inject.Inject;
+import javax.inject.Named;
 
 import com.google.common.util.concurrent.FutureCallback;
 
@@ -78,6 +81,8 @@ import javafx.collections.ObservableList;
 
 import org.spongycastle.crypto.params.KeyParameter;
 
+import java.io.File;
+
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
@@ -99,6 +104,7 @@ import javax.annotation.Nullable;
 
 public class TradeManager implements PersistedDataHost {
     private static final Logger log = LoggerFactory.getLogger(TradeManager.class);
+    private static final String TIMINGS_FILE_NAME = "TradeProtocolTimings.txt";
 
     private final User user;
     @Getter
@@ -119,6 +125,8 @@ public class TradeManager implements PersistedDataHost {
     private final ClockWatcher clockWatcher;
 
     private final Storage<TradableList<Trade>> tradableListStorage;
+    private final ShardedStorage<TradableList<Trade>> shardedStorage;
+    private final File storageDir;
     private TradableList<Trade> tradableList;
     private final BooleanProperty pendingTradesInitialized = new SimpleBooleanProperty();
     private List<Trade> tradesForStatistics;
@@ -154,7 +162,9 @@ public class TradeManager implements PersistedDataHost {
                         AccountAgeWitnessService accountAgeWitnessService,
                         ArbitratorManager arbitratorManager,
                         ClockWatcher clockWatcher,
-                        Storage<TradableList<Trade>> storage) {
+                        Storage<TradableList<Trade>> storage,
+                        ShardedStorage<TradableList<Trade>> shardedStorage,
+                        @Named(Storage.STORAGE_DIR) File storageDir) {
         this.user = user;
         this.keyRing = keyRing;
         this.btcWalletService = btcWalletService;
@@ -173,6 +183,8 @@ public class TradeManager implements PersistedDataHost {
         this.clockWatcher = clockWatcher;
 
         tradableListStorage = storage;
+        this.shardedStorage = shardedStorage;
+        this.storageDir = storageDir;
 
         chatManager = new ChatManager(p2PService, walletsSetup);
         chatManager.setChatSession(new TradeChatSession(null, true, true, this, chatManager));
@@ -192,7 +204,7 @@ public class TradeManager implements PersistedDataHost {
             if (networkEnvelope instanceof TradeMessage) {
                 TradeMessage tradeMessage = (TradeMessage) networkEnvelope;
                 String tradeId = tradeMessage.getTradeId();
-                Optional<Trade> tradeOptional = tradableList.stream().filter(e -> e.getId().equals(tradeId)).findAny();
+                Optional<Trade> tradeOptional = tradableList.getTradableById(tradeId);
                 // The mailbox message will be removed inside the tasks after they are processed successfully
                 tradeOptional.ifPresent(trade -> trade.addDecryptedMessageWithPubKey(decryptedMessageWithPubKey));
             } else if (networkEnvelope instanceof AckMessage) {
@@ -213,9 +225,9 @@ public class TradeManager implements PersistedDataHost {
 
     @Override
     public void readPersisted() {
-        tradableList = new TradableList<>(tradableListStorage, "PendingTrades");
+        tradableList = new TradableList<>(tradableListStorage, "PendingTrades", shardedStorage, "Tradables/PendingTrades");
         tradableList.forEach(trade -> {
-            trade.setTransientFields(tradableListStorage, btcWalletService);
+            trade.setTransientFields(tradableList, btcWalletService);
             Offer offer = trade.getOffer();
             if (offer != null)
                 offer.setPriceFeedService(priceFeedService);
@@ -254,6 +266,11 @@ public class TradeManager implements PersistedDataHost {
     }
 
     public void shutDown() {
+        // We export the timings of the trade protocol tasks of this session
+        if (!TaskRunnerMetrics.isEmpty()) {
+            log.info(TaskRunnerMetrics.getReport());
+            TaskRunnerMetrics.writeReport(new File(storageDir, TIMINGS_FILE_NAME));
+        }
     }
 
     private void initPendingTrades() {
@@ -337,7 +354,7 @@ public class TradeManager implements PersistedDataHost {
                         Coin.valueOf(payDepositRequest.getTakerFee()),
                         payDepositRequest.isCurrencyForTakerFeeBtc(),
                         openOffer.getArbitratorNodeAddress(),
-                        tradableListStorage,
+                        tradableList,
                         btcWalletService);
             else
                 trade = new SellerAsMakerTrade(offer,
@@ -345,7 +362,7 @@ public class TradeManager implements PersistedDataHost {
                         Coin.valueOf(payDepositRequest.getTakerFee()),
                         payDepositRequest.isCurrencyForTakerFeeBtc(),
                         openOffer.getArbitratorNodeAddress(),
-                        tradableListStorage,
+                        tradableList,
                         btcWalletService);
 
             initTrade(trade, trade.getProcessModel().isUseSavingsWallet(), trade.getProcessModel().getFundsNeededForTradeAsLong());
@@ -456,7 +473,7 @@ public class TradeManager implements PersistedDataHost {
                     tradePrice,
                     model.getPeerNodeAddress(),
                     model.getSelectedArbitrator(),
-                    tradableListStorage,
+                    tradableList,
                     btcWalletService);
         else
             trade = new BuyerAsTakerTrade(offer,
@@ -467,7 +484,7 @@ public class TradeManager implements PersistedDataHost {
                     tradePrice,
                     model.getPeerNodeAddress(),
                     model.getSelectedArbitrator(),
-                    tradableListStorage,
+                    tradableList,
                     btcWalletService);
 
         trade.setTakerPaymentAccountId(paymentAccountId);
@@ -592,7 +609,7 @@ public class TradeManager implements PersistedDataHost {
     }
 
     public Optional<Trade> getTradeById(String tradeId) {
-        return tradableList.stream().filter(e -> e.getId().equals(tradeId)).findFirst();
+        return tradableList.getTradableById(tradeId);
     }
 
     public Stream<AddressEntry> getAddressEntriesForAvailableBalanceStream() {
@@ -21,11 +21,15 @@ import bisq.core.btc.wallet.BtcWalletService;
 import bisq.core.offer.Offer;
 import bisq.core.provider.price.PriceFeedService;
 import bisq.core.trade.Tradable;
+import bisq.core.trade.TradableHistoryIndex;
 import bisq.core.trade.TradableList;
 import bisq.core.trade.Trade;
 
+import bisq.network.p2p.NodeAddress;
+
 import bisq.common.crypto.KeyRing;
 import bisq.common.proto.persistable.PersistedDataHost;
+import bisq.common.storage.ShardedStorage;
 import bisq.common.storage.Storage;
 
 import com.google.inject.Inject;
@@ -39,40 +43,51 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import javax.annotation.Nullable;
+
 public class ClosedTradableManager implements PersistedDataHost {
     private final Storage<TradableList<Tradable>> tradableListStorage;
+    private final ShardedStorage<TradableList<Tradable>> shardedStorage;
     private TradableList<Tradable> closedTradables;
     private final KeyRing keyRing;
     private final PriceFeedService priceFeedService;
     private final BtcWalletService btcWalletService;
+    // Available after readPersisted
+    @Nullable
+    private TradableHistoryIndex<Tradable> historyIndex;
 
     @Inject
     public ClosedTradableManager(KeyRing keyRing,
                                  PriceFeedService priceFeedService,
                                  BtcWalletService btcWalletService,
-                                 Storage<TradableList<Tradable>> storage) {
+                                 Storage<TradableList<Tradable>> storage,
+                                 ShardedStorage<TradableList<Tradable>> shardedStorage) {
         this.keyRing = keyRing;
         this.priceFeedService = priceFeedService;
         this.btcWalletService = btcWalletService;
         tradableListStorage = storage;
         // The ClosedTrades object can become a few MB so we don't keep so many backups
         tradableListStorage.setNumMaxBackupFiles(3);
-
+        this.shardedStorage = shardedStorage;
     }
 
     @Override
     public void readPersisted() {
-        closedTradables = new TradableList<>(tradableListStorage, "ClosedTrades");
+        closedTradables = new TradableList<>(tradableListStorage, "ClosedTrades", shardedStorage, "Tradables/ClosedTrades");
         closedTradables.forEach(tradable -> {
             tradable.getOffer().setPriceFeedService(priceFeedService);
             if (tradable instanceof Trade) {
                 Trade trade = (Trade) tradable;
-                trade.setTransientFields(tradableListStorage, btcWalletService);
+                trade.setTransientFields(closedTradables, btcWalletService);
             }
         });
+        historyIndex = new TradableHistoryIndex<>(closedTradables.getList());
     }
 
     public void add(Tradable tradable) {
+        // A trade gets persisted in the list which holds it
+        if (tradable instanceof Trade)
+            ((Trade) tradable).setTransientFields(closedTradables, btcWalletService);
         closedTradables.add(tradable);
     }
 
@@ -92,7 +107,12 @@ public class ClosedTradableManager implements PersistedDataHost {
     }
 
     public Optional<Tradable> getTradableById(String id) {
-        return closedTradables.stream().filter(e -> e.getId().equals(id)).findFirst();
+        return closedTradables.getTradableById(id);
+    }
+
+    public int getNumPastTradesWithPeer(@Nullable NodeAddress peerNodeAddress) {
+        // No closed trades are known before the persisted ones got read
+        return historyIndex != null ? historyIndex.getNumTradesWithPeer(peerNodeAddress) : 0;
     }
 
     public Stream<Trade> getLockedTradesStream() {
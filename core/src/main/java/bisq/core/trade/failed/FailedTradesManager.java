@@ -25,6 +25,7 @@ import bisq.core.trade.Trade;
 
 import bisq.common.crypto.KeyRing;
 import bisq.common.proto.persistable.PersistedDataHost;
+import bisq.common.storage.ShardedStorage;
 import bisq.common.storage.Storage;
 
 import com.google.inject.Inject;
@@ -44,32 +45,37 @@ public class FailedTradesManager implements PersistedDataHost {
     private final PriceFeedService priceFeedService;
     private final BtcWalletService btcWalletService;
     private final Storage<TradableList<Trade>> tradableListStorage;
+    private final ShardedStorage<TradableList<Trade>> shardedStorage;
 
     @Inject
     public FailedTradesManager(KeyRing keyRing,
                                PriceFeedService priceFeedService,
                                BtcWalletService btcWalletService,
-                               Storage<TradableList<Trade>> storage) {
+                               Storage<TradableList<Trade>> storage,
+                               ShardedStorage<TradableList<Trade>> shardedStorage) {
         this.keyRing = keyRing;
         this.priceFeedService = priceFeedService;
         this.btcWalletService = btcWalletService;
         tradableListStorage = storage;
-
+        this.shardedStorage = shardedStorage;
     }
 
     @Override
     public void readPersisted() {
-        this.failedTrades = new TradableList<>(tradableListStorage, "FailedTrades");
+        this.failedTrades = new TradableList<>(tradableListStorage, "FailedTrades", shardedStorage, "Tradables/FailedTrades");
         failedTrades.forEach(e -> e.getOffer().setPriceFeedService(priceFeedService));
         failedTrades.forEach(trade -> {
             trade.getOffer().setPriceFeedService(priceFeedService);
-            trade.setTransientFields(tradableListStorage, btcWalletService);
+            trade.setTransientFields(failedTrades, btcWalletService);
         });
     }
 
     public void add(Trade trade) {
-        if (!failedTrades.contains(trade))
+        if (!failedTrades.contains(trade)) {
+            // A trade gets persisted in the list which holds it
+            trade.setTransientFields(failedTrades, btcWalletService);
             failedTrades.add(trade);
+        }
     }
 
     public boolean wasMyOffer(Offer offer) {
@@ -81,7 +87,7 @@ public class FailedTradesManager implements PersistedDataHost {
     }
 
     public Optional<Trade> getTradeById(String id) {
-        return failedTrades.stream().filter(e -> e.getId().equals(id)).findFirst();
+        return failedTrades.getTradableById(id);
     }
 
     public Stream<Trade> getLockedTradesStream() {
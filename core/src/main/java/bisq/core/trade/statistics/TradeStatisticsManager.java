@@ -32,7 +32,6 @@ import bisq.network.p2p.storage.persistence.AppendOnlyDataStoreService;
 import bisq.common.UserThread;
 import bisq.common.storage.JsonFileManager;
 import bisq.common.storage.Storage;
-import bisq.common.util.Utilities;
 
 import com.google.inject.Inject;
 import com.google.inject.name.Named;
@@ -86,24 +85,20 @@ public class TradeStatisticsManager {
             ArrayList<CurrencyTuple> fiatCurrencyList = CurrencyUtil.getAllSortedFiatCurrencies().stream()
                     .map(e -> new CurrencyTuple(e.getCode(), e.getName(), 8))
                     .collect(Collectors.toCollection(ArrayList::new));
-            jsonFileManager.writeToDisc(Utilities.objectToJson(fiatCurrencyList), "fiat_currency_list");
+            jsonFileManager.writeToDiscAsJson(fiatCurrencyList, "fiat_currency_list");
 
             ArrayList<CurrencyTuple> cryptoCurrencyList = CurrencyUtil.getAllSortedCryptoCurrencies().stream()
                     .map(e -> new CurrencyTuple(e.getCode(), e.getName(), 8))
                     .collect(Collectors.toCollection(ArrayList::new));
             cryptoCurrencyList.add(0, new CurrencyTuple(Res.getBaseCurrencyCode(), Res.getBaseCurrencyName(), 8));
-            jsonFileManager.writeToDisc(Utilities.objectToJson(cryptoCurrencyList), "crypto_currency_list");
+            jsonFileManager.writeToDiscAsJson(cryptoCurrencyList, "crypto_currency_list");
         }
 
-        p2PService.getP2PDataStorage().addAppendOnlyDataStoreListener(payload -> {
-            if (payload instanceof TradeStatistics2)
-                addToMap((TradeStatistics2) payload, true);
-        });
+        List<TradeStatistics2> tradeStatisticsList = p2PService.getP2PDataStorage().addAppendOnlyDataStoreListener(
+                TradeStatistics2.class, payload -> addToMap((TradeStatistics2) payload, true));
 
         Map<String, TradeStatistics2> map = new HashMap<>();
-        p2PService.getP2PDataStorage().getAppendOnlyDataStoreMap().values().stream()
-                .filter(e -> e instanceof TradeStatistics2)
-                .map(e -> (TradeStatistics2) e)
+        tradeStatisticsList.stream()
                 .filter(TradeStatistics2::isValid)
                 .forEach(e -> addToMap(e, map));
         observableTradeStatisticsSet.addAll(map.values());
@@ -186,7 +181,7 @@ public class TradeStatisticsManager {
                     .collect(Collectors.toList());
             TradeStatisticsForJson[] array = new TradeStatisticsForJson[list.size()];
             list.toArray(array);
-            jsonFileManager.writeToDisc(Utilities.objectToJson(array), "trade_statistics");
+            jsonFileManager.writeToDiscAsJson(array, "trade_statistics");
         }
     }
 }
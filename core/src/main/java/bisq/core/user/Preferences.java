@@ -120,6 +120,11 @@ public final class Preferences implements PersistedDataHost, BridgeAddressProvid
     @Delegate(excludes = ExcludesDelegateMethods.class)
     private PreferencesPayload prefPayload = new PreferencesPayload();
     private boolean initialReadDone = false;
+    // Changes inside applyBatch are persisted once at the end of the outermost batch
+    private int batchDepth;
+    private boolean persistRequested;
+    private boolean fiatCurrenciesChanged;
+    private boolean cryptoCurrenciesChanged;
 
     @Getter
     private final BooleanProperty useAnimationsProperty = new SimpleBooleanProperty(prefPayload.isUseAnimations());
@@ -189,16 +194,16 @@ public final class Preferences implements PersistedDataHost, BridgeAddressProvid
         });
 
         fiatCurrenciesAsObservable.addListener((javafx.beans.Observable ov) -> {
-            prefPayload.getFiatCurrencies().clear();
-            prefPayload.getFiatCurrencies().addAll(fiatCurrenciesAsObservable);
-            prefPayload.getFiatCurrencies().sort(TradeCurrency::compareTo);
-            persist();
+            if (batchDepth > 0)
+                fiatCurrenciesChanged = true;
+            else
+                updateFiatCurrenciesInPayload();
         });
         cryptoCurrenciesAsObservable.addListener((javafx.beans.Observable ov) -> {
-            prefPayload.getCryptoCurrencies().clear();
-            prefPayload.getCryptoCurrencies().addAll(cryptoCurrenciesAsObservable);
-            prefPayload.getCryptoCurrencies().sort(TradeCurrency::compareTo);
-            persist();
+            if (batchDepth > 0)
+                cryptoCurrenciesChanged = true;
+            else
+                updateCryptoCurrenciesInPayload();
         });
 
         useCustomWithdrawalTxFeeProperty.addListener((ov) -> {
@@ -333,6 +338,34 @@ public final class Preferences implements PersistedDataHost, BridgeAddressProvid
         dontShowAgainMapAsObservable.clear();
     }
 
+    /**
+     * Applies the changes and persists the preferences only once after all changes are applied instead of after each
+     * change. Batches can be nested, the preferences get persisted at the end of the outermost batch.
+     * Must be called from the user thread like all setters.
+     */
+    public void applyBatch(Runnable changes) {
+        batchDepth++;
+        try {
+            changes.run();
+        } finally {
+            batchDepth--;
+            if (batchDepth == 0) {
+                if (fiatCurrenciesChanged) {
+                    fiatCurrenciesChanged = false;
+                    updateFiatCurrenciesInPayload();
+                }
+                if (cryptoCurrenciesChanged) {
+                    cryptoCurrenciesChanged = false;
+                    updateCryptoCurrenciesInPayload();
+                }
+                if (persistRequested) {
+                    persistRequested = false;
+                    persist();
+                }
+            }
+        }
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Setter
@@ -395,10 +428,29 @@ public final class Preferences implements PersistedDataHost, BridgeAddressProvid
     }
 
     private void persist() {
-        if (initialReadDone)
+        if (!initialReadDone)
+            return;
+
+        if (batchDepth > 0)
+            persistRequested = true;
+        else
             storage.queueUpForSave(prefPayload);
     }
 
+    private void updateFiatCurrenciesInPayload() {
+        prefPayload.getFiatCurrencies().clear();
+        prefPayload.getFiatCurrencies().addAll(fiatCurrenciesAsObservable);
+        prefPayload.getFiatCurrencies().sort(TradeCurrency::compareTo);
+        persist();
+    }
+
+    private void updateCryptoCurrenciesInPayload() {
+        prefPayload.getCryptoCurrencies().clear();
+        prefPayload.getCryptoCurrencies().addAll(cryptoCurrenciesAsObservable);
+        prefPayload.getCryptoCurrencies().sort(TradeCurrency::compareTo);
+        persist();
+    }
+
     public void setUserLanguage(@NotNull String userLanguageCode) {
         prefPayload.setUserLanguage(userLanguageCode);
         if (prefPayload.getUserCountry() != null && prefPayload.getUserLanguage() != null)
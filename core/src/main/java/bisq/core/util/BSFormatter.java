@@ -52,13 +52,17 @@ import java.math.BigDecimal;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
 
 import org.jetbrains.annotations.NotNull;
 
+import javax.annotation.Nullable;
+
 @Slf4j
 @Singleton
 public class BSFormatter {
@@ -81,6 +85,25 @@ public class BSFormatter {
     protected final MonetaryFormat altcoinFormat = new MonetaryFormat().shift(0).minDecimals(8).repeatOptionalDecimals(0, 0);
     protected final DecimalFormat decimalFormat = new DecimalFormat("#.#");
 
+    // Table cells get formatted at each refresh, so we reuse the formatters and remember the recently formatted values.
+    // The fixed decimal formats produce the same result as the MonetaryFormats above.
+    private static final int FORMAT_CACHE_SIZE = 256;
+    private final FixedDecimalFormat fiatPriceFixedFormat = new FixedDecimalFormat(Fiat.SMALLEST_UNIT_EXPONENT, 4);
+    private final FixedDecimalFormat fiatVolumeFixedFormat = new FixedDecimalFormat(Fiat.SMALLEST_UNIT_EXPONENT, 2);
+    private final FixedDecimalFormat altcoinFixedFormat = new FixedDecimalFormat(Altcoin.SMALLEST_UNIT_EXPONENT, 8);
+    private final FixedDecimalFormat bsqVolumeFixedFormat = new FixedDecimalFormat(Altcoin.SMALLEST_UNIT_EXPONENT, 2);
+    // Only the coin formats of the formatters are used, so the map stays small
+    private final Map<MonetaryFormat, CoinFormats> coinFormatsByFormat = new ConcurrentHashMap<>();
+    // DateFormat and DecimalFormat are not thread safe
+    private static final ThreadLocal<DateFormats> dateFormats = new ThreadLocal<>();
+    private static final ThreadLocal<DecimalFormat> roundedDoubleFormat = ThreadLocal.withInitial(() -> new DecimalFormat("#.#"));
+    private static final ThreadLocal<DecimalFormat> percentFormat = ThreadLocal.withInitial(() -> {
+        DecimalFormat decimalFormat = new DecimalFormat("#.##");
+        decimalFormat.setMinimumFractionDigits(2);
+        decimalFormat.setMaximumFractionDigits(2);
+        return decimalFormat;
+    });
+
 
     @Inject
     public BSFormatter() {
@@ -113,14 +136,19 @@ public class BSFormatter {
         String formattedCoin = "";
 
         if (coin != null) {
-            try {
-                if (decimalPlaces < 0 || decimalPlaces > 4) {
-                    formattedCoin = coinFormat.noCode().format(coin).toString();
-                } else {
-                    formattedCoin = coinFormat.noCode().minDecimals(decimalPlaces).repeatOptionalDecimals(1, decimalPlaces).format(coin).toString();
+            CoinFormats coinFormats = getCoinFormats(coinFormat);
+            int index = decimalPlaces < 0 || decimalPlaces > 4 ? 0 : decimalPlaces + 1;
+            FormatCache cache = coinFormats.noCodeCaches[index];
+            String cached = cache.get(coin.value);
+            if (cached != null) {
+                formattedCoin = cached;
+            } else {
+                try {
+                    formattedCoin = coinFormats.noCodeFormats[index].format(coin).toString();
+                    cache.put(coin.value, formattedCoin);
+                } catch (Throwable t) {
+                    log.warn("Exception at formatBtc: " + t.toString());
                 }
-            } catch (Throwable t) {
-                log.warn("Exception at formatBtc: " + t.toString());
             }
         }
 
@@ -148,7 +176,13 @@ public class BSFormatter {
             try {
                 // we don't use the code feature from coinFormat as it does automatic switching between mBTC and BTC and
                 // pre and post fixing
-                return coinFormat.postfixCode().format(coin).toString();
+                CoinFormats coinFormats = getCoinFormats(coinFormat);
+                String formattedCoin = coinFormats.postfixCodeCache.get(coin.value);
+                if (formattedCoin == null) {
+                    formattedCoin = coinFormats.postfixCodeFormat.format(coin).toString();
+                    coinFormats.postfixCodeCache.put(coin.value, formattedCoin);
+                }
+                return formattedCoin;
             } catch (Throwable t) {
                 log.warn("Exception at formatBtcWithCode: " + t.toString());
                 return "";
@@ -216,7 +250,7 @@ public class BSFormatter {
     public String formatFiat(Fiat fiat, MonetaryFormat format, boolean appendCurrencyCode) {
         if (fiat != null) {
             try {
-                final String res = format.noCode().format(fiat).toString();
+                final String res = formatMonetary(fiat, format, getFixedDecimalFormat(format));
                 if (appendCurrencyCode)
                     return res + " " + fiat.getCurrencyCode();
                 else
@@ -287,7 +321,7 @@ public class BSFormatter {
     public String formatAltcoin(Altcoin altcoin, boolean appendCurrencyCode) {
         if (altcoin != null) {
             try {
-                String res = altcoinFormat.noCode().format(altcoin).toString();
+                String res = formatMonetary(altcoin, altcoinFormat, altcoinFixedFormat);
                 if (appendCurrencyCode)
                     return res + " " + altcoin.getCurrencyCode();
                 else
@@ -355,9 +389,9 @@ public class BSFormatter {
                 // TODO quick hack...
                 String res;
                 if (altcoin.getCurrencyCode().equals("BSQ"))
-                    res = altcoinFormat.noCode().minDecimals(2).repeatOptionalDecimals(0, 0).format(altcoin).toString();
+                    res = bsqVolumeFixedFormat.format(altcoin.getValue());
                 else
-                    res = altcoinFormat.noCode().format(altcoin).toString();
+                    res = formatMonetary(altcoin, altcoinFormat, altcoinFixedFormat);
                 if (appendCurrencyCode)
                     return res + " " + altcoin.getCurrencyCode();
                 else
@@ -461,6 +495,7 @@ public class BSFormatter {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public String formatRoundedDoubleWithPrecision(double value, int precision) {
+        DecimalFormat decimalFormat = roundedDoubleFormat.get();
         decimalFormat.setMinimumFractionDigits(precision);
         decimalFormat.setMaximumFractionDigits(precision);
         return decimalFormat.format(MathUtils.roundDouble(value, precision)).replace(",", ".");
@@ -493,14 +528,21 @@ public class BSFormatter {
     }
 
     public String formatDateTime(Date date, boolean useLocaleAndLocalTimezone) {
-        Locale locale = useLocaleAndLocalTimezone ? getLocale() : Locale.US;
-        DateFormat dateInstance = DateFormat.getDateInstance(DateFormat.DEFAULT, locale);
-        DateFormat timeInstance = DateFormat.getTimeInstance(DateFormat.DEFAULT, locale);
-        if (!useLocaleAndLocalTimezone) {
-            dateInstance.setTimeZone(TimeZone.getTimeZone("UTC"));
-            timeInstance.setTimeZone(TimeZone.getTimeZone("UTC"));
+        if (useLocaleAndLocalTimezone) {
+            if (date == null)
+                return "";
+
+            DateFormats dateFormats = getDateFormats();
+            String formattedDateTime = dateFormats.dateTimeCache.get(date.getTime());
+            if (formattedDateTime == null) {
+                formattedDateTime = formatDateTime(date, dateFormats.dateFormat, dateFormats.timeFormat);
+                dateFormats.dateTimeCache.put(date.getTime(), formattedDateTime);
+            }
+            return formattedDateTime;
+        } else {
+            DateFormats dateFormats = getDateFormats();
+            return formatDateTime(date, dateFormats.utcDateFormat, dateFormats.utcTimeFormat);
         }
-        return formatDateTime(date, dateInstance, timeInstance);
     }
 
     public String formatDateTime(Date date, DateFormat dateFormatter, DateFormat timeFormatter) {
@@ -513,8 +555,9 @@ public class BSFormatter {
 
     public String formatDateTimeSpan(Date dateFrom, Date dateTo) {
         if (dateFrom != null && dateTo != null) {
-            DateFormat dateFormatter = DateFormat.getDateInstance(DateFormat.DEFAULT, getLocale());
-            DateFormat timeFormatter = DateFormat.getTimeInstance(DateFormat.DEFAULT, getLocale());
+            DateFormats dateFormats = getDateFormats();
+            DateFormat dateFormatter = dateFormats.dateFormat;
+            DateFormat timeFormatter = dateFormats.timeFormat;
             return dateFormatter.format(dateFrom) + " " + timeFormatter.format(dateFrom) + RANGE_SEPARATOR + timeFormatter.format(dateTo);
         } else {
             return "";
@@ -523,8 +566,7 @@ public class BSFormatter {
 
     public String formatTime(Date date) {
         if (date != null) {
-            DateFormat timeFormatter = DateFormat.getTimeInstance(DateFormat.DEFAULT, getLocale());
-            return timeFormatter.format(date);
+            return getDateFormats().timeFormat.format(date);
         } else {
             return "";
         }
@@ -532,8 +574,7 @@ public class BSFormatter {
 
     public String formatDate(Date date) {
         if (date != null) {
-            DateFormat dateFormatter = DateFormat.getDateInstance(DateFormat.DEFAULT, getLocale());
-            return dateFormatter.format(date);
+            return getDateFormats().dateFormat.format(date);
         } else {
             return "";
         }
@@ -548,10 +589,7 @@ public class BSFormatter {
     }
 
     public String formatToPercent(double value) {
-        DecimalFormat decimalFormat = new DecimalFormat("#.##");
-        decimalFormat.setMinimumFractionDigits(2);
-        decimalFormat.setMaximumFractionDigits(2);
-        return decimalFormat.format(MathUtils.roundDouble(value * 100.0, 2)).replace(",", ".");
+        return percentFormat.get().format(MathUtils.roundDouble(value * 100.0, 2)).replace(",", ".");
     }
 
     public double parseNumberStringToDouble(String input) throws NumberFormatException {
@@ -806,4 +844,84 @@ public class BSFormatter {
     public Locale getLocale() {
         return GlobalSettings.getLocale();
     }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private CoinFormats getCoinFormats(MonetaryFormat coinFormat) {
+        // ConcurrentHashMap.computeIfAbsent locks even if the key is present, so we try get first
+        CoinFormats coinFormats = coinFormatsByFormat.get(coinFormat);
+        return coinFormats != null ? coinFormats : coinFormatsByFormat.computeIfAbsent(coinFormat, CoinFormats::new);
+    }
+
+    @Nullable
+    private FixedDecimalFormat getFixedDecimalFormat(MonetaryFormat format) {
+        if (format == fiatPriceFormat)
+            return fiatPriceFixedFormat;
+        else if (format == fiatVolumeFormat)
+            return fiatVolumeFixedFormat;
+        else if (format == altcoinFormat)
+            return altcoinFixedFormat;
+        else
+            return null;
+    }
+
+    private static String formatMonetary(Monetary monetary,
+                                         MonetaryFormat format,
+                                         @Nullable FixedDecimalFormat fixedDecimalFormat) {
+        if (fixedDecimalFormat != null && fixedDecimalFormat.isApplicable(monetary.smallestUnitExponent()))
+            return fixedDecimalFormat.format(monetary.getValue());
+        else
+            return format.noCode().format(monetary).toString();
+    }
+
+    private DateFormats getDateFormats() {
+        Locale locale = getLocale();
+        DateFormats formats = dateFormats.get();
+        if (formats == null || !formats.locale.equals(locale)) {
+            formats = new DateFormats(locale);
+            dateFormats.set(formats);
+        }
+        return formats;
+    }
+
+    // The derived formats of a coin format and the recently formatted values
+    private static final class CoinFormats {
+        // Index 0 is the format with the default decimal places, index 1 to 5 the ones with 0 to 4 decimal places
+        private final MonetaryFormat[] noCodeFormats = new MonetaryFormat[6];
+        private final FormatCache[] noCodeCaches = new FormatCache[6];
+        private final MonetaryFormat postfixCodeFormat;
+        private final FormatCache postfixCodeCache = new FormatCache(FORMAT_CACHE_SIZE);
+
+        private CoinFormats(MonetaryFormat coinFormat) {
+            noCodeFormats[0] = coinFormat.noCode();
+            for (int decimalPlaces = 0; decimalPlaces <= 4; decimalPlaces++)
+                noCodeFormats[decimalPlaces + 1] = coinFormat.noCode().minDecimals(decimalPlaces).repeatOptionalDecimals(1, decimalPlaces);
+            for (int i = 0; i < noCodeCaches.length; i++)
+                noCodeCaches[i] = new FormatCache(FORMAT_CACHE_SIZE);
+            postfixCodeFormat = coinFormat.postfixCode();
+        }
+    }
+
+    // The date formats of a thread for the locale of the user and for Locale.US in UTC
+    private static final class DateFormats {
+        private final Locale locale;
+        private final DateFormat dateFormat;
+        private final DateFormat timeFormat;
+        private final DateFormat utcDateFormat;
+        private final DateFormat utcTimeFormat;
+        private final FormatCache dateTimeCache = new FormatCache(FORMAT_CACHE_SIZE);
+
+        private DateFormats(Locale locale) {
+            this.locale = locale;
+            dateFormat = DateFormat.getDateInstance(DateFormat.DEFAULT, locale);
+            timeFormat = DateFormat.getTimeInstance(DateFormat.DEFAULT, locale);
+            utcDateFormat = DateFormat.getDateInstance(DateFormat.DEFAULT, Locale.US);
+            utcTimeFormat = DateFormat.getTimeInstance(DateFormat.DEFAULT, Locale.US);
+            utcDateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+            utcTimeFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+        }
+    }
 }
@@ -0,0 +1,89 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.util;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Formats a monetary value with a fixed number of decimals directly from its long value. The result is the same as
+ * the one of a MonetaryFormat with the default symbols, no shift, no code and no optional decimals
+ * (e.g. new MonetaryFormat().shift(0).minDecimals(2).repeatOptionalDecimals(0, 0)), but we don't need the
+ * String.format and the StringBuilder MonetaryFormat uses for each value.
+ */
+final class FixedDecimalFormat {
+    private static final long[] POWERS_OF_TEN = {1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L,
+            10_000_000L, 100_000_000L};
+
+    private final int smallestUnitExponent;
+    private final int decimals;
+    private final long roundingDivisor;
+    private final long decimalsDivisor;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    FixedDecimalFormat(int smallestUnitExponent, int decimals) {
+        checkArgument(smallestUnitExponent >= 0 && smallestUnitExponent < POWERS_OF_TEN.length,
+                "smallestUnitExponent out of range");
+        checkArgument(decimals >= 0 && decimals <= smallestUnitExponent, "decimals out of range");
+        this.smallestUnitExponent = smallestUnitExponent;
+        this.decimals = decimals;
+        roundingDivisor = POWERS_OF_TEN[smallestUnitExponent - decimals];
+        decimalsDivisor = POWERS_OF_TEN[decimals];
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    boolean isApplicable(int smallestUnitExponent) {
+        return this.smallestUnitExponent == smallestUnitExponent;
+    }
+
+    String format(long value) {
+        // Like MonetaryFormat we round the absolute value half up and add the sign afterwards
+        checkArgument(value != Long.MIN_VALUE, "value out of range");
+        long abs = Math.abs(value);
+        long rounded = abs / roundingDivisor;
+        if (abs % roundingDivisor * 2 >= roundingDivisor && roundingDivisor > 1)
+            rounded++;
+
+        long numbers = rounded / decimalsDivisor;
+        long fraction = rounded % decimalsDivisor;
+
+        // 19 digits of a long, the sign, the decimal mark and the decimals
+        char[] chars = new char[21 + decimals];
+        int pos = chars.length;
+        for (int i = 0; i < decimals; i++) {
+            chars[--pos] = (char) ('0' + fraction % 10);
+            fraction /= 10;
+        }
+        if (decimals > 0)
+            chars[--pos] = '.';
+        do {
+            chars[--pos] = (char) ('0' + numbers % 10);
+            numbers /= 10;
+        } while (numbers > 0);
+        if (value < 0)
+            chars[--pos] = '-';
+        return new String(chars, pos, chars.length - pos);
+    }
+}
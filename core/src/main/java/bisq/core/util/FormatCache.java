@@ -0,0 +1,81 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.util;
+
+import javax.annotation.Nullable;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Remembers the most recently formatted strings of one format by the value they got formatted from. Table cells get
+ * formatted again at each refresh, mostly with the same values, so most lookups are hits.
+ * <p></p>
+ * The cache is direct mapped: each value has exactly one slot and a new value replaces the one in its slot. A lookup
+ * does not allocate and does not lock. The entries are immutable, so a lookup from another thread sees either the old
+ * or the new entry of a slot.
+ */
+final class FormatCache {
+    private static final class Entry {
+        private final long value;
+        private final String formatted;
+
+        private Entry(long value, String formatted) {
+            this.value = value;
+            this.formatted = formatted;
+        }
+    }
+
+    private final Entry[] entries;
+    private final int shift;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    FormatCache(int size) {
+        checkArgument(size > 1 && Integer.bitCount(size) == 1, "size must be a power of 2");
+        entries = new Entry[size];
+        shift = 64 - Integer.numberOfTrailingZeros(size);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Nullable
+    String get(long value) {
+        Entry entry = entries[getIndex(value)];
+        return entry != null && entry.value == value ? entry.formatted : null;
+    }
+
+    void put(long value, String formatted) {
+        entries[getIndex(value)] = new Entry(value, formatted);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Amounts and prices are often round numbers, so we spread the values with a multiplicative hash
+    private int getIndex(long value) {
+        return (int) ((value * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+}
@@ -18,25 +18,38 @@
 package bisq.core.crypto;
 
 import bisq.common.crypto.CryptoException;
+import bisq.common.crypto.Encryption;
 import bisq.common.crypto.KeyRing;
 import bisq.common.crypto.KeyStorage;
 import bisq.common.storage.FileUtil;
 
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 
+import javax.crypto.SecretKey;
+
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
 import java.security.Security;
 import java.security.cert.CertificateException;
 
+import java.nio.ByteBuffer;
+
 import java.io.File;
 import java.io.IOException;
 
+import java.util.Random;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class EncryptionTest {
     private static final Logger log = LoggerFactory.getLogger(EncryptionTest.class);
@@ -60,7 +73,44 @@ public class EncryptionTest {
         FileUtil.deleteDirectory(dir);
     }
 
+    @Test
+    public void testDecryptPayloadWithHmac() throws CryptoException {
+        SecretKey secretKey = Encryption.generateSecretKey(128);
+        Random random = new Random(1);
+        for (int size : new int[]{0, 1, 31, 32, 33, 1000}) {
+            byte[] payload = new byte[size];
+            random.nextBytes(payload);
+            byte[] encrypted = Encryption.encryptPayloadWithHmac(payload, secretKey);
 
+            ByteBuffer buffer = Encryption.decryptPayloadWithHmacAsBuffer(encrypted, secretKey);
+            assertTrue(buffer.isReadOnly());
+            assertEquals(size, buffer.remaining());
+            byte[] fromBuffer = new byte[buffer.remaining()];
+            buffer.get(fromBuffer);
+            assertArrayEquals(payload, fromBuffer);
+        }
+    }
+
+    @Test
+    public void testDecryptPayloadWithHmacRejectsTamperedHmac() throws CryptoException {
+        SecretKey secretKey = Encryption.generateSecretKey(128);
+        byte[] payload = new byte[100];
+        new Random(2).nextBytes(payload);
+        byte[] payloadWithHmac = Encryption.decrypt(Encryption.encryptPayloadWithHmac(payload, secretKey), secretKey);
+        payloadWithHmac[payloadWithHmac.length - 1] ^= 1;
+        try {
+            Encryption.decryptPayloadWithHmacAsBuffer(Encryption.encrypt(payloadWithHmac, secretKey), secretKey);
+            fail("Expected CryptoException");
+        } catch (CryptoException e) {
+            assertEquals("Hmac does not match.", e.getMessage());
+        }
+    }
+
+    @Test(expected = CryptoException.class)
+    public void testDecryptPayloadWithHmacRejectsTooShortPayload() throws CryptoException {
+        SecretKey secretKey = Encryption.generateSecretKey(128);
+        Encryption.decryptPayloadWithHmacAsBuffer(Encryption.encrypt(new byte[16], secretKey), secretKey);
+    }
 }
 
 
@@ -0,0 +1,97 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.governance.votereveal;
+
+import bisq.core.dao.governance.blindvote.BlindVote;
+
+import bisq.common.util.PermutationUtil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.OptionalLong;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class VoteRevealConsensusTest {
+
+    @Test
+    public void testHashOfSerializedBlindVoteList() {
+        List<BlindVote> blindVotes = getBlindVotes(6);
+        List<byte[]> serializedBlindVotes = VoteRevealConsensus.getSerializedBlindVotes(blindVotes);
+
+        List<List<BlindVote>> permutations = PermutationUtil.findAllPermutations(blindVotes, 1000000);
+        for (int i = 0; i < permutations.size(); i++) {
+            // Permutation masks are in the order of findAllPermutations starting with 1
+            long permutation = i + 1;
+            assertEquals(permutations.get(i), PermutationUtil.getPermutation(blindVotes, permutation));
+            assertArrayEquals(VoteRevealConsensus.getHashOfBlindVoteList(permutations.get(i)),
+                    VoteRevealConsensus.getHashOfBlindVoteList(serializedBlindVotes, permutation));
+        }
+    }
+
+    @Test
+    public void testFindPermutationMatchingHash() {
+        List<BlindVote> blindVotes = getBlindVotes(12);
+        List<byte[]> serializedBlindVotes = VoteRevealConsensus.getSerializedBlindVotes(blindVotes);
+
+        // Majority list without the blind votes at index 2 and 7
+        List<BlindVote> majorityList = new ArrayList<>(blindVotes);
+        majorityList.remove(7);
+        majorityList.remove(2);
+        byte[] majorityHash = VoteRevealConsensus.getHashOfBlindVoteList(majorityList);
+
+        // Result of the previous implementation which materialized all permutations
+        List<BlindVote> expected = PermutationUtil.findAllPermutations(blindVotes, 1000000).stream()
+                .filter(variation -> Arrays.equals(majorityHash, VoteRevealConsensus.getHashOfBlindVoteList(variation)))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No variation found"));
+
+        OptionalLong permutation = PermutationUtil.findFirstMatchingPermutation(blindVotes.size(),
+                candidate -> Arrays.equals(majorityHash,
+                        VoteRevealConsensus.getHashOfBlindVoteList(serializedBlindVotes, candidate)),
+                1000000);
+        assertTrue(permutation.isPresent());
+        assertEquals(expected, PermutationUtil.getPermutation(blindVotes, permutation.getAsLong()));
+        assertEquals(majorityList, expected);
+
+        byte[] unknownHash = VoteRevealConsensus.getHashOfBlindVoteList(getBlindVotes(13));
+        assertFalse(PermutationUtil.findFirstMatchingPermutation(blindVotes.size(),
+                candidate -> Arrays.equals(unknownHash,
+                        VoteRevealConsensus.getHashOfBlindVoteList(serializedBlindVotes, candidate)),
+                1000000).isPresent());
+    }
+
+    private static List<BlindVote> getBlindVotes(int numBlindVotes) {
+        List<BlindVote> blindVotes = new ArrayList<>();
+        for (int i = 0; i < numBlindVotes; i++) {
+            blindVotes.add(new BlindVote(new byte[]{(byte) i, 1, 2},
+                    "blindVoteTxId" + i,
+                    10000 + i,
+                    new byte[]{(byte) i, 3, 4},
+                    1534800000 + i,
+                    null));
+        }
+        return blindVotes;
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.node.explorer;
+
+import bisq.core.dao.state.DaoStateService;
+import bisq.core.dao.state.model.blockchain.Block;
+import bisq.core.dao.state.model.blockchain.Tx;
+import bisq.core.dao.state.model.blockchain.TxInput;
+import bisq.core.dao.state.model.blockchain.TxOutputKey;
+
+import bisq.common.storage.FileUtil;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ExportJsonFilesServiceTest {
+    private File storageDir;
+    private File jsonDir;
+    private DaoStateService daoStateService;
+    private LinkedList<Block> blocks;
+    private ExportJsonFilesService service;
+
+    @Before
+    public void setUp() throws IOException {
+        storageDir = Files.createTempDirectory("export_json_test").toFile();
+        jsonDir = new File(storageDir, "json");
+        blocks = new LinkedList<>();
+        daoStateService = mock(DaoStateService.class);
+        when(daoStateService.isParseBlockChainComplete()).thenReturn(true);
+        when(daoStateService.getBlocks()).thenReturn(blocks);
+        when(daoStateService.isBsqTxOutputType(any())).thenReturn(true);
+        service = new ExportJsonFilesService(daoStateService, storageDir, true);
+        service.start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtil.deleteDirectory(storageDir);
+    }
+
+    @Test
+    public void testNewBlockOnlyExportsChangedTxs() throws IOException {
+        addBlock(1, "hash1", createTx("tx1", 1, "hash1"));
+        addBlock(2, "hash2", createTx("tx2", 2, "hash2"));
+        service.maybeExportToJson();
+
+        // tx3 spends the output of tx1, so tx1 gets exported again but not tx2
+        clearInvocations(daoStateService);
+        addBlock(3, "hash3", createTx("tx3", 3, "hash3", new TxInput("tx1", 0, null)));
+        service.maybeExportToJson();
+        verify(daoStateService, atLeastOnce()).isUnspent(new TxOutputKey("tx3", 0));
+        verify(daoStateService, atLeastOnce()).isUnspent(new TxOutputKey("tx1", 0));
+        verify(daoStateService, never()).isUnspent(new TxOutputKey("tx2", 0));
+
+        service.shutDown();
+        assertTrue(getJsonFile("block", "3").exists());
+        assertTrue(getJsonFile("tx", "tx3").exists());
+        assertTrue(getJsonFile("txo", "tx3:0").exists());
+        assertEquals(Arrays.asList("1 hash1", "2 hash2", "3 hash3"), readIndex());
+        String summary = read(getJsonFile("all", "summary"));
+        assertTrue(summary.contains("\"numBlocks\": 3"));
+        assertTrue(summary.contains("\"numTxs\": 3"));
+        assertTrue(summary.contains("\"burntFee\": 30"));
+    }
+
+    @Test
+    public void testReorgRollsBackExportedBlocks() throws IOException {
+        addBlock(1, "hash1", createTx("tx1", 1, "hash1"));
+        addBlock(2, "hash2", createTx("tx2", 2, "hash2"));
+        addBlock(3, "hash3", createTx("tx3", 3, "hash3", new TxInput("tx1", 0, null)));
+        service.maybeExportToJson();
+
+        // Blocks 2 and 3 get replaced by block 2b
+        clearInvocations(daoStateService);
+        blocks.removeLast();
+        blocks.removeLast();
+        addBlock(2, "hash2b", createTx("tx2b", 2, "hash2b"));
+        service.maybeExportToJson();
+        // The output of tx1 is not spent by tx3 anymore
+        verify(daoStateService, atLeastOnce()).isUnspent(new TxOutputKey("tx1", 0));
+
+        service.shutDown();
+        assertEquals(Arrays.asList("1 hash1", "2 hash2b"), readIndex());
+        assertFalse(getJsonFile("block", "3").exists());
+        assertTrue(read(getJsonFile("block", "2")).contains("tx2b"));
+        assertFalse(getJsonFile("tx", "tx2").exists());
+        assertFalse(getJsonFile("tx", "tx3").exists());
+        assertFalse(getJsonFile("txo", "tx3:0").exists());
+        assertTrue(getJsonFile("tx", "tx2b").exists());
+        String summary = read(getJsonFile("all", "summary"));
+        assertTrue(summary.contains("\"numBlocks\": 2"));
+        assertTrue(summary.contains("\"numTxs\": 2"));
+    }
+
+    private void addBlock(int height, String hash, Tx... txs) {
+        Block block = new Block(height, height * 1000L, hash, blocks.isEmpty() ? null : blocks.getLast().getHash());
+        block.getTxs().addAll(Arrays.asList(txs));
+        blocks.add(block);
+        when(daoStateService.getChainHeight()).thenReturn(height);
+    }
+
+    private static Tx createTx(String id, int height, String blockHash, TxInput... txInputs) {
+        protobuf.BaseTxOutput txOutput = protobuf.BaseTxOutput.newBuilder()
+                .setIndex(0)
+                .setValue(1000)
+                .setTxId(id)
+                .setBlockHeight(height)
+                .setTxOutput(protobuf.TxOutput.newBuilder().setTxOutputType(protobuf.TxOutputType.BSQ_OUTPUT))
+                .build();
+        return Tx.fromProto(protobuf.BaseTx.newBuilder()
+                .setTxVersion("1")
+                .setId(id)
+                .setBlockHeight(height)
+                .setBlockHash(blockHash)
+                .setTime(height * 1000L)
+                .addAllTxInputs(Arrays.stream(txInputs).map(TxInput::toProtoMessage).collect(Collectors.toList()))
+                .setTx(protobuf.Tx.newBuilder()
+                        .addTxOutputs(txOutput)
+                        .setTxType(protobuf.TxType.TRANSFER_BSQ)
+                        .setBurntBsq(10))
+                .build());
+    }
+
+    private File getJsonFile(String dirName, String fileName) {
+        return new File(new File(jsonDir, dirName), fileName + ".json");
+    }
+
+    // Height and hash of the lines of the block index
+    private List<String> readIndex() throws IOException {
+        return Files.readAllLines(new File(new File(jsonDir, "all"), "blocks.index").toPath()).stream()
+                .map(line -> line.split(" "))
+                .map(fields -> fields[0] + " " + fields[1])
+                .collect(Collectors.toList());
+    }
+
+    private static String read(File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+}
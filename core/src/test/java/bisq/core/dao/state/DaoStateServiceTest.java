@@ -17,12 +17,23 @@
 
 package bisq.core.dao.state;
 
+import bisq.core.dao.governance.param.Param;
 import bisq.core.dao.state.model.DaoState;
 import bisq.core.dao.state.model.blockchain.Block;
+import bisq.core.dao.state.model.governance.Cycle;
+import bisq.core.dao.state.model.governance.DaoPhase;
+import bisq.core.dao.state.model.governance.ParamChange;
 import bisq.core.util.BsqFormatter;
 
 import org.bitcoinj.core.Coin;
 
+import com.google.common.collect.ImmutableList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -69,4 +80,89 @@ public class DaoStateServiceTest {
                 stateService.isBlockHashKnown("fakeblockhash4")
         );
     }
+
+    @Test
+    public void testGetParamValue() {
+        DaoStateService stateService = new DaoStateService(
+                new DaoState(),
+                new GenesisTxInfo("fakegenesistxid", 100, Coin.parseCoin("2.5").value),
+                new BsqFormatter());
+        Param param = Param.DEFAULT_MAKER_FEE_BTC;
+        Assert.assertEquals(param.getDefaultValue(), stateService.getParamValue(param, 1000));
+
+        DaoState snapshot = new DaoState();
+        snapshot.getParamChangeList().add(new ParamChange(param.name(), "0.002", 200));
+        snapshot.getParamChangeList().add(new ParamChange(Param.DEFAULT_TAKER_FEE_BTC.name(), "0.004", 250));
+        snapshot.getParamChangeList().add(new ParamChange(param.name(), "0.005", 300));
+        snapshot.getParamChangeList().add(new ParamChange(param.name(), "0.006", 300));
+        snapshot.getParamChangeList().add(new ParamChange("UNKNOWN_PARAM", "1", 300));
+        stateService.applySnapshot(snapshot);
+
+        Assert.assertEquals(param.getDefaultValue(), stateService.getParamValue(param, 199));
+        Assert.assertEquals("0.002", stateService.getParamValue(param, 200));
+        Assert.assertEquals("0.002", stateService.getParamValue(param, 299));
+        // Last entry wins if there are multiple changes at the same height
+        Assert.assertEquals("0.006", stateService.getParamValue(param, 300));
+        Assert.assertEquals("0.006", stateService.getParamValue(param, 1000));
+        Assert.assertEquals("0.004", stateService.getParamValue(Param.DEFAULT_TAKER_FEE_BTC, 1000));
+
+        stateService.applySnapshot(new DaoState());
+        Assert.assertEquals(param.getDefaultValue(), stateService.getParamValue(param, 1000));
+    }
+
+    // Replays a chain with many cycles of random phase durations and compares the lookups with a linear search
+    @Test
+    public void testGetCycleAndPhaseForHeight() {
+        DaoStateService stateService = new DaoStateService(
+                new DaoState(),
+                new GenesisTxInfo("fakegenesistxid", 100, Coin.parseCoin("2.5").value),
+                new BsqFormatter());
+        Random random = new Random(1);
+        DaoState snapshot = new DaoState();
+        int height = 100;
+        snapshot.getCycles().add(getRandomCycle(height, random));
+        stateService.applySnapshot(snapshot);
+        Assert.assertEquals(1, stateService.getCycles().size());
+
+        for (int i = 0; i < 200; i++) {
+            height = stateService.getCurrentCycle().getHeightOfLastBlock() + 1;
+            stateService.addCycle(getRandomCycle(height, random));
+        }
+
+        int lastHeight = stateService.getCurrentCycle().getHeightOfLastBlock();
+        for (height = 0; height <= lastHeight + 10; height++) {
+            int h = height;
+            Optional<Cycle> expected = stateService.getCycles().stream()
+                    .filter(cycle -> cycle.getHeightOfFirstBlock() <= h)
+                    .filter(cycle -> cycle.getHeightOfLastBlock() >= h)
+                    .findAny();
+            Assert.assertEquals(expected, stateService.getCycle(height));
+
+            Optional<DaoPhase.Phase> expectedPhase = expected.flatMap(cycle -> cycle.getDaoPhaseList().stream()
+                    .filter(item -> h >= getFirstBlockOfPhase(cycle, item.getPhase()) &&
+                            h < getFirstBlockOfPhase(cycle, item.getPhase()) + item.getDuration())
+                    .map(DaoPhase::getPhase)
+                    .findAny());
+            Assert.assertEquals(expectedPhase, expected.flatMap(cycle -> cycle.getPhaseForHeight(h)));
+        }
+
+        stateService.applySnapshot(new DaoState());
+        Assert.assertFalse(stateService.getCycle(200).isPresent());
+    }
+
+    private static Cycle getRandomCycle(int heightOfFirstBlock, Random random) {
+        List<DaoPhase> daoPhaseList = new ArrayList<>();
+        for (DaoPhase.Phase phase : DaoPhase.Phase.values()) {
+            // Some phases have a duration of 0
+            if (phase != DaoPhase.Phase.UNDEFINED)
+                daoPhaseList.add(new DaoPhase(phase, random.nextInt(4) == 0 ? 0 : 1 + random.nextInt(20)));
+        }
+        return new Cycle(heightOfFirstBlock, ImmutableList.copyOf(daoPhaseList));
+    }
+
+    private static int getFirstBlockOfPhase(Cycle cycle, DaoPhase.Phase phase) {
+        return cycle.getHeightOfFirstBlock() + cycle.getDaoPhaseList().stream()
+                .filter(item -> item.getPhase().ordinal() < phase.ordinal())
+                .mapToInt(DaoPhase::getDuration).sum();
+    }
 }
@@ -0,0 +1,180 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.filter;
+
+import bisq.core.payment.payload.AliPayAccountPayload;
+import bisq.core.payment.payload.PaymentAccountPayload;
+import bisq.core.payment.payload.PerfectMoneyAccountPayload;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import java.lang.reflect.Method;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class CompiledFilterTest {
+    private static final String[] IDS = {"id1", "id2", "id3", "id4", "id5", "id6"};
+    private static final String[] ADDRESSES = {"a.onion:9999", "b.onion:9999", "c.onion:9999", "d.onion:9999"};
+    private static final String[] CURRENCIES = {"USD", "EUR", "XMR", "ETH", "BSQ"};
+    private static final String[] PAYMENT_METHODS = {"PERFECT_MONEY", "ALI_PAY", "SEPA"};
+    private static final String[] METHOD_NAMES = {"getAccountNr", "getId", "getMissingMethod"};
+    private static final String[] ACCOUNT_VALUES = {"123", "abc", "ABC", "x1", "X1"};
+
+    @Test
+    public void testNoFilter() {
+        CompiledFilter compiledFilter = new CompiledFilter(null);
+        assertFalse(compiledFilter.isOfferIdBanned("id1"));
+        assertFalse(compiledFilter.isNodeAddressBanned("a.onion:9999"));
+        assertFalse(compiledFilter.isCurrencyBanned("USD"));
+        assertFalse(compiledFilter.isPaymentMethodBanned("SEPA"));
+        assertFalse(compiledFilter.getBannedPaymentAccountFilter(getPayload("ALI_PAY", "abc")).isPresent());
+    }
+
+    @Test
+    public void testAgreesWithLegacyChecks() {
+        Random random = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            Filter filter = getRandomFilter(random);
+            CompiledFilter compiledFilter = new CompiledFilter(filter);
+
+            for (String id : IDS)
+                assertEquals(isOfferIdBanned(filter, id), compiledFilter.isOfferIdBanned(id));
+            for (String address : ADDRESSES)
+                assertEquals(isNodeAddressBanned(filter, address), compiledFilter.isNodeAddressBanned(address));
+            for (String currency : CURRENCIES)
+                assertEquals(isCurrencyBanned(filter, currency), compiledFilter.isCurrencyBanned(currency));
+            for (String paymentMethod : PAYMENT_METHODS)
+                assertEquals(isPaymentMethodBanned(filter, paymentMethod), compiledFilter.isPaymentMethodBanned(paymentMethod));
+
+            for (String paymentMethod : PAYMENT_METHODS) {
+                for (String value : ACCOUNT_VALUES) {
+                    PaymentAccountPayload payload = getPayload(paymentMethod, value);
+                    PaymentAccountFilter[] appliedPaymentAccountFilter = new PaymentAccountFilter[1];
+                    boolean banned = isPeersPaymentAccountDataAreBanned(filter, payload, appliedPaymentAccountFilter);
+                    Optional<PaymentAccountFilter> paymentAccountFilter = compiledFilter.getBannedPaymentAccountFilter(payload);
+                    assertEquals(banned, paymentAccountFilter.isPresent());
+                    if (banned)
+                        assertEquals(appliedPaymentAccountFilter[0], paymentAccountFilter.get());
+                }
+            }
+        }
+    }
+
+    private static Filter getRandomFilter(Random random) {
+        List<PaymentAccountFilter> bannedPaymentAccounts = new ArrayList<>();
+        int numPaymentAccountFilters = random.nextInt(6);
+        for (int i = 0; i < numPaymentAccountFilters; i++) {
+            bannedPaymentAccounts.add(new PaymentAccountFilter(getRandom(random, PAYMENT_METHODS),
+                    getRandom(random, METHOD_NAMES),
+                    getRandom(random, ACCOUNT_VALUES)));
+        }
+        return new Filter(getRandomList(random, IDS),
+                getRandomList(random, ADDRESSES),
+                bannedPaymentAccounts,
+                random.nextBoolean() ? getRandomList(random, CURRENCIES) : null,
+                random.nextBoolean() ? getRandomList(random, PAYMENT_METHODS) : null,
+                null,
+                null,
+                null,
+                false,
+                null,
+                false,
+                null,
+                null);
+    }
+
+    private static List<String> getRandomList(Random random, String[] values) {
+        List<String> list = new ArrayList<>();
+        int size = random.nextInt(values.length + 1);
+        for (int i = 0; i < size; i++)
+            list.add(getRandom(random, values));
+        return list;
+    }
+
+    private static String getRandom(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    // The id of the payload is its value as well, so we get matches for the getId method too
+    private static PaymentAccountPayload getPayload(String paymentMethod, String value) {
+        if (paymentMethod.equals("ALI_PAY")) {
+            AliPayAccountPayload payload = new AliPayAccountPayload(paymentMethod, value);
+            payload.setAccountNr(value);
+            return payload;
+        } else {
+            PerfectMoneyAccountPayload payload = new PerfectMoneyAccountPayload(paymentMethod, value);
+            payload.setAccountNr(value);
+            return payload;
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // The checks of the FilterManager before the filter got compiled
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static boolean isCurrencyBanned(Filter filter, String currencyCode) {
+        return filter.getBannedCurrencies() != null &&
+                filter.getBannedCurrencies().stream()
+                        .anyMatch(e -> e.equals(currencyCode));
+    }
+
+    private static boolean isPaymentMethodBanned(Filter filter, String paymentMethodId) {
+        return filter.getBannedPaymentMethods() != null &&
+                filter.getBannedPaymentMethods().stream()
+                        .anyMatch(e -> e.equals(paymentMethodId));
+    }
+
+    private static boolean isOfferIdBanned(Filter filter, String offerId) {
+        return filter.getBannedOfferIds().stream()
+                .anyMatch(e -> e.equals(offerId));
+    }
+
+    private static boolean isNodeAddressBanned(Filter filter, String fullAddress) {
+        return filter.getBannedNodeAddress().stream()
+                .anyMatch(e -> e.equals(fullAddress));
+    }
+
+    private static boolean isPeersPaymentAccountDataAreBanned(Filter filter,
+                                                              PaymentAccountPayload paymentAccountPayload,
+                                                              PaymentAccountFilter[] appliedPaymentAccountFilter) {
+        return filter.getBannedPaymentAccounts().stream()
+                .anyMatch(paymentAccountFilter -> {
+                    final boolean samePaymentMethodId = paymentAccountFilter.getPaymentMethodId().equals(
+                            paymentAccountPayload.getPaymentMethodId());
+                    if (samePaymentMethodId) {
+                        try {
+                            Method method = paymentAccountPayload.getClass().getMethod(paymentAccountFilter.getGetMethodName());
+                            String result = (String) method.invoke(paymentAccountPayload);
+                            appliedPaymentAccountFilter[0] = paymentAccountFilter;
+                            return result.toLowerCase().equals(paymentAccountFilter.getValue().toLowerCase());
+                        } catch (Throwable e) {
+                            return false;
+                        }
+                    } else {
+                        return false;
+                    }
+                });
+    }
+}
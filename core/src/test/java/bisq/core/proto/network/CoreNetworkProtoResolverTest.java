@@ -0,0 +1,54 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.proto.network;
+
+import bisq.network.p2p.peers.keepalive.messages.Ping;
+import bisq.network.p2p.peers.keepalive.messages.Pong;
+
+import bisq.common.proto.ProtobufferException;
+import bisq.common.proto.network.NetworkEnvelope;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CoreNetworkProtoResolverTest {
+
+    @Test
+    public void testRoundTrip() throws ProtobufferException {
+        CoreNetworkProtoResolver resolver = new CoreNetworkProtoResolver();
+        NetworkEnvelope envelope = resolver.fromProto(new Ping(1, 2).toProtoNetworkEnvelope());
+        assertTrue(envelope instanceof Ping);
+        assertEquals(1, ((Ping) envelope).getNonce());
+        assertEquals(2, ((Ping) envelope).getLastRoundTripTime());
+
+        resolver.fromProto(new Pong(1).toProtoNetworkEnvelope());
+        resolver.fromProto(new Pong(2).toProtoNetworkEnvelope());
+
+        assertEquals(1, resolver.getDecodeCount(protobuf.NetworkEnvelope.MessageCase.PING));
+        assertEquals(2, resolver.getDecodeCount(protobuf.NetworkEnvelope.MessageCase.PONG));
+        assertEquals(0, resolver.getDecodeCount(protobuf.NetworkEnvelope.MessageCase.ACK_MESSAGE));
+        assertTrue(resolver.getDecodeReport().contains("PONG"));
+    }
+
+    @Test(expected = ProtobufferException.class)
+    public void testUnknownMessageCase() throws ProtobufferException {
+        new CoreNetworkProtoResolver().fromProto(protobuf.NetworkEnvelope.newBuilder().build());
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.provider.price;
+
+import bisq.common.util.Tuple2;
+
+import java.nio.charset.StandardCharsets;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PriceProviderTest {
+    private static final String TIMESTAMPS = "\"btcAverageTs\":1000000,\"poloniexTs\":2000,\"coinmarketcapTs\":3000,";
+
+    @Test
+    public void testParse() throws IOException {
+        PriceProvider.MarketPrices result = parse("{" + TIMESTAMPS + "\"cursor\":\"a1-3\",\"delta\":true,\"data\":[" +
+                "{\"currencyCode\":\"USD\",\"price\":8000.5,\"timestampSec\":1000000,\"provider\":\"BTCA_L\"}]}");
+        assertEquals("a1-3", result.cursor);
+        assertTrue(result.delta);
+        assertEquals(3, result.tsMap.size());
+        assertEquals(8000.5, result.marketPriceMap.get("USD").getPrice(), 0);
+    }
+
+    // Pricenodes which do not support the cursor deliver all prices
+    @Test
+    public void testParseWithoutCursor() throws IOException {
+        PriceProvider.MarketPrices result = parse("{" + TIMESTAMPS + "\"data\":[]}");
+        assertNull(result.cursor);
+        assertFalse(result.delta);
+    }
+
+    @Test(expected = IOException.class)
+    public void testParseMissingTimestamp() throws IOException {
+        parse("{\"btcAverageTs\":1000,\"data\":[]}");
+    }
+
+    // The providers use different clocks, so the prices of a delta get merged independent of their timestamps
+    @Test
+    public void testMergeDeltaWithOlderTimestamps() throws IOException {
+        Tuple2<Map<String, Long>, Map<String, MarketPrice>> lastResult = PriceProvider.merge(null,
+                parse("{" + TIMESTAMPS + "\"cursor\":\"a1-1\",\"delta\":false,\"data\":[" +
+                        "{\"currencyCode\":\"USD\",\"price\":8000,\"timestampSec\":1000000}," +
+                        "{\"currencyCode\":\"XMR\",\"price\":0.01,\"timestampSec\":2000}]}"));
+        assertEquals(2, lastResult.second.size());
+
+        Tuple2<Map<String, Long>, Map<String, MarketPrice>> result = PriceProvider.merge(lastResult,
+                parse("{" + TIMESTAMPS + "\"cursor\":\"a1-2\",\"delta\":true,\"data\":[" +
+                        "{\"currencyCode\":\"XMR\",\"price\":0.02,\"timestampSec\":2001}]}"));
+        assertEquals(2, result.second.size());
+        assertEquals(8000, result.second.get("USD").getPrice(), 0);
+        assertEquals(0.02, result.second.get("XMR").getPrice(), 0);
+    }
+
+    // A full response replaces the last result, so dropped markets get removed
+    @Test
+    public void testFullResponseDropsMarkets() throws IOException {
+        Tuple2<Map<String, Long>, Map<String, MarketPrice>> lastResult = PriceProvider.merge(null,
+                parse("{" + TIMESTAMPS + "\"cursor\":\"a1-1\",\"delta\":false,\"data\":[" +
+                        "{\"currencyCode\":\"USD\",\"price\":8000,\"timestampSec\":1000000}," +
+                        "{\"currencyCode\":\"XMR\",\"price\":0.01,\"timestampSec\":2000}]}"));
+
+        Tuple2<Map<String, Long>, Map<String, MarketPrice>> result = PriceProvider.merge(lastResult,
+                parse("{" + TIMESTAMPS + "\"cursor\":\"a1-2\",\"delta\":false,\"data\":[" +
+                        "{\"currencyCode\":\"USD\",\"price\":8000,\"timestampSec\":1000000}]}"));
+        assertEquals(1, result.second.size());
+        assertFalse(result.second.containsKey("XMR"));
+    }
+
+    private static PriceProvider.MarketPrices parse(String json) throws IOException {
+        return PriceProvider.parseMarketPrices(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.trade;
+
+import bisq.network.p2p.NodeAddress;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TradableHistoryIndexTest {
+    // A user with many closed trades. We compare the index with a scan of all trades.
+    @Test
+    public void testAgreesWithLinearScan() {
+        Random random = new Random(42);
+        List<NodeAddress> peers = getPeers(200);
+        ObservableList<Trade> trades = FXCollections.observableArrayList();
+        for (int i = 0; i < 10_000; i++)
+            trades.add(createTrade(getRandom(random, peers)));
+
+        TradableHistoryIndex<Trade> index = new TradableHistoryIndex<>(trades);
+
+        for (NodeAddress peer : peers) {
+            long expected = trades.stream().filter(trade -> peer.equals(trade.getTradingPeerNodeAddress())).count();
+            assertEquals(expected, index.getNumTradesWithPeer(peer));
+        }
+    }
+
+    @Test
+    public void testIncrementalUpdate() {
+        NodeAddress peer = new NodeAddress("peer.onion", 9999);
+        ObservableList<Trade> trades = FXCollections.observableArrayList();
+        TradableHistoryIndex<Trade> index = new TradableHistoryIndex<>(trades);
+        assertEquals(0, index.getNumTradesWithPeer(peer));
+        assertEquals(0, index.getNumTradesWithPeer(null));
+
+        Trade trade1 = createTrade(peer);
+        Trade trade2 = createTrade(peer);
+        Trade trade3 = createTrade(null);
+        trades.add(trade1);
+        trades.addAll(trade2, trade3);
+
+        assertEquals(2, index.getNumTradesWithPeer(peer));
+        assertEquals(0, index.getNumTradesWithPeer(null));
+
+        trades.remove(trade1);
+        assertEquals(1, index.getNumTradesWithPeer(peer));
+        assertEquals(trade2, index.getTradesWithPeer(peer).get(0));
+
+        trades.clear();
+        assertEquals(0, index.getNumTradesWithPeer(peer));
+    }
+
+    private static List<NodeAddress> getPeers(int numPeers) {
+        List<NodeAddress> peers = new ArrayList<>();
+        for (int i = 0; i < numPeers; i++)
+            peers.add(new NodeAddress("peer" + i + ".onion", 9999));
+        return peers;
+    }
+
+    private static <T> T getRandom(Random random, List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private static Trade createTrade(NodeAddress peer) {
+        Trade trade = mock(Trade.class);
+        when(trade.getTradingPeerNodeAddress()).thenReturn(peer);
+        return trade;
+    }
+}
@@ -22,14 +22,31 @@ import bisq.core.offer.OfferPayload;
 import bisq.core.offer.OpenOffer;
 
 import bisq.common.storage.CorruptedDatabaseFilesHandler;
+import bisq.common.storage.ShardedStorage;
 import bisq.common.storage.Storage;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
 import org.junit.Test;
 
+import org.mockito.ArgumentCaptor;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.clearInvocations;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static protobuf.PersistableEnvelope.MessageCase.TRADABLE_LIST;
 
 public class TradableListTest {
@@ -51,4 +68,143 @@ public class TradableListTest {
         assertEquals(message.getMessageCase(), TRADABLE_LIST);
         assertEquals(1, message.getTradableList().getTradableList().size());
     }
+
+    @Test
+    public void testLookupById() {
+        Storage<TradableList<OpenOffer>> storage = new Storage<>(null, null, mock(CorruptedDatabaseFilesHandler.class));
+        TradableList<OpenOffer> openOfferTradableList = new TradableList<>(storage, "filename");
+        OpenOffer openOffer1 = createOpenOffer("id1", storage);
+        OpenOffer openOffer2 = createOpenOffer("id2", storage);
+        openOfferTradableList.add(openOffer1);
+        openOfferTradableList.add(openOffer2);
+
+        assertEquals(openOffer1, openOfferTradableList.getTradableById("id1").orElse(null));
+        assertEquals(openOffer2, openOfferTradableList.getTradableById("id2").orElse(null));
+        assertFalse(openOfferTradableList.getTradableById("id3").isPresent());
+        assertTrue(openOfferTradableList.contains(openOffer1));
+
+        openOfferTradableList.remove(openOffer1);
+        assertFalse(openOfferTradableList.getTradableById("id1").isPresent());
+        assertFalse(openOfferTradableList.contains(openOffer1));
+        assertEquals(1, openOfferTradableList.size());
+    }
+
+    @Test
+    public void testShardedStoragePersistsSingleTradable() {
+        Storage<TradableList<Trade>> storage = mockStorage(null);
+        ShardedStorage<TradableList<Trade>> shardedStorage = mockShardedStorage(Collections.emptyMap());
+        TradableList<Trade> tradableList = new TradableList<>(storage, "PendingTrades", shardedStorage, "Tradables/PendingTrades");
+        Trade trade1 = createTrade("id1");
+        Trade trade2 = createTrade("id2");
+
+        tradableList.add(trade1);
+        tradableList.add(trade2);
+        tradableList.persist(trade1);
+        ArgumentCaptor<TradableList> captor = ArgumentCaptor.forClass(TradableList.class);
+        verify(shardedStorage, times(2)).queueUpForSave(eq(getKey(trade1)), captor.capture());
+        verify(shardedStorage).queueUpForSave(eq(getKey(trade2)), any());
+        assertEquals(Collections.singletonList(trade1), captor.getValue().getList());
+
+        tradableList.remove(trade1);
+        verify(shardedStorage).remove(getKey(trade1));
+
+        // A removed trade does not get written again
+        clearInvocations(shardedStorage);
+        tradableList.persist(trade1);
+        tradableList.persist();
+        verify(shardedStorage, never()).queueUpForSave(eq(getKey(trade1)), any());
+        verify(shardedStorage).queueUpForSave(eq(getKey(trade2)), any());
+
+        // The single file is not used anymore
+        verify(storage, never()).queueUpForSave();
+        verify(storage, never()).remove(anyString());
+    }
+
+    // A step of the trade protocol persists its trade. That costs one write, independent of the number of trades.
+    @Test
+    public void testPersistWritesOneShardPerTrade() {
+        for (int numTrades : new int[]{10, 100, 1000}) {
+            ShardedStorage<TradableList<Trade>> shardedStorage = mockShardedStorage(Collections.emptyMap());
+            TradableList<Trade> tradableList = new TradableList<>(mockStorage(null), "PendingTrades", shardedStorage,
+                    "Tradables/PendingTrades");
+            for (int i = 0; i < numTrades; i++)
+                tradableList.add(createTrade("id" + i));
+            Trade trade = tradableList.getTradableById("id5").orElseThrow(IllegalStateException::new);
+
+            clearInvocations(shardedStorage);
+            tradableList.persist(trade);
+            verify(shardedStorage, times(1)).queueUpForSave(anyString(), any());
+        }
+    }
+
+    @Test
+    public void testMigrationToShards() {
+        String[] fileNames = {"PendingTrades", "ClosedTrades", "FailedTrades"};
+        for (String fileName : fileNames) {
+            Trade trade1 = createTrade("id1");
+            Trade trade2 = createTrade("id2");
+            Trade persistedTrade2 = createTrade("id2");
+            TradableList<Trade> singleFile = new TradableList<>(mockStorage(null), fileName);
+            singleFile.add(trade1);
+            singleFile.add(trade2);
+            TradableList<Trade> shard = new TradableList<>(mockStorage(null), fileName);
+            shard.add(persistedTrade2);
+            Map<String, TradableList<Trade>> shards = new HashMap<>();
+            shards.put(getKey(persistedTrade2), shard);
+
+            Storage<TradableList<Trade>> storage = mockStorage(singleFile);
+            ShardedStorage<TradableList<Trade>> shardedStorage = mockShardedStorage(shards);
+            String dirName = "Tradables/" + fileName;
+            TradableList<Trade> tradableList = new TradableList<>(storage, fileName, shardedStorage, dirName);
+
+            // trade2 got already migrated, the shard wins
+            assertEquals(2, tradableList.size());
+            assertEquals(persistedTrade2, tradableList.getTradableById("id2").orElse(null));
+            assertEquals(trade1, tradableList.getTradableById("id1").orElse(null));
+            verify(shardedStorage).initAndGetPersisted(eq(dirName), anyLong());
+            verify(shardedStorage).saveNow(eq(getKey(trade1)), any());
+            verify(shardedStorage, never()).saveNow(eq(getKey(trade2)), any());
+            verify(storage).remove(fileName);
+        }
+    }
+
+    @Test
+    public void testNoMigrationWithoutSingleFile() {
+        Storage<TradableList<Trade>> storage = mockStorage(null);
+        ShardedStorage<TradableList<Trade>> shardedStorage = mockShardedStorage(Collections.emptyMap());
+        new TradableList<>(storage, "ClosedTrades", shardedStorage, "Tradables/ClosedTrades");
+        verify(shardedStorage, never()).saveNow(anyString(), any());
+        verify(storage, never()).remove(anyString());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Storage<TradableList<Trade>> mockStorage(TradableList<Trade> persisted) {
+        Storage<TradableList<Trade>> storage = mock(Storage.class);
+        when(storage.initAndGetPersisted(any(), anyString(), anyLong())).thenReturn(persisted);
+        return storage;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ShardedStorage<TradableList<Trade>> mockShardedStorage(Map<String, TradableList<Trade>> persisted) {
+        ShardedStorage<TradableList<Trade>> shardedStorage = mock(ShardedStorage.class);
+        when(shardedStorage.initAndGetPersisted(anyString(), anyLong())).thenReturn(persisted);
+        return shardedStorage;
+    }
+
+    private static Trade createTrade(String id) {
+        Trade trade = mock(Trade.class);
+        when(trade.getId()).thenReturn(id);
+        return trade;
+    }
+
+    // Same key as used by TradableList
+    private static String getKey(Tradable tradable) {
+        return tradable.getClass().getSimpleName() + "_" + tradable.getId();
+    }
+
+    private static OpenOffer createOpenOffer(String id, Storage<TradableList<OpenOffer>> storage) {
+        OfferPayload offerPayload = mock(OfferPayload.class, RETURNS_DEEP_STUBS);
+        when(offerPayload.getId()).thenReturn(id);
+        return new OpenOffer(new Offer(offerPayload), storage);
+    }
 }
@@ -30,6 +30,7 @@ import bisq.common.storage.Storage;
 import javafx.collections.ObservableList;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Currency;
 import java.util.List;
 import java.util.Locale;
@@ -39,9 +40,14 @@ import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class PreferencesTest {
@@ -140,4 +146,48 @@ public class PreferencesTest {
         assertEquals("US Dollar (USD)",preferences.getFiatCurrenciesAsObservable().get(0).getNameAndCode());
     }
 
+    @Test
+    public void testApplyBatchPersistsOnce() {
+        PreferencesPayload payload = mock(PreferencesPayload.class);
+        List<FiatCurrency> fiatCurrencies = new ArrayList<>();
+        fiatCurrencies.add(new FiatCurrency("USD"));
+
+        when(storage.initAndGetPersistedWithFileName(anyString(), anyLong())).thenReturn(payload);
+        when(payload.getUserLanguage()).thenReturn("en");
+        when(payload.getUserCountry()).thenReturn(CountryUtil.getDefaultCountry());
+        when(payload.getPreferredTradeCurrency()).thenReturn(new FiatCurrency("USD"));
+        when(payload.getFiatCurrencies()).thenReturn(fiatCurrencies);
+
+        preferences.readPersisted();
+        clearInvocations(storage);
+
+        List<FiatCurrency> allFiatCurrencies = CurrencyUtil.getAllSortedFiatCurrencies();
+        preferences.applyBatch(() -> {
+            allFiatCurrencies.forEach(preferences::addFiatCurrency);
+            preferences.applyBatch(() -> preferences.setIgnoreTradersList(Arrays.asList("a.onion:9999", "b.onion:9999")));
+            preferences.setUseTorForBitcoinJ(false);
+
+            verify(storage, never()).queueUpForSave(any(PreferencesPayload.class));
+        });
+
+        verify(storage, times(1)).queueUpForSave(payload);
+        assertEquals(fiatCurrencies.size(), preferences.getFiatCurrenciesAsObservable().size());
+    }
+
+    @Test
+    public void testChangesOutsideOfBatchArePersisted() {
+        PreferencesPayload payload = mock(PreferencesPayload.class);
+        when(storage.initAndGetPersistedWithFileName(anyString(), anyLong())).thenReturn(payload);
+        when(payload.getUserLanguage()).thenReturn("en");
+        when(payload.getUserCountry()).thenReturn(CountryUtil.getDefaultCountry());
+        when(payload.getPreferredTradeCurrency()).thenReturn(new FiatCurrency("USD"));
+
+        preferences.readPersisted();
+        clearInvocations(storage);
+
+        preferences.setUseTorForBitcoinJ(false);
+        preferences.setUseTorForBitcoinJ(true);
+
+        verify(storage, times(2)).queueUpForSave(payload);
+    }
 }
@@ -0,0 +1,92 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.util;
+
+import bisq.core.monetary.Altcoin;
+
+import org.bitcoinj.core.Monetary;
+import org.bitcoinj.utils.Fiat;
+import org.bitcoinj.utils.MonetaryFormat;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class FixedDecimalFormatTest {
+
+    @Test
+    public void testFiat() {
+        assertSameAsMonetaryFormat(new FixedDecimalFormat(Fiat.SMALLEST_UNIT_EXPONENT, 4), 4, value -> Fiat.valueOf("USD", value));
+        assertSameAsMonetaryFormat(new FixedDecimalFormat(Fiat.SMALLEST_UNIT_EXPONENT, 2), 2, value -> Fiat.valueOf("USD", value));
+        assertSameAsMonetaryFormat(new FixedDecimalFormat(Fiat.SMALLEST_UNIT_EXPONENT, 0), 0, value -> Fiat.valueOf("USD", value));
+    }
+
+    @Test
+    public void testAltcoin() {
+        assertSameAsMonetaryFormat(new FixedDecimalFormat(Altcoin.SMALLEST_UNIT_EXPONENT, 8), 8, value -> Altcoin.valueOf("XMR", value));
+        assertSameAsMonetaryFormat(new FixedDecimalFormat(Altcoin.SMALLEST_UNIT_EXPONENT, 2), 2, value -> Altcoin.valueOf("BSQ", value));
+    }
+
+    @Test
+    public void testRounding() {
+        FixedDecimalFormat format = new FixedDecimalFormat(Fiat.SMALLEST_UNIT_EXPONENT, 2);
+        assertEquals("0.00", format.format(0));
+        assertEquals("0.00", format.format(49));
+        assertEquals("0.01", format.format(50));
+        assertEquals("-0.01", format.format(-50));
+        assertEquals("-0.00", format.format(-49));
+        assertEquals("1.00", format.format(9950));
+        assertEquals("1774.62", format.format(17746200));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooManyDecimals() {
+        new FixedDecimalFormat(Fiat.SMALLEST_UNIT_EXPONENT, 5);
+    }
+
+    private interface MonetaryFactory {
+        Monetary create(long value);
+    }
+
+    private static void assertSameAsMonetaryFormat(FixedDecimalFormat fixedDecimalFormat,
+                                                   int decimals,
+                                                   MonetaryFactory monetaryFactory) {
+        MonetaryFormat monetaryFormat = new MonetaryFormat().shift(0).minDecimals(decimals).repeatOptionalDecimals(0, 0).noCode();
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            long value;
+            switch (i % 3) {
+                case 0:
+                    value = random.nextInt(1000);
+                    break;
+                case 1:
+                    value = random.nextInt();
+                    break;
+                default:
+                    value = random.nextLong() / 10000;
+                    break;
+            }
+            if (random.nextBoolean())
+                value = -value;
+
+            assertEquals(monetaryFormat.format(monetaryFactory.create(value)).toString(), fixedDecimalFormat.format(value));
+        }
+    }
+}
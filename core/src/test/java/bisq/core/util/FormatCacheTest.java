@@ -0,0 +1,63 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class FormatCacheTest {
+
+    @Test
+    public void testGetAndPut() {
+        FormatCache cache = new FormatCache(16);
+        assertNull(cache.get(1));
+
+        cache.put(1, "1");
+        cache.put(-1, "-1");
+        assertEquals("1", cache.get(1));
+        assertEquals("-1", cache.get(-1));
+        assertNull(cache.get(2));
+    }
+
+    @Test
+    public void testBounded() {
+        FormatCache cache = new FormatCache(16);
+        for (long value = 0; value < 1000; value++)
+            cache.put(value, String.valueOf(value));
+
+        int hits = 0;
+        for (long value = 0; value < 1000; value++) {
+            String formatted = cache.get(value);
+            if (formatted != null) {
+                assertEquals(String.valueOf(value), formatted);
+                hits++;
+            }
+        }
+        // The last value is always present, at most one value per slot
+        assertEquals("999", cache.get(999));
+        assertTrue(hits <= 16);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSizeNotPowerOfTwo() {
+        new FormatCache(100);
+    }
+}
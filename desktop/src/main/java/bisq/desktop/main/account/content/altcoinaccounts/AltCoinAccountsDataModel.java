@@ -112,12 +112,12 @@ class AltCoinAccountsDataModel extends ActivatableDataModel {
             else
                 preferences.addCryptoCurrency((CryptoCurrency) singleTradeCurrency);
         } else if (tradeCurrencies != null && !tradeCurrencies.isEmpty()) {
-            tradeCurrencies.stream().forEach(tradeCurrency -> {
+            preferences.applyBatch(() -> tradeCurrencies.forEach(tradeCurrency -> {
                 if (tradeCurrency instanceof FiatCurrency)
                     preferences.addFiatCurrency((FiatCurrency) tradeCurrency);
                 else
                     preferences.addCryptoCurrency((CryptoCurrency) tradeCurrency);
-            });
+            }));
         }
 
         if (!(paymentAccount instanceof AssetAccount))
@@ -120,12 +120,12 @@ class FiatAccountsDataModel extends ActivatableDataModel {
             else
                 paymentAccount.setSelectedTradeCurrency(tradeCurrencies.get(0));
 
-            tradeCurrencies.forEach(tradeCurrency -> {
+            preferences.applyBatch(() -> tradeCurrencies.forEach(tradeCurrency -> {
                 if (tradeCurrency instanceof FiatCurrency)
                     preferences.addFiatCurrency((FiatCurrency) tradeCurrency);
                 else
                     preferences.addCryptoCurrency((CryptoCurrency) tradeCurrency);
-            });
+            }));
         }
 
         accountAgeWitnessService.publishMyAccountAgeWitness(paymentAccount.getPaymentAccountPayload());
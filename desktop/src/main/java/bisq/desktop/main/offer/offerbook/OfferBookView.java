@@ -944,10 +944,11 @@ public class OfferBookView extends ActivatableViewAndModel<GridPane, OfferBookVi
                                         isSellOfferAndAllTakerPaymentAccountsForOfferImmature = model.isSellOfferAndAllTakerPaymentAccountsForOfferImmature(offer);
                                         hasSameProtocolVersion = model.hasSameProtocolVersion(offer);
                                         isIgnored = model.isIgnored(offer);
-                                        isOfferBanned = model.isOfferBanned(offer);
-                                        isCurrencyBanned = model.isCurrencyBanned(offer);
-                                        isPaymentMethodBanned = model.isPaymentMethodBanned(offer);
-                                        isNodeAddressBanned = model.isNodeAddressBanned(offer);
+                                        boolean isBanned = model.isBanned(offer);
+                                        isOfferBanned = isBanned && model.isOfferBanned(offer);
+                                        isCurrencyBanned = isBanned && model.isCurrencyBanned(offer);
+                                        isPaymentMethodBanned = isBanned && model.isPaymentMethodBanned(offer);
+                                        isNodeAddressBanned = isBanned && model.isNodeAddressBanned(offer);
                                         requireUpdateToNewVersion = model.requireUpdateToNewVersion();
                                         isInsufficientTradeLimit = model.isInsufficientTradeLimit(offer);
                                         isTradable = isPaymentAccountValidForOffer &&
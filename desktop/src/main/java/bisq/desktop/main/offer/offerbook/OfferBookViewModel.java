@@ -24,7 +24,9 @@ import bisq.desktop.main.settings.SettingsView;
 import bisq.desktop.main.settings.preferences.PreferencesView;
 import bisq.desktop.util.GUIUtil;
 
+import bisq.core.account.witness.AccountAgeWitness;
 import bisq.core.account.witness.AccountAgeWitnessService;
+import bisq.core.filter.Filter;
 import bisq.core.filter.FilterManager;
 import bisq.core.locale.BankUtil;
 import bisq.core.locale.CountryUtil;
@@ -42,7 +44,6 @@ import bisq.core.payment.PaymentAccount;
 import bisq.core.payment.PaymentAccountUtil;
 import bisq.core.payment.payload.PaymentMethod;
 import bisq.core.provider.price.PriceFeedService;
-import bisq.core.trade.Trade;
 import bisq.core.trade.closed.ClosedTradableManager;
 import bisq.core.user.Preferences;
 import bisq.core.user.User;
@@ -50,6 +51,7 @@ import bisq.core.util.BSFormatter;
 
 import bisq.network.p2p.NodeAddress;
 import bisq.network.p2p.P2PService;
+import bisq.network.p2p.storage.persistence.AppendOnlyDataStoreListener;
 
 import bisq.common.app.Version;
 import bisq.common.handlers.ErrorMessageHandler;
@@ -72,24 +74,37 @@ import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 
+import javafx.beans.value.ChangeListener;
+
 import javafx.collections.FXCollections;
 import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
+import javafx.collections.SetChangeListener;
 import javafx.collections.transformation.FilteredList;
 import javafx.collections.transformation.SortedList;
 
 import java.text.DecimalFormat;
 
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
 @Slf4j
 class OfferBookViewModel extends ActivatableViewModel {
+    // The account age of our accounts and of the makers grows while the view is open, so we recompute the values
+    // which depend on it from time to time even if we do not get new witnesses.
+    private static final long ACCOUNT_AGE_CACHE_TTL_MS = TimeUnit.HOURS.toMillis(1);
+
     private final OpenOfferManager openOfferManager;
     private final User user;
     private final OfferBook offerBook;
@@ -108,6 +123,10 @@ class OfferBookViewModel extends ActivatableViewModel {
     private final SortedList<OfferBookListItem> sortedItems;
     private final ListChangeListener<TradeCurrency> tradeCurrencyListChangeListener;
     private final ListChangeListener<OfferBookListItem> filterItemsListener;
+    private final ListChangeListener<OfferBookListItem> offerBookListItemsListener;
+    private final SetChangeListener<PaymentAccount> paymentAccountsListener;
+    private final ChangeListener<Filter> filterListener;
+    private final AppendOnlyDataStoreListener accountAgeWitnessListener;
     private TradeCurrency selectedTradeCurrency;
     private final ObservableList<TradeCurrency> allTradeCurrencies = FXCollections.observableArrayList();
 
@@ -127,6 +146,21 @@ class OfferBookViewModel extends ActivatableViewModel {
     final IntegerProperty maxPlacesForMarketPriceMargin = new SimpleIntegerProperty();
     boolean showAllPaymentMethods = true;
 
+    // Values derived from an offer and our payment accounts, the account age witnesses or the filter. The table cells request
+    // them at each update of a row, so we compute them once per offer and clear them when one of the inputs changes.
+    private final Map<String, Boolean> isMyOfferByOfferId = new HashMap<>();
+    private final Map<String, Boolean> isPaymentAccountValidByOfferId = new HashMap<>();
+    private final Map<String, Boolean> isRiskyBuyOfferByOfferId = new HashMap<>();
+    private final Map<String, Boolean> isAllTakerAccountsImmatureByOfferId = new HashMap<>();
+    private final Map<String, Boolean> isInsufficientTradeLimitByOfferId = new HashMap<>();
+    private final Map<String, Boolean> isBannedByOfferId = new HashMap<>();
+    // The ignore list gets replaced at each change, so we only need to rebuild the set if we get another instance
+    @Nullable
+    private List<String> ignoreTradersList;
+    private Set<String> ignoredTraders = new HashSet<>();
+    private long accountAgeCachesTs;
+    private boolean cacheListenersAdded;
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Constructor, lifecycle
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -197,12 +231,25 @@ class OfferBookViewModel extends ActivatableViewModel {
 
             highestMarketPriceMarginOffer.ifPresent(offerBookListItem -> maxPlacesForMarketPriceMargin.set(formatMarketPriceMargin(offerBookListItem.getOffer(), false).length()));
         };
+
+        offerBookListItemsListener = c -> {
+            while (c.next()) {
+                if (c.wasRemoved())
+                    c.getRemoved().forEach(item -> removeFromCaches(item.getOffer().getId()));
+            }
+        };
+        paymentAccountsListener = c -> clearPaymentAccountCaches();
+        filterListener = (observable, oldValue, newValue) -> isBannedByOfferId.clear();
+        accountAgeWitnessListener = payload -> clearAccountAgeCaches();
     }
 
     @Override
     protected void activate() {
+        // The account age of our accounts and of the makers might have changed since we got deactivated
+        clearCaches();
 
         filteredItems.addListener(filterItemsListener);
+        offerBook.getOfferBookListItems().addListener(offerBookListItemsListener);
 
         String code = direction == OfferPayload.Direction.BUY ? preferences.getBuyScreenCurrencyCode() : preferences.getSellScreenCurrencyCode();
         if (code != null && !code.equals(GUIUtil.SHOW_ALL_FLAG) && !code.isEmpty() &&
@@ -227,7 +274,14 @@ class OfferBookViewModel extends ActivatableViewModel {
     @Override
     protected void deactivate() {
         filteredItems.removeListener(filterItemsListener);
+        offerBook.getOfferBookListItems().removeListener(offerBookListItemsListener);
         preferences.getTradeCurrenciesAsObservable().removeListener(tradeCurrencyListChangeListener);
+        if (cacheListenersAdded) {
+            user.getPaymentAccountsAsObservable().removeListener(paymentAccountsListener);
+            filterManager.filterProperty().removeListener(filterListener);
+            p2PService.getP2PDataStorage().removeAppendOnlyDataStoreListener(accountAgeWitnessListener);
+            cacheListenersAdded = false;
+        }
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -311,7 +365,8 @@ class OfferBookViewModel extends ActivatableViewModel {
     }
 
     boolean isMyOffer(Offer offer) {
-        return openOfferManager.isMyOffer(offer);
+        // Does not depend on any other input, so we never need to clear it
+        return isMyOfferByOfferId.computeIfAbsent(offer.getId(), id -> openOfferManager.isMyOffer(offer));
     }
 
     OfferPayload.Direction getDirection() {
@@ -508,17 +563,18 @@ class OfferBookViewModel extends ActivatableViewModel {
     }
 
     boolean isAnyPaymentAccountValidForOffer(Offer offer) {
-        return user.getPaymentAccounts() != null &&
-                PaymentAccountUtil.isAnyTakerPaymentAccountValidForOffer(offer, user.getPaymentAccounts());
+        return getCached(isPaymentAccountValidByOfferId, offer, o -> user.getPaymentAccounts() != null &&
+                PaymentAccountUtil.isAnyTakerPaymentAccountValidForOffer(o, user.getPaymentAccounts()));
     }
 
     boolean isSellOfferAndAllTakerPaymentAccountsForOfferImmature(Offer offer) {
-        return user.getPaymentAccounts() != null &&
-                PaymentAccountUtil.isSellOfferAndAllTakerPaymentAccountsForOfferImmature(offer, user.getPaymentAccounts(), accountAgeWitnessService);
+        return getCachedAccountAgeValue(isAllTakerAccountsImmatureByOfferId, offer, o -> user.getPaymentAccounts() != null &&
+                PaymentAccountUtil.isSellOfferAndAllTakerPaymentAccountsForOfferImmature(o, user.getPaymentAccounts(), accountAgeWitnessService));
     }
 
     boolean isRiskyBuyOfferWithImmatureAccountAge(Offer offer) {
-        return PaymentAccountUtil.isRiskyBuyOfferWithImmatureAccountAge(offer, accountAgeWitnessService);
+        return getCachedAccountAgeValue(isRiskyBuyOfferByOfferId, offer,
+                o -> PaymentAccountUtil.isRiskyBuyOfferWithImmatureAccountAge(o, accountAgeWitnessService));
     }
 
     boolean hasPaymentAccountForCurrency() {
@@ -543,6 +599,7 @@ class OfferBookViewModel extends ActivatableViewModel {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     private void applyFilterPredicate() {
+        boolean showOwnOffers = preferences.isShowOwnOffersInOfferBook();
         filteredItems.setPredicate(offerBookListItem -> {
             Offer offer = offerBookListItem.getOffer();
             boolean directionResult = offer.getDirection() != direction;
@@ -550,14 +607,27 @@ class OfferBookViewModel extends ActivatableViewModel {
                     offer.getCurrencyCode().equals(selectedTradeCurrency.getCode());
             boolean paymentMethodResult = showAllPaymentMethods ||
                     offer.getPaymentMethod().equals(selectedPaymentMethod);
-            boolean notMyOfferOrShowMyOffersActivated = !isMyOffer(offerBookListItem.getOffer()) || preferences.isShowOwnOffersInOfferBook();
+            boolean notMyOfferOrShowMyOffersActivated = showOwnOffers || !isMyOffer(offerBookListItem.getOffer());
             return directionResult && currencyResult && paymentMethodResult && notMyOfferOrShowMyOffersActivated;
         });
     }
 
     boolean isIgnored(Offer offer) {
-        return preferences.getIgnoreTradersList().stream()
-                .anyMatch(i -> i.equals(offer.getMakerNodeAddress().getFullAddress()));
+        List<String> currentIgnoreTradersList = preferences.getIgnoreTradersList();
+        if (currentIgnoreTradersList != ignoreTradersList) {
+            ignoreTradersList = currentIgnoreTradersList;
+            ignoredTraders = new HashSet<>(currentIgnoreTradersList);
+        }
+        return ignoredTraders.contains(offer.getMakerNodeAddress().getFullAddress());
+    }
+
+    // The table cells only need to know if any of the filter rules applies, the single rules are only used for the
+    // info popup of an offer which cannot be taken.
+    boolean isBanned(Offer offer) {
+        return getCached(isBannedByOfferId, offer, o -> isOfferBanned(o) ||
+                isCurrencyBanned(o) ||
+                isPaymentMethodBanned(o) ||
+                isNodeAddressBanned(o));
     }
 
     boolean isOfferBanned(Offer offer) {
@@ -581,6 +651,10 @@ class OfferBookViewModel extends ActivatableViewModel {
     }
 
     boolean isInsufficientTradeLimit(Offer offer) {
+        return getCachedAccountAgeValue(isInsufficientTradeLimitByOfferId, offer, this::computeIsInsufficientTradeLimit);
+    }
+
+    private boolean computeIsInsufficientTradeLimit(Offer offer) {
         Optional<PaymentAccount> accountOptional = getMostMaturePaymentAccountForOffer(offer);
         final long myTradeLimit = accountOptional
                 .map(paymentAccount -> accountAgeWitnessService.getMyTradeLimit(paymentAccount, offer.getCurrencyCode()))
@@ -608,13 +682,61 @@ class OfferBookViewModel extends ActivatableViewModel {
     }
 
     int getNumTrades(Offer offer) {
-        return closedTradableManager.getClosedTradables().stream()
-                .filter(e -> {
-                    final NodeAddress tradingPeerNodeAddress = e instanceof Trade ? ((Trade) e).getTradingPeerNodeAddress() : null;
-                    return tradingPeerNodeAddress != null &&
-                            tradingPeerNodeAddress.getFullAddress().equals(offer.getMakerNodeAddress().getFullAddress());
-                })
-                .collect(Collectors.toSet())
-                .size();
+        return closedTradableManager.getNumPastTradesWithPeer(offer.getMakerNodeAddress());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Cache
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private boolean getCached(Map<String, Boolean> cache, Offer offer, Function<Offer, Boolean> function) {
+        maybeAddCacheListeners();
+        return cache.computeIfAbsent(offer.getId(), id -> function.apply(offer));
+    }
+
+    // For values which depend on the account age witnesses or on the account age itself
+    private boolean getCachedAccountAgeValue(Map<String, Boolean> cache, Offer offer, Function<Offer, Boolean> function) {
+        if (System.currentTimeMillis() - accountAgeCachesTs > ACCOUNT_AGE_CACHE_TTL_MS)
+            clearAccountAgeCaches();
+        return getCached(cache, offer, function);
+    }
+
+    // We add the listeners at the first use of a cached value so the view model can be used without those services
+    // as long as the table cells do not request the values. They get removed at deactivate.
+    private void maybeAddCacheListeners() {
+        if (!cacheListenersAdded) {
+            user.getPaymentAccountsAsObservable().addListener(paymentAccountsListener);
+            filterManager.filterProperty().addListener(filterListener);
+            // New witnesses of our accounts or of the makers change their account age
+            p2PService.getP2PDataStorage().addAppendOnlyDataStoreListener(AccountAgeWitness.class, accountAgeWitnessListener);
+            cacheListenersAdded = true;
+        }
+    }
+
+    private void clearPaymentAccountCaches() {
+        isPaymentAccountValidByOfferId.clear();
+        clearAccountAgeCaches();
+    }
+
+    private void clearAccountAgeCaches() {
+        isRiskyBuyOfferByOfferId.clear();
+        isAllTakerAccountsImmatureByOfferId.clear();
+        isInsufficientTradeLimitByOfferId.clear();
+        accountAgeCachesTs = System.currentTimeMillis();
+    }
+
+    private void clearCaches() {
+        clearPaymentAccountCaches();
+        isBannedByOfferId.clear();
+    }
+
+    private void removeFromCaches(String offerId) {
+        isMyOfferByOfferId.remove(offerId);
+        isPaymentAccountValidByOfferId.remove(offerId);
+        isRiskyBuyOfferByOfferId.remove(offerId);
+        isAllTakerAccountsImmatureByOfferId.remove(offerId);
+        isInsufficientTradeLimitByOfferId.remove(offerId);
+        isBannedByOfferId.remove(offerId);
     }
 }
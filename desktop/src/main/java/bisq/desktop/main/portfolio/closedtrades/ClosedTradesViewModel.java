@@ -31,8 +31,6 @@ import com.google.inject.Inject;
 
 import javafx.collections.ObservableList;
 
-import java.util.stream.Collectors;
-
 class ClosedTradesViewModel extends ActivatableWithDataModel<ClosedTradesDataModel> implements ViewModel {
     private final BSFormatter formatter;
     final AccountAgeWitnessService accountAgeWitnessService;
@@ -174,16 +172,9 @@ class ClosedTradesViewModel extends ActivatableWithDataModel<ClosedTradesDataMod
     }
 
     int getNumPastTrades(Tradable tradable) {
-        //noinspection ConstantConditions
-        return dataModel.closedTradableManager.getClosedTradables().stream()
-                .filter(e -> e instanceof Trade &&
-                        tradable instanceof Trade &&
-                        ((Trade) e).getTradingPeerNodeAddress() != null &&
-                        ((Trade) tradable).getTradingPeerNodeAddress() != null &&
-                        ((Trade) e).getTradingPeerNodeAddress() != null &&
-                        ((Trade) tradable).getTradingPeerNodeAddress() != null &&
-                        ((Trade) e).getTradingPeerNodeAddress().getFullAddress().equals(((Trade) tradable).getTradingPeerNodeAddress().getFullAddress()))
-                .collect(Collectors.toSet())
-                .size();
+        if (!(tradable instanceof Trade))
+            return 0;
+
+        return dataModel.closedTradableManager.getNumPastTradesWithPeer(((Trade) tradable).getTradingPeerNodeAddress());
     }
 }
@@ -50,7 +50,6 @@ import javafx.beans.property.ReadOnlyObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
 
 import java.util.Date;
-import java.util.stream.Collectors;
 
 import lombok.Getter;
 
@@ -325,19 +324,7 @@ public class PendingTradesViewModel extends ActivatableWithDataModel<PendingTrad
     }
 
     public int getNumPastTrades(Trade trade) {
-        return closedTradableManager.getClosedTradables().stream()
-                .filter(e -> {
-                    if (e instanceof Trade) {
-                        Trade t = (Trade) e;
-                        return t.getTradingPeerNodeAddress() != null &&
-                                trade.getTradingPeerNodeAddress() != null &&
-                                t.getTradingPeerNodeAddress().getFullAddress().equals(trade.getTradingPeerNodeAddress().getFullAddress());
-                    } else
-                        return false;
-
-                })
-                .collect(Collectors.toSet())
-                .size();
+        return closedTradableManager.getNumPastTradesWithPeer(trade.getTradingPeerNodeAddress());
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
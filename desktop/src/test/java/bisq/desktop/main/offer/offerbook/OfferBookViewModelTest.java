@@ -17,6 +17,11 @@
 
 package bisq.desktop.main.offer.offerbook;
 
+import bisq.desktop.maker.PreferenceMakers;
+import bisq.desktop.util.GUIUtil;
+
+import bisq.core.account.witness.AccountAgeWitness;
+import bisq.core.filter.FilterManager;
 import bisq.core.locale.Country;
 import bisq.core.locale.CryptoCurrency;
 import bisq.core.locale.FiatCurrency;
@@ -41,9 +46,16 @@ import bisq.core.payment.payload.SepaAccountPayload;
 import bisq.core.payment.payload.SpecificBanksAccountPayload;
 import bisq.core.provider.price.MarketPrice;
 import bisq.core.provider.price.PriceFeedService;
+import bisq.core.user.Preferences;
+import bisq.core.user.User;
 import bisq.core.util.BSFormatter;
 
+import bisq.network.p2p.P2PService;
+import bisq.network.p2p.storage.P2PDataStorage;
+import bisq.network.p2p.storage.persistence.AppendOnlyDataStoreListener;
+
 import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleObjectProperty;
 
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -64,16 +76,23 @@ import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import org.mockito.ArgumentCaptor;
+
 import static bisq.desktop.main.offer.offerbook.OfferBookListItemMaker.*;
 import static bisq.desktop.maker.PreferenceMakers.empty;
 import static bisq.desktop.maker.TradeCurrencyMakers.usd;
+import static com.natpryce.makeiteasy.MakeItEasy.a;
 import static com.natpryce.makeiteasy.MakeItEasy.make;
 import static com.natpryce.makeiteasy.MakeItEasy.with;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class OfferBookViewModelTest {
@@ -434,6 +453,80 @@ public class OfferBookViewModelTest {
 
     }
 
+    @Test
+    public void testFilterSwitchingWithManyOffers() {
+        OfferBook offerBook = mock(OfferBook.class);
+        OpenOfferManager openOfferManager = mock(OpenOfferManager.class);
+        Preferences preferences = make(a(PreferenceMakers.Preferences));
+        // Otherwise the filter does not need to know if it is our offer
+        preferences.setShowOwnOffersInOfferBook(false);
+        String[] currencyCodes = {"USD", "EUR", "GBP", "JPY", "CAD"};
+        final ObservableList<OfferBookListItem> offerBookListItems = FXCollections.observableArrayList();
+        for (int i = 0; i < 5000; i++) {
+            offerBookListItems.add(make(btcBuyItem.but(
+                    with(id, "offer-" + i),
+                    with(direction, i % 2 == 0 ? OfferPayload.Direction.BUY : OfferPayload.Direction.SELL),
+                    with(counterCurrencyCode, currencyCodes[(i / 2) % currencyCodes.length]))));
+        }
+        when(offerBook.getOfferBookListItems()).thenReturn(offerBookListItems);
+
+        final OfferBookViewModel model = new OfferBookViewModel(null, openOfferManager, offerBook, preferences, null, null,
+                null, null, null, null, new BSFormatter());
+        model.initWithDirection(OfferPayload.Direction.BUY);
+        model.activate();
+        assertEquals(2500, model.getOfferList().size());
+
+        long ts = System.currentTimeMillis();
+        for (int i = 0; i < 10; i++) {
+            for (String currencyCode : currencyCodes) {
+                model.onSetTradeCurrency(new FiatCurrency(currencyCode));
+                assertEquals(500, model.getOfferList().size());
+                assertTrue(model.getOfferList().stream()
+                        .allMatch(item -> item.getOffer().getCurrencyCode().equals(currencyCode) &&
+                                item.getOffer().getDirection() == OfferPayload.Direction.SELL));
+            }
+            model.onSetTradeCurrency(new CryptoCurrency(GUIUtil.SHOW_ALL_FLAG, ""));
+            assertEquals(2500, model.getOfferList().size());
+        }
+        long duration = System.currentTimeMillis() - ts;
+        log.info("60 filter switches with {} offers took {} ms", offerBookListItems.size(), duration);
+        // Generous bound so the test does not get flaky on slow machines. It catches a per offer cost which is far
+        // higher than a filter predicate, like the repeated isMyOffer lookups.
+        assertTrue("60 filter switches took " + duration + " ms", duration < 10000);
+
+        // We only ask once per offer if it is our offer
+        verify(openOfferManager, times(offerBookListItems.size())).isMyOffer(any());
+    }
+
+    @Test
+    public void testAccountAgeCachesAreClearedByNewWitness() {
+        OfferBook offerBook = mock(OfferBook.class);
+        when(offerBook.getOfferBookListItems()).thenReturn(FXCollections.observableArrayList());
+        User user = mock(User.class);
+        when(user.getPaymentAccountsAsObservable()).thenReturn(FXCollections.observableSet());
+        FilterManager filterManager = mock(FilterManager.class);
+        when(filterManager.filterProperty()).thenReturn(new SimpleObjectProperty<>());
+        P2PService p2PService = mock(P2PService.class);
+        P2PDataStorage p2PDataStorage = mock(P2PDataStorage.class);
+        when(p2PService.getP2PDataStorage()).thenReturn(p2PDataStorage);
+
+        final OfferBookViewModel model = new OfferBookViewModel(user, null, offerBook, empty, p2PService, null,
+                null, filterManager, null, null, new BSFormatter());
+        Offer offer = make(btcBuyItem).getOffer();
+
+        // The second call is served from the cache
+        model.isSellOfferAndAllTakerPaymentAccountsForOfferImmature(offer);
+        model.isSellOfferAndAllTakerPaymentAccountsForOfferImmature(offer);
+        verify(user, times(1)).getPaymentAccounts();
+
+        ArgumentCaptor<AppendOnlyDataStoreListener> listener = ArgumentCaptor.forClass(AppendOnlyDataStoreListener.class);
+        verify(p2PDataStorage).addAppendOnlyDataStoreListener(eq(AccountAgeWitness.class), listener.capture());
+        listener.getValue().onAdded(new AccountAgeWitness(new byte[20], 0));
+
+        model.isSellOfferAndAllTakerPaymentAccountsForOfferImmature(offer);
+        verify(user, times(2)).getPaymentAccounts();
+    }
+
     private PaymentAccount getAliPayAccount(String currencyCode) {
         PaymentAccount paymentAccount = new AliPayAccount();
         paymentAccount.setSelectedTradeCurrency(new FiatCurrency(currencyCode));
@@ -26,7 +26,11 @@ import bisq.core.util.BSFormatter;
 import org.bitcoinj.core.Coin;
 import org.bitcoinj.core.CoinMaker;
 
+import java.text.DateFormat;
+
+import java.util.Date;
 import java.util.Locale;
+import java.util.TimeZone;
 import java.util.concurrent.TimeUnit;
 
 import org.junit.Before;
@@ -111,6 +115,33 @@ public class BSFormatterTest {
         assertEquals("0.00000001", formatter.formatCoin(make(a(CoinMaker.Coin).but(with(satoshis, 1L)))));
     }
 
+    @Test
+    public void testFormatCachedCoin() {
+        // The second round is served from the caches
+        for (int i = 0; i < 2; i++) {
+            assertEquals("1.00", formatter.formatCoin(oneBitcoin));
+            assertEquals("1.0000", formatter.formatCoin(oneBitcoin, 4));
+            assertEquals("0.00000001", formatter.formatCoin(make(a(CoinMaker.Coin).but(with(satoshis, 1L)))));
+            assertEquals("0.0000", formatter.formatCoin(make(a(CoinMaker.Coin).but(with(satoshis, 1L))), 4));
+            assertEquals("1.00 BTC", formatter.formatCoinWithCode(oneBitcoin));
+        }
+    }
+
+    @Test
+    public void testFormatDateTime() {
+        Date date = new Date(1546300800000L);
+        DateFormat dateFormat = DateFormat.getDateInstance(DateFormat.DEFAULT, Locale.US);
+        DateFormat timeFormat = DateFormat.getTimeInstance(DateFormat.DEFAULT, Locale.US);
+        dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+        timeFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+
+        String expected = dateFormat.format(date) + " " + timeFormat.format(date);
+        assertEquals(expected, formatter.formatDateTime(date, false));
+        assertEquals(expected, formatter.formatDateTime(date, false));
+        assertEquals(formatter.formatDateTime(date), formatter.formatDateTime(date));
+        assertEquals("", formatter.formatDateTime(null));
+    }
+
     @Test
     public void testFormatVolume() {
         assertEquals("1.00", formatter.formatVolume(make(btcUsdOffer), true, 4));
@@ -68,6 +68,11 @@ public class Monitor {
      */
     private final List<Metric> metrics = new ArrayList<>();
 
+    /**
+     * The {@link Reporter} used by all {@link Metric}s
+     */
+    private Reporter reporter;
+
     /**
      * Starts up all configured Metrics.
      *
@@ -86,6 +91,7 @@ public class Monitor {
         Properties properties = getProperties();
         if ("true".equals(properties.getProperty("System.useConsoleReporter", "false")))
             graphiteReporter = new ConsoleReporter();
+        reporter = graphiteReporter;
 
         // - add available metrics with their reporters
         metrics.add(new TorStartupTime(graphiteReporter));
@@ -125,6 +131,9 @@ public class Monitor {
                 log.info("shutting down active metrics...");
                 Metric.haltAllMetrics();
 
+                log.info("shutting down reporter...");
+                reporter.shutdown();
+
                 try {
                     log.info("shutting down tor...");
                     Tor tor = Tor.getDefault();
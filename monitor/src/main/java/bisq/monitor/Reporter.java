@@ -71,4 +71,11 @@ public abstract class Reporter extends Configurable {
      */
     public abstract void report(String key, String value, String timestamp, String prefix);
 
+    /**
+     * Delivers pending reports and releases all resources. Called on system
+     * shutdown.
+     */
+    public void shutdown() {
+    }
+
 }
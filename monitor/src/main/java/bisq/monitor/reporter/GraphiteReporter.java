@@ -32,18 +32,70 @@ import com.google.common.base.Charsets;
 
 import java.net.Socket;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
 
 /**
  * Reports our findings to a graphite service.
+ * <p>
+ * The values are queued and sent in batches over a persistent connection by a
+ * sender thread, using either the plaintext or the pickle protocol (see
+ * https://graphite.readthedocs.io/en/latest/feeding-carbon.html). If sending a
+ * batch fails, the connection is reopened and the batch is retried a limited
+ * number of times before it is dropped. If the queue is full, reporting blocks
+ * for a while and drops the value if there is still no space.
+ * <p>
+ * Besides the mandatory <code>serviceUrl</code>, the optional properties
+ * <code>protocol</code> (<code>plaintext</code> or <code>pickle</code>),
+ * <code>batchSize</code>, <code>queueSize</code>, <code>maxRetries</code> and
+ * <code>retryDelay</code> (in milliseconds) are supported.
  *
  * @author Florian Reimair
  */
+@Slf4j
 public class GraphiteReporter extends Reporter {
 
+    private static final String PICKLE = "pickle";
+    private static final int DEFAULT_BATCH_SIZE = 500;
+    private static final int DEFAULT_QUEUE_SIZE = 10000;
+    private static final int DEFAULT_MAX_RETRIES = 3;
+    private static final long DEFAULT_RETRY_DELAY_MS = 1000;
+    private static final long OFFER_TIMEOUT_SEC = 10;
+    private static final long SHUTDOWN_TIMEOUT_SEC = 10;
+
+    private BlockingQueue<Datapoint> queue;
+    private Thread sender;
+    private volatile boolean stopped;
+    private volatile boolean reconnect;
+
+    // only accessed by the sender thread
+    private Socket socket;
+    private OutputStream outputStream;
+
+    @Override
+    public void configure(Properties properties) {
+        String serviceUrl = configuration.getProperty("serviceUrl");
+        super.configure(properties);
+
+        // the sender thread picks up a changed service on its next batch
+        if (serviceUrl != null && !serviceUrl.equals(configuration.getProperty("serviceUrl")))
+            reconnect = true;
+    }
+
     @Override
     public void report(long value, String prefix) {
         HashMap<String, String> result = new HashMap<>();
@@ -60,48 +112,221 @@ public class GraphiteReporter extends Reporter {
     @Override
     public void report(Map<String, String> values, String prefix) {
         String timestamp = String.valueOf(System.currentTimeMillis());
-        values.forEach((key, value) -> {
-
-            report(key, value, timestamp, prefix);
-            try {
-                // give Tor some slack
-                // TODO maybe use the pickle protocol?
-                // https://graphite.readthedocs.io/en/latest/feeding-carbon.html
-                Thread.sleep(100);
-            } catch (InterruptedException e) {
-                // TODO Auto-generated catch block
-                e.printStackTrace();
-            }
-        });
+        values.forEach((key, value) -> report(key, value, timestamp, prefix));
     }
 
     @Override
     public void report(String key, String value, String timeInMilliseconds, String prefix) {
-        // https://graphite.readthedocs.io/en/latest/feeding-carbon.html
-        String report = "bisq" + (Version.getBaseCurrencyNetwork() != 0 ? "-" + BaseCurrencyNetwork.values()[Version.getBaseCurrencyNetwork()].getNetwork() : "")
+        String path = "bisq" + (Version.getBaseCurrencyNetwork() != 0 ? "-" + BaseCurrencyNetwork.values()[Version.getBaseCurrencyNetwork()].getNetwork() : "")
                 + (prefix.isEmpty() ? "" : "." + prefix)
-                + (key.isEmpty() ? "" : "." + key)
-                + " " + value + " " + Long.valueOf(timeInMilliseconds)/1000 + "\n";
+                + (key.isEmpty() ? "" : "." + key);
+        Datapoint datapoint = new Datapoint(path, value, Long.valueOf(timeInMilliseconds) / 1000);
 
         try {
-            NodeAddress nodeAddress = OnionParser.getNodeAddress(configuration.getProperty("serviceUrl"));
-            Socket socket;
-            if (nodeAddress.getFullAddress().contains(".onion"))
-                socket = new TorSocket(nodeAddress.getHostName(), nodeAddress.getPort());
-            else
-                socket = new Socket(nodeAddress.getHostName(), nodeAddress.getPort());
-
-            socket.getOutputStream().write(report.getBytes(Charsets.UTF_8));
-            socket.close();
-        } catch (IOException e) {
-            // TODO Auto-generated catch block
-            e.printStackTrace();
-        }
+            synchronized (this) {
+                if (stopped) {
+                    log.warn("Reporter is shut down. Dropping {}", path);
+                    return;
+                }
+                startSender();
+            }
 
+            // block the metric for a while if the graphite service cannot keep up
+            if (!queue.offer(datapoint, OFFER_TIMEOUT_SEC, TimeUnit.SECONDS))
+                log.error("Report queue is full. Dropping {}", path);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 
     @Override
     public void report(Map<String, String> values) {
         report(values, "");
     }
+
+    /**
+     * Sends the queued values and closes the connection.
+     */
+    @Override
+    public void shutdown() {
+        Thread sender;
+        synchronized (this) {
+            stopped = true;
+            sender = this.sender;
+        }
+
+        if (sender != null) {
+            try {
+                sender.join(TimeUnit.SECONDS.toMillis(SHUTDOWN_TIMEOUT_SEC));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (sender.isAlive()) {
+                log.warn("Could not send all queued values in time");
+                sender.interrupt();
+            }
+        }
+    }
+
+    // the queue size is only applied at the first report
+    private void startSender() {
+        if (sender == null) {
+            queue = new LinkedBlockingQueue<>(getIntProperty("queueSize", DEFAULT_QUEUE_SIZE));
+            sender = new Thread(this::sendQueuedValues, getName());
+            sender.setDaemon(true);
+            sender.start();
+        }
+    }
+
+    private void sendQueuedValues() {
+        try {
+            while (true) {
+                Datapoint first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    if (stopped && queue.isEmpty())
+                        break;
+                    continue;
+                }
+
+                List<Datapoint> batch = new ArrayList<>();
+                batch.add(first);
+                queue.drainTo(batch, getIntProperty("batchSize", DEFAULT_BATCH_SIZE) - 1);
+                send(batch);
+            }
+        } catch (InterruptedException ignore) {
+        } finally {
+            closeConnection();
+        }
+    }
+
+    private void send(List<Datapoint> batch) throws InterruptedException {
+        byte[] payload;
+        try {
+            payload = PICKLE.equals(configuration.getProperty("protocol")) ? toPickle(batch) : toPlaintext(batch);
+        } catch (IOException e) {
+            log.error("Could not encode batch", e);
+            return;
+        }
+
+        int maxRetries = getIntProperty("maxRetries", DEFAULT_MAX_RETRIES);
+        long retryDelay = getIntProperty("retryDelay", (int) DEFAULT_RETRY_DELAY_MS);
+        for (int attempt = 0; ; attempt++) {
+            try {
+                if (reconnect) {
+                    reconnect = false;
+                    closeConnection();
+                }
+                if (outputStream == null)
+                    openConnection();
+
+                outputStream.write(payload);
+                outputStream.flush();
+                return;
+            } catch (IOException e) {
+                closeConnection();
+                if (attempt >= maxRetries) {
+                    log.error("Could not send {} values to graphite. Dropping them.", batch.size(), e);
+                    return;
+                }
+
+                log.warn("Could not send values to graphite. Retrying. {}", e.toString());
+                // back off exponentially
+                Thread.sleep(retryDelay << attempt);
+            }
+        }
+    }
+
+    private void openConnection() throws IOException {
+        NodeAddress nodeAddress = OnionParser.getNodeAddress(configuration.getProperty("serviceUrl"));
+        if (nodeAddress.getFullAddress().contains(".onion"))
+            socket = new TorSocket(nodeAddress.getHostName(), nodeAddress.getPort());
+        else
+            socket = new Socket(nodeAddress.getHostName(), nodeAddress.getPort());
+
+        outputStream = socket.getOutputStream();
+    }
+
+    private void closeConnection() {
+        if (socket != null) {
+            try {
+                socket.close();
+            } catch (IOException ignore) {
+            }
+        }
+        socket = null;
+        outputStream = null;
+    }
+
+    private int getIntProperty(String key, int defaultValue) {
+        try {
+            return Integer.parseInt(configuration.getProperty(key, String.valueOf(defaultValue)).trim());
+        } catch (NumberFormatException e) {
+            log.error("Invalid value for {}. Using {}", key, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    static byte[] toPlaintext(List<Datapoint> batch) {
+        StringBuilder result = new StringBuilder();
+        batch.forEach(datapoint -> result.append(datapoint.getPath())
+                .append(" ").append(datapoint.getValue())
+                .append(" ").append(datapoint.getTimestamp())
+                .append("\n"));
+        return result.toString().getBytes(Charsets.UTF_8);
+    }
+
+    /**
+     * Encodes the batch as a pickled list of (path, (timestamp, value)) tuples,
+     * prefixed by the length of the pickle.
+     */
+    static byte[] toPickle(List<Datapoint> batch) throws IOException {
+        ByteArrayOutputStream pickle = new ByteArrayOutputStream();
+        pickle.write(new byte[]{(byte) 0x80, 2}); // PROTO 2
+        pickle.write(']'); // EMPTY_LIST
+        pickle.write('('); // MARK
+        for (Datapoint datapoint : batch) {
+            double value;
+            try {
+                value = Double.parseDouble(datapoint.getValue());
+            } catch (NumberFormatException e) {
+                log.warn("Value of {} is not a number: {}", datapoint.getPath(), datapoint.getValue());
+                continue;
+            }
+
+            byte[] path = datapoint.getPath().getBytes(Charsets.UTF_8);
+            pickle.write('X'); // BINUNICODE
+            writeIntLittleEndian(pickle, path.length);
+            pickle.write(path);
+            pickle.write('J'); // BININT
+            writeIntLittleEndian(pickle, (int) datapoint.getTimestamp());
+            pickle.write('G'); // BINFLOAT
+            long bits = Double.doubleToLongBits(value);
+            for (int i = 7; i >= 0; i--)
+                pickle.write((int) (bits >>> (8 * i)));
+            pickle.write(0x86); // TUPLE2
+            pickle.write(0x86); // TUPLE2
+        }
+        pickle.write('e'); // APPENDS
+        pickle.write('.'); // STOP
+
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        DataOutputStream dataOutputStream = new DataOutputStream(result);
+        dataOutputStream.writeInt(pickle.size());
+        pickle.writeTo(dataOutputStream);
+        dataOutputStream.flush();
+        return result.toByteArray();
+    }
+
+    private static void writeIntLittleEndian(OutputStream outputStream, int value) throws IOException {
+        for (int i = 0; i < 4; i++)
+            outputStream.write(value >>> (8 * i));
+    }
+
+    @Value
+    static class Datapoint {
+        private final String path;
+        private final String value;
+        // unix timestamp in seconds
+        private final long timestamp;
+    }
 }
@@ -0,0 +1,284 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.monitor;
+
+import bisq.monitor.reporter.GraphiteReporter;
+
+import bisq.common.app.Version;
+
+import com.google.common.base.Charsets;
+
+import java.net.ServerSocket;
+import java.net.Socket;
+
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Runs the {@link GraphiteReporter} against a local stand-in of a Graphite
+ * service.
+ */
+public class GraphiteReporterTests {
+
+    private FakeGraphite graphite;
+
+    @BeforeEach
+    public void setup() {
+        Version.setBaseCryptoNetworkId(0);
+    }
+
+    @AfterEach
+    public void cleanup() throws IOException {
+        if (graphite != null)
+            graphite.close();
+    }
+
+    @Test
+    public void plaintext() throws Exception {
+        graphite = new FakeGraphite(false);
+        graphite.start();
+        GraphiteReporter DUT = createReporter(graphite.getPort(), "plaintext");
+
+        reportValues(DUT, 1000);
+        DUT.shutdown();
+
+        graphite.awaitMetrics(1000);
+        Assert.assertEquals(1, graphite.getConnections());
+        Assert.assertTrue(graphite.getMetrics().contains("bisq.test.key0 0"));
+        Assert.assertTrue(graphite.getMetrics().contains("bisq.test.key999 999"));
+    }
+
+    @Test
+    public void pickle() throws Exception {
+        graphite = new FakeGraphite(true);
+        graphite.start();
+        GraphiteReporter DUT = createReporter(graphite.getPort(), "pickle");
+
+        reportValues(DUT, 1000);
+        DUT.report(42, "single");
+        DUT.shutdown();
+
+        graphite.awaitMetrics(1001);
+        Assert.assertEquals(1, graphite.getConnections());
+        Assert.assertTrue(graphite.getMetrics().contains("bisq.test.key7 7.0"));
+        Assert.assertTrue(graphite.getMetrics().contains("bisq.single 42.0"));
+    }
+
+    @Test
+    public void retryUntilServiceIsUp() throws Exception {
+        // reserve a port and start listening on it once the reporter tried to connect
+        graphite = new FakeGraphite(false);
+        GraphiteReporter DUT = createReporter(graphite.getPort(), "plaintext");
+        graphite.close();
+
+        reportValues(DUT, 10);
+        Thread.sleep(100);
+        graphite = new FakeGraphite(false, graphite.getPort());
+        graphite.start();
+        DUT.shutdown();
+
+        graphite.awaitMetrics(10);
+        Assert.assertEquals(1, graphite.getConnections());
+    }
+
+    private GraphiteReporter createReporter(int port, String protocol) {
+        Properties properties = new Properties();
+        properties.put("GraphiteReporter.serviceUrl", "127.0.0.1:" + port);
+        properties.put("GraphiteReporter.protocol", protocol);
+        properties.put("GraphiteReporter.batchSize", "100");
+        properties.put("GraphiteReporter.maxRetries", "5");
+        properties.put("GraphiteReporter.retryDelay", "50");
+
+        GraphiteReporter result = new GraphiteReporter();
+        result.configure(properties);
+        return result;
+    }
+
+    private void reportValues(Reporter reporter, int count) {
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < count; i++)
+            values.put("key" + i, String.valueOf(i));
+        reporter.report(values, "test");
+    }
+
+    /**
+     * A Graphite stand-in which records the metrics it receives as
+     * "path value" strings.
+     */
+    private class FakeGraphite extends Thread {
+
+        private final boolean pickle;
+        private final ServerSocket serverSocket;
+        private final List<String> metrics = Collections.synchronizedList(new ArrayList<>());
+        private final AtomicInteger connections = new AtomicInteger();
+
+        FakeGraphite(boolean pickle) throws IOException {
+            this(pickle, 0);
+        }
+
+        FakeGraphite(boolean pickle, int port) throws IOException {
+            this.pickle = pickle;
+            serverSocket = new ServerSocket(port);
+            setDaemon(true);
+        }
+
+        int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        int getConnections() {
+            return connections.get();
+        }
+
+        List<String> getMetrics() {
+            synchronized (metrics) {
+                return new ArrayList<>(metrics);
+            }
+        }
+
+        void awaitMetrics(int count) throws InterruptedException {
+            for (int i = 0; i < 100 && metrics.size() < count; i++)
+                Thread.sleep(50);
+            Assert.assertEquals(count, metrics.size());
+        }
+
+        void close() throws IOException {
+            serverSocket.close();
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    Socket socket = serverSocket.accept();
+                    connections.incrementAndGet();
+                    new Thread(() -> receive(socket)).start();
+                }
+            } catch (IOException ignore) {
+                // closed
+            }
+        }
+
+        private void receive(Socket socket) {
+            try (Socket ignore = socket) {
+                if (pickle) {
+                    DataInputStream in = new DataInputStream(socket.getInputStream());
+                    while (true) {
+                        byte[] payload = new byte[in.readInt()];
+                        in.readFully(payload);
+                        unpickle(payload);
+                    }
+                } else {
+                    BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), Charsets.UTF_8));
+                    String line;
+                    while ((line = in.readLine()) != null) {
+                        String[] parts = line.split(" ");
+                        Assert.assertEquals(3, parts.length);
+                        metrics.add(parts[0] + " " + parts[1]);
+                    }
+                }
+            } catch (EOFException ignore) {
+                // connection closed by the reporter
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+
+        /**
+         * Decodes the subset of the pickle protocol used for a list of
+         * (path, (timestamp, value)) tuples.
+         */
+        private void unpickle(byte[] payload) {
+            Deque<Object> stack = new ArrayDeque<>();
+            int i = 0;
+            while (i < payload.length) {
+                int opcode = payload[i++] & 0xff;
+                switch (opcode) {
+                    case 0x80: // PROTO
+                        i++;
+                        break;
+                    case ']': // EMPTY_LIST
+                    case '(': // MARK
+                        stack.push(opcode);
+                        break;
+                    case 'X': // BINUNICODE
+                        int length = readIntLittleEndian(payload, i);
+                        stack.push(new String(payload, i + 4, length, Charsets.UTF_8));
+                        i += 4 + length;
+                        break;
+                    case 'J': // BININT
+                        stack.push(readIntLittleEndian(payload, i));
+                        i += 4;
+                        break;
+                    case 'G': // BINFLOAT
+                        long bits = 0;
+                        for (int j = 0; j < 8; j++)
+                            bits = (bits << 8) | (payload[i + j] & 0xff);
+                        stack.push(Double.longBitsToDouble(bits));
+                        i += 8;
+                        break;
+                    case 0x86: // TUPLE2
+                        Object second = stack.pop();
+                        Object first = stack.pop();
+                        stack.push(new Object[]{first, second});
+                        break;
+                    case 'e': // APPENDS
+                        while (stack.peek() instanceof Object[]) {
+                            Object[] metric = (Object[]) stack.pop();
+                            Object[] datapoint = (Object[]) metric[1];
+                            metrics.add(metric[0] + " " + datapoint[1]);
+                        }
+                        Assert.assertEquals((int) '(', stack.pop());
+                        break;
+                    case '.': // STOP
+                        Assert.assertEquals((int) ']', stack.pop());
+                        Assert.assertTrue(stack.isEmpty());
+                        return;
+                    default:
+                        Assert.fail("unexpected opcode " + opcode);
+                }
+            }
+            Assert.fail("missing STOP opcode");
+        }
+
+        private int readIntLittleEndian(byte[] payload, int offset) {
+            return (payload[offset] & 0xff)
+                    | (payload[offset + 1] & 0xff) << 8
+                    | (payload[offset + 2] & 0xff) << 16
+                    | (payload[offset + 3] & 0xff) << 24;
+        }
+    }
+}
@@ -40,6 +40,8 @@ import java.security.KeyPair;
 import java.security.PrivateKey;
 import java.security.PublicKey;
 
+import java.nio.ByteBuffer;
+
 import lombok.extern.slf4j.Slf4j;
 
 import static bisq.common.crypto.Encryption.decryptSecretKey;
@@ -75,8 +77,9 @@ public class EncryptionService {
             throw new CryptoException("Signature verification failed.");
 
         try {
-            final byte[] bytes = Encryption.decryptPayloadWithHmac(sealedAndSigned.getEncryptedPayloadWithHmac(), secretKey);
-            final protobuf.NetworkEnvelope envelope = protobuf.NetworkEnvelope.parseFrom(bytes);
+            // We parse directly from the decrypted buffer to avoid copying the payload
+            ByteBuffer payload = Encryption.decryptPayloadWithHmacAsBuffer(sealedAndSigned.getEncryptedPayloadWithHmac(), secretKey);
+            final protobuf.NetworkEnvelope envelope = protobuf.NetworkEnvelope.parseFrom(payload);
             NetworkEnvelope decryptedPayload = networkProtoResolver.fromProto(envelope);
             return new DecryptedDataTuple(decryptedPayload, sealedAndSigned.getSigPublicKey());
         } catch (InvalidProtocolBufferException e) {
@@ -20,7 +20,10 @@ package bisq.network.http;
 import bisq.network.Socks5ProxyProvider;
 
 import bisq.common.app.Version;
+import bisq.common.util.Tuple2;
 
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.protocol.HttpClientContext;
@@ -31,6 +34,7 @@ import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.ssl.SSLContexts;
+import org.apache.http.util.EntityUtils;
 
 import com.runjva.sourceforge.jsocks.protocol.Socks5Proxy;
 
@@ -45,7 +49,9 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 
+import java.util.Optional;
 import java.util.UUID;
+import java.util.zip.GZIPInputStream;
 
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -63,6 +69,16 @@ public class HttpClient {
     private String baseUrl;
     private boolean ignoreSocks5Proxy;
     private final String uid;
+    // The client with its connection pool is shared by all instances, so connections over Tor are kept alive between
+    // requests and we have only one pool for the proxy. Guarded by the class lock.
+    @Nullable
+    private static CloseableHttpClient proxyHttpClient;
+    @Nullable
+    private static Socks5Proxy socks5ProxyOfHttpClient;
+
+    public interface ResponseBodyParser<T> {
+        T parse(InputStream inputStream) throws IOException;
+    }
 
     @Inject
     public HttpClient(@Nullable Socks5ProxyProvider socks5ProxyProvider) {
@@ -75,6 +91,13 @@ public class HttpClient {
         uid = UUID.randomUUID().toString();
     }
 
+    /**
+     * Closes the shared client of the proxied requests with its connections. Called at shut down.
+     */
+    public static synchronized void shutDown() {
+        closeProxyHttpClient();
+    }
+
     public void setBaseUrl(String baseUrl) {
         this.baseUrl = baseUrl;
     }
@@ -86,14 +109,7 @@ public class HttpClient {
     public String requestWithGET(String param, @Nullable String headerKey, @Nullable String headerValue) throws IOException {
         checkNotNull(baseUrl, "baseUrl must be set before calling requestWithGET");
 
-        Socks5Proxy socks5Proxy = null;
-        if (socks5ProxyProvider != null) {
-            // We use the custom socks5ProxyHttp. If not set we request socks5ProxyProvider.getSocks5ProxyBtc()
-            // which delivers the btc proxy if set, otherwise the internal proxy.
-            socks5Proxy = socks5ProxyProvider.getSocks5ProxyHttp();
-            if (socks5Proxy == null)
-                socks5Proxy = socks5ProxyProvider.getSocks5Proxy();
-        }
+        Socks5Proxy socks5Proxy = getSocks5Proxy();
         if (ignoreSocks5Proxy || socks5Proxy == null || baseUrl.contains("localhost")) {
             log.debug("Use clear net for HttpClient. socks5Proxy={}, ignoreSocks5Proxy={}, baseUrl={}",
                     socks5Proxy, ignoreSocks5Proxy, baseUrl);
@@ -104,6 +120,31 @@ public class HttpClient {
         }
     }
 
+    /**
+     * Conditional HTTP Get request. If eTag is set it is sent as If-None-Match header and we return an empty result
+     * in case the server responds with 304 Not Modified, so the caller can keep using its last result.
+     * The response body is passed as stream to the parser so it does not need to be read into a String first.
+     *
+     * @return The parsed body and the ETag of the response (might be null), or empty if not modified
+     */
+    public <T> Optional<Tuple2<T, String>> requestWithGETIfNoneMatch(String param,
+                                                                      @Nullable String headerKey,
+                                                                      @Nullable String headerValue,
+                                                                      @Nullable String eTag,
+                                                                      ResponseBodyParser<T> parser) throws IOException {
+        checkNotNull(baseUrl, "baseUrl must be set before calling requestWithGETIfNoneMatch");
+
+        Socks5Proxy socks5Proxy = getSocks5Proxy();
+        if (ignoreSocks5Proxy || socks5Proxy == null || baseUrl.contains("localhost")) {
+            log.debug("Use clear net for HttpClient. socks5Proxy={}, ignoreSocks5Proxy={}, baseUrl={}",
+                    socks5Proxy, ignoreSocks5Proxy, baseUrl);
+            return requestWithGETIfNoneMatchNoProxy(param, headerKey, headerValue, eTag, parser);
+        } else {
+            log.debug("Use socks5Proxy for HttpClient: " + socks5Proxy);
+            return requestWithGETIfNoneMatchProxy(param, socks5Proxy, headerKey, headerValue, eTag, parser);
+        }
+    }
+
     /**
      * Make an HTTP Get request directly (not routed over socks5 proxy).
      */
@@ -150,40 +191,160 @@ public class HttpClient {
      */
     private String requestWithGETProxy(String param, Socks5Proxy socks5Proxy, @Nullable String headerKey, @Nullable String headerValue) throws IOException {
         log.debug("requestWithGETProxy param=" + param);
-        // This code is adapted from:
-        //  http://stackoverflow.com/a/25203021/5616248
-
-        // Register our own SocketFactories to override createSocket() and connectSocket().
-        // connectSocket does NOT resolve hostname before passing it to proxy.
-        Registry<ConnectionSocketFactory> reg = RegistryBuilder.<ConnectionSocketFactory>create()
-                .register("http", new SocksConnectionSocketFactory())
-                .register("https", new SocksSSLConnectionSocketFactory(SSLContexts.createSystemDefault())).build();
+        try {
+            HttpGet request = new HttpGet(baseUrl + param);
+            if (headerKey != null && headerValue != null)
+                request.setHeader(headerKey, headerValue);
 
-        // Use FakeDNSResolver if not resolving DNS locally.
-        // This prevents a local DNS lookup (which would be ignored anyway)
-        PoolingHttpClientConnectionManager cm = socks5Proxy.resolveAddrLocally() ?
-                new PoolingHttpClientConnectionManager(reg) :
-                new PoolingHttpClientConnectionManager(reg, new FakeDnsResolver());
-        try (CloseableHttpClient httpclient = HttpClients.custom().setConnectionManager(cm).build()) {
-            InetSocketAddress socksAddress = new InetSocketAddress(socks5Proxy.getInetAddress(), socks5Proxy.getPort());
+            HttpClientContext context = getProxyHttpClientContext(socks5Proxy);
+            log.debug("Executing request " + request + " proxy: " + context.getAttribute("socks.address"));
+            try (CloseableHttpResponse response = getProxyHttpClient(socks5Proxy).execute(request, context)) {
+                return convertInputStreamToString(response.getEntity().getContent());
+            }
+        } catch (Throwable t) {
+            throw new IOException("Error at requestWithGETProxy with URL: " + (baseUrl + param) + ". Throwable=" + t.getMessage());
+        }
+    }
 
-            // remove me: Use this to test with system-wide Tor proxy, or change port for another proxy.
-            // InetSocketAddress socksAddress = new InetSocketAddress("127.0.0.1", 9050);
+    private <T> Optional<Tuple2<T, String>> requestWithGETIfNoneMatchNoProxy(String param,
+                                                                             @Nullable String headerKey,
+                                                                             @Nullable String headerValue,
+                                                                             @Nullable String eTag,
+                                                                             ResponseBodyParser<T> parser) throws IOException {
+        HttpURLConnection connection = null;
+        log.debug("Executing HTTP request " + baseUrl + param + " proxy: none.");
+        URL url = new URL(baseUrl + param);
+        try {
+            connection = (HttpURLConnection) url.openConnection();
+            connection.setRequestMethod("GET");
+            connection.setConnectTimeout(10_000);
+            connection.setReadTimeout(10_000);
+            connection.setRequestProperty("User-Agent", "bisq/" + Version.VERSION);
+            connection.setRequestProperty("Accept-Encoding", "gzip");
+            if (eTag != null)
+                connection.setRequestProperty("If-None-Match", eTag);
+            if (headerKey != null && headerValue != null)
+                connection.setRequestProperty(headerKey, headerValue);
 
-            HttpClientContext context = HttpClientContext.create();
-            context.setAttribute("socks.address", socksAddress);
+            int responseCode = connection.getResponseCode();
+            if (responseCode == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                return Optional.empty();
+            } else if (responseCode == HttpURLConnection.HTTP_OK) {
+                InputStream inputStream = connection.getInputStream();
+                if ("gzip".equalsIgnoreCase(connection.getContentEncoding()))
+                    inputStream = new GZIPInputStream(inputStream);
+                try (InputStream bodyInputStream = inputStream) {
+                    T result = parser.parse(bodyInputStream);
+                    return Optional.of(new Tuple2<>(result, connection.getHeaderField("ETag")));
+                }
+            } else {
+                String error = convertInputStreamToString(connection.getErrorStream());
+                connection.getErrorStream().close();
+                throw new HttpException(error);
+            }
+        } catch (Throwable t) {
+            final String message = "Error at requestWithGETIfNoneMatchNoProxy with URL: " + (baseUrl + param) + ". Throwable=" + t.getMessage();
+            log.error(message);
+            throw new IOException(message);
+        }
+    }
 
+    private <T> Optional<Tuple2<T, String>> requestWithGETIfNoneMatchProxy(String param,
+                                                                           Socks5Proxy socks5Proxy,
+                                                                           @Nullable String headerKey,
+                                                                           @Nullable String headerValue,
+                                                                           @Nullable String eTag,
+                                                                           ResponseBodyParser<T> parser) throws IOException {
+        log.debug("requestWithGETIfNoneMatchProxy param=" + param);
+        try {
             HttpGet request = new HttpGet(baseUrl + param);
+            if (eTag != null)
+                request.setHeader("If-None-Match", eTag);
             if (headerKey != null && headerValue != null)
                 request.setHeader(headerKey, headerValue);
 
-            log.debug("Executing request " + request + " proxy: " + socksAddress);
-            try (CloseableHttpResponse response = httpclient.execute(request, context)) {
-                return convertInputStreamToString(response.getEntity().getContent());
+            HttpClientContext context = getProxyHttpClientContext(socks5Proxy);
+            log.debug("Executing request " + request + " proxy: " + context.getAttribute("socks.address"));
+            // The apache client requests and decompresses gzip content by default
+            try (CloseableHttpResponse response = getProxyHttpClient(socks5Proxy).execute(request, context)) {
+                int statusCode = response.getStatusLine().getStatusCode();
+                HttpEntity entity = response.getEntity();
+                if (statusCode == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                    EntityUtils.consume(entity);
+                    return Optional.empty();
+                } else if (statusCode == HttpURLConnection.HTTP_OK) {
+                    try (InputStream inputStream = entity.getContent()) {
+                        T result = parser.parse(inputStream);
+                        Header eTagHeader = response.getFirstHeader("ETag");
+                        return Optional.of(new Tuple2<>(result, eTagHeader != null ? eTagHeader.getValue() : null));
+                    }
+                } else {
+                    throw new HttpException(entity != null ? EntityUtils.toString(entity) : response.getStatusLine().toString());
+                }
             }
         } catch (Throwable t) {
-            throw new IOException("Error at requestWithGETProxy with URL: " + (baseUrl + param) + ". Throwable=" + t.getMessage());
+            throw new IOException("Error at requestWithGETIfNoneMatchProxy with URL: " + (baseUrl + param) + ". Throwable=" + t.getMessage());
+        }
+    }
+
+    @Nullable
+    private Socks5Proxy getSocks5Proxy() {
+        Socks5Proxy socks5Proxy = null;
+        if (socks5ProxyProvider != null) {
+            // We use the custom socks5ProxyHttp. If not set we request socks5ProxyProvider.getSocks5ProxyBtc()
+            // which delivers the btc proxy if set, otherwise the internal proxy.
+            socks5Proxy = socks5ProxyProvider.getSocks5ProxyHttp();
+            if (socks5Proxy == null)
+                socks5Proxy = socks5ProxyProvider.getSocks5Proxy();
         }
+        return socks5Proxy;
+    }
+
+    private static synchronized CloseableHttpClient getProxyHttpClient(Socks5Proxy socks5Proxy) {
+        if (proxyHttpClient == null || socks5ProxyOfHttpClient != socks5Proxy) {
+            closeProxyHttpClient();
+
+            // This code is adapted from:
+            //  http://stackoverflow.com/a/25203021/5616248
+
+            // Register our own SocketFactories to override createSocket() and connectSocket().
+            // connectSocket does NOT resolve hostname before passing it to proxy.
+            Registry<ConnectionSocketFactory> reg = RegistryBuilder.<ConnectionSocketFactory>create()
+                    .register("http", new SocksConnectionSocketFactory())
+                    .register("https", new SocksSSLConnectionSocketFactory(SSLContexts.createSystemDefault())).build();
+
+            // Use FakeDNSResolver if not resolving DNS locally.
+            // This prevents a local DNS lookup (which would be ignored anyway)
+            PoolingHttpClientConnectionManager cm = socks5Proxy.resolveAddrLocally() ?
+                    new PoolingHttpClientConnectionManager(reg) :
+                    new PoolingHttpClientConnectionManager(reg, new FakeDnsResolver());
+            proxyHttpClient = HttpClients.custom().setConnectionManager(cm).build();
+            socks5ProxyOfHttpClient = socks5Proxy;
+        }
+        return proxyHttpClient;
+    }
+
+    private static void closeProxyHttpClient() {
+        if (proxyHttpClient != null) {
+            try {
+                proxyHttpClient.close();
+            } catch (IOException e) {
+                log.warn("Could not close HttpClient. " + e.getMessage());
+            }
+            proxyHttpClient = null;
+            socks5ProxyOfHttpClient = null;
+        }
+    }
+
+    private HttpClientContext getProxyHttpClientContext(Socks5Proxy socks5Proxy) {
+        InetSocketAddress socksAddress = new InetSocketAddress(socks5Proxy.getInetAddress(), socks5Proxy.getPort());
+
+        // remove me: Use this to test with system-wide Tor proxy, or change port for another proxy.
+        // InetSocketAddress socksAddress = new InetSocketAddress("127.0.0.1", 9050);
+
+        HttpClientContext context = HttpClientContext.create();
+        context.setAttribute("socks.address", socksAddress);
+        return context;
     }
 
     private String convertInputStreamToString(InputStream inputStream) throws IOException {
@@ -58,8 +58,11 @@ import bisq.common.util.Utilities;
 import com.google.inject.Inject;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.common.util.concurrent.SettableFuture;
 
 import org.fxmisc.easybind.EasyBind;
@@ -74,14 +77,19 @@ import javafx.beans.property.SimpleIntegerProperty;
 
 import java.security.PublicKey;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -98,6 +106,7 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
         HashMapChangedListener, PersistedDataHost {
     private static final Logger log = LoggerFactory.getLogger(P2PService.class);
     public static final int MAX_CONNECTIONS_DEFAULT = 12;
+    private static final int MAILBOX_DECRYPTION_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
 
     private final SeedNodeRepository seedNodeRepository;
     private final EncryptionService encryptionService;
@@ -128,6 +137,10 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
     private boolean isBootstrapped;
     private final KeepAliveManager keepAliveManager;
     private final Socks5ProxyProvider socks5ProxyProvider;
+    @Nullable
+    private ListeningExecutorService mailboxExecutor;
+    private boolean mailboxProcessingInProgress, mailboxProcessingRequested;
+    private final List<Runnable> mailboxProcessedHandlers = new ArrayList<>();
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -231,6 +244,11 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
             if (networkReadySubscription != null)
                 networkReadySubscription.unsubscribe();
 
+            synchronized (this) {
+                if (mailboxExecutor != null)
+                    mailboxExecutor.shutdownNow();
+            }
+
             if (networkNode != null) {
                 networkNode.shutDown(() -> {
                     shutDownResultHandlers.stream().forEach(Runnable::run);
@@ -278,8 +296,8 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
 
         if (!seedNodesAvailable) {
             isBootstrapped = true;
-            maybeProcessAllMailboxEntries();
-            p2pServiceListeners.stream().forEach(P2PServiceListener::onNoSeedNodeAvailable);
+            maybeProcessAllMailboxEntries(() ->
+                    p2pServiceListeners.stream().forEach(P2PServiceListener::onNoSeedNodeAvailable));
         }
     }
 
@@ -338,9 +356,11 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
     public void onUpdatedDataReceived() {
         if (!isBootstrapped) {
             isBootstrapped = true;
-            maybeProcessAllMailboxEntries();
-            p2pServiceListeners.stream().forEach(P2PServiceListener::onUpdatedDataReceived);
-            p2PDataStorage.onBootstrapComplete();
+            // The listeners expect the mailbox messages to be delivered already
+            maybeProcessAllMailboxEntries(() -> {
+                p2pServiceListeners.stream().forEach(P2PServiceListener::onUpdatedDataReceived);
+                p2PDataStorage.onBootstrapComplete();
+            });
         }
     }
 
@@ -507,38 +527,72 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     private void processMailboxEntry(ProtectedMailboxStorageEntry protectedMailboxStorageEntry) {
+        if (isMailboxEntryForMe(protectedMailboxStorageEntry)) {
+            decryptMailboxEntry(protectedMailboxStorageEntry).ifPresent(decryptedMessageWithPubKey ->
+                    onMailboxEntryDecrypted(protectedMailboxStorageEntry, decryptedMessageWithPubKey));
+        }
+    }
+
+    // Cheap checks which filter out nearly all mailbox entries of other users before we attempt the expensive
+    // decryption.
+    private boolean isMailboxEntryForMe(ProtectedMailboxStorageEntry protectedMailboxStorageEntry) {
         NodeAddress nodeAddress = networkNode.getNodeAddress();
         // Seed nodes don't receive mailbox network_messages
-        if (nodeAddress != null && !seedNodeRepository.isSeedNode(nodeAddress)) {
-            MailboxStoragePayload mailboxStoragePayload = protectedMailboxStorageEntry.getMailboxStoragePayload();
-            PrefixedSealedAndSignedMessage prefixedSealedAndSignedMessage = mailboxStoragePayload.getPrefixedSealedAndSignedMessage();
-            if (verifyAddressPrefixHash(prefixedSealedAndSignedMessage)) {
-                try {
-                    DecryptedMessageWithPubKey decryptedMessageWithPubKey = encryptionService.decryptAndVerify(
-                            prefixedSealedAndSignedMessage.getSealedAndSigned());
-                    if (decryptedMessageWithPubKey.getNetworkEnvelope() instanceof MailboxMessage) {
-                        MailboxMessage mailboxMessage = (MailboxMessage) decryptedMessageWithPubKey.getNetworkEnvelope();
-                        NodeAddress senderNodeAddress = mailboxMessage.getSenderNodeAddress();
-                        checkNotNull(senderNodeAddress, "senderAddress must not be null for mailbox network_messages");
-
-                        mailboxMap.put(mailboxMessage.getUid(), protectedMailboxStorageEntry);
-                        log.info("Received a {} mailbox message with messageUid {} and senderAddress {}", mailboxMessage.getClass().getSimpleName(), mailboxMessage.getUid(), senderNodeAddress);
-                        decryptedMailboxListeners.forEach(
-                                e -> e.onMailboxMessageAdded(decryptedMessageWithPubKey, senderNodeAddress));
-                    } else {
-                        log.warn("tryDecryptMailboxData: Expected MailboxMessage but got other type. " +
-                                "decryptedMsgWithPubKey.message={}", decryptedMessageWithPubKey.getNetworkEnvelope());
-                    }
-                } catch (CryptoException e) {
-                    log.debug(e.toString());
-                    log.debug("Decryption of prefixedSealedAndSignedMessage.sealedAndSigned failed. " +
-                            "That is expected if the message is not intended for us.");
-                } catch (ProtobufferException e) {
-                    log.error("Protobuffer data could not be processed: {}", e.toString());
-                }
-            } else {
-                log.trace("Wrong blurredAddressHash. The message is not intended for us.");
+        if (nodeAddress == null || seedNodeRepository.isSeedNode(nodeAddress))
+            return false;
+
+        // The sender sets our signature pubKey as receiversPubKey, otherwise we could not remove the entry anyway.
+        if (!keyRing.getSignatureKeyPair().getPublic().equals(protectedMailboxStorageEntry.getReceiversPubKey())) {
+            log.trace("Wrong receiversPubKey. The message is not intended for us.");
+            return false;
+        }
+
+        PrefixedSealedAndSignedMessage prefixedSealedAndSignedMessage = protectedMailboxStorageEntry.getMailboxStoragePayload()
+                .getPrefixedSealedAndSignedMessage();
+        if (!verifyAddressPrefixHash(prefixedSealedAndSignedMessage)) {
+            log.trace("Wrong blurredAddressHash. The message is not intended for us.");
+            return false;
+        }
+
+        return true;
+    }
+
+    // Can be called from any thread
+    private Optional<DecryptedMessageWithPubKey> decryptMailboxEntry(ProtectedMailboxStorageEntry protectedMailboxStorageEntry) {
+        PrefixedSealedAndSignedMessage prefixedSealedAndSignedMessage = protectedMailboxStorageEntry.getMailboxStoragePayload()
+                .getPrefixedSealedAndSignedMessage();
+        try {
+            return Optional.of(encryptionService.decryptAndVerify(prefixedSealedAndSignedMessage.getSealedAndSigned()));
+        } catch (CryptoException e) {
+            log.debug(e.toString());
+            log.debug("Decryption of prefixedSealedAndSignedMessage.sealedAndSigned failed. " +
+                    "That is expected if the message is not intended for us.");
+        } catch (ProtobufferException e) {
+            log.error("Protobuffer data could not be processed: {}", e.toString());
+        }
+        return Optional.empty();
+    }
+
+    private void onMailboxEntryDecrypted(ProtectedMailboxStorageEntry protectedMailboxStorageEntry,
+                                         DecryptedMessageWithPubKey decryptedMessageWithPubKey) {
+        if (decryptedMessageWithPubKey.getNetworkEnvelope() instanceof MailboxMessage) {
+            MailboxMessage mailboxMessage = (MailboxMessage) decryptedMessageWithPubKey.getNetworkEnvelope();
+            NodeAddress senderNodeAddress = mailboxMessage.getSenderNodeAddress();
+            checkNotNull(senderNodeAddress, "senderAddress must not be null for mailbox network_messages");
+
+            // The entry might have been decrypted already by an earlier run or when it got added
+            if (mailboxMap.containsKey(mailboxMessage.getUid())) {
+                log.debug("Mailbox message with messageUid {} was already delivered", mailboxMessage.getUid());
+                return;
             }
+
+            mailboxMap.put(mailboxMessage.getUid(), protectedMailboxStorageEntry);
+            log.info("Received a {} mailbox message with messageUid {} and senderAddress {}", mailboxMessage.getClass().getSimpleName(), mailboxMessage.getUid(), senderNodeAddress);
+            decryptedMailboxListeners.forEach(
+                    e -> e.onMailboxMessageAdded(decryptedMessageWithPubKey, senderNodeAddress));
+        } else {
+            log.warn("tryDecryptMailboxData: Expected MailboxMessage but got other type. " +
+                    "decryptedMsgWithPubKey.message={}", decryptedMessageWithPubKey.getNetworkEnvelope());
         }
     }
 
@@ -638,14 +692,107 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
     }
 
     private void maybeProcessAllMailboxEntries() {
-        if (isBootstrapped) {
-            p2PDataStorage.getMap().values().forEach(protectedStorageEntry -> {
-                if (protectedStorageEntry instanceof ProtectedMailboxStorageEntry)
-                    processMailboxEntry((ProtectedMailboxStorageEntry) protectedStorageEntry);
-            });
+        maybeProcessAllMailboxEntries(null);
+    }
+
+    // The resultHandler gets called on the user thread once the mailbox entries have been delivered, so callers can
+    // notify their listeners after the trade protocols have seen the mailbox messages. Only one run is in progress at
+    // a time. If we get called during a run we process the entries again once it is completed.
+    private void maybeProcessAllMailboxEntries(@Nullable Runnable resultHandler) {
+        if (resultHandler != null)
+            mailboxProcessedHandlers.add(resultHandler);
+
+        if (!isBootstrapped) {
+            onMailboxEntriesProcessed();
+            return;
+        }
+
+        if (mailboxProcessingInProgress) {
+            mailboxProcessingRequested = true;
+            return;
+        }
+
+        Map<P2PDataStorage.ByteArray, ProtectedMailboxStorageEntry> candidates = new LinkedHashMap<>();
+        p2PDataStorage.getMap().forEach((hash, protectedStorageEntry) -> {
+            if (protectedStorageEntry instanceof ProtectedMailboxStorageEntry &&
+                    isMailboxEntryForMe((ProtectedMailboxStorageEntry) protectedStorageEntry))
+                candidates.put(hash, (ProtectedMailboxStorageEntry) protectedStorageEntry);
+        });
+        if (candidates.isEmpty()) {
+            onMailboxEntriesProcessed();
+            return;
+        }
+
+        // We decrypt in batches on the mailbox executor and apply the results in the original order on the
+        // user thread once all batches are completed.
+        mailboxProcessingInProgress = true;
+        long ts = System.currentTimeMillis();
+        List<P2PDataStorage.ByteArray> hashes = new ArrayList<>(candidates.keySet());
+        int batchSize = (hashes.size() + MAILBOX_DECRYPTION_THREADS - 1) / MAILBOX_DECRYPTION_THREADS;
+        List<ListenableFuture<List<Optional<DecryptedMessageWithPubKey>>>> futures = Lists.partition(hashes, batchSize).stream()
+                .map(batch -> getMailboxExecutor().submit(() -> batch.stream()
+                        .map(hash -> decryptMailboxEntry(candidates.get(hash)))
+                        .collect(Collectors.toList())))
+                .collect(Collectors.toList());
+        Futures.addCallback(Futures.allAsList(futures), new FutureCallback<List<List<Optional<DecryptedMessageWithPubKey>>>>() {
+            @Override
+            public void onSuccess(@Nullable List<List<Optional<DecryptedMessageWithPubKey>>> results) {
+                UserThread.execute(() -> {
+                    if (shutDownInProgress || results == null)
+                        return;
+
+                    log.info("Decrypting {} mailbox entries took {} ms", hashes.size(), System.currentTimeMillis() - ts);
+                    Iterator<P2PDataStorage.ByteArray> iterator = hashes.iterator();
+                    results.stream()
+                            .flatMap(List::stream)
+                            .forEach(result -> {
+                                P2PDataStorage.ByteArray hash = iterator.next();
+                                ProtectedMailboxStorageEntry protectedMailboxStorageEntry = candidates.get(hash);
+                                // The entry might have been removed while we decrypted it
+                                if (p2PDataStorage.getMap().get(hash) == protectedMailboxStorageEntry) {
+                                    result.ifPresent(decryptedMessageWithPubKey ->
+                                            onMailboxEntryDecrypted(protectedMailboxStorageEntry, decryptedMessageWithPubKey));
+                                }
+                            });
+                    onMailboxProcessingCompleted();
+                });
+            }
+
+            @Override
+            public void onFailure(@NotNull Throwable throwable) {
+                UserThread.execute(() -> {
+                    if (shutDownInProgress)
+                        return;
+
+                    log.error("Processing of mailbox entries failed", throwable);
+                    onMailboxProcessingCompleted();
+                });
+            }
+        });
+    }
+
+    private void onMailboxProcessingCompleted() {
+        mailboxProcessingInProgress = false;
+        if (mailboxProcessingRequested) {
+            mailboxProcessingRequested = false;
+            maybeProcessAllMailboxEntries();
+        } else {
+            onMailboxEntriesProcessed();
         }
     }
 
+    private void onMailboxEntriesProcessed() {
+        List<Runnable> handlers = new ArrayList<>(mailboxProcessedHandlers);
+        mailboxProcessedHandlers.clear();
+        handlers.forEach(Runnable::run);
+    }
+
+    private synchronized ListeningExecutorService getMailboxExecutor() {
+        if (mailboxExecutor == null)
+            mailboxExecutor = Utilities.getListeningFixedThreadPoolExecutor("P2PService-Mailbox", MAILBOX_DECRYPTION_THREADS, 60);
+        return mailboxExecutor;
+    }
+
     private void addMailboxData(MailboxStoragePayload expirableMailboxStoragePayload,
                                 PublicKey receiversPublicKey,
                                 SendMailboxMessageListener sendMailboxMessageListener) {
@@ -851,6 +998,12 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
         p2PDataStorage.addHashMapChangedListener(hashMapChangedListener);
     }
 
+    // Returns the current entries of the payloadClass. The listener gets notified about changes of those entries only.
+    public List<ProtectedStorageEntry> addHashSetChangedListener(Class<? extends ProtectedStoragePayload> payloadClass,
+                                                                 HashMapChangedListener hashMapChangedListener) {
+        return p2PDataStorage.addHashMapChangedListener(payloadClass, hashMapChangedListener);
+    }
+
     public void removeHashMapChangedListener(HashMapChangedListener hashMapChangedListener) {
         p2PDataStorage.removeHashMapChangedListener(hashMapChangedListener);
     }
@@ -881,6 +1034,10 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
         return p2PDataStorage.getMap();
     }
 
+    public List<ProtectedStorageEntry> getDataMap(Class<? extends ProtectedStoragePayload> payloadClass) {
+        return p2PDataStorage.getProtectedStorageEntries(payloadClass);
+    }
+
     @VisibleForTesting
     public P2PDataStorage getP2PDataStorage() {
         return p2PDataStorage;
@@ -66,6 +66,12 @@ public class Statistic {
     private final Map<String, Integer> receivedMessages = new ConcurrentHashMap<>();
     private final Map<String, Integer> sentMessages = new ConcurrentHashMap<>();
     private final IntegerProperty roundTripTime = new SimpleIntegerProperty(0);
+    // Round trip times of our pings to that peer. The smoothed value and the variation are calculated like for the
+    // TCP retransmission timer (RFC 6298).
+    private int smoothedRoundTripTime;
+    private int roundTripTimeVariation;
+    private int minRoundTripTime;
+    private int numRoundTripTimeSamples;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -121,6 +127,21 @@ public class Statistic {
         this.roundTripTime.set(roundTripTime);
     }
 
+    // Only called from the user thread
+    public void addRoundTripTimeSample(int roundTripTime) {
+        setRoundTripTime(roundTripTime);
+        if (numRoundTripTimeSamples == 0) {
+            smoothedRoundTripTime = roundTripTime;
+            roundTripTimeVariation = roundTripTime / 2;
+            minRoundTripTime = roundTripTime;
+        } else {
+            roundTripTimeVariation = (3 * roundTripTimeVariation + Math.abs(smoothedRoundTripTime - roundTripTime)) / 4;
+            smoothedRoundTripTime = (7 * smoothedRoundTripTime + roundTripTime) / 8;
+            minRoundTripTime = Math.min(minRoundTripTime, roundTripTime);
+        }
+        numRoundTripTimeSamples++;
+    }
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Getters
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -157,6 +178,22 @@ public class Statistic {
         return roundTripTime;
     }
 
+    public int getSmoothedRoundTripTime() {
+        return smoothedRoundTripTime;
+    }
+
+    public int getRoundTripTimeVariation() {
+        return roundTripTimeVariation;
+    }
+
+    public int getMinRoundTripTime() {
+        return minRoundTripTime;
+    }
+
+    public int getNumRoundTripTimeSamples() {
+        return numRoundTripTimeSamples;
+    }
+
     @Override
     public String toString() {
         return "Statistic{" +
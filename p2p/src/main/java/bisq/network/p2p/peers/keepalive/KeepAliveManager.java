@@ -33,6 +33,8 @@ import bisq.common.proto.network.NetworkEnvelope;
 
 import javax.inject.Inject;
 
+import com.google.common.annotations.VisibleForTesting;
+
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.SettableFuture;
@@ -40,6 +42,7 @@ import com.google.common.util.concurrent.SettableFuture;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -50,14 +53,39 @@ public class KeepAliveManager implements MessageListener, ConnectionListener, Pe
     private static final Logger log = LoggerFactory.getLogger(KeepAliveManager.class);
 
     private static final int INTERVAL_SEC = new Random().nextInt(5) + 30;
-    private static final long LAST_ACTIVITY_AGE_MS = INTERVAL_SEC / 2;
+    // We don't ping peers we have exchanged any message with in the last half interval
+    private static final long LAST_ACTIVITY_AGE_MS = TimeUnit.SECONDS.toMillis(INTERVAL_SEC) / 2;
+    // The pings of a keep alive round are spread over NUM_PING_SLOTS ticks
+    private static final int TICK_MS = 1000;
+    private static final int NUM_PING_SLOTS = 10;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Class fields
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // State of the keep alive pings of a connection. It is kept as long as the connection exists.
+    private static final class PingState {
+        private final Connection connection;
+        private int nonce;
+        private long sendTs;
+        // True from scheduling the ping until we received the pong
+        private boolean pending;
+
+        private PingState(Connection connection) {
+            this.connection = connection;
+        }
+    }
 
     private final NetworkNode networkNode;
     private final PeerManager peerManager;
-    private final Map<String, KeepAliveHandler> handlerMap = new HashMap<>();
+    private final Random random = new Random();
+    private final Map<String, PingState> pingStateMap = new HashMap<>();
+    private final TimingWheel<PingState> pingWheel = new TimingWheel<>(NUM_PING_SLOTS);
 
     private boolean stopped;
     private Timer keepAliveTimer;
+    private Timer tickTimer;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -80,7 +108,7 @@ public class KeepAliveManager implements MessageListener, ConnectionListener, Pe
         networkNode.removeMessageListener(this);
         networkNode.removeConnectionListener(this);
         peerManager.removeListener(this);
-        closeAllHandlers();
+        clearPingStates();
         stopKeepAliveTimer();
     }
 
@@ -130,6 +158,12 @@ public class KeepAliveManager implements MessageListener, ConnectionListener, Pe
             } else {
                 log.warn("We have stopped already. We ignore that onMessage call.");
             }
+        } else if (networkEnvelope instanceof Pong) {
+            if (!stopped) {
+                onPong((Pong) networkEnvelope, connection);
+            } else {
+                log.trace("We have stopped already. We ignore that onMessage call.");
+            }
         }
     }
 
@@ -144,7 +178,8 @@ public class KeepAliveManager implements MessageListener, ConnectionListener, Pe
 
     @Override
     public void onDisconnect(CloseConnectionReason closeConnectionReason, Connection connection) {
-        closeHandler(connection);
+        // A scheduled ping of that connection gets dropped when it is due as its state is not in the map anymore
+        pingStateMap.remove(connection.getUid());
     }
 
     @Override
@@ -158,7 +193,7 @@ public class KeepAliveManager implements MessageListener, ConnectionListener, Pe
 
     @Override
     public void onAllConnectionsLost() {
-        closeAllHandlers();
+        clearPingStates();
         stopKeepAliveTimer();
         stopped = true;
         restart();
@@ -166,14 +201,14 @@ public class KeepAliveManager implements MessageListener, ConnectionListener, Pe
 
     @Override
     public void onNewConnectionAfterAllConnectionsLost() {
-        closeAllHandlers();
+        clearPingStates();
         stopped = false;
         restart();
     }
 
     @Override
     public void onAwakeFromStandby() {
-        closeAllHandlers();
+        clearPingStates();
         stopped = false;
         if (!networkNode.getAllConnections().isEmpty())
             restart();
@@ -192,44 +227,110 @@ public class KeepAliveManager implements MessageListener, ConnectionListener, Pe
             }, INTERVAL_SEC);
     }
 
-    private void keepAlive() {
+    @VisibleForTesting
+    void keepAlive() {
         if (!stopped) {
             networkNode.getConfirmedConnections().stream()
                     .filter(connection -> connection instanceof OutboundConnection &&
                             connection.getStatistic().getLastActivityAge() > LAST_ACTIVITY_AGE_MS)
                     .forEach(connection -> {
-                        final String uid = connection.getUid();
-                        if (!handlerMap.containsKey(uid)) {
-                            KeepAliveHandler keepAliveHandler = new KeepAliveHandler(networkNode, peerManager, new KeepAliveHandler.Listener() {
-                                @Override
-                                public void onComplete() {
-                                    handlerMap.remove(uid);
-                                }
-
-                                @Override
-                                public void onFault(String errorMessage) {
-                                    handlerMap.remove(uid);
-                                }
-                            });
-                            handlerMap.put(uid, keepAliveHandler);
-                            keepAliveHandler.sendPingAfterRandomDelay(connection);
+                        PingState pingState = pingStateMap.computeIfAbsent(connection.getUid(), uid -> new PingState(connection));
+                        if (!pingState.pending) {
+                            pingState.pending = true;
+                            pingState.sendTs = 0;
+                            pingWheel.add(random.nextInt(NUM_PING_SLOTS) + 1, pingState);
                         } else {
                             // TODO check if this situation causes any issues
                             log.debug("Connection with id {} has not completed and is still in our map. " +
-                                    "We will try to ping that peer at the next schedule.", uid);
+                                    "We will try to ping that peer at the next schedule.", connection.getUid());
                         }
                     });
 
-            int size = handlerMap.size();
-            log.debug("handlerMap size=" + size);
+            if (!pingWheel.isEmpty())
+                startTickTimer();
+
+            int size = pingStateMap.size();
+            log.debug("pingStateMap size=" + size);
             if (size > peerManager.getMaxConnections())
                 log.warn("Seems we didn't clean up out map correctly.\n" +
-                        "handlerMap size={}, peerManager.getMaxConnections()={}", size, peerManager.getMaxConnections());
+                        "pingStateMap size={}, peerManager.getMaxConnections()={}", size, peerManager.getMaxConnections());
         } else {
             log.warn("We have stopped already. We ignore that keepAlive call.");
         }
     }
 
+    @VisibleForTesting
+    void onTick() {
+        pingWheel.tick(this::sendPing);
+        if (pingWheel.isEmpty())
+            stopTickTimer();
+    }
+
+    @VisibleForTesting
+    int getNumScheduledPings() {
+        return pingWheel.size();
+    }
+
+    private void sendPing(PingState pingState) {
+        Connection connection = pingState.connection;
+        if (stopped || pingStateMap.get(connection.getUid()) != pingState) {
+            log.trace("We have stopped already or the connection got closed. We ignore that sendPing call.");
+            return;
+        }
+
+        pingState.nonce = random.nextInt();
+        Ping ping = new Ping(pingState.nonce, connection.getStatistic().roundTripTimeProperty().get());
+        pingState.sendTs = System.currentTimeMillis();
+        SettableFuture<Connection> future = networkNode.sendMessage(connection, ping);
+        Futures.addCallback(future, new FutureCallback<Connection>() {
+            @Override
+            public void onSuccess(Connection connection) {
+            }
+
+            @Override
+            public void onFailure(@NotNull Throwable throwable) {
+                if (!stopped) {
+                    String errorMessage = "Sending ping to " + connection +
+                            " failed. That is expected if the peer is offline.\n\tping=" + ping +
+                            ".\n\tException=" + throwable.getMessage();
+                    log.info(errorMessage);
+                    pingStateMap.remove(connection.getUid());
+                    peerManager.handleConnectionFault(connection);
+                } else {
+                    log.trace("We have stopped already. We ignore that networkNode.sendMessage.onFailure call.");
+                }
+            }
+        });
+    }
+
+    private void onPong(Pong pong, Connection connection) {
+        PingState pingState = pingStateMap.get(connection.getUid());
+        if (pingState == null || !pingState.pending || pingState.sendTs == 0)
+            return;
+
+        if (pong.getRequestNonce() == pingState.nonce) {
+            int roundTripTime = (int) (System.currentTimeMillis() - pingState.sendTs);
+            connection.getStatistic().addRoundTripTimeSample(roundTripTime);
+            pingState.pending = false;
+        } else {
+            log.warn("Nonce not matching. That should never happen.\n\t" +
+                            "We drop that message. nonce={} / requestNonce={}",
+                    pingState.nonce, pong.getRequestNonce());
+        }
+    }
+
+    private void startTickTimer() {
+        if (tickTimer == null)
+            tickTimer = UserThread.runPeriodically(this::onTick, TICK_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private void stopTickTimer() {
+        if (tickTimer != null) {
+            tickTimer.stop();
+            tickTimer = null;
+        }
+    }
+
     private void stopKeepAliveTimer() {
         stopped = true;
         if (keepAliveTimer != null) {
@@ -238,17 +339,9 @@ public class KeepAliveManager implements MessageListener, ConnectionListener, Pe
         }
     }
 
-    private void closeHandler(Connection connection) {
-        String uid = connection.getUid();
-        if (handlerMap.containsKey(uid)) {
-            handlerMap.get(uid).cancel();
-            handlerMap.remove(uid);
-        }
-    }
-
-    private void closeAllHandlers() {
-        handlerMap.values().stream().forEach(KeepAliveHandler::cancel);
-        handlerMap.clear();
+    private void clearPingStates() {
+        pingStateMap.clear();
+        pingWheel.clear();
+        stopTickTimer();
     }
-
 }
@@ -0,0 +1,90 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.peers.keepalive;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Hashed timing wheel for delays shorter than one revolution. Items are added to the slot of the tick they are due
+ * at and a single timer advances the wheel, so scheduling an item costs neither a timer nor a task object.
+ * Not thread safe, it is used from the user thread only.
+ */
+final class TimingWheel<T> {
+    private final List<List<T>> slots;
+    private int currentSlot;
+    private int size;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    TimingWheel(int numSlots) {
+        checkArgument(numSlots > 0, "numSlots must be positive");
+        slots = new ArrayList<>(numSlots);
+        for (int i = 0; i < numSlots; i++)
+            slots.add(new ArrayList<>());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * @param ticks Number of ticks after which the item is due. 1 is the next tick.
+     */
+    void add(int ticks, T item) {
+        checkArgument(ticks > 0 && ticks <= slots.size(), "ticks out of range. ticks=" + ticks);
+        slots.get((currentSlot + ticks) % slots.size()).add(item);
+        size++;
+    }
+
+    /**
+     * Advances the wheel by one tick and passes the items which are due to the consumer.
+     */
+    void tick(Consumer<T> consumer) {
+        currentSlot = (currentSlot + 1) % slots.size();
+        List<T> slot = slots.get(currentSlot);
+        if (slot.isEmpty())
+            return;
+
+        // Items added by the consumer must not end up in the slot we are iterating
+        List<T> dueItems = new ArrayList<>(slot);
+        slot.clear();
+        size -= dueItems.size();
+        dueItems.forEach(consumer);
+    }
+
+    void clear() {
+        slots.forEach(List::clear);
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.stream.Collectors;
+
+/**
+ * Listeners which are only interested in payloads of a certain class. A listener registered for a super class or an
+ * interface gets notified about the payloads of all matching classes. The listeners for a payload class are resolved
+ * once and cached until the registrations change, so notifying about a payload does not depend on the number of
+ * registered payload classes.
+ */
+class ListenersByClass<L> {
+    private final Map<Class<?>, Set<L>> listenersByClass = new ConcurrentHashMap<>();
+    private final Map<Class<?>, List<L>> listenersByPayloadClass = new ConcurrentHashMap<>();
+
+    void add(Class<?> payloadClass, L listener) {
+        listenersByClass.computeIfAbsent(payloadClass, k -> new CopyOnWriteArraySet<>()).add(listener);
+        listenersByPayloadClass.clear();
+    }
+
+    void remove(L listener) {
+        listenersByClass.values().forEach(listeners -> listeners.remove(listener));
+        listenersByPayloadClass.clear();
+    }
+
+    List<L> get(Class<?> payloadClass) {
+        return listenersByPayloadClass.computeIfAbsent(payloadClass, k -> listenersByClass.entrySet().stream()
+                .filter(entry -> entry.getKey().isAssignableFrom(payloadClass))
+                .flatMap(entry -> entry.getValue().stream())
+                .distinct()
+                .collect(Collectors.toList()));
+    }
+
+    List<L> getAll() {
+        return listenersByClass.values().stream()
+                .flatMap(Set::stream)
+                .distinct()
+                .collect(Collectors.toList());
+    }
+}
@@ -58,6 +58,7 @@ import bisq.common.proto.network.NetworkPayload;
 import bisq.common.proto.persistable.PersistablePayload;
 import bisq.common.proto.persistable.PersistedDataHost;
 import bisq.common.storage.Storage;
+import bisq.common.util.PhaseGraph;
 import bisq.common.util.Tuple2;
 import bisq.common.util.Utilities;
 
@@ -103,6 +104,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
      * How many days to keep an entry before it is purged.
      */
     private static final int PURGE_AGE_DAYS = 10;
+    private static final int READ_FROM_RESOURCES_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
 
     @VisibleForTesting
     public static int CHECK_TTL_INTERVAL_SEC = 60;
@@ -116,6 +118,11 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     private final Map<ByteArray, ProtectedStorageEntry> map = new ConcurrentHashMap<>();
     private final Set<ByteArray> removedAddOncePayloads = new HashSet<>();
     private final Set<HashMapChangedListener> hashMapChangedListeners = new CopyOnWriteArraySet<>();
+    // Derived from the map and the append-only stores, so consumers only need to touch their own payload types
+    private final PayloadsByClass<ProtectedStorageEntry> protectedStorageEntriesByClass = new PayloadsByClass<>();
+    private final PayloadsByClass<PersistableNetworkPayload> appendOnlyPayloadsByClass = new PayloadsByClass<>();
+    private final ListenersByClass<HashMapChangedListener> typedHashMapChangedListeners = new ListenersByClass<>();
+    private final ListenersByClass<AppendOnlyDataStoreListener> typedAppendOnlyDataStoreListeners = new ListenersByClass<>();
     private Timer removeExpiredEntriesTimer;
 
     private final Storage<SequenceNumberMap> sequenceNumberMapStorage;
@@ -161,12 +168,17 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     // This method is called at startup in a non-user thread.
     // We should not have any threading issues here as the p2p network is just initializing
 
+    // Each store service adds a phase per store. The stores are independent of each other, so all of them are read
+    // in parallel.
     public synchronized void readFromResources(String postFix) {
-        appendOnlyDataStoreService.readFromResources(postFix);
-        protectedDataStoreService.readFromResources(postFix);
-        resourceDataStoreService.readFromResources(postFix);
-
-        map.putAll(protectedDataStoreService.getMap());
+        PhaseGraph phaseGraph = new PhaseGraph("readFromResources");
+        appendOnlyDataStoreService.addReadFromResourcesPhases(phaseGraph, postFix);
+        protectedDataStoreService.addReadFromResourcesPhases(phaseGraph, postFix);
+        resourceDataStoreService.addReadFromResourcesPhases(phaseGraph, postFix);
+        phaseGraph.run(READ_FROM_RESOURCES_THREADS);
+
+        protectedDataStoreService.getMap().forEach(this::putToMap);
+        appendOnlyDataStoreService.getMap().forEach((hash, payload) -> appendOnlyPayloadsByClass.put(payload.getClass(), hash, payload));
     }
 
 
@@ -197,18 +209,20 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                         if (!(protectedStorageEntry.getProtectedStoragePayload() instanceof PersistableNetworkPayload)) {
                             toRemoveSet.add(protectedStorageEntry);
                             log.debug("We found an expired data entry. We remove the protectedData:\n\t" + Utilities.toTruncatedString(protectedStorageEntry));
-                            map.remove(hashOfPayload);
+                            removeFromMap(hashOfPayload, protectedStorageEntry);
                         }
                     });
 
             // Batch processing can cause performance issues, so we give listeners a chance to deal with it by notifying
             // about start and end of iteration.
             hashMapChangedListeners.forEach(HashMapChangedListener::onBatchRemoveExpiredDataStarted);
+            typedHashMapChangedListeners.getAll().forEach(HashMapChangedListener::onBatchRemoveExpiredDataStarted);
             toRemoveSet.forEach(protectedStorageEntry -> {
-                hashMapChangedListeners.forEach(l -> l.onRemoved(protectedStorageEntry));
+                notifyRemoved(protectedStorageEntry);
                 removeFromProtectedDataStore(protectedStorageEntry);
             });
             hashMapChangedListeners.forEach(HashMapChangedListener::onBatchRemoveExpiredDataCompleted);
+            typedHashMapChangedListeners.getAll().forEach(HashMapChangedListener::onBatchRemoveExpiredDataCompleted);
 
             if (sequenceNumberMap.size() > 1000)
                 sequenceNumberMap.setMap(getPurgedSequenceNumberMap(sequenceNumberMap.getMap()));
@@ -223,6 +237,25 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         return protectedDataStoreService.getMap();
     }
 
+    /**
+     * @param payloadClass Class of the payloads. For a super class or an interface the payloads of all matching classes
+     *                     are returned.
+     * @return The entries of the map with a protectedStoragePayload of the payloadClass
+     */
+    public List<ProtectedStorageEntry> getProtectedStorageEntries(Class<? extends ProtectedStoragePayload> payloadClass) {
+        return protectedStorageEntriesByClass.getValues(payloadClass);
+    }
+
+    /**
+     * @param payloadClass Class of the payloads. For a super class or an interface the payloads of all matching classes
+     *                     are returned.
+     * @return The payloads of the payloadClass in the append-only data stores
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends PersistableNetworkPayload> List<T> getPersistableNetworkPayloads(Class<T> payloadClass) {
+        return (List<T>) appendOnlyPayloadsByClass.getValues(payloadClass);
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // MessageListener implementation
@@ -321,12 +354,13 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         byte[] hash = payload.getHash();
         if (payload.verifyHashSize()) {
             ByteArray hashAsByteArray = new ByteArray(hash);
-            boolean containsKey = getAppendOnlyDataStoreMap().containsKey(hashAsByteArray);
+            boolean containsKey = appendOnlyPayloadsByClass.contains(payload.getClass(), hashAsByteArray);
             if (!containsKey || reBroadcast) {
                 if (!(payload instanceof DateTolerantPayload) || !checkDate || ((DateTolerantPayload) payload).isDateInTolerance(clock)) {
                     if (!containsKey) {
-                        appendOnlyDataStoreService.put(hashAsByteArray, payload);
+                        putToAppendOnlyDataStore(hashAsByteArray, payload);
                         appendOnlyDataStoreListeners.forEach(e -> e.onAdded(payload));
+                        typedAppendOnlyDataStoreListeners.get(payload.getClass()).forEach(e -> e.onAdded(payload));
                     }
                     if (allowBroadcast)
                         broadcaster.broadcast(new AddPersistableNetworkPayloadMessage(payload), sender, null, isDataOwner);
@@ -357,7 +391,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         byte[] hash = payload.getHash();
         if (payload.verifyHashSize()) {
             ByteArray hashAsByteArray = new ByteArray(hash);
-            appendOnlyDataStoreService.put(hashAsByteArray, payload);
+            putToAppendOnlyDataStore(hashAsByteArray, payload);
             return true;
         } else {
             log.warn("We got a hash exceeding our permitted size");
@@ -401,8 +435,8 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
 
             if (!containsKey || hasSequenceNrIncreased) {
                 // At startup we don't have the item so we store it. At updates of the seq nr we store as well.
-                map.put(hashOfPayload, protectedStorageEntry);
-                hashMapChangedListeners.forEach(e -> e.onAdded(protectedStorageEntry));
+                putToMap(hashOfPayload, protectedStorageEntry);
+                notifyAdded(protectedStorageEntry);
                 // printData("after add");
             } else {
                 log.trace("We got that version of the data already, so we don't store it.");
@@ -574,7 +608,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         else
             sequenceNumber = 1;
 
-        byte[] hashOfDataAndSeqNr = P2PDataStorage.get32ByteHash(new DataAndSeqNrPair(protectedStoragePayload, sequenceNumber));
+        byte[] hashOfDataAndSeqNr = SerializedPayloadCache.getHashOfDataAndSeqNr(protectedStoragePayload, sequenceNumber);
         byte[] signature = Sig.sign(ownerStoragePubKey.getPrivate(), hashOfDataAndSeqNr);
         return new ProtectedStorageEntry(protectedStoragePayload, ownerStoragePubKey.getPublic(), sequenceNumber, signature);
     }
@@ -589,7 +623,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         else
             sequenceNumber = 1;
 
-        byte[] hashOfDataAndSeqNr = P2PDataStorage.get32ByteHash(new DataAndSeqNrPair(protectedStoragePayload, sequenceNumber));
+        byte[] hashOfDataAndSeqNr = SerializedPayloadCache.getHashOfDataAndSeqNr(protectedStoragePayload, sequenceNumber);
         byte[] signature = Sig.sign(ownerStoragePubKey.getPrivate(), hashOfDataAndSeqNr);
         return new RefreshOfferMessage(hashOfDataAndSeqNr, signature, hashOfPayload.bytes, sequenceNumber);
     }
@@ -605,7 +639,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         else
             sequenceNumber = 1;
 
-        byte[] hashOfDataAndSeqNr = P2PDataStorage.get32ByteHash(new DataAndSeqNrPair(expirableMailboxStoragePayload, sequenceNumber));
+        byte[] hashOfDataAndSeqNr = SerializedPayloadCache.getHashOfDataAndSeqNr(expirableMailboxStoragePayload, sequenceNumber);
         byte[] signature = Sig.sign(storageSignaturePubKey.getPrivate(), hashOfDataAndSeqNr);
         return new ProtectedMailboxStorageEntry(expirableMailboxStoragePayload,
                 storageSignaturePubKey.getPublic(), sequenceNumber, signature, receiversPublicKey);
@@ -615,17 +649,40 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         hashMapChangedListeners.add(hashMapChangedListener);
     }
 
+    /**
+     * Registers a listener which only gets notified about entries with a protectedStoragePayload of the payloadClass.
+     *
+     * @return The current entries of the payloadClass. Together with the notifications the listener gets all entries.
+     */
+    public List<ProtectedStorageEntry> addHashMapChangedListener(Class<? extends ProtectedStoragePayload> payloadClass,
+                                                                 HashMapChangedListener hashMapChangedListener) {
+        typedHashMapChangedListeners.add(payloadClass, hashMapChangedListener);
+        return getProtectedStorageEntries(payloadClass);
+    }
+
     public void removeHashMapChangedListener(HashMapChangedListener hashMapChangedListener) {
         hashMapChangedListeners.remove(hashMapChangedListener);
+        typedHashMapChangedListeners.remove(hashMapChangedListener);
     }
 
     public void addAppendOnlyDataStoreListener(AppendOnlyDataStoreListener listener) {
         appendOnlyDataStoreListeners.add(listener);
     }
 
-    @SuppressWarnings("unused")
+    /**
+     * Registers a listener which only gets notified about payloads of the payloadClass.
+     *
+     * @return The current payloads of the payloadClass. Together with the notifications the listener gets all payloads.
+     */
+    public <T extends PersistableNetworkPayload> List<T> addAppendOnlyDataStoreListener(Class<T> payloadClass,
+                                                                                         AppendOnlyDataStoreListener listener) {
+        typedAppendOnlyDataStoreListeners.add(payloadClass, listener);
+        return getPersistableNetworkPayloads(payloadClass);
+    }
+
     public void removeAppendOnlyDataStoreListener(AppendOnlyDataStoreListener listener) {
         appendOnlyDataStoreListeners.remove(listener);
+        typedAppendOnlyDataStoreListeners.remove(listener);
     }
 
     @SuppressWarnings("unused")
@@ -644,9 +701,39 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     private void doRemoveProtectedExpirableData(ProtectedStorageEntry protectedStorageEntry, ByteArray hashOfPayload) {
-        map.remove(hashOfPayload);
+        removeFromMap(hashOfPayload, protectedStorageEntry);
         log.trace("Data removed from our map. We broadcast the message to our peers.");
+        notifyRemoved(protectedStorageEntry);
+    }
+
+    private void putToMap(ByteArray hashOfPayload, ProtectedStorageEntry protectedStorageEntry) {
+        map.put(hashOfPayload, protectedStorageEntry);
+        protectedStorageEntriesByClass.put(protectedStorageEntry.getProtectedStoragePayload().getClass(),
+                hashOfPayload, protectedStorageEntry);
+    }
+
+    private void removeFromMap(ByteArray hashOfPayload, ProtectedStorageEntry protectedStorageEntry) {
+        ProtectedStorageEntry removed = map.remove(hashOfPayload);
+        // The stored entry might be another version of the payload
+        ProtectedStorageEntry entry = removed != null ? removed : protectedStorageEntry;
+        protectedStorageEntriesByClass.remove(entry.getProtectedStoragePayload().getClass(), hashOfPayload);
+    }
+
+    private void notifyAdded(ProtectedStorageEntry protectedStorageEntry) {
+        hashMapChangedListeners.forEach(e -> e.onAdded(protectedStorageEntry));
+        typedHashMapChangedListeners.get(protectedStorageEntry.getProtectedStoragePayload().getClass())
+                .forEach(e -> e.onAdded(protectedStorageEntry));
+    }
+
+    private void notifyRemoved(ProtectedStorageEntry protectedStorageEntry) {
         hashMapChangedListeners.forEach(e -> e.onRemoved(protectedStorageEntry));
+        typedHashMapChangedListeners.get(protectedStorageEntry.getProtectedStoragePayload().getClass())
+                .forEach(e -> e.onRemoved(protectedStorageEntry));
+    }
+
+    private void putToAppendOnlyDataStore(ByteArray hashAsByteArray, PersistableNetworkPayload payload) {
+        appendOnlyDataStoreService.put(hashAsByteArray, payload);
+        appendOnlyPayloadsByClass.put(payload.getClass(), hashAsByteArray, payload);
     }
 
     private boolean isSequenceNrValid(int newSequenceNumber, ByteArray hashOfData) {
@@ -711,7 +798,8 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     }
 
     private boolean checkSignature(ProtectedStorageEntry protectedStorageEntry) {
-        byte[] hashOfDataAndSeqNr = P2PDataStorage.get32ByteHash(new DataAndSeqNrPair(protectedStorageEntry.getProtectedStoragePayload(), protectedStorageEntry.getSequenceNumber()));
+        byte[] hashOfDataAndSeqNr = SerializedPayloadCache.getHashOfDataAndSeqNr(protectedStorageEntry.getProtectedStoragePayload(),
+                protectedStorageEntry.getSequenceNumber());
         return checkSignature(protectedStorageEntry.getOwnerPubKey(), hashOfDataAndSeqNr, protectedStorageEntry.getSignature());
     }
 
@@ -782,7 +870,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     }
 
     private ByteArray get32ByteHashAsByteArray(NetworkPayload data) {
-        return new ByteArray(P2PDataStorage.get32ByteHash(data));
+        return new ByteArray(SerializedPayloadCache.get32ByteHash(data));
     }
 
     public static ByteArray getCompactHashAsByteArray(ProtectedStoragePayload protectedStoragePayload) {
@@ -790,7 +878,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     }
 
     private static byte[] getCompactHash(ProtectedStoragePayload protectedStoragePayload) {
-        return Hash.getSha256Ripemd160hash(protectedStoragePayload.toProtoMessage().toByteArray());
+        return SerializedPayloadCache.getCompactHash(protectedStoragePayload);
     }
 
     // Get a new map with entries older than PURGE_AGE_DAYS purged from the given map.
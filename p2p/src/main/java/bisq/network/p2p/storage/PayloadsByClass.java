@@ -0,0 +1,56 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps values partitioned by the class of their payload, so all values of a payload type can be accessed without
+ * iterating over the values of the other types. A query by a super class or an interface combines the partitions of
+ * all matching classes.
+ */
+class PayloadsByClass<V> {
+    private final Map<Class<?>, Map<P2PDataStorage.ByteArray, V>> valuesByClass = new ConcurrentHashMap<>();
+
+    void put(Class<?> payloadClass, P2PDataStorage.ByteArray hash, V value) {
+        valuesByClass.computeIfAbsent(payloadClass, k -> new ConcurrentHashMap<>()).put(hash, value);
+    }
+
+    void remove(Class<?> payloadClass, P2PDataStorage.ByteArray hash) {
+        Map<P2PDataStorage.ByteArray, V> values = valuesByClass.get(payloadClass);
+        if (values != null)
+            values.remove(hash);
+    }
+
+    boolean contains(Class<?> payloadClass, P2PDataStorage.ByteArray hash) {
+        Map<P2PDataStorage.ByteArray, V> values = valuesByClass.get(payloadClass);
+        return values != null && values.containsKey(hash);
+    }
+
+    List<V> getValues(Class<?> payloadClass) {
+        List<V> result = new ArrayList<>();
+        valuesByClass.forEach((valueClass, values) -> {
+            if (payloadClass.isAssignableFrom(valueClass))
+                result.addAll(values.values());
+        });
+        return result;
+    }
+}
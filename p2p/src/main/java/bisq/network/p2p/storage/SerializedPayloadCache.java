@@ -0,0 +1,125 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage;
+
+import bisq.network.p2p.storage.payload.ProtectedStoragePayload;
+
+import bisq.common.crypto.Hash;
+import bisq.common.proto.network.NetworkPayload;
+
+import com.google.protobuf.CodedOutputStream;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.io.IOException;
+
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Keeps the serialized protobuf bytes and the hashes of the payloads we handle in the P2PDataStorage, so a payload
+ * gets serialized only once even if its hashes are requested multiple times (add, refresh, remove, sequence number
+ * and signature checks).
+ * The cache uses weak keys which are compared by identity, so an entry lives as long as the payload instance and we
+ * never need to call the expensive equals and hashCode methods of the payloads. Payloads must not be mutated after
+ * their hash got requested the first time. That is the case for all storage payloads as they get signed before they
+ * are added to the storage.
+ */
+final class SerializedPayloadCache {
+    // DataAndSeqNrPair field numbers in pb.proto
+    private static final int DATA_AND_SEQ_NR_PAIR_PAYLOAD_FIELD = 1;
+    private static final int DATA_AND_SEQ_NR_PAIR_SEQUENCE_NUMBER_FIELD = 2;
+
+    private static final Cache<NetworkPayload, SerializedPayload> CACHE = CacheBuilder.newBuilder()
+            .weakKeys()
+            .build();
+
+    private SerializedPayloadCache() {
+    }
+
+    static byte[] get32ByteHash(NetworkPayload payload) {
+        return getSerializedPayload(payload).get32ByteHash().clone();
+    }
+
+    static byte[] getCompactHash(ProtectedStoragePayload payload) {
+        return getSerializedPayload(payload).getCompactHash().clone();
+    }
+
+    // Same result as P2PDataStorage.get32ByteHash(new DataAndSeqNrPair(payload, sequenceNumber)) but we reuse the
+    // serialized payload as the DataAndSeqNrPair message contains only the payload and the sequence number.
+    static byte[] getHashOfDataAndSeqNr(ProtectedStoragePayload payload, int sequenceNumber) {
+        byte[] payloadBytes = getSerializedPayload(payload).getBytes();
+        int size = CodedOutputStream.computeByteArraySize(DATA_AND_SEQ_NR_PAIR_PAYLOAD_FIELD, payloadBytes);
+        // Proto3 does not serialize fields with the default value
+        if (sequenceNumber != 0)
+            size += CodedOutputStream.computeInt32Size(DATA_AND_SEQ_NR_PAIR_SEQUENCE_NUMBER_FIELD, sequenceNumber);
+
+        byte[] bytes = new byte[size];
+        CodedOutputStream outputStream = CodedOutputStream.newInstance(bytes);
+        try {
+            outputStream.writeByteArray(DATA_AND_SEQ_NR_PAIR_PAYLOAD_FIELD, payloadBytes);
+            if (sequenceNumber != 0)
+                outputStream.writeInt32(DATA_AND_SEQ_NR_PAIR_SEQUENCE_NUMBER_FIELD, sequenceNumber);
+            outputStream.checkNoSpaceLeft();
+        } catch (IOException e) {
+            // Cannot happen as we write to a byte array of the exact size
+            throw new IllegalStateException(e);
+        }
+        return Hash.getSha256Hash(bytes);
+    }
+
+    private static SerializedPayload getSerializedPayload(NetworkPayload payload) {
+        try {
+            return CACHE.get(payload, () -> new SerializedPayload(payload.toProtoMessage().toByteArray()));
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Static class
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static final class SerializedPayload {
+        private final byte[] bytes;
+        private volatile byte[] hash;
+        private volatile byte[] compactHash;
+
+        SerializedPayload(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        byte[] getBytes() {
+            return bytes;
+        }
+
+        // Concurrent calls might compute the hash twice which is harmless.
+        byte[] get32ByteHash() {
+            if (hash == null)
+                hash = Hash.getSha256Hash(bytes);
+            return hash;
+        }
+
+        byte[] getCompactHash() {
+            if (compactHash == null)
+                compactHash = Hash.getSha256Ripemd160hash(bytes);
+            return compactHash;
+        }
+    }
+}
@@ -21,6 +21,7 @@ import bisq.network.p2p.storage.P2PDataStorage;
 import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
 
 import bisq.common.proto.persistable.PersistableEnvelope;
+import bisq.common.util.PhaseGraph;
 
 import javax.inject.Inject;
 
@@ -58,10 +59,9 @@ public class AppendOnlyDataStoreService {
         services.add(service);
     }
 
-    public void readFromResources(String postFix) {
-        services.forEach(service -> service.readFromResources(postFix));
-
-        // transferDeprecatedDataStructure();
+    public void addReadFromResourcesPhases(PhaseGraph phaseGraph, String postFix) {
+        services.forEach(service -> phaseGraph.add(service.getClass().getSimpleName(),
+                () -> service.readFromResources(postFix)));
     }
 
     // Only needed for one time converting the old data store to the new ones. Can be removed after next release when we
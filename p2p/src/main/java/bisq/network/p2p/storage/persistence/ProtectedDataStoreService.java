@@ -21,6 +21,7 @@ import bisq.network.p2p.storage.P2PDataStorage;
 import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
 
 import bisq.common.proto.persistable.PersistableEnvelope;
+import bisq.common.util.PhaseGraph;
 
 import javax.inject.Inject;
 
@@ -51,8 +52,9 @@ public class ProtectedDataStoreService {
         services.add(service);
     }
 
-    public void readFromResources(String postFix) {
-        services.forEach(service -> service.readFromResources(postFix));
+    public void addReadFromResourcesPhases(PhaseGraph phaseGraph, String postFix) {
+        services.forEach(service -> phaseGraph.add(service.getClass().getSimpleName(),
+                () -> service.readFromResources(postFix)));
     }
 
     public Map<P2PDataStorage.ByteArray, ProtectedStorageEntry> getMap() {
@@ -18,6 +18,7 @@
 package bisq.network.p2p.storage.persistence;
 
 import bisq.common.proto.persistable.PersistableEnvelope;
+import bisq.common.util.PhaseGraph;
 
 import javax.inject.Inject;
 
@@ -42,7 +43,8 @@ public class ResourceDataStoreService {
         services.add(service);
     }
 
-    public void readFromResources(String postFix) {
-        services.forEach(service -> service.readFromResources(postFix));
+    public void addReadFromResourcesPhases(PhaseGraph phaseGraph, String postFix) {
+        services.forEach(service -> phaseGraph.add(service.getClass().getSimpleName(),
+                () -> service.readFromResources(postFix)));
     }
 }
@@ -0,0 +1,198 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.peers.keepalive;
+
+import bisq.network.p2p.network.CloseConnectionReason;
+import bisq.network.p2p.network.Connection;
+import bisq.network.p2p.network.NetworkNode;
+import bisq.network.p2p.network.OutboundConnection;
+import bisq.network.p2p.network.Statistic;
+import bisq.network.p2p.peers.PeerManager;
+import bisq.network.p2p.peers.keepalive.messages.Ping;
+import bisq.network.p2p.peers.keepalive.messages.Pong;
+
+import bisq.common.FrameRateTimer;
+import bisq.common.Timer;
+import bisq.common.UserThread;
+import bisq.common.proto.network.NetworkEnvelope;
+
+import com.google.common.util.concurrent.SettableFuture;
+
+import java.time.Duration;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
+
+public class KeepAliveManagerTest {
+    private static final int NUM_CONNECTIONS = 500;
+
+    // Counts the timers and never fires, the test advances the wheel itself
+    public static class CountingTimer implements Timer {
+        private static int numTimers;
+
+        @Override
+        public Timer runLater(Duration delay, Runnable action) {
+            numTimers++;
+            return this;
+        }
+
+        @Override
+        public Timer runPeriodically(Duration interval, Runnable runnable) {
+            numTimers++;
+            return this;
+        }
+
+        @Override
+        public void stop() {
+        }
+    }
+
+    private NetworkNode networkNode;
+    private KeepAliveManager keepAliveManager;
+    private Set<Connection> connections;
+    private Map<Connection, Ping> sentPings;
+
+    @Before
+    public void setUp() {
+        UserThread.setTimerClass(CountingTimer.class);
+        CountingTimer.numTimers = 0;
+
+        networkNode = mock(NetworkNode.class);
+        PeerManager peerManager = mock(PeerManager.class);
+        when(peerManager.getMaxConnections()).thenReturn(NUM_CONNECTIONS);
+
+        connections = new HashSet<>();
+        for (int i = 0; i < NUM_CONNECTIONS; i++)
+            connections.add(getConnection("uid" + i, Long.MAX_VALUE));
+        when(networkNode.getConfirmedConnections()).thenReturn(connections);
+
+        sentPings = new HashMap<>();
+        when(networkNode.sendMessage(any(Connection.class), any(NetworkEnvelope.class))).thenAnswer(invocation -> {
+            sentPings.put(invocation.getArgument(0), invocation.getArgument(1));
+            return SettableFuture.create();
+        });
+
+        keepAliveManager = new KeepAliveManager(networkNode, peerManager);
+    }
+
+    @After
+    public void tearDown() {
+        keepAliveManager.shutDown();
+        UserThread.setTimerClass(FrameRateTimer.class);
+    }
+
+    @Test
+    public void testOneTimerForAllConnections() {
+        keepAliveManager.keepAlive();
+
+        // Only the tick timer, no timer and no handler per connection
+        assertEquals(1, CountingTimer.numTimers);
+        assertEquals(NUM_CONNECTIONS, keepAliveManager.getNumScheduledPings());
+
+        advanceWheel();
+
+        assertEquals(0, keepAliveManager.getNumScheduledPings());
+        assertEquals(NUM_CONNECTIONS, sentPings.size());
+        assertEquals(1, CountingTimer.numTimers);
+    }
+
+    @Test
+    public void testPongUpdatesRoundTripTimes() {
+        keepAliveManager.keepAlive();
+        advanceWheel();
+
+        sentPings.forEach((connection, ping) -> keepAliveManager.onMessage(new Pong(ping.getNonce()), connection));
+        connections.forEach(connection -> assertEquals(1, connection.getStatistic().getNumRoundTripTimeSamples()));
+
+        // All pongs arrived, so all connections get pinged at the next round
+        sentPings.clear();
+        keepAliveManager.keepAlive();
+        advanceWheel();
+        assertEquals(NUM_CONNECTIONS, sentPings.size());
+    }
+
+    @Test
+    public void testPendingPingIsNotRepeated() {
+        keepAliveManager.keepAlive();
+        advanceWheel();
+
+        sentPings.clear();
+        keepAliveManager.keepAlive();
+        assertEquals(0, keepAliveManager.getNumScheduledPings());
+
+        // A pong with the wrong nonce does not complete the ping
+        Connection connection = connections.iterator().next();
+        keepAliveManager.onMessage(new Pong(0), connection);
+        assertEquals(0, connection.getStatistic().getNumRoundTripTimeSamples());
+    }
+
+    @Test
+    public void testRecentlyActiveConnectionsAreSkipped() {
+        connections.clear();
+        connections.add(getConnection("active", 1000));
+        connections.add(getConnection("idle", Long.MAX_VALUE));
+
+        keepAliveManager.keepAlive();
+        advanceWheel();
+
+        assertEquals(1, sentPings.size());
+        assertEquals("idle", sentPings.keySet().iterator().next().getUid());
+    }
+
+    @Test
+    public void testDisconnectedConnectionIsNotPinged() {
+        keepAliveManager.keepAlive();
+        List<Connection> disconnected = new ArrayList<>(connections).subList(0, 100);
+        disconnected.forEach(connection -> keepAliveManager.onDisconnect(CloseConnectionReason.RESET, connection));
+
+        advanceWheel();
+
+        assertEquals(NUM_CONNECTIONS - 100, sentPings.size());
+        disconnected.forEach(connection -> assertTrue(!sentPings.containsKey(connection)));
+    }
+
+    private void advanceWheel() {
+        for (int i = 0; i < 10; i++)
+            keepAliveManager.onTick();
+    }
+
+    private static Connection getConnection(String uid, long lastActivityAge) {
+        OutboundConnection connection = mock(OutboundConnection.class);
+        Statistic statistic = spy(new Statistic());
+        doReturn(lastActivityAge).when(statistic).getLastActivityAge();
+        when(connection.getUid()).thenReturn(uid);
+        when(connection.getStatistic()).thenReturn(statistic);
+        return connection;
+    }
+}
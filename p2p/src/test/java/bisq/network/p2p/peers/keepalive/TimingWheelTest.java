@@ -0,0 +1,88 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.peers.keepalive;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TimingWheelTest {
+
+    @Test
+    public void testItemsAreDueAfterTheirTicks() {
+        TimingWheel<String> wheel = new TimingWheel<>(4);
+        wheel.add(1, "a");
+        wheel.add(3, "c");
+        wheel.add(4, "d");
+        wheel.add(3, "c2");
+        assertEquals(4, wheel.size());
+
+        List<String> due = new ArrayList<>();
+        wheel.tick(due::add);
+        assertEquals(Collections.singletonList("a"), due);
+        due.clear();
+        wheel.tick(due::add);
+        assertTrue(due.isEmpty());
+        wheel.tick(due::add);
+        assertEquals(Arrays.asList("c", "c2"), due);
+        due.clear();
+        wheel.tick(due::add);
+        assertEquals(Collections.singletonList("d"), due);
+        assertTrue(wheel.isEmpty());
+    }
+
+    @Test
+    public void testItemAddedWhileTicking() {
+        TimingWheel<String> wheel = new TimingWheel<>(2);
+        wheel.add(1, "a");
+        List<String> due = new ArrayList<>();
+        wheel.tick(item -> {
+            due.add(item);
+            // Lands in the slot we are just processing, but is only due after a full revolution
+            wheel.add(2, item + "'");
+        });
+        assertEquals(Collections.singletonList("a"), due);
+        assertEquals(1, wheel.size());
+
+        wheel.tick(due::add);
+        wheel.tick(due::add);
+        assertEquals(Arrays.asList("a", "a'"), due);
+    }
+
+    @Test
+    public void testClear() {
+        TimingWheel<String> wheel = new TimingWheel<>(2);
+        wheel.add(1, "a");
+        wheel.clear();
+        assertTrue(wheel.isEmpty());
+        List<String> due = new ArrayList<>();
+        wheel.tick(due::add);
+        assertTrue(due.isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTicksOutOfRange() {
+        new TimingWheel<String>(2).add(3, "a");
+    }
+}
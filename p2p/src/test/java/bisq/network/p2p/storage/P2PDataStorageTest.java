@@ -2,6 +2,7 @@ package bisq.network.p2p.storage;
 
 import bisq.network.p2p.network.NetworkNode;
 import bisq.network.p2p.peers.Broadcaster;
+import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
 import bisq.network.p2p.storage.persistence.AppendOnlyDataStoreService;
 import bisq.network.p2p.storage.persistence.ProtectedDataStoreService;
 import bisq.network.p2p.storage.persistence.ResourceDataStoreService;
@@ -10,9 +11,16 @@ import bisq.common.storage.Storage;
 
 import java.time.Clock;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 public class P2PDataStorageTest {
     @Test
@@ -25,4 +33,53 @@ public class P2PDataStorageTest {
 
     }
 
+    @Test
+    public void testTypedAppendOnlyDataStoreListener() {
+        P2PDataStorage storage = new P2PDataStorage(mock(NetworkNode.class),
+                mock(Broadcaster.class),
+                mock(AppendOnlyDataStoreService.class),
+                mock(ProtectedDataStoreService.class), mock(ResourceDataStoreService.class),
+                mock(Storage.class), Clock.systemUTC());
+
+        PayloadA payloadA1 = mockPayload(PayloadA.class, 1);
+        PayloadA payloadA2 = mockPayload(PayloadA.class, 2);
+        PayloadB payloadB1 = mockPayload(PayloadB.class, 3);
+        add(storage, payloadA1);
+        add(storage, payloadB1);
+
+        List<PersistableNetworkPayload> addedA = new ArrayList<>();
+        List<PersistableNetworkPayload> addedAll = new ArrayList<>();
+        assertEquals(Arrays.asList(payloadA1), storage.addAppendOnlyDataStoreListener(PayloadA.class, addedA::add));
+        assertEquals(2, storage.addAppendOnlyDataStoreListener(PersistableNetworkPayload.class, addedAll::add).size());
+
+        add(storage, payloadA2);
+        add(storage, mockPayload(PayloadB.class, 4));
+        // Already added payloads are not notified again
+        add(storage, payloadA1);
+
+        assertEquals(Arrays.asList(payloadA2), addedA);
+        assertEquals(2, addedAll.size());
+        assertEquals(2, storage.getPersistableNetworkPayloads(PayloadA.class).size());
+        assertTrue(storage.getPersistableNetworkPayloads(PayloadB.class).contains(payloadB1));
+        assertEquals(4, storage.getPersistableNetworkPayloads(PersistableNetworkPayload.class).size());
+    }
+
+    private static void add(P2PDataStorage storage, PersistableNetworkPayload payload) {
+        storage.addPersistableNetworkPayload(payload, null, true, false, false, false);
+    }
+
+    private static <T extends PersistableNetworkPayload> T mockPayload(Class<T> payloadClass, int id) {
+        T payload = mock(payloadClass);
+        byte[] hash = new byte[20];
+        hash[0] = (byte) id;
+        when(payload.getHash()).thenReturn(hash);
+        when(payload.verifyHashSize()).thenReturn(true);
+        return payload;
+    }
+
+    private interface PayloadA extends PersistableNetworkPayload {
+    }
+
+    private interface PayloadB extends PersistableNetworkPayload {
+    }
 }
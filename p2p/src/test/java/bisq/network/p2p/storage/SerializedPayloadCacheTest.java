@@ -0,0 +1,71 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage;
+
+import bisq.network.p2p.NodeAddress;
+import bisq.network.p2p.PrefixedSealedAndSignedMessage;
+import bisq.network.p2p.storage.payload.MailboxStoragePayload;
+
+import bisq.common.crypto.Hash;
+import bisq.common.crypto.SealedAndSigned;
+import bisq.common.crypto.Sig;
+
+import java.security.KeyPair;
+
+import java.util.UUID;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+
+public class SerializedPayloadCacheTest {
+    private MailboxStoragePayload payload;
+
+    @Before
+    public void setup() {
+        KeyPair sender = Sig.generateKeyPair();
+        KeyPair receiver = Sig.generateKeyPair();
+        SealedAndSigned sealedAndSigned = new SealedAndSigned(new byte[]{1, 2, 3},
+                new byte[]{4, 5, 6},
+                new byte[]{7, 8, 9},
+                sender.getPublic());
+        PrefixedSealedAndSignedMessage message = new PrefixedSealedAndSignedMessage(new NodeAddress("localhost", 8000),
+                sealedAndSigned,
+                Hash.getSha256Hash("localhost"),
+                UUID.randomUUID().toString());
+        payload = new MailboxStoragePayload(message, sender.getPublic(), receiver.getPublic());
+    }
+
+    @Test
+    public void testHashesMatchSerialization() {
+        assertArrayEquals(P2PDataStorage.get32ByteHash(payload), SerializedPayloadCache.get32ByteHash(payload));
+        assertArrayEquals(Hash.getSha256Ripemd160hash(payload.toProtoMessage().toByteArray()),
+                SerializedPayloadCache.getCompactHash(payload));
+        // Second call is served from the cache
+        assertArrayEquals(P2PDataStorage.get32ByteHash(payload), SerializedPayloadCache.get32ByteHash(payload));
+    }
+
+    @Test
+    public void testHashOfDataAndSeqNrMatchesSerialization() {
+        for (int sequenceNumber : new int[]{0, 1, 127, 128, 300, Integer.MAX_VALUE, -1, Integer.MIN_VALUE}) {
+            byte[] expected = P2PDataStorage.get32ByteHash(new P2PDataStorage.DataAndSeqNrPair(payload, sequenceNumber));
+            assertArrayEquals(expected, SerializedPayloadCache.getHashOfDataAndSeqNr(payload, sequenceNumber));
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.price;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * An immutable JSON response body, encoded once together with its gzipped form and a
+ * strong ETag, such that requests can be served without serializing the data again.
+ *
+ * @see EncodedResponseCache
+ * @see PriceController#toResponseEntity(EncodedResponse, org.springframework.web.context.request.WebRequest)
+ */
+public final class EncodedResponse {
+
+    private final byte[] json;
+    private final byte[] gzippedJson;
+    private final String eTag;
+
+    private EncodedResponse(byte[] json, byte[] gzippedJson, String eTag) {
+        this.json = json;
+        this.gzippedJson = gzippedJson;
+        this.eTag = eTag;
+    }
+
+    /**
+     * Encode the given value as UTF-8 JSON with the given {@link ObjectMapper}. Use the
+     * application's mapper to get exactly the output Spring would have produced.
+     */
+    public static EncodedResponse of(ObjectMapper objectMapper, Object value) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(value);
+            return new EncodedResponse(json, gzip(json), "\"" + DigestUtils.md5DigestAsHex(json) + "\"");
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    // the arrays are never modified after construction, callers must not modify them either
+    byte[] getJson() {
+        return json;
+    }
+
+    byte[] getGzippedJson() {
+        return gzippedJson;
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+
+    /**
+     * @param ifNoneMatch value of an If-None-Match request header, may be null
+     * @return true if the header contains our ETag or a wildcard
+     */
+    boolean isMatchedBy(String ifNoneMatch) {
+        if (ifNoneMatch == null)
+            return false;
+
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            // If-None-Match uses the weak comparison function
+            if (candidate.startsWith("W/"))
+                candidate = candidate.substring(2);
+
+            if (candidate.equals("*") || candidate.equals(eTag))
+                return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.price;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Holds the {@link EncodedResponse} built from the current data of a list of
+ * {@link PriceProvider}s. Each provider only replaces its cached result when it
+ * refreshes, so comparing the results by identity tells us whether the response has to
+ * be built and encoded again. Requests in between are served from the same buffers.
+ */
+public class EncodedResponseCache {
+
+    private final List<? extends PriceProvider<?>> providers;
+    private final Supplier<Object> responseSupplier;
+    private final ObjectMapper objectMapper;
+
+    private volatile Entry entry;
+
+    /**
+     * @param providers        the providers the response is built from
+     * @param responseSupplier builds the response object from the current provider data
+     * @param objectMapper     the mapper used to encode the response
+     */
+    public EncodedResponseCache(List<? extends PriceProvider<?>> providers,
+                                Supplier<Object> responseSupplier,
+                                ObjectMapper objectMapper) {
+        this.providers = providers;
+        this.responseSupplier = responseSupplier;
+        this.objectMapper = objectMapper;
+    }
+
+    public EncodedResponse get() {
+        Entry current = entry;
+        if (current != null && current.isUpToDate())
+            return current.response;
+
+        synchronized (this) {
+            // another thread might have rebuilt the response in the meantime
+            current = entry;
+            if (current != null && current.isUpToDate())
+                return current.response;
+
+            // we take the provider results before building the response, so in the worst
+            // case a concurrent refresh causes one additional rebuild on the next request
+            List<Object> providerResults = new ArrayList<>(providers.size());
+            providers.forEach(p -> providerResults.add(p.get()));
+            current = new Entry(providerResults, EncodedResponse.of(objectMapper, responseSupplier.get()));
+            entry = current;
+            return current.response;
+        }
+    }
+
+    private class Entry {
+
+        private final List<Object> providerResults;
+        private final EncodedResponse response;
+
+        Entry(List<Object> providerResults, EncodedResponse response) {
+            this.providerResults = providerResults;
+            this.response = response;
+        }
+
+        boolean isUpToDate() {
+            for (int i = 0; i < providers.size(); i++) {
+                if (providers.get(i).get() != providerResults.get(i))
+                    return false;
+            }
+            return true;
+        }
+    }
+}
@@ -17,7 +17,12 @@
 
 package bisq.price;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.servlet.http.HttpServletRequest;
 
@@ -32,4 +37,30 @@ public abstract class PriceController {
     public void logRequest(HttpServletRequest request) {
         log.info("Incoming {} request from: {}", request.getServletPath(), request.getHeader("User-Agent"));
     }
+
+    /**
+     * Serve a pre-encoded response. Answers with 304 Not Modified if the client already
+     * has the current version and with the gzipped body if the client accepts it.
+     */
+    protected ResponseEntity<byte[]> toResponseEntity(EncodedResponse response, WebRequest request) {
+        if (response.isMatchedBy(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(response.getETag())
+                .build();
+        }
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON_UTF8)
+            .eTag(response.getETag())
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            return builder
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .body(response.getGzippedJson());
+        }
+
+        return builder.body(response.getJson());
+    }
 }
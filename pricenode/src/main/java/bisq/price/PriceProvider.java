@@ -36,7 +36,7 @@ public abstract class PriceProvider<T> implements SmartLifecycle, Supplier<T> {
 
     protected final Duration refreshInterval;
 
-    private T cachedResult;
+    private volatile T cachedResult;
 
     public PriceProvider(Duration refreshInterval) {
         this.refreshInterval = refreshInterval;
@@ -72,7 +72,7 @@ public abstract class PriceProvider<T> implements SmartLifecycle, Supplier<T> {
         }, refreshInterval.toMillis(), refreshInterval.toMillis());
     }
 
-    private void refresh() {
+    protected void refresh() {
         long ts = System.currentTimeMillis();
 
         cachedResult = doGet();
@@ -19,10 +19,10 @@ package bisq.price.mining;
 
 import bisq.price.PriceController;
 
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
-
-import java.util.Map;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 class FeeRateController extends PriceController {
@@ -34,7 +34,7 @@ class FeeRateController extends PriceController {
     }
 
     @GetMapping(path = "/getFees")
-    public Map<String, Object> getFees() {
-        return feeRateService.getFees();
+    public ResponseEntity<byte[]> getFees(WebRequest request) {
+        return toResponseEntity(feeRateService.getEncodedFees(), request);
     }
 }
@@ -17,8 +17,14 @@
 
 package bisq.price.mining;
 
+import bisq.price.EncodedResponse;
+import bisq.price.EncodedResponseCache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -31,8 +37,19 @@ class FeeRateService {
 
     private final Set<FeeRateProvider> providers;
 
-    public FeeRateService(Set<FeeRateProvider> providers) {
+    private final EncodedResponseCache feesCache;
+
+    public FeeRateService(Set<FeeRateProvider> providers, ObjectMapper objectMapper) {
         this.providers = providers;
+        this.feesCache = new EncodedResponseCache(new ArrayList<>(providers), this::getFees, objectMapper);
+    }
+
+    /**
+     * @return the result of {@link #getFees()} encoded as JSON, only rebuilt after one
+     * of the providers has refreshed its data
+     */
+    public EncodedResponse getEncodedFees() {
+        return feesCache.get();
     }
 
     public Map<String, Object> getFees() {
@@ -19,10 +19,11 @@ package bisq.price.spot;
 
 import bisq.price.PriceController;
 
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-
-import java.util.Map;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 class ExchangeRateController extends PriceController {
@@ -34,7 +35,11 @@ class ExchangeRateController extends PriceController {
     }
 
     @GetMapping(path = "/getAllMarketPrices")
-    public Map<String, Object> getAllMarketPrices() {
-        return exchangeRateService.getAllMarketPrices();
+    public ResponseEntity<byte[]> getAllMarketPrices(@RequestParam(value = "since", required = false) String since,
+                                                     WebRequest request) {
+        if (since != null)
+            return toResponseEntity(exchangeRateService.getEncodedMarketPricesSince(since), request);
+
+        return toResponseEntity(exchangeRateService.getEncodedAllMarketPrices(), request);
     }
 }
@@ -33,7 +33,7 @@ import java.util.Set;
  * higher order value will taking precedence over the provider with a lower value,
  * presuming that such providers are being iterated over in an ordered list.
  *
- * @see ExchangeRateService#ExchangeRateService(java.util.List)
+ * @see ExchangeRateService#ExchangeRateService(java.util.List, com.fasterxml.jackson.databind.ObjectMapper)
  */
 public abstract class ExchangeRateProvider extends PriceProvider<Set<ExchangeRate>> {
 
@@ -17,16 +17,24 @@
 
 package bisq.price.spot;
 
+import bisq.price.EncodedResponse;
+import bisq.price.EncodedResponseCache;
 import bisq.price.spot.providers.BitcoinAverage;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import org.springframework.stereotype.Service;
 
+import java.security.SecureRandom;
+
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,20 +46,91 @@ import org.slf4j.LoggerFactory;
 class ExchangeRateService {
     protected final Logger log = LoggerFactory.getLogger(this.getClass());
 
+    // Max. number of distinct cursors for which we keep the encoded response
+    private static final int MAX_CACHED_MARKET_PRICES_SINCE = 100;
+
     private final List<ExchangeRateProvider> providers;
 
+    private final ObjectMapper objectMapper;
+
+    private final EncodedResponseCache allMarketPricesCache;
+
+    // Responses for the cursors requested since the last refresh. Clients poll with the
+    // cursor of their last response, so there are only a few distinct values.
+    private final Map<String, EncodedResponse> marketPricesSinceCache = new ConcurrentHashMap<>();
+
+    private volatile EncodedResponse sourceOfMarketPricesSinceCache;
+
+    // The providers stamp their rates with their own clocks, so we cannot compare the
+    // timestamps of different providers. Instead we count the changes of the rates we serve
+    // and hand out the revision as cursor. The epoch makes sure we do not interpret a
+    // cursor of another pricenode or of an earlier run of this one.
+    private final String epoch = Long.toHexString(new SecureRandom().nextLong() & Long.MAX_VALUE);
+
+    // guarded by itself
+    private final Map<String, ExchangeRate> ratesByCurrency = new HashMap<>();
+
+    private final Map<String, Long> revisionByCurrency = new HashMap<>();
+
+    private long revision;
+
+    // Revision at which a currency was dropped the last time. Clients with an older cursor
+    // get all rates so they can drop it as well.
+    private long lastRemovalRevision;
+
     /**
      * Construct an {@link ExchangeRateService} with a list of all
      * {@link ExchangeRateProvider} implementations discovered via classpath scanning.
      *
-     * @param providers all {@link ExchangeRateProvider} implementations in ascending
-     *                  order of precedence
+     * @param providers    all {@link ExchangeRateProvider} implementations in ascending
+     *                     order of precedence
+     * @param objectMapper the application's mapper used to encode the responses
      */
-    public ExchangeRateService(List<ExchangeRateProvider> providers) {
+    public ExchangeRateService(List<ExchangeRateProvider> providers, ObjectMapper objectMapper) {
         this.providers = providers;
+        this.objectMapper = objectMapper;
+        this.allMarketPricesCache = new EncodedResponseCache(providers, this::getAllMarketPrices, objectMapper);
+    }
+
+    /**
+     * @return the result of {@link #getAllMarketPrices()} encoded as JSON, only rebuilt
+     * after one of the providers has refreshed its data
+     */
+    public EncodedResponse getEncodedAllMarketPrices() {
+        return allMarketPricesCache.get();
+    }
+
+    /**
+     * @param since cursor as delivered in the exchange rate data
+     * @return the result of {@link #getMarketPricesSince(String)} encoded as JSON
+     */
+    public EncodedResponse getEncodedMarketPricesSince(String since) {
+        EncodedResponse allMarketPrices = getEncodedAllMarketPrices();
+        synchronized (marketPricesSinceCache) {
+            if (allMarketPrices != sourceOfMarketPricesSinceCache ||
+                marketPricesSinceCache.size() >= MAX_CACHED_MARKET_PRICES_SINCE) {
+                marketPricesSinceCache.clear();
+                sourceOfMarketPricesSinceCache = allMarketPrices;
+            }
+        }
+        return marketPricesSinceCache.computeIfAbsent(since, key ->
+            EncodedResponse.of(objectMapper, getMarketPricesSince(key)));
     }
 
     public Map<String, Object> getAllMarketPrices() {
+        return getMarketPricesSince(null);
+    }
+
+    /**
+     * Same as {@link #getAllMarketPrices()} including all metadata, but the data only
+     * contains the exchange rates which changed after the response with the given cursor.
+     * If the cursor is unknown or a currency was dropped in the meantime, all rates are
+     * returned and {@code delta} is false, so the client replaces its rates instead of
+     * merging them.
+     *
+     * @param since the cursor of an earlier response or null to get all rates
+     */
+    public Map<String, Object> getMarketPricesSince(String since) {
         Map<String, Object> metadata = new LinkedHashMap<>();
         Map<String, ExchangeRate> allExchangeRates = new LinkedHashMap<>();
 
@@ -63,8 +142,21 @@ class ExchangeRateService {
             );
         });
 
+        String cursor;
+        boolean delta;
+        synchronized (ratesByCurrency) {
+            updateRevisions(allExchangeRates);
+            cursor = epoch + "-" + revision;
+            long sinceRevision = getRevision(since);
+            delta = sinceRevision >= lastRemovalRevision;
+            if (delta)
+                allExchangeRates.keySet().removeIf(currency -> revisionByCurrency.get(currency) <= sinceRevision);
+        }
+
         return new LinkedHashMap<String, Object>() {{
             putAll(metadata);
+            put("cursor", cursor);
+            put("delta", delta);
             // Use a sorted list by currency code to make comparision of json data between different
             // price nodes easier
             List<ExchangeRate> values = new ArrayList<>(allExchangeRates.values());
@@ -73,6 +165,35 @@ class ExchangeRateService {
         }};
     }
 
+    private void updateRevisions(Map<String, ExchangeRate> exchangeRates) {
+        long nextRevision = revision + 1;
+        exchangeRates.forEach((currency, exchangeRate) -> {
+            if (!exchangeRate.equals(ratesByCurrency.put(currency, exchangeRate)))
+                revisionByCurrency.put(currency, nextRevision);
+        });
+
+        boolean removed = ratesByCurrency.keySet().removeIf(currency -> !exchangeRates.containsKey(currency));
+        revisionByCurrency.keySet().retainAll(ratesByCurrency.keySet());
+        if (removed)
+            lastRemovalRevision = nextRevision;
+
+        if (removed || revisionByCurrency.containsValue(nextRevision))
+            revision = nextRevision;
+    }
+
+    // Returns -1 if the cursor was not issued by us, so all rates get delivered
+    private long getRevision(String cursor) {
+        if (cursor == null || !cursor.startsWith(epoch + "-"))
+            return -1;
+
+        try {
+            long cursorRevision = Long.parseLong(cursor.substring(epoch.length() + 1));
+            return cursorRevision <= revision ? cursorRevision : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
     private Map<String, Object> getMetadata(ExchangeRateProvider provider, Set<ExchangeRate> exchangeRates) {
         Map<String, Object> metadata = new LinkedHashMap<>();
 
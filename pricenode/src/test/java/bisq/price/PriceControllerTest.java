@@ -0,0 +1,116 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.price;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import java.util.Collections;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class PriceControllerTest {
+
+    private final PriceController controller = new PriceController() {
+    };
+
+    private final EncodedResponse response = EncodedResponse.of(new ObjectMapper(),
+        Collections.singletonMap("price", 8000.5));
+
+    @Test
+    public void testPlainResponse() {
+        ResponseEntity<byte[]> entity = controller.toResponseEntity(response, request(null, null));
+
+        assertEquals(HttpStatus.OK, entity.getStatusCode());
+        assertEquals("{\"price\":8000.5}", new String(entity.getBody(), StandardCharsets.UTF_8));
+        assertEquals(response.getETag(), entity.getHeaders().getETag());
+        assertNull(entity.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    public void testGzippedResponse() throws IOException {
+        ResponseEntity<byte[]> entity = controller.toResponseEntity(response, request(null, "gzip, deflate"));
+
+        assertEquals(HttpStatus.OK, entity.getStatusCode());
+        assertEquals("gzip", entity.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, entity.getHeaders().getFirst(HttpHeaders.VARY));
+        assertEquals(response.getETag(), entity.getHeaders().getETag());
+        assertArrayEquals(response.getJson(), gunzip(entity.getBody()));
+    }
+
+    @Test
+    public void testNotModified() {
+        for (String ifNoneMatch : new String[]{
+            response.getETag(),
+            "W/" + response.getETag(),
+            "\"other\", " + response.getETag(),
+            "*"}) {
+            ResponseEntity<byte[]> entity = controller.toResponseEntity(response, request(ifNoneMatch, "gzip"));
+
+            assertEquals(HttpStatus.NOT_MODIFIED, entity.getStatusCode());
+            assertEquals(response.getETag(), entity.getHeaders().getETag());
+            assertNull(entity.getBody());
+        }
+    }
+
+    @Test
+    public void testOtherETagIsModified() {
+        ResponseEntity<byte[]> entity = controller.toResponseEntity(response, request("\"other\"", null));
+
+        assertEquals(HttpStatus.OK, entity.getStatusCode());
+        assertArrayEquals(response.getJson(), entity.getBody());
+    }
+
+    private static WebRequest request(String ifNoneMatch, String acceptEncoding) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/getAllMarketPrices");
+        if (ifNoneMatch != null)
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        if (acceptEncoding != null)
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        return new ServletWebRequest(request);
+    }
+
+    private static byte[] gunzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = in.read(buffer)) != -1)
+                out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+}
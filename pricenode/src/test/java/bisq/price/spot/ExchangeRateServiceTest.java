@@ -0,0 +1,168 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.price.spot;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.time.Duration;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ExchangeRateServiceTest {
+
+    private TestProvider poloniex;
+    private TestProvider bitcoinAverage;
+    private ExchangeRateService service;
+
+    @Before
+    public void setUp() {
+        poloniex = new TestProvider("POLO", "poloniex");
+        bitcoinAverage = new TestProvider("BTCA_L", "btcAverage");
+        service = new ExchangeRateService(Arrays.asList(poloniex, bitcoinAverage), new ObjectMapper());
+    }
+
+    // The clock of BitcoinAverage is far behind the one of Poloniex. Its updates must get
+    // delivered nevertheless.
+    @Test
+    public void testDeltaWithProvidersOfDifferentClocks() {
+        poloniex.setRates(rate("XMR", 0.01, 2_000_000, "POLO"), rate("ETH", 0.03, 2_000_000, "POLO"));
+        bitcoinAverage.setRates(rate("USD", 8000, 1000, "BTCA_L"), rate("EUR", 7000, 1000, "BTCA_L"));
+
+        Map<String, Object> all = service.getAllMarketPrices();
+        assertEquals(Arrays.asList("ETH", "EUR", "USD", "XMR"), getCurrencies(all));
+        assertEquals(false, all.get("delta"));
+        String cursor = (String) all.get("cursor");
+
+        // Nothing changed
+        Map<String, Object> delta = service.getMarketPricesSince(cursor);
+        assertEquals(true, delta.get("delta"));
+        assertTrue(getCurrencies(delta).isEmpty());
+        assertEquals(cursor, delta.get("cursor"));
+
+        // Older than all Poloniex rates, but newer than the last EUR rate
+        bitcoinAverage.setRates(rate("USD", 8000, 1000, "BTCA_L"), rate("EUR", 7100, 1001, "BTCA_L"));
+        delta = service.getMarketPricesSince(cursor);
+        assertEquals(true, delta.get("delta"));
+        assertEquals(Arrays.asList("EUR"), getCurrencies(delta));
+        assertNotEquals(cursor, delta.get("cursor"));
+
+        // A rate with the same timestamp but another price is a change as well
+        String nextCursor = (String) delta.get("cursor");
+        poloniex.setRates(rate("XMR", 0.02, 2_000_000, "POLO"), rate("ETH", 0.03, 2_000_000, "POLO"));
+        delta = service.getMarketPricesSince(nextCursor);
+        assertEquals(Arrays.asList("XMR"), getCurrencies(delta));
+
+        // Clients with the first cursor get all changes since then
+        delta = service.getMarketPricesSince(cursor);
+        assertEquals(Arrays.asList("EUR", "XMR"), getCurrencies(delta));
+
+        // The metadata is always complete
+        assertEquals(2_000_000L, delta.get("poloniexTs"));
+        assertTrue(delta.containsKey("btcAverageTs"));
+    }
+
+    @Test
+    public void testDroppedCurrencyDeliversAllRates() {
+        poloniex.setRates(rate("XMR", 0.01, 2000, "POLO"), rate("ETH", 0.03, 2000, "POLO"));
+        bitcoinAverage.setRates(rate("USD", 8000, 1000, "BTCA_L"));
+        String cursor = (String) service.getAllMarketPrices().get("cursor");
+
+        poloniex.setRates(rate("XMR", 0.01, 2000, "POLO"));
+        Map<String, Object> result = service.getMarketPricesSince(cursor);
+        assertEquals(false, result.get("delta"));
+        assertEquals(Arrays.asList("USD", "XMR"), getCurrencies(result));
+
+        // After the client got all rates it gets deltas again
+        result = service.getMarketPricesSince((String) result.get("cursor"));
+        assertEquals(true, result.get("delta"));
+        assertTrue(getCurrencies(result).isEmpty());
+    }
+
+    @Test
+    public void testUnknownCursorDeliversAllRates() {
+        poloniex.setRates(rate("XMR", 0.01, 2000, "POLO"));
+        bitcoinAverage.setRates(rate("USD", 8000, 1000, "BTCA_L"));
+        String cursor = (String) service.getAllMarketPrices().get("cursor");
+
+        // Cursor of another pricenode, a cursor from the future and garbage
+        ExchangeRateService otherService = new ExchangeRateService(Arrays.asList(poloniex, bitcoinAverage), new ObjectMapper());
+        String otherCursor = (String) otherService.getAllMarketPrices().get("cursor");
+        String futureCursor = cursor.substring(0, cursor.indexOf('-') + 1) + "1000";
+        for (String since : Arrays.asList(otherCursor, futureCursor, "1557000000", "")) {
+            Map<String, Object> result = service.getMarketPricesSince(since);
+            assertEquals(false, result.get("delta"));
+            assertEquals(Arrays.asList("USD", "XMR"), getCurrencies(result));
+        }
+    }
+
+    @Test
+    public void testEncodedResponsesFollowRefresh() {
+        poloniex.setRates(rate("XMR", 0.01, 2000, "POLO"));
+        bitcoinAverage.setRates(rate("USD", 8000, 1000, "BTCA_L"));
+        String cursor = (String) service.getAllMarketPrices().get("cursor");
+        String eTag = service.getEncodedMarketPricesSince(cursor).getETag();
+        assertEquals(eTag, service.getEncodedMarketPricesSince(cursor).getETag());
+
+        bitcoinAverage.setRates(rate("USD", 8100, 1001, "BTCA_L"));
+        assertNotEquals(eTag, service.getEncodedMarketPricesSince(cursor).getETag());
+        assertFalse(service.getEncodedAllMarketPrices().getETag().isEmpty());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> getCurrencies(Map<String, Object> result) {
+        return ((List<ExchangeRate>) result.get("data")).stream()
+            .map(ExchangeRate::getCurrency)
+            .collect(Collectors.toList());
+    }
+
+    private static ExchangeRate rate(String currency, double price, long timestamp, String provider) {
+        return new ExchangeRate(currency, price, timestamp, provider);
+    }
+
+    private static class TestProvider extends ExchangeRateProvider {
+
+        private Set<ExchangeRate> rates;
+
+        TestProvider(String name, String prefix) {
+            super(name, prefix, Duration.ofDays(1));
+        }
+
+        void setRates(ExchangeRate... rates) {
+            this.rates = new HashSet<>(Arrays.asList(rates));
+            refresh();
+        }
+
+        @Override
+        protected Set<ExchangeRate> doGet() {
+            return rates;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.relay;
+
+import bisq.common.util.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Dispatches push notifications to one push provider.
+ * <p>
+ * Notifications are sent asynchronously with up to maxInFlight concurrent sends. Further notifications wait in a
+ * bounded queue which gets drained as soon as sends complete. If the queue is full the notification is rejected right
+ * away, so a slow provider cannot pile up requests. Sends which failed with a retryable error are retried with
+ * exponential backoff and random jitter.
+ */
+class PushDispatcher<T> {
+    private static final Logger log = LoggerFactory.getLogger(PushDispatcher.class);
+
+    interface Sender<T> {
+        // Completes with the result for the Bisq app, or exceptionally if the notification could not be delivered to
+        // the provider.
+        CompletableFuture<String> send(T notification);
+    }
+
+    private final String name;
+    private final Sender<T> sender;
+    private final Predicate<Throwable> isRetryable;
+    private final ScheduledExecutorService retryExecutor;
+    private final int maxInFlight;
+    private final int maxRetries;
+    private final long retryBaseDelayMs;
+    private final BlockingQueue<Pending<T>> queue;
+    private int inFlight;
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final AtomicLong numAccepted = new AtomicLong();
+    private final AtomicLong numRejected = new AtomicLong();
+    private final AtomicLong numRetried = new AtomicLong();
+    private final AtomicLong numFailed = new AtomicLong();
+    private final AtomicLong numDropped = new AtomicLong();
+
+    PushDispatcher(String name,
+                   Sender<T> sender,
+                   Predicate<Throwable> isRetryable,
+                   ScheduledExecutorService retryExecutor,
+                   int queueCapacity,
+                   int maxInFlight,
+                   int maxRetries,
+                   long retryBaseDelayMs) {
+        this.name = name;
+        this.sender = sender;
+        this.isRetryable = isRetryable;
+        this.retryExecutor = retryExecutor;
+        this.maxInFlight = maxInFlight;
+        this.maxRetries = maxRetries;
+        this.retryBaseDelayMs = retryBaseDelayMs;
+        queue = new LinkedBlockingQueue<>(queueCapacity);
+    }
+
+    CompletableFuture<String> dispatch(T notification) {
+        Pending<T> pending = new Pending<>(notification);
+        enqueue(pending);
+        return pending.result;
+    }
+
+    String getReport() {
+        int numInFlight;
+        synchronized (this) {
+            numInFlight = inFlight;
+        }
+        return String.format("%s: accepted=%d, rejected=%d, retried=%d, failed=%d, dropped=%d, queued=%d, " +
+                        "inFlight=%d, latency in ms: mean=%.0f, p50=%d, p99=%d, max=%d",
+                name, numAccepted.get(), numRejected.get(), numRetried.get(), numFailed.get(), numDropped.get(),
+                queue.size(), numInFlight, latency.getMean(), latency.getValueAtPercentile(50),
+                latency.getValueAtPercentile(99), latency.getMax());
+    }
+
+    private void enqueue(Pending<T> pending) {
+        if (queue.offer(pending)) {
+            sendQueued();
+        } else {
+            numDropped.incrementAndGet();
+            log.warn("Queue of {} is full. We drop the notification.", name);
+            pending.result.complete("Error: Too many pending notifications at " + name);
+        }
+    }
+
+    // Takes as many queued notifications as there are free slots and sends them together
+    private void sendQueued() {
+        List<Pending<T>> batch = new ArrayList<>();
+        synchronized (this) {
+            while (inFlight < maxInFlight) {
+                Pending<T> pending = queue.poll();
+                if (pending == null)
+                    break;
+
+                inFlight++;
+                batch.add(pending);
+            }
+        }
+        batch.forEach(this::send);
+    }
+
+    private void send(Pending<T> pending) {
+        long ts = System.currentTimeMillis();
+        CompletableFuture<String> future;
+        try {
+            future = sender.send(pending.notification);
+        } catch (Throwable t) {
+            future = new CompletableFuture<>();
+            future.completeExceptionally(t);
+        }
+
+        future.whenComplete((result, throwable) -> {
+            synchronized (this) {
+                inFlight--;
+            }
+
+            if (throwable == null) {
+                latency.record(System.currentTimeMillis() - ts);
+                if (RelayService.SUCCESS.equals(result))
+                    numAccepted.incrementAndGet();
+                else
+                    numRejected.incrementAndGet();
+                pending.result.complete(result);
+            } else {
+                onFailure(pending, throwable instanceof CompletionException && throwable.getCause() != null ?
+                        throwable.getCause() : throwable);
+            }
+
+            sendQueued();
+        });
+    }
+
+    private void onFailure(Pending<T> pending, Throwable throwable) {
+        if (pending.attempt < maxRetries && isRetryable.test(throwable)) {
+            long delay = getRetryDelay(pending.attempt);
+            pending.attempt++;
+            numRetried.incrementAndGet();
+            log.warn("Sending notification to {} failed. We retry in {} ms. {}", name, delay, throwable.toString());
+            retryExecutor.schedule(() -> enqueue(pending), delay, TimeUnit.MILLISECONDS);
+        } else {
+            numFailed.incrementAndGet();
+            log.error("Sending notification to {} failed after {} attempts", name, pending.attempt + 1, throwable);
+            pending.result.complete("Error: " + throwable.toString());
+        }
+    }
+
+    // A random delay between the half and the full exponential backoff, so that retries of notifications which failed
+    // at the same time get spread out.
+    private long getRetryDelay(int attempt) {
+        long maxDelay = retryBaseDelayMs << attempt;
+        return maxDelay / 2 + ThreadLocalRandom.current().nextLong(maxDelay / 2 + 1);
+    }
+
+
+    private static class Pending<T> {
+        private final T notification;
+        private final CompletableFuture<String> result = new CompletableFuture<>();
+        private int attempt;
+
+        Pending(T notification) {
+            this.notification = notification;
+        }
+    }
+}
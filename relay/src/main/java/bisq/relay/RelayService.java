@@ -17,13 +17,19 @@
 
 package bisq.relay;
 
+import bisq.common.util.Utilities;
+
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 
 import java.util.Scanner;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 
 import org.slf4j.Logger;
@@ -31,7 +37,9 @@ import org.slf4j.LoggerFactory;
 
 
 
+import com.google.api.core.ApiFuture;
 import com.google.auth.oauth2.GoogleCredentials;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.google.firebase.FirebaseApp;
 import com.google.firebase.FirebaseOptions;
 import com.google.firebase.messaging.FirebaseMessaging;
@@ -50,18 +58,44 @@ class RelayService {
     private static final String ANDROID_DATABASE_URL = "https://bisqnotifications.firebaseio.com";
     // Used in Bisq app to check for success state. We won't want a code dependency just for that string so we keep it
     // duplicated in core and here. Must not be changed.
-    private static final String SUCCESS = "success";
+    static final String SUCCESS = "success";
+
+    private static final int QUEUE_CAPACITY = 1000;
+    private static final int MAX_IN_FLIGHT = 100;
+    private static final int MAX_RETRIES = 3;
+    private static final long RETRY_BASE_DELAY_MS = 500;
+    private static final long RESPONSE_TIMEOUT_SEC = 30;
+    private static final long REPORT_INTERVAL_MIN = 10;
 
     private final String appleBundleId;
 
     private ApnsClient productionApnsClient;
     private ApnsClient devApnsClient; // used for iOS development in XCode
 
+    // Each provider has its own dispatcher so a slow provider does not delay the notifications for the others
+    private final PushDispatcher<SimpleApnsPushNotification> productionApnsDispatcher;
+    private final PushDispatcher<SimpleApnsPushNotification> devApnsDispatcher;
+    private final PushDispatcher<Message> androidDispatcher;
+
     RelayService(String appleCertPwPath, String appleCertPath, String appleBundleId, String androidCertPath) {
         this.appleBundleId = appleBundleId;
 
         setupForAndroid(androidCertPath);
         setupForApple(appleCertPwPath, appleCertPath);
+
+        ScheduledExecutorService executor = Utilities.getScheduledThreadPoolExecutor("RelayService", 1, 1, 60);
+        productionApnsDispatcher = new PushDispatcher<>("APNs", notification -> sendAppleMessage(productionApnsClient, notification),
+            RelayService::isRetryableAppleError, executor, QUEUE_CAPACITY, MAX_IN_FLIGHT, MAX_RETRIES, RETRY_BASE_DELAY_MS);
+        devApnsDispatcher = new PushDispatcher<>("APNs development", notification -> sendAppleMessage(devApnsClient, notification),
+            RelayService::isRetryableAppleError, executor, QUEUE_CAPACITY, MAX_IN_FLIGHT, MAX_RETRIES, RETRY_BASE_DELAY_MS);
+        androidDispatcher = new PushDispatcher<>("FCM", this::sendAndroidMessage,
+            RelayService::isRetryableAndroidError, executor, QUEUE_CAPACITY, MAX_IN_FLIGHT, MAX_RETRIES, RETRY_BASE_DELAY_MS);
+
+        executor.scheduleWithFixedDelay(() -> {
+            log.info(productionApnsDispatcher.getReport());
+            log.info(devApnsDispatcher.getReport());
+            log.info(androidDispatcher.getReport());
+        }, REPORT_INTERVAL_MIN, REPORT_INTERVAL_MIN, TimeUnit.MINUTES);
     }
 
     private void setupForAndroid(String androidCertPath) {
@@ -108,30 +142,8 @@ class RelayService {
         log.info("payload " + payload);
         SimpleApnsPushNotification simpleApnsPushNotification = new SimpleApnsPushNotification(apsTokenHex, appleBundleId, payload);
 
-        ApnsClient apnsClient = isProduction ? productionApnsClient : devApnsClient;
-        PushNotificationFuture<SimpleApnsPushNotification, PushNotificationResponse<SimpleApnsPushNotification>>
-            notificationFuture = apnsClient.sendNotification(simpleApnsPushNotification);
-        try {
-            PushNotificationResponse<SimpleApnsPushNotification> pushNotificationResponse = notificationFuture.get();
-            if (pushNotificationResponse.isAccepted()) {
-                log.info("Push notification accepted by APNs gateway.");
-                return SUCCESS;
-            } else {
-                String msg1 = "Notification rejected by the APNs gateway: " +
-                    pushNotificationResponse.getRejectionReason();
-                String msg2 = "";
-                if (pushNotificationResponse.getTokenInvalidationTimestamp() != null)
-                    msg2 = " and the token is invalid as of " +
-                        pushNotificationResponse.getTokenInvalidationTimestamp();
-
-                log.info(msg1 + msg2);
-                return "Error: " + msg1 + msg2;
-            }
-        } catch (InterruptedException | ExecutionException e) {
-            log.error(e.toString());
-            e.printStackTrace();
-            return "Error: " + e.toString();
-        }
+        PushDispatcher<SimpleApnsPushNotification> dispatcher = isProduction ? productionApnsDispatcher : devApnsDispatcher;
+        return getResult(dispatcher.dispatch(simpleApnsPushNotification));
     }
 
     String sendAndroidMessage(String apsTokenHex, String encryptedMessage, boolean useSound) {
@@ -143,14 +155,89 @@ class RelayService {
         if (useSound)
             messageBuilder.putData("sound", "default");
         Message message = messageBuilder.build();
+        return getResult(androidDispatcher.dispatch(message));
+    }
+
+    // The HTTP request waits for the result of its own notification only
+    private String getResult(CompletableFuture<String> future) {
         try {
-            FirebaseMessaging firebaseMessaging = FirebaseMessaging.getInstance();
-            firebaseMessaging.send(message);
-            return SUCCESS;
-        } catch (FirebaseMessagingException e) {
+            return future.get(RESPONSE_TIMEOUT_SEC, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            log.warn("No result for notification after {} sec", RESPONSE_TIMEOUT_SEC);
+            return "Error: No result from push provider after " + RESPONSE_TIMEOUT_SEC + " sec";
+        } catch (InterruptedException | ExecutionException e) {
             log.error(e.toString());
             e.printStackTrace();
             return "Error: " + e.toString();
         }
     }
+
+    private CompletableFuture<String> sendAppleMessage(ApnsClient apnsClient, SimpleApnsPushNotification notification) {
+        // The setup failed, so there is no point in retrying
+        if (apnsClient == null)
+            return CompletableFuture.completedFuture("Error: APNs client is not available");
+
+        CompletableFuture<String> result = new CompletableFuture<>();
+        PushNotificationFuture<SimpleApnsPushNotification, PushNotificationResponse<SimpleApnsPushNotification>>
+            notificationFuture = apnsClient.sendNotification(notification);
+        notificationFuture.addListener(future -> {
+            if (!notificationFuture.isSuccess()) {
+                result.completeExceptionally(notificationFuture.cause());
+                return;
+            }
+
+            PushNotificationResponse<SimpleApnsPushNotification> pushNotificationResponse = notificationFuture.getNow();
+            if (pushNotificationResponse.isAccepted()) {
+                log.info("Push notification accepted by APNs gateway.");
+                result.complete(SUCCESS);
+            } else {
+                String msg1 = "Notification rejected by the APNs gateway: " +
+                    pushNotificationResponse.getRejectionReason();
+                String msg2 = "";
+                if (pushNotificationResponse.getTokenInvalidationTimestamp() != null)
+                    msg2 = " and the token is invalid as of " +
+                        pushNotificationResponse.getTokenInvalidationTimestamp();
+
+                log.info(msg1 + msg2);
+                result.complete("Error: " + msg1 + msg2);
+            }
+        });
+        return result;
+    }
+
+    private CompletableFuture<String> sendAndroidMessage(Message message) {
+        // The setup failed, so there is no point in retrying
+        if (FirebaseApp.getApps().isEmpty())
+            return CompletableFuture.completedFuture("Error: Firebase is not initialized");
+
+        CompletableFuture<String> result = new CompletableFuture<>();
+        ApiFuture<String> future = FirebaseMessaging.getInstance().sendAsync(message);
+        future.addListener(() -> {
+            try {
+                future.get();
+                result.complete(SUCCESS);
+            } catch (ExecutionException e) {
+                result.completeExceptionally(e.getCause());
+            } catch (InterruptedException e) {
+                result.completeExceptionally(e);
+            }
+        }, MoreExecutors.directExecutor());
+        return result;
+    }
+
+    // Rejections by the gateway are not retried as they are part of the response. Failures are connection problems.
+    private static boolean isRetryableAppleError(Throwable throwable) {
+        return !(throwable instanceof IllegalArgumentException);
+    }
+
+    // Errors caused by the message or the token are not retried
+    private static boolean isRetryableAndroidError(Throwable throwable) {
+        if (!(throwable instanceof FirebaseMessagingException))
+            return true;
+
+        String errorCode = ((FirebaseMessagingException) throwable).getErrorCode();
+        return "internal-error".equals(errorCode) ||
+            "server-unavailable".equals(errorCode) ||
+            "unknown-error".equals(errorCode);
+    }
 }
@@ -0,0 +1,265 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.relay;
+
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PushDispatcherTest {
+    private static final long RETRY_BASE_DELAY_MS = 100;
+
+    private FakeSender sender;
+    private ManualScheduler scheduler;
+
+    @Before
+    public void setUp() {
+        sender = new FakeSender();
+        scheduler = new ManualScheduler();
+    }
+
+    @Test
+    public void testFullQueueDropsNotification() {
+        PushDispatcher<String> dispatcher = createDispatcher(2, 1, 3);
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++)
+            results.add(dispatcher.dispatch("n" + i));
+
+        // One is sent, two are queued and the last one is rejected right away
+        assertEquals(1, sender.sends.size());
+        assertFalse(results.get(2).isDone());
+        assertTrue(results.get(3).isDone());
+        assertTrue(results.get(3).join().startsWith("Error: Too many pending notifications"));
+
+        // The queued ones get sent after the first one completed
+        sender.complete(0, RelayService.SUCCESS);
+        assertEquals(2, sender.sends.size());
+        assertEquals(RelayService.SUCCESS, results.get(0).join());
+        assertTrue(dispatcher.getReport().contains("dropped=1"));
+    }
+
+    @Test
+    public void testMaxInFlight() {
+        PushDispatcher<String> dispatcher = createDispatcher(100, 3, 3);
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (int i = 0; i < 10; i++)
+            results.add(dispatcher.dispatch("n" + i));
+        assertEquals(3, sender.getNumInFlight());
+
+        // We complete them out of order. A completed send frees its slot for the next queued notification.
+        sender.complete(1, RelayService.SUCCESS);
+        assertEquals(3, sender.getNumInFlight());
+        assertEquals("n3", sender.sends.get(3).notification);
+
+        for (int i = 0; i < sender.sends.size(); i++) {
+            if (!sender.sends.get(i).future.isDone()) {
+                assertTrue(sender.getNumInFlight() <= 3);
+                sender.complete(i, RelayService.SUCCESS);
+            }
+        }
+        assertEquals(10, sender.sends.size());
+        assertEquals(0, sender.getNumInFlight());
+        results.forEach(result -> assertEquals(RelayService.SUCCESS, result.join()));
+    }
+
+    @Test
+    public void testRetryWithBackoff() {
+        PushDispatcher<String> dispatcher = createDispatcher(100, 1, 3);
+        CompletableFuture<String> result = dispatcher.dispatch("n");
+
+        // Each retry waits between the half and the full doubled delay
+        long maxDelay = RETRY_BASE_DELAY_MS;
+        for (int attempt = 0; attempt < 3; attempt++) {
+            sender.fail(attempt, new IOException("connection reset"));
+            assertEquals(1, scheduler.tasks.size());
+            long delay = scheduler.tasks.get(0).delayMs;
+            assertTrue(delay >= maxDelay / 2 && delay <= maxDelay);
+            assertFalse(result.isDone());
+
+            scheduler.runAll();
+            assertEquals(attempt + 2, sender.sends.size());
+            maxDelay *= 2;
+        }
+
+        // We give up after the last retry
+        sender.fail(3, new IOException("connection reset"));
+        assertTrue(scheduler.tasks.isEmpty());
+        assertTrue(result.join().startsWith("Error: java.io.IOException"));
+        assertTrue(dispatcher.getReport().contains("retried=3, failed=1"));
+    }
+
+    @Test
+    public void testRetriedNotificationSucceeds() {
+        PushDispatcher<String> dispatcher = createDispatcher(100, 1, 3);
+        CompletableFuture<String> result = dispatcher.dispatch("n");
+        sender.fail(0, new IOException("connection reset"));
+        scheduler.runAll();
+        sender.complete(1, RelayService.SUCCESS);
+        assertEquals(RelayService.SUCCESS, result.join());
+    }
+
+    @Test
+    public void testNonRetryableError() {
+        PushDispatcher<String> dispatcher = createDispatcher(100, 1, 3);
+        CompletableFuture<String> result = dispatcher.dispatch("n");
+        sender.fail(0, new IllegalArgumentException("bad token"));
+        assertTrue(scheduler.tasks.isEmpty());
+        assertTrue(result.join().startsWith("Error: java.lang.IllegalArgumentException"));
+        assertEquals(1, sender.sends.size());
+    }
+
+    // A sender which throws instead of returning a failed future is handled the same way
+    @Test
+    public void testSenderThrows() {
+        PushDispatcher<String> dispatcher = new PushDispatcher<>("test", notification -> {
+            throw new IllegalArgumentException("bad token");
+        }, PushDispatcherTest::isRetryable, scheduler, 100, 1, 3, RETRY_BASE_DELAY_MS);
+        assertTrue(dispatcher.dispatch("n1").join().startsWith("Error: java.lang.IllegalArgumentException"));
+        // The slot got freed
+        assertTrue(dispatcher.dispatch("n2").join().startsWith("Error: java.lang.IllegalArgumentException"));
+        assertTrue(scheduler.tasks.isEmpty());
+    }
+
+    private PushDispatcher<String> createDispatcher(int queueCapacity, int maxInFlight, int maxRetries) {
+        return new PushDispatcher<>("test", sender, PushDispatcherTest::isRetryable, scheduler, queueCapacity,
+                maxInFlight, maxRetries, RETRY_BASE_DELAY_MS);
+    }
+
+    private static boolean isRetryable(Throwable throwable) {
+        return !(throwable instanceof IllegalArgumentException);
+    }
+
+
+    private static class Send {
+        private final String notification;
+        private final CompletableFuture<String> future = new CompletableFuture<>();
+
+        Send(String notification) {
+            this.notification = notification;
+        }
+    }
+
+    // Keeps the sends open until the test completes them
+    private static class FakeSender implements PushDispatcher.Sender<String> {
+        private final List<Send> sends = new ArrayList<>();
+
+        @Override
+        public CompletableFuture<String> send(String notification) {
+            Send send = new Send(notification);
+            sends.add(send);
+            return send.future;
+        }
+
+        void complete(int index, String result) {
+            sends.get(index).future.complete(result);
+        }
+
+        void fail(int index, Throwable throwable) {
+            sends.get(index).future.completeExceptionally(throwable);
+        }
+
+        long getNumInFlight() {
+            return sends.stream().filter(send -> !send.future.isDone()).count();
+        }
+    }
+
+    private static class Task {
+        private final Runnable runnable;
+        private final long delayMs;
+
+        Task(Runnable runnable, long delayMs) {
+            this.runnable = runnable;
+            this.delayMs = delayMs;
+        }
+    }
+
+    // Runs the scheduled tasks only when the test asks for it
+    private static class ManualScheduler extends AbstractExecutorService implements ScheduledExecutorService {
+        private final List<Task> tasks = new ArrayList<>();
+
+        void runAll() {
+            List<Task> toRun = new ArrayList<>(tasks);
+            tasks.clear();
+            toRun.forEach(task -> task.runnable.run());
+        }
+
+        @Override
+        public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+            tasks.add(new Task(command, unit.toMillis(delay)));
+            return null;
+        }
+
+        @Override
+        public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return new ArrayList<>();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+    }
+}